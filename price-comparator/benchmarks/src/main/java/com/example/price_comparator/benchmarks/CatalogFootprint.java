@@ -0,0 +1,175 @@
+package com.example.price_comparator.benchmarks;
+
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.model.RetailerInfo;
+import com.example.price_comparator.model.SpecificationInfo;
+import com.example.price_comparator.service.ProductCatalog;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures the retained heap of a fully loaded catalog, once as plain {@link ProductDocument}s
+ * (the layout before {@code CompactProduct}) and once through {@link ProductCatalog}.
+ *
+ * Products are synthetic but shaped like RapidAPI detail responses, and every string is a fresh
+ * instance, as it would be after deserializing from Firebase. Run with a fixed heap, e.g.
+ * {@code java -Xmx4g -cp target/benchmarks.jar com.example.price_comparator.benchmarks.CatalogFootprint 200000}.
+ */
+public final class CatalogFootprint {
+
+    private static final String[] BRANDS = {"Samsung", "Apple", "Sony", "LG", "Lenovo", "HP", "Dell", "Xiaomi", "Huawei", "Anker"};
+    private static final String[] COLORS = {"Black", "White", "Silver", "Blue", "Titanium Gray", "Midnight", "Green"};
+    private static final String[] STORAGE = {"64 GB", "128 GB", "256 GB", "512 GB", "1 TB"};
+    private static final String[] RAM = {"4 GB", "6 GB", "8 GB", "12 GB", "16 GB"};
+    private static final String[] SPEC_NAMES = {"Brand", "Model Name", "Color", "Storage Capacity", "RAM", "Screen Size",
+            "Operating System", "Battery Capacity", "Item Weight", "Product Dimensions", "Connectivity Technology",
+            "Wireless Network Technology", "Cellular Technology", "Manufacturer", "Country of Origin"};
+    private static final String[] RETAILERS = {"amazon", "noon", "sharafdg", "carrefour", "jumbo"};
+    private static final String WORDS = "display battery camera fast charging premium design lightweight durable "
+            + "performance processor memory storage wireless bluetooth water resistant screen resolution audio";
+
+    private CatalogFootprint() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        long baseline = usedHeapAfterGc();
+        Map<String, ProductDocument> documents = new ConcurrentHashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            ProductDocument product = syntheticProduct(random, i);
+            documents.put(product.getId(), product);
+        }
+        long documentBytes = usedHeapAfterGc() - baseline;
+        report("ProductDocument map", count, documentBytes);
+        documents.clear();
+        documents = null;
+
+        baseline = usedHeapAfterGc();
+        ProductCatalog catalog = new ProductCatalog();
+        random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            catalog.put(syntheticProduct(random, i));
+        }
+        long compactBytes = usedHeapAfterGc() - baseline;
+        report("ProductCatalog (compact)", count, compactBytes);
+        System.out.printf("Reduction: %.1f%%  (catalog still holds %d products)%n",
+                100.0 * (documentBytes - compactBytes) / documentBytes, catalog.size());
+    }
+
+    private static void report(String label, int count, long bytes) {
+        System.out.printf("%-26s %,12d bytes  %,8d bytes/product%n", label, bytes, bytes / count);
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long previous = Long.MAX_VALUE;
+        // Repeat until the number settles, since one System.gc() may leave garbage behind
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            Thread.sleep(100);
+            long used = memory.getHeapMemoryUsage().getUsed();
+            if (Math.abs(previous - used) < 64 * 1024) {
+                return used;
+            }
+            previous = used;
+        }
+        return previous;
+    }
+
+    static ProductDocument syntheticProduct(Random random, int index) {
+        String brand = pick(random, BRANDS);
+        String color = pick(random, COLORS);
+        String storage = pick(random, STORAGE);
+        String ram = pick(random, RAM);
+        String asin = String.format("B0%08X", index);
+
+        ProductDocument product = new ProductDocument();
+        product.setId(asin);
+        product.setName(fresh(brand + " Model " + index + " Smartphone, " + storage + ", " + ram + " RAM, " + color + ", Dual SIM"));
+        product.setBrand(fresh(brand));
+        product.setModel(fresh("M" + (index % 5000)));
+        product.setStorage(fresh(storage));
+        product.setRam(fresh(ram));
+        product.setColor(fresh(color));
+        product.setImageUrl(fresh("https://m.media-amazon.com/images/I/" + asin + "._AC_SL1500_.jpg"));
+        product.setRating(3.0 + random.nextInt(20) / 10.0);
+        product.setReviews(random.nextInt(20_000));
+        double price = 200 + random.nextInt(500_000) / 100.0;
+        product.setPrice(fresh(String.format("AED %,.2f", price)));
+        product.setCurrency(fresh("AED"));
+        product.setProductUrl(fresh("https://www.amazon.ae/dp/" + asin));
+        product.setAvailability(fresh("In Stock"));
+        product.setDescription(sentence(random, 90));
+        List<String> about = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            about.add(sentence(random, 25));
+        }
+        product.setAbout(about);
+        List<String> photos = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            photos.add(fresh("https://m.media-amazon.com/images/I/" + asin + "-" + i + "._AC_SL1500_.jpg"));
+        }
+        product.setPhotos(photos);
+
+        Map<String, String> information = new LinkedHashMap<>();
+        List<SpecificationInfo> specifications = new ArrayList<>();
+        for (String name : SPEC_NAMES) {
+            String value = switch (name) {
+                case "Brand", "Manufacturer" -> brand;
+                case "Color" -> color;
+                case "Storage Capacity" -> storage;
+                case "RAM" -> ram;
+                case "Screen Size" -> (5 + random.nextInt(30) / 10.0) + " Inches";
+                case "Item Weight" -> (150 + random.nextInt(100)) + " g";
+                default -> name.length() % 2 == 0 ? "Yes" : "Android 14";
+            };
+            information.put(fresh(name), fresh(value));
+            specifications.add(new SpecificationInfo(fresh(name), fresh(value)));
+        }
+        product.setProductInformation(new HashMap<>(information));
+        product.setSpecifications(specifications);
+
+        List<RetailerInfo> retailers = new ArrayList<>();
+        int offers = 1 + random.nextInt(3);
+        for (int i = 0; i < offers; i++) {
+            String retailer = RETAILERS[i];
+            retailers.add(new RetailerInfo(fresh(retailer), fresh(retailer.toUpperCase() + ".ae"),
+                    fresh("https://logos.example/" + retailer + ".svg"), price * (1 + i * 0.03), true, i == 0, 0,
+                    fresh("https://" + retailer + ".ae/p/" + asin)));
+        }
+        product.setRetailers(retailers);
+        product.setLastChecked(new Date(System.currentTimeMillis() - random.nextInt(86_400_000)));
+        return product;
+    }
+
+    private static String sentence(Random random, int words) {
+        String[] vocabulary = WORDS.split(" ");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(vocabulary[random.nextInt(vocabulary.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String fresh(String value) {
+        return new String(value.toCharArray());
+    }
+}
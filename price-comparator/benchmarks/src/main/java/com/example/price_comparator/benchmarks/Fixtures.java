@@ -0,0 +1,142 @@
+package com.example.price_comparator.benchmarks;
+
+import com.example.price_comparator.dto.ShoppingProduct;
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.model.RetailerInfo;
+import com.example.price_comparator.model.SpecificationInfo;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Inputs built from the recorded payloads under {@code src/test/resources/replay}.
+ */
+final class Fixtures {
+
+    static final String SEARCH_QUERY = "samsung galaxy s24 256gb";
+
+    private Fixtures() {
+    }
+
+    static String load(String path) {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream("replay/" + path)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture replay/" + path);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** The recorded organic shopping results, repeated up to {@code size} items. */
+    static JSONArray organicResults(int size) {
+        JSONArray recorded = new JSONObject(load("google_shopping_search/default.json"))
+                .getJSONArray("results").getJSONObject(0)
+                .getJSONObject("content").getJSONObject("results")
+                .getJSONArray("organic");
+        JSONArray items = new JSONArray();
+        for (int i = 0; i < size; i++) {
+            JSONObject item = new JSONObject(recorded.getJSONObject(i % recorded.length()).toString());
+            item.put("pos", i + 1);
+            items.put(item);
+        }
+        return items;
+    }
+
+    /** A full search response, in the shape {@code extractProducts} receives. */
+    static JSONArray searchResults(int organicItems) {
+        JSONObject results = new JSONObject().put("organic", organicResults(organicItems));
+        return new JSONArray().put(new JSONObject().put("content", new JSONObject().put("results", results)));
+    }
+
+    static ProductDocument amazonProduct() {
+        JSONObject data = new JSONObject(load("amazon_product_details/default.json")).getJSONObject("data");
+        ProductDocument product = new ProductDocument();
+        product.setId(data.getString("asin"));
+        product.setName(data.getString("product_title"));
+        product.setDescription(data.optString("product_description", null));
+        product.setProductUrl(data.getString("product_url"));
+        product.setImageUrl(data.getString("product_photo"));
+        product.setPrice(data.getString("product_price"));
+        product.setOriginalPrice(data.optString("product_original_price", null));
+        product.setCurrency(data.getString("currency"));
+        product.setRating(data.optDouble("product_star_rating", 0.0));
+        product.setReviews(data.optInt("product_num_ratings", 0));
+        product.setBrand("Samsung");
+        product.setModel("Galaxy S24");
+        product.setStorage("256 GB");
+        product.setRam("8 GB");
+        product.setColor("Onyx Black");
+        product.setLastChecked(new Date(0));
+        product.setAbout(Arrays.asList("6.2 inch FHD+ display", "50MP triple camera"));
+
+        List<SpecificationInfo> specifications = new ArrayList<>();
+        JSONObject information = data.getJSONObject("product_information");
+        for (String key : information.keySet()) {
+            specifications.add(new SpecificationInfo(key, information.getString(key)));
+        }
+        product.setSpecifications(specifications);
+        return product;
+    }
+
+    /** {@link #amazonProduct()} with one retailer offer per recorded shopping result. */
+    static ProductDocument comparedProduct(int offers) {
+        ProductDocument product = amazonProduct();
+        JSONArray organic = organicResults(offers);
+        for (int i = 0; i < organic.length(); i++) {
+            JSONObject item = organic.getJSONObject(i);
+            JSONObject merchant = item.getJSONObject("merchant");
+            product.getRetailers().add(new RetailerInfo(merchant.getString("name").toLowerCase() + "-" + i,
+                    merchant.getString("name"), null, item.getDouble("price"), true, false, 0.0, item.getString("url")));
+        }
+        return product;
+    }
+
+    static List<ShoppingProduct> shoppingProducts(int size) {
+        JSONArray organic = organicResults(size);
+        List<ShoppingProduct> products = new ArrayList<>();
+        for (int i = 0; i < organic.length(); i++) {
+            JSONObject item = organic.getJSONObject(i);
+            ShoppingProduct product = new ShoppingProduct();
+            product.setTitle(item.getString("title"));
+            product.setPrice(item.getDouble("price"));
+            product.setSeller(item.getJSONObject("merchant").getString("name"));
+            product.setProductLink(item.getString("url") + "?utm_source=google&utm_medium=cpc&ref=" + i);
+            product.setImageUrl(item.optString("thumbnail", null));
+            products.add(product);
+        }
+        return products;
+    }
+
+    /** Catalog-like search candidates: the recorded products plus unrelated accessories. */
+    static List<ProductDocument> searchCandidates(int size) {
+        String[] accessories = {
+                "Spigen Ultra Hybrid Case for Samsung Galaxy S24, Crystal Clear",
+                "Anker 20W USB-C Fast Charger for iPhone and Samsung",
+                "Tempered Glass Screen Protector 3 Pack Compatible with Galaxy S24",
+                "Apple iPhone 15 Pro 256GB Natural Titanium",
+                "Samsung Galaxy S24 Ultra 512GB Titanium Gray"
+        };
+        List<ShoppingProduct> recorded = shoppingProducts(3);
+        List<ProductDocument> candidates = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ProductDocument candidate = new ProductDocument();
+            candidate.setId("candidate-" + i);
+            candidate.setName(i % 2 == 0 ? recorded.get(i % recorded.size()).getTitle() : accessories[i % accessories.length]);
+            candidate.setDescription("Imported listing " + i);
+            candidate.setRating(3.5 + (i % 3) * 0.5);
+            candidate.setReviews(100 + i);
+            candidates.add(candidate);
+        }
+        return candidates;
+    }
+}
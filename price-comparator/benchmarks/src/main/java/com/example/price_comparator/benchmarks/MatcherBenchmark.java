@@ -0,0 +1,76 @@
+package com.example.price_comparator.benchmarks;
+
+import com.example.price_comparator.dto.ShoppingProduct;
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.service.ProductMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offer matching, URL de-duplication and search ranking in {@link ProductMatcher}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatcherBenchmark {
+
+    private ProductDocument original;
+    private List<ShoppingProduct> offers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        original = Fixtures.amazonProduct();
+        offers = Fixtures.shoppingProducts(20);
+    }
+
+    /** Matches one product against a typical batch of 20 scraped offers. */
+    @Benchmark
+    public void isMatch(Blackhole blackhole) {
+        for (ShoppingProduct offer : offers) {
+            blackhole.consume(ProductMatcher.isMatch(original, offer));
+        }
+    }
+
+    @Benchmark
+    public void normalizeUrl(Blackhole blackhole) {
+        for (ShoppingProduct offer : offers) {
+            blackhole.consume(ProductMatcher.normalizeUrl(offer.getProductLink()));
+        }
+    }
+
+    /** Search candidates ranked per query; only the ranking benchmark depends on the count. */
+    @State(Scope.Benchmark)
+    public static class Candidates {
+        @Param({"50", "500"})
+        public int candidateCount;
+
+        private List<ProductDocument> products;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            products = Fixtures.searchCandidates(candidateCount);
+        }
+    }
+
+    @Benchmark
+    public List<ProductDocument> filterAndRankByRelevance(Candidates candidates) {
+        return ProductMatcher.filterAndRankByRelevance(candidates.products, Fixtures.SEARCH_QUERY);
+    }
+}
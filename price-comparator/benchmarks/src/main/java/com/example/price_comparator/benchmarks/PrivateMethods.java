@@ -0,0 +1,27 @@
+package com.example.price_comparator.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+
+/**
+ * Method handles for the private hot-path methods under benchmark.
+ *
+ * Held in static final fields, handles are constant-folded by the JIT, so the call costs
+ * about the same as a direct invocation, unlike {@link Method#invoke}.
+ */
+final class PrivateMethods {
+
+    private PrivateMethods() {
+    }
+
+    static MethodHandle find(Class<?> owner, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = owner.getDeclaredMethod(name, parameterTypes);
+            return MethodHandles.privateLookupIn(owner, MethodHandles.lookup()).unreflect(method);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Benchmark target " + owner.getSimpleName() + "." + name
+                    + " not found; update the benchmark after renaming it", e);
+        }
+    }
+}
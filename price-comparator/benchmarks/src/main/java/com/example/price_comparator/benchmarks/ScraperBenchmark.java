@@ -0,0 +1,105 @@
+package com.example.price_comparator.benchmarks;
+
+import com.example.price_comparator.dto.ShoppingProduct;
+import com.example.price_comparator.service.OxylabsShoppingScraper;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extraction paths of {@link OxylabsShoppingScraper}, fed with recorded search payloads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScraperBenchmark {
+
+    private static final MethodHandle EXTRACT_PRODUCTS = PrivateMethods.find(OxylabsShoppingScraper.class,
+            "extractProducts", JSONArray.class, List.class);
+    private static final MethodHandle EXTRACT_BEST_IMAGE_URL = PrivateMethods.find(OxylabsShoppingScraper.class,
+            "extractBestImageUrl", JSONObject.class);
+    private static final MethodHandle EXTRACT_ENHANCED_SPECIFICATIONS = PrivateMethods.find(OxylabsShoppingScraper.class,
+            "extractEnhancedSpecifications", JSONObject.class, String.class);
+    private static final MethodHandle PARSE_PRICE = PrivateMethods.find(OxylabsShoppingScraper.class,
+            "parsePrice", String.class);
+
+    private OxylabsShoppingScraper scraper;
+    private JSONObject item;
+    private String title;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scraper = new OxylabsShoppingScraper();
+        item = Fixtures.organicResults(1).getJSONObject(0);
+        title = item.getString("title");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scraper.cleanup();
+    }
+
+    /** Organic results per search response; only the extraction benchmark depends on the count. */
+    @State(Scope.Benchmark)
+    public static class SearchResults {
+        /** Live searches return roughly 20 to 60. */
+        @Param({"20", "60"})
+        public int resultCount;
+
+        private JSONArray results;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            results = Fixtures.searchResults(resultCount);
+        }
+    }
+
+    @Benchmark
+    public List<ShoppingProduct> extractProducts(SearchResults searchResults) throws Throwable {
+        List<ShoppingProduct> products = new ArrayList<>();
+        EXTRACT_PRODUCTS.invoke(scraper, searchResults.results, products);
+        return products;
+    }
+
+    @Benchmark
+    public Object extractBestImageUrl() throws Throwable {
+        return EXTRACT_BEST_IMAGE_URL.invoke(scraper, item);
+    }
+
+    @Benchmark
+    public Object extractEnhancedSpecifications() throws Throwable {
+        return EXTRACT_ENHANCED_SPECIFICATIONS.invoke(scraper, item, title);
+    }
+
+    /** Price strings in the formats seen in recorded payloads. */
+    @State(Scope.Benchmark)
+    public static class Prices {
+        @Param({"AED 2,799.00", "2799", "AED 1,299.00 - AED 1,499.00"})
+        public String price;
+    }
+
+    @Benchmark
+    public double parsePrice(Prices prices) throws Throwable {
+        return (double) PARSE_PRICE.invoke(scraper, prices.price);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.price_comparator.benchmarks;
+
+import com.example.price_comparator.model.ProductDocument;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a compared {@link ProductDocument}, as done for REST responses
+ * and STOMP pushes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    /** Retailer offers attached to the product. */
+    @Param({"1", "12"})
+    public int offerCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ProductDocument product;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        product = Fixtures.comparedProduct(offerCount);
+    }
+
+    @Benchmark
+    public byte[] writeProductDocument() throws Exception {
+        return objectMapper.writeValueAsBytes(product);
+    }
+}
@@ -0,0 +1,382 @@
+package com.example.price_comparator.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-loop load test for the comparison flow.
+ *
+ * Comparisons are started at a fixed arrival rate, each with
+ * {@code POST /api/v1/products/{id}/compare}, then followed to completion by polling
+ * {@code GET /api/v1/products/comparison/{taskId}} and, optionally, by the final
+ * {@code /topic/products/{id}} STOMP push. Latencies are measured from the intended start
+ * time, so a stalled server cannot hide its queueing delay (no coordinated omission).
+ * Results after the warm-up go into HdrHistograms and a JSON report under {@code --report}.
+ *
+ * Typical run against the replay stub backends:
+ * <pre>
+ * ./mvnw exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.price_comparator.stub.ReplayStubServer -Dexec.args="--median-ms=2000 --p99-ms=15000"
+ * ./mvnw spring-boot:run -Dspring-boot.run.profiles=replay
+ * cd loadtest && mvn -q compile exec:java -Dexec.args="--rate=2 --duration-s=300 --products=id1,id2 --label=1.4.0"
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    static final String ACCEPT = "compare_accept";
+    static final String COMPLETE = "comparison_complete";
+    static final String PUSH = "comparison_push";
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final Duration REPORT_INTERVAL = Duration.ofSeconds(5);
+
+    /** One comparison started by the generator. */
+    private static final class Comparison {
+        final String productId;
+        final long intendedStartNanos;
+        final boolean measured;
+
+        Comparison(String productId, long intendedStartNanos, boolean measured) {
+            this.productId = productId;
+            this.intendedStartNanos = intendedStartNanos;
+            this.measured = measured;
+        }
+    }
+
+    private final LoadTestOptions options;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newFixedThreadPool(4))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(3);
+    private final Executor pollDelay;
+
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+    private final Map<String, Histogram> totals = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private final Map<String, Queue<Comparison>> awaitingPush = new ConcurrentHashMap<>();
+    private final AtomicLong scheduled = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong polls = new AtomicLong();
+    private final Semaphore inFlight;
+    private final ResourceSampler resources;
+
+    private long testStartNanos;
+    private long measureFromNanos;
+
+    public LoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.inFlight = new Semaphore(options.getMaxInFlight());
+        this.pollDelay = CompletableFuture.delayedExecutor(options.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+        this.resources = new ResourceSampler(client, options.getBaseUrl());
+        for (String name : List.of(ACCEPT, COMPLETE, PUSH)) {
+            recorders.put(name, new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+            totals.put(name, new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Map<String, Object> report = new LoadTest(options).run();
+        File target = new File(options.getReport());
+        if (target.getParentFile() != null) {
+            target.getParentFile().mkdirs();
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(target, report);
+        logger.info("Report written to {}", target.getAbsolutePath());
+        System.exit(0);
+    }
+
+    public Map<String, Object> run() throws Exception {
+        if (options.getProductIds().isEmpty()) {
+            options.setProductIds(fetchFeaturedProductIds());
+        }
+        if (options.getProductIds().isEmpty()) {
+            throw new IllegalStateException("No product ids given and none returned by /featured");
+        }
+
+        StompMonitor stomp = null;
+        if (options.isStomp()) {
+            stomp = new StompMonitor(this::onPush).connect(client, options.getBaseUrl());
+            for (String id : options.getProductIds()) {
+                stomp.subscribe("/topic/products/" + id);
+            }
+        }
+
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.getArrivalRate());
+        long totalArrivals = (long) (options.getArrivalRate()
+                * (options.getWarmup().getSeconds() + options.getDuration().getSeconds()));
+        logger.info("=====================================");
+        logger.info("LOAD TEST STARTING");
+        logger.info("  Target: {}", options.getBaseUrl());
+        logger.info("  Arrival rate: {}/s for {}s (+{}s warm-up), {} comparisons",
+                options.getArrivalRate(), options.getDuration().getSeconds(), options.getWarmup().getSeconds(), totalArrivals);
+        logger.info("  Products: {}", options.getProductIds().size());
+        logger.info("=====================================");
+
+        Instant startedAt = Instant.now();
+        testStartNanos = System.nanoTime();
+        measureFromNanos = testStartNanos + options.getWarmup().toNanos();
+
+        ScheduledFuture<?> arrivals = scheduler.scheduleAtFixedRate(() -> {
+            long n = scheduled.getAndIncrement();
+            if (n < totalArrivals) {
+                start(n, testStartNanos + n * periodNanos);
+            }
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+        ScheduledFuture<?> sampling = scheduler.scheduleAtFixedRate(resources::sample, 0, 1, TimeUnit.SECONDS);
+        ScheduledFuture<?> reporting = scheduler.scheduleAtFixedRate(this::reportInterval,
+                REPORT_INTERVAL.toMillis(), REPORT_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+
+        while (scheduled.get() < totalArrivals) {
+            Thread.sleep(100);
+        }
+        arrivals.cancel(false);
+        long drainDeadline = System.nanoTime() + options.getCompletionTimeout().toNanos() + options.getPollInterval().toNanos();
+        while (inFlight.availablePermits() < options.getMaxInFlight() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(200);
+        }
+        double elapsedSeconds = (System.nanoTime() - measureFromNanos) / 1e9;
+
+        sampling.cancel(false);
+        reporting.cancel(false);
+        reportInterval();
+        if (stomp != null) {
+            stomp.close();
+        }
+        scheduler.shutdownNow();
+        return buildReport(startedAt, elapsedSeconds, totalArrivals, stomp);
+    }
+
+    private void start(long n, long intendedStartNanos) {
+        List<String> ids = options.getProductIds();
+        Comparison comparison = new Comparison(ids.get((int) (n % ids.size())), intendedStartNanos,
+                intendedStartNanos >= measureFromNanos);
+        if (!inFlight.tryAcquire()) {
+            error(comparison, "client_saturated");
+            return;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.getBaseUrl()
+                        + "/api/v1/products/" + comparison.productId + "/compare"))
+                .timeout(options.getCompletionTimeout())
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenCompose(response -> {
+                    if (response.statusCode() != 200) {
+                        error(comparison, "compare_http_" + response.statusCode());
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    accepted.incrementAndGet();
+                    record(ACCEPT, comparison, System.nanoTime());
+                    if (options.isStomp()) {
+                        awaitingPush.computeIfAbsent(comparison.productId, id -> new ConcurrentLinkedQueue<>()).add(comparison);
+                    }
+                    return poll(response.body().trim(), comparison);
+                })
+                .exceptionally(e -> {
+                    error(comparison, "compare_io");
+                    return null;
+                })
+                .whenComplete((v, e) -> inFlight.release());
+    }
+
+    private CompletableFuture<Void> poll(String taskId, Comparison comparison) {
+        polls.incrementAndGet();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.getBaseUrl()
+                        + "/api/v1/products/comparison/" + taskId))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenCompose(response -> {
+                    if (response.statusCode() == 200) {
+                        completed.incrementAndGet();
+                        record(COMPLETE, comparison, System.nanoTime());
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    if (response.statusCode() != 202) {
+                        error(comparison, "poll_http_" + response.statusCode());
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    if (System.nanoTime() - comparison.intendedStartNanos > options.getCompletionTimeout().toNanos()) {
+                        error(comparison, "timeout");
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return CompletableFuture.runAsync(() -> { }, pollDelay)
+                            .thenCompose(v -> poll(taskId, comparison));
+                });
+    }
+
+    /**
+     * A product push completes every accepted comparison of that product still waiting for one.
+     */
+    private void onPush(String destination, String body) {
+        String prefix = "/topic/products/";
+        if (!destination.startsWith(prefix) || destination.endsWith("/progress")) {
+            return;
+        }
+        Queue<Comparison> waiting = awaitingPush.get(destination.substring(prefix.length()));
+        if (waiting == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        Comparison comparison;
+        while ((comparison = waiting.poll()) != null) {
+            record(PUSH, comparison, now);
+        }
+    }
+
+    private void record(String name, Comparison comparison, long nowNanos) {
+        if (!comparison.measured) {
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(nowNanos - comparison.intendedStartNanos);
+        recorders.get(name).recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    private void error(Comparison comparison, String kind) {
+        if (comparison.measured) {
+            errors.computeIfAbsent(kind, k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private synchronized void reportInterval() {
+        Histogram interval = null;
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            Histogram h = entry.getValue().getIntervalHistogram();
+            totals.get(entry.getKey()).add(h);
+            if (COMPLETE.equals(entry.getKey())) {
+                interval = h;
+            }
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - testStartNanos);
+        logger.info("t={}s started={} accepted={} completed={} in-flight={} errors={} | last {}s complete p50={}ms p99={}ms",
+                elapsed, scheduled.get(), accepted.get(), completed.get(),
+                options.getMaxInFlight() - inFlight.availablePermits(), totalErrors(), REPORT_INTERVAL.getSeconds(),
+                interval != null ? interval.getValueAtPercentile(50) / 1000 : 0,
+                interval != null ? interval.getValueAtPercentile(99) / 1000 : 0);
+    }
+
+    private long totalErrors() {
+        return errors.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    private List<String> fetchFeaturedProductIds() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(options.getBaseUrl()
+                + "/api/v1/products/featured?limit=20")).build(), HttpResponse.BodyHandlers.ofString());
+        List<String> ids = new ArrayList<>();
+        if (response.statusCode() == 200) {
+            for (JsonNode product : objectMapper.readTree(response.body())) {
+                if (product.hasNonNull("id")) {
+                    ids.add(product.get("id").asText());
+                }
+            }
+        }
+        logger.info("Using {} featured products as comparison targets", ids.size());
+        return ids;
+    }
+
+    private synchronized Map<String, Object> buildReport(Instant startedAt, double elapsedSeconds, long totalArrivals,
+                                                         StompMonitor stomp) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("baseUrl", options.getBaseUrl());
+        config.put("arrivalRate", options.getArrivalRate());
+        config.put("durationSeconds", options.getDuration().getSeconds());
+        config.put("warmupSeconds", options.getWarmup().getSeconds());
+        config.put("maxInFlight", options.getMaxInFlight());
+        config.put("pollIntervalMillis", options.getPollInterval().toMillis());
+        config.put("completionTimeoutSeconds", options.getCompletionTimeout().getSeconds());
+        config.put("products", options.getProductIds().size());
+
+        long measuredCount = totals.get(COMPLETE).getTotalCount() + totalErrors();
+        Map<String, Object> requests = new LinkedHashMap<>();
+        requests.put("scheduled", totalArrivals);
+        requests.put("accepted", accepted.get());
+        requests.put("completed", completed.get());
+        requests.put("polls", polls.get());
+        requests.put("stompMessages", stomp != null ? stomp.getMessages() : 0);
+        requests.put("measuredCompleted", totals.get(COMPLETE).getTotalCount());
+        requests.put("completedPerSecond", elapsedSeconds > 0 ? totals.get(COMPLETE).getTotalCount() / elapsedSeconds : 0.0);
+        requests.put("errorRate", measuredCount > 0 ? (double) totalErrors() / measuredCount : 0.0);
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((kind, count) -> errorCounts.put(kind, count.get()));
+        requests.put("errors", errorCounts);
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        totals.forEach((name, histogram) -> latency.put(name, summarize(histogram)));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", options.getLabel());
+        report.put("startedAt", startedAt.toString());
+        report.put("measuredSeconds", elapsedSeconds);
+        report.put("config", config);
+        report.put("requests", requests);
+        report.put("latencyMillis", latency);
+        report.put("serverResources", resources.toMap());
+
+        logger.info("=====================================");
+        logger.info("LOAD TEST COMPLETE");
+        logger.info("  Completed: {} ({}/s), errors: {}", completed.get(),
+                String.format("%.2f", requests.get("completedPerSecond")), errorCounts);
+        latency.forEach((name, summary) -> logger.info("  {}: {}", name, summary));
+        logger.info("=====================================");
+        return report;
+    }
+
+    /**
+     * Percentiles in milliseconds plus the full histogram, compressed and base64-encoded,
+     * so two reports can be compared at any percentile later.
+     */
+    static Map<String, Object> summarize(Histogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("mean", histogram.getMean() / 1000.0);
+        summary.put("p50", histogram.getValueAtPercentile(50) / 1000.0);
+        summary.put("p90", histogram.getValueAtPercentile(90) / 1000.0);
+        summary.put("p99", histogram.getValueAtPercentile(99) / 1000.0);
+        summary.put("p999", histogram.getValueAtPercentile(99.9) / 1000.0);
+        summary.put("max", histogram.getMaxValue() / 1000.0);
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        summary.put("hdrHistogramMicros", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+        return summary;
+    }
+}
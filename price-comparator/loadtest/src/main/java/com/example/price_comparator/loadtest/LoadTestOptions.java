@@ -0,0 +1,113 @@
+package com.example.price_comparator.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options, given as {@code --name=value}.
+ */
+public class LoadTestOptions {
+
+    private String baseUrl = "http://localhost:8080";
+    private List<String> productIds = new ArrayList<>();
+    private double arrivalRate = 1.0;
+    private Duration duration = Duration.ofMinutes(2);
+    private Duration warmup = Duration.ofSeconds(15);
+    private int maxInFlight = 200;
+    private Duration pollInterval = Duration.ofMillis(500);
+    private Duration completionTimeout = Duration.ofMinutes(3);
+    private boolean stomp = true;
+    private String report = "target/loadtest-report.json";
+    private String label = "";
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions();
+        options.baseUrl = values.getOrDefault("base-url", options.baseUrl).replaceAll("/+$", "");
+        if (values.containsKey("products")) {
+            for (String id : values.get("products").split(",")) {
+                if (!id.isBlank()) {
+                    options.productIds.add(id.trim());
+                }
+            }
+        }
+        options.arrivalRate = Double.parseDouble(values.getOrDefault("rate", String.valueOf(options.arrivalRate)));
+        options.duration = Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration-s",
+                String.valueOf(options.duration.getSeconds()))));
+        options.warmup = Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup-s",
+                String.valueOf(options.warmup.getSeconds()))));
+        options.maxInFlight = Integer.parseInt(values.getOrDefault("max-in-flight", String.valueOf(options.maxInFlight)));
+        options.pollInterval = Duration.ofMillis(Long.parseLong(values.getOrDefault("poll-ms",
+                String.valueOf(options.pollInterval.toMillis()))));
+        options.completionTimeout = Duration.ofSeconds(Long.parseLong(values.getOrDefault("timeout-s",
+                String.valueOf(options.completionTimeout.getSeconds()))));
+        options.stomp = Boolean.parseBoolean(values.getOrDefault("stomp", String.valueOf(options.stomp)));
+        options.report = values.getOrDefault("report", options.report);
+        options.label = values.getOrDefault("label", options.label);
+
+        if (options.arrivalRate <= 0 || options.maxInFlight < 1) {
+            throw new IllegalArgumentException("rate must be positive and max-in-flight at least 1");
+        }
+        return options;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public List<String> getProductIds() {
+        return productIds;
+    }
+
+    public void setProductIds(List<String> productIds) {
+        this.productIds = productIds;
+    }
+
+    /** Comparisons started per second. */
+    public double getArrivalRate() {
+        return arrivalRate;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public Duration getCompletionTimeout() {
+        return completionTimeout;
+    }
+
+    public boolean isStomp() {
+        return stomp;
+    }
+
+    public String getReport() {
+        return report;
+    }
+
+    /** Free-form tag, e.g. the release under test. */
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.price_comparator.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Samples server-side resource use from the Actuator metrics endpoint while the test runs.
+ */
+public class ResourceSampler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceSampler.class);
+
+    static final List<String> METRICS = List.of(
+            "process.cpu.usage",
+            "system.cpu.usage",
+            "jvm.memory.used",
+            "jvm.gc.pause",
+            "jvm.threads.live",
+            "oxylabs.concurrency.in.flight",
+            "oxylabs.concurrency.limit");
+
+    /** Running min / mean / max of one metric. */
+    public static final class Stats {
+        private long samples;
+        private double min = Double.MAX_VALUE;
+        private double max = -Double.MAX_VALUE;
+        private double sum;
+
+        synchronized void add(double value) {
+            samples++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+        }
+
+        public synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("samples", samples);
+            map.put("min", samples > 0 ? min : null);
+            map.put("mean", samples > 0 ? sum / samples : null);
+            map.put("max", samples > 0 ? max : null);
+            return map;
+        }
+    }
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    public ResourceSampler(HttpClient client, String baseUrl) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        METRICS.forEach(name -> stats.put(name, new Stats()));
+    }
+
+    /**
+     * Takes one sample of every metric; metrics the server does not expose are skipped.
+     */
+    public void sample() {
+        for (String name : METRICS) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name))
+                    .timeout(Duration.ofSeconds(2))
+                    .build();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    continue;
+                }
+                JsonNode measurements = objectMapper.readTree(response.body()).path("measurements");
+                // Timers report COUNT/TOTAL_TIME/MAX; everything else reports a single VALUE
+                for (JsonNode measurement : measurements) {
+                    String statistic = measurement.path("statistic").asText();
+                    if ("VALUE".equals(statistic) || "MAX".equals(statistic)) {
+                        stats.get(name).add(measurement.path("value").asDouble());
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.debug("Could not sample {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        stats.forEach((name, s) -> map.put(name, s.toMap()));
+        return map;
+    }
+}
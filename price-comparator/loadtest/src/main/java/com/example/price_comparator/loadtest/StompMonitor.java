@@ -0,0 +1,116 @@
+package com.example.price_comparator.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Minimal STOMP 1.2 subscriber over the raw WebSocket transport of the SockJS endpoint
+ * ({@code /ws/websocket}). Only what the load test needs: CONNECT, SUBSCRIBE and MESSAGE.
+ */
+public class StompMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StompMonitor.class);
+    private static final char NUL = '\0';
+
+    private final BiConsumer<String, String> onMessage;
+    private final AtomicInteger subscriptionIds = new AtomicInteger();
+    private final AtomicLong messages = new AtomicLong();
+    private final StringBuilder pending = new StringBuilder();
+    private WebSocket webSocket;
+
+    /**
+     * @param onMessage called with (destination, body) for every MESSAGE frame
+     */
+    public StompMonitor(BiConsumer<String, String> onMessage) {
+        this.onMessage = onMessage;
+    }
+
+    public StompMonitor connect(HttpClient client, String baseUrl) {
+        URI uri = URI.create(baseUrl.replaceFirst("^http", "ws") + "/ws/websocket");
+        webSocket = client.newWebSocketBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .buildAsync(uri, new Listener())
+                .join();
+        send("CONNECT\naccept-version:1.2\nhost:" + uri.getHost() + "\nheart-beat:0,0\n\n");
+        logger.info("STOMP connected to {}", uri);
+        return this;
+    }
+
+    public void subscribe(String destination) {
+        send("SUBSCRIBE\nid:sub-" + subscriptionIds.incrementAndGet() + "\ndestination:" + destination + "\n\n");
+    }
+
+    public long getMessages() {
+        return messages.get();
+    }
+
+    public void close() {
+        if (webSocket != null) {
+            send("DISCONNECT\n\n");
+            webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "done");
+        }
+    }
+
+    private synchronized void send(String frame) {
+        webSocket.sendText(frame + NUL, true).join();
+    }
+
+    private void handleFrame(String frame) {
+        String trimmed = frame.replaceFirst("^[\r\n]+", "");
+        if (trimmed.isEmpty()) {
+            return; // heart-beat
+        }
+        int headerEnd = trimmed.indexOf("\n\n");
+        String head = headerEnd >= 0 ? trimmed.substring(0, headerEnd) : trimmed;
+        String body = headerEnd >= 0 ? trimmed.substring(headerEnd + 2) : "";
+        String[] lines = head.split("\n");
+        String command = lines[0].trim();
+
+        if ("ERROR".equals(command)) {
+            logger.warn("STOMP error frame: {}", head.replace('\n', ' '));
+            return;
+        }
+        if (!"MESSAGE".equals(command)) {
+            return;
+        }
+        for (int i = 1; i < lines.length; i++) {
+            if (lines[i].startsWith("destination:")) {
+                messages.incrementAndGet();
+                onMessage.accept(lines[i].substring("destination:".length()).trim(), body);
+                return;
+            }
+        }
+    }
+
+    private class Listener implements WebSocket.Listener {
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            synchronized (pending) {
+                pending.append(data);
+                int end;
+                while ((end = pending.indexOf(String.valueOf(NUL))) >= 0) {
+                    String frame = pending.substring(0, end);
+                    pending.delete(0, end + 1);
+                    handleFrame(frame);
+                }
+            }
+            ws.request(1);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void onError(WebSocket ws, Throwable error) {
+            logger.warn("STOMP connection failed: {}", error.getMessage());
+        }
+    }
+}
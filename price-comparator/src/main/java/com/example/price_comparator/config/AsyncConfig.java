@@ -1,5 +1,6 @@
 package com.example.price_comparator.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -19,4 +20,69 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    @Bean(name = "ingestionExecutor")
+    public Executor ingestionExecutor(@Value("${ingestion.worker-threads:4}") int workerThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("Ingest-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs blocking offer providers (the Oxylabs scraper) so that a comparison can wait on
+     * several of them at once.
+     */
+    @Bean(name = "offerProviderExecutor")
+    public Executor offerProviderExecutor(@Value("${offers.provider-threads:8}") int providerThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(providerThreads);
+        executor.setMaxPoolSize(providerThreads);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("Offers-");
+        executor.initialize();
+        return executor;
+    }
+
+    /** Downloads proxied product images; lookups and transfers block, so they stay off request threads. */
+    @Bean(name = "imageFetchExecutor")
+    public Executor imageFetchExecutor(@Value("${images.fetch-threads:8}") int fetchThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(fetchThreads);
+        executor.setMaxPoolSize(fetchThreads);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("ImageFetch-");
+        executor.initialize();
+        return executor;
+    }
+
+    /** Decodes and resizes proxied product images; the work is CPU-bound, so the pool stays small. */
+    @Bean(name = "imageExecutor")
+    public Executor imageExecutor(@Value("${images.resize-threads:2}") int resizeThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(resizeThreads);
+        executor.setMaxPoolSize(resizeThreads);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("Images-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes comparison Server-Sent Events, so publishing from the comparison pipeline never
+     * waits on a client connection.
+     */
+    @Bean(name = "comparisonEventExecutor")
+    public Executor comparisonEventExecutor(@Value("${comparison.events.send-threads:4}") int sendThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(sendThreads);
+        executor.setMaxPoolSize(sendThreads);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("ComparisonEvents-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.price_comparator.config;
+
+import com.example.price_comparator.utils.AimdConcurrencyLimiter;
+import com.example.price_comparator.utils.CircuitBreaker;
+import com.example.price_comparator.utils.HedgingPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OxylabsConfig {
+
+    /**
+     * Opens when too many recent Oxylabs calls fail or run slow; while open, enhancement is skipped.
+     */
+    @Bean
+    public CircuitBreaker oxylabsCircuitBreaker(
+            @Value("${oxylabs.breaker.window-size:20}") int windowSize,
+            @Value("${oxylabs.breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${oxylabs.breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${oxylabs.breaker.slow-call-ms:15000}") long slowCallMillis,
+            @Value("${oxylabs.breaker.open-ms:30000}") long openMillis,
+            @Value("${oxylabs.breaker.half-open-probes:2}") int halfOpenProbes) {
+        return new CircuitBreaker("oxylabs", windowSize, minimumCalls, failureRateThreshold,
+                slowCallMillis, openMillis, halfOpenProbes);
+    }
+
+    /**
+     * Adaptive cap on concurrent Oxylabs requests across all comparisons.
+     */
+    @Bean
+    public AimdConcurrencyLimiter oxylabsConcurrencyLimiter(
+            @Value("${oxylabs.concurrency.initial-limit:8}") int initialLimit,
+            @Value("${oxylabs.concurrency.min-limit:1}") int minLimit,
+            @Value("${oxylabs.concurrency.max-limit:16}") int maxLimit,
+            @Value("${oxylabs.concurrency.latency-threshold-ms:15000}") long latencyThresholdMillis,
+            @Value("${oxylabs.concurrency.backoff-ratio:0.7}") double backoffRatio) {
+        return new AimdConcurrencyLimiter("oxylabs", initialLimit, minLimit, maxLimit,
+                latencyThresholdMillis, backoffRatio);
+    }
+
+    /**
+     * Hedging for product-detail calls: duplicate a request once it is slower than the
+     * recent p95, spending at most budget-ratio extra requests.
+     */
+    @Bean
+    public HedgingPolicy oxylabsHedgingPolicy(
+            @Value("${oxylabs.hedge.enabled:false}") boolean enabled,
+            @Value("${oxylabs.hedge.percentile:0.95}") double percentile,
+            @Value("${oxylabs.hedge.window-size:200}") int windowSize,
+            @Value("${oxylabs.hedge.min-delay-ms:1000}") long minDelayMillis,
+            @Value("${oxylabs.hedge.max-delay-ms:15000}") long maxDelayMillis,
+            @Value("${oxylabs.hedge.budget-ratio:0.1}") double budgetRatio) {
+        return new HedgingPolicy(enabled, percentile, windowSize, minDelayMillis, maxDelayMillis, budgetRatio);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.price_comparator.config;
+
+import com.example.price_comparator.utils.TokenBucketRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RapidApiConfig {
+
+    /**
+     * Single limiter for the RapidAPI subscription; every Amazon call draws from it.
+     */
+    @Bean
+    public TokenBucketRateLimiter rapidApiRateLimiter(
+            @Value("${rapidapi.rate-limit.permits-per-second:1.0}") double permitsPerSecond,
+            @Value("${rapidapi.rate-limit.burst:5}") int burst) {
+        return new TokenBucketRateLimiter("rapidapi", permitsPerSecond, burst);
+    }
+}
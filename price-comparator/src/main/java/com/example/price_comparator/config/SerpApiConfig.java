@@ -0,0 +1,23 @@
+package com.example.price_comparator.config;
+
+import com.serpapi.SerpApiClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SerpApiConfig {
+
+    /**
+     * One pooled SerpApi client for the whole application; closed with the context.
+     */
+    @Bean(destroyMethod = "close")
+    public SerpApiClient serpApiClient(
+            @Value("${serpapi.base-url:" + SerpApiClient.DEFAULT_BASE_URL + "}") String baseUrl,
+            @Value("${serpapi.api-key:}") String apiKey,
+            @Value("${serpapi.connect-timeout-ms:5000}") long connectTimeoutMillis,
+            @Value("${serpapi.response-timeout-ms:30000}") long responseTimeoutMillis,
+            @Value("${serpapi.max-connections:10}") int maxConnections) {
+        return new SerpApiClient(baseUrl, apiKey, connectTimeoutMillis, responseTimeoutMillis, maxConnections);
+    }
+}
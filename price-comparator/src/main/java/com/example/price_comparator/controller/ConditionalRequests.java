@@ -0,0 +1,82 @@
+package com.example.price_comparator.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Evaluation of {@code If-None-Match} / {@code If-Modified-Since} (RFC 9110, section 13) for
+ * controllers that know a resource's validators before building its body.
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * True when the client's copy is current. {@code If-Modified-Since} is only consulted
+     * when there is no {@code If-None-Match}.
+     *
+     * @param etag         quoted strong ETag, or null if unknown
+     * @param lastModified epoch milliseconds, or 0 if unknown
+     */
+    static boolean isNotModified(String ifNoneMatch, String ifModifiedSince, String etag, long lastModified) {
+        if (ifNoneMatch != null && !ifNoneMatch.isBlank()) {
+            return etag != null && etagMatches(ifNoneMatch, etag);
+        }
+        if (ifModifiedSince == null || lastModified <= 0) {
+            return false;
+        }
+        try {
+            long since = ZonedDateTime.parse(ifModifiedSince.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .toInstant().toEpochMilli();
+            return lastModified / 1000 <= since / 1000;  // HTTP dates have one-second resolution
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /** Weak comparison, as RFC 9110 requires for {@code If-None-Match}. */
+    static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** A 304 carrying the same validators and caching directive as the full response would. */
+    static <T> ResponseEntity<T> notModified(String etag, long lastModified, CacheControl cacheControl) {
+        return withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag, lastModified, cacheControl).build();
+    }
+
+    static ResponseEntity.BodyBuilder ok(String etag, long lastModified, CacheControl cacheControl) {
+        return withValidators(ResponseEntity.ok(), etag, lastModified, cacheControl);
+    }
+
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, String etag,
+                                                             long lastModified, CacheControl cacheControl) {
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        if (lastModified > 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder.cacheControl(cacheControl);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.price_comparator.controller;
+
+import com.example.price_comparator.service.ImageProxyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resized, cached copies of product images, e.g. {@code /api/v1/images?url=...&size=320}.
+ *
+ * A thumbnail's bytes never change for a given URL and size, so responses are cacheable for a
+ * year and carry a strong ETag; a matching {@code If-None-Match} is answered with 304 before the
+ * image is read. URLs that are neither catalog images nor on an allowed host get 403.
+ */
+@RestController
+@RequestMapping("/api/v1/images")
+public class ImageController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageController.class);
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    private final ImageProxyService imageProxyService;
+
+    public ImageController(ImageProxyService imageProxyService) {
+        this.imageProxyService = imageProxyService;
+    }
+
+    @GetMapping
+    public CompletableFuture<ResponseEntity<byte[]>> getImage(@RequestParam String url,
+                                                              @RequestParam(defaultValue = "320") int size,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!imageProxyService.isAllowedSource(url)) {
+            logger.info("Refused to proxy image from unlisted source {}", url);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        String cachedEtag = imageProxyService.getCachedEtag(url, size);
+        if (cachedEtag != null && ConditionalRequests.etagMatches(ifNoneMatch, cachedEtag)) {
+            return CompletableFuture.completedFuture(notModified(cachedEtag));
+        }
+
+        CompletableFuture<ImageProxyService.Thumbnail> thumbnail;
+        try {
+            thumbnail = imageProxyService.getThumbnail(url, size);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return thumbnail
+            .thenApply(image -> {
+                if (ConditionalRequests.etagMatches(ifNoneMatch, image.getEtag())) {
+                    return notModified(image.getEtag());
+                }
+                return ConditionalRequests.ok(image.getEtag(), 0, CACHE_CONTROL)
+                    .contentType(MediaType.parseMediaType(image.getContentType()))
+                    .contentLength(image.getBytes().length)
+                    .body(image.getBytes());
+            })
+            .exceptionally(ex -> {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                if (cause instanceof IllegalArgumentException) {
+                    logger.info("Rejected image {}: {}", url, cause.getMessage());
+                    return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+                }
+                logger.warn("Could not proxy image {}: {}", url, cause.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+            });
+    }
+
+    private static ResponseEntity<byte[]> notModified(String etag) {
+        return ConditionalRequests.notModified(etag, 0, CACHE_CONTROL);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.price_comparator.controller;
+
+import com.example.price_comparator.dto.IngestionStatus;
+import com.example.price_comparator.service.CatalogIngestionService;
+import com.example.price_comparator.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/ingestion")
+public class IngestionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionController.class);
+
+    private final CatalogIngestionService catalogIngestionService;
+    private final ProductService productService;
+
+    @Autowired
+    public IngestionController(CatalogIngestionService catalogIngestionService, ProductService productService) {
+        this.catalogIngestionService = catalogIngestionService;
+        this.productService = productService;
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<IngestionStatus> getStatus() {
+        return ResponseEntity.ok(catalogIngestionService.getStatus());
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<IngestionStatus> startRefresh() {
+        logger.info("Received request to refresh catalog categories");
+        catalogIngestionService.refreshCategories(productService.getAmazonCategories());
+        return ResponseEntity.accepted().body(catalogIngestionService.getStatus());
+    }
+}
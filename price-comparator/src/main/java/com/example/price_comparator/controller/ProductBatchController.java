@@ -0,0 +1,46 @@
+package com.example.price_comparator.controller;
+
+import com.example.price_comparator.dto.BatchGetRequest;
+import com.example.price_comparator.dto.BatchGetResponse;
+import com.example.price_comparator.service.ProductBatchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Batch lookup of products by id, so list pages (bookmarks, comparisons) need one request
+ * instead of one per product.
+ */
+@RestController
+public class ProductBatchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductBatchController.class);
+
+    private final ProductBatchService productBatchService;
+
+    public ProductBatchController(ProductBatchService productBatchService) {
+        this.productBatchService = productBatchService;
+    }
+
+    @PostMapping("/api/v1/products:batchGet")
+    public CompletableFuture<ResponseEntity<BatchGetResponse>> batchGet(@RequestBody BatchGetRequest request) {
+        CompletableFuture<BatchGetResponse> result;
+        try {
+            result = productBatchService.getProducts(request.getIds(), request.isFetchMissing());
+        } catch (IllegalArgumentException e) {
+            logger.info("Rejected batch get: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return result
+            .thenApply(ResponseEntity::ok)
+            .exceptionally(ex -> {
+                logger.error("Batch get of {} ids failed", request.getIds().size(), ex);
+                return ResponseEntity.status(500).build();
+            });
+    }
+}
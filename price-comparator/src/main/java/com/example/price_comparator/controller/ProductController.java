@@ -1,17 +1,30 @@
 package com.example.price_comparator.controller;
 
 import com.example.price_comparator.dto.ComparisonResponse;
+import com.example.price_comparator.dto.PriceRollup;
+import com.example.price_comparator.model.PriceSample;
 import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.service.ComparisonEventRegistry;
+import com.example.price_comparator.service.PayloadCache;
+import com.example.price_comparator.service.PriceHistoryStore;
+import com.example.price_comparator.service.ProductCatalog;
+import com.example.price_comparator.service.ProductProjector;
 import com.example.price_comparator.service.ProductService;
 // Import ScrapingService if you want to add a manual trigger endpoint
 // import com.example.price_comparator.service.ScrapingService; 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -22,47 +35,123 @@ public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
+    /** Clients may keep product payloads but must revalidate them (cheaply, via ETag) before reuse. */
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
     private final ProductService productService;
+    private final PriceHistoryStore priceHistoryStore;
+    private final ProductCatalog productCatalog;
+    private final PayloadCache payloadCache;
+    private final ProductProjector productProjector;
+    private final ComparisonEventRegistry comparisonEvents;
     // private final ScrapingService scrapingService; // For manual scrape trigger
 
     @Autowired
-    public ProductController(ProductService productService /*, ScrapingService scrapingService */) {
+    public ProductController(ProductService productService, PriceHistoryStore priceHistoryStore,
+                             ProductCatalog productCatalog, PayloadCache payloadCache,
+                             ProductProjector productProjector, ComparisonEventRegistry comparisonEvents
+                             /*, ScrapingService scrapingService */) {
         this.productService = productService;
+        this.priceHistoryStore = priceHistoryStore;
+        this.productCatalog = productCatalog;
+        this.payloadCache = payloadCache;
+        this.productProjector = productProjector;
+        this.comparisonEvents = comparisonEvents;
         // this.scrapingService = scrapingService;
     }
 
     @GetMapping("/featured")
-    public ResponseEntity<List<ProductDocument>> getFeaturedProducts(@RequestParam(defaultValue = "6") int limit) {
+    public ResponseEntity<byte[]> getFeaturedProducts(@RequestParam(defaultValue = "6") int limit,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                      @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+                                                      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         logger.info("Received request for {} featured products", limit);
-        List<ProductDocument> products = productService.getFeaturedProducts(Math.max(1, Math.min(limit, 20))); // Cap limit
-        return ResponseEntity.ok(products);
+        int cappedLimit = Math.max(1, Math.min(limit, 20)); // Cap limit
+        // Validators are read before the body, so a concurrent save can only make them older than the body
+        String etag = productCatalog.getCatalogEtag();
+        long lastModified = etag != null ? productCatalog.getCatalogLastModified() : 0;
+        if (ConditionalRequests.isNotModified(ifNoneMatch, ifModifiedSince, etag, lastModified)) {
+            return ConditionalRequests.notModified(etag, lastModified, REVALIDATE);
+        }
+        String key = PayloadCache.listKey("featured:" + cappedLimit);
+        PayloadCache.Payload payload = payloadCache.get(key, etag);
+        if (payload == null) {
+            payload = payloadCache.put(key, etag, productService.getFeaturedProducts(cappedLimit));
+        }
+        return payloadResponse(payload, acceptEncoding, lastModified);
     }
 
     @GetMapping("/trending")
-    public ResponseEntity<List<ProductDocument>> getTrendingProducts() {
+    public ResponseEntity<byte[]> getTrendingProducts(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                      @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+                                                      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         logger.info("Received request for trending products");
-        List<ProductDocument> products = productService.getTrendingProducts();
-        return ResponseEntity.ok(products);
+        String etag = productCatalog.getCatalogEtag();
+        long lastModified = etag != null ? productCatalog.getCatalogLastModified() : 0;
+        if (ConditionalRequests.isNotModified(ifNoneMatch, ifModifiedSince, etag, lastModified)) {
+            return ConditionalRequests.notModified(etag, lastModified, REVALIDATE);
+        }
+        String key = PayloadCache.listKey("trending");
+        PayloadCache.Payload payload = payloadCache.get(key, etag);
+        if (payload == null) {
+            payload = payloadCache.put(key, etag, productService.getTrendingProducts());
+        }
+        return payloadResponse(payload, acceptEncoding, lastModified);
     }
 
     @GetMapping("/{id}")
-    public CompletableFuture<ResponseEntity<ProductDocument>> getProductById(@PathVariable String id) {
+    public CompletableFuture<ResponseEntity<byte[]>> getProductById(@PathVariable String id,
+                                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                    @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+                                                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         logger.info("Received request for product with ID: {}", id);
+        String etag = productCatalog.getEtag(id);
+        long lastModified = etag != null ? productCatalog.getLastModified(id) : 0;
+        if (ConditionalRequests.isNotModified(ifNoneMatch, ifModifiedSince, etag, lastModified)) {
+            productService.recordProductView(id);
+            return CompletableFuture.completedFuture(ConditionalRequests.notModified(etag, lastModified, REVALIDATE));
+        }
+        String key = PayloadCache.productKey(id);
+        PayloadCache.Payload cached = payloadCache.get(key, etag);
+        if (cached != null) {
+            productService.recordProductView(id);
+            return CompletableFuture.completedFuture(payloadResponse(cached, acceptEncoding, lastModified));
+        }
         return productService.getProductById(id)
             .thenCompose(product -> {
                 if (product != null) {
-                    return CompletableFuture.completedFuture(ResponseEntity.ok(product));
+                    return CompletableFuture.completedFuture(
+                            payloadResponse(payloadCache.put(key, etag, product), acceptEncoding, lastModified));
                 }
                 return productService.fetchAndSaveProduct(id)
                     .thenApply(fetchedProduct -> {
                         if (fetchedProduct != null) {
-                            return ResponseEntity.ok(fetchedProduct);
+                            return payloadResponse(payloadCache.put(key, null, fetchedProduct), acceptEncoding, 0);
                         }
                         return ResponseEntity.notFound().build();
                     });
             });
     }
 
+    @GetMapping("/{id}/history")
+    public ResponseEntity<Map<String, List<PriceSample>>> getPriceHistory(@PathVariable String id,
+                                                                           @RequestParam(required = false) String retailer,
+                                                                           @RequestParam(defaultValue = "0") long from,
+                                                                           @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to) {
+        if (retailer != null && !retailer.isBlank()) {
+            String key = retailer.trim().toLowerCase(Locale.ROOT);
+            return ResponseEntity.ok(Map.of(key, priceHistoryStore.query(id, key, from, to)));
+        }
+        return ResponseEntity.ok(priceHistoryStore.queryAll(id, from, to));
+    }
+
+    @GetMapping("/{id}/history/rollup")
+    public ResponseEntity<List<PriceRollup>> getPriceHistoryRollup(@PathVariable String id,
+                                                                   @RequestParam(defaultValue = "0") long from,
+                                                                   @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to) {
+        return ResponseEntity.ok(priceHistoryStore.rollupAll(id, from, to));
+    }
+
     @PostMapping("/{id}/enrich")
     public CompletableFuture<ResponseEntity<Void>> enrichProduct(@PathVariable String id) {
         return productService.getProductById(id).thenCompose(product -> {
@@ -99,28 +188,73 @@ public class ProductController {
             .orElseGet(() -> ResponseEntity.accepted().build());
     }
 
+    /**
+     * Streams a comparison's {@code progress}, {@code offer-accepted} and {@code done} events.
+     * Events that happened before the client connected (or after {@code Last-Event-ID}) are sent first.
+     */
+    @GetMapping(value = "/comparison/{taskId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamComparisonEvents(@PathVariable String taskId,
+                                                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        long after = 0;
+        if (lastEventId != null) {
+            try {
+                after = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring malformed Last-Event-ID '{}'", lastEventId);
+            }
+        }
+        SseEmitter emitter = comparisonEvents.subscribe(taskId, after);
+        if (emitter == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .header("X-Accel-Buffering", "no")
+            .body(emitter);
+    }
+
+    /**
+     * @param view   {@code card} for listing pages or {@code detail} (the default) for full documents
+     * @param fields comma-separated product fields to return instead of a view; the id is always included
+     */
     @GetMapping("/search")
-    public ResponseEntity<List<ProductDocument>> searchProducts(@RequestParam String q) {
+    public ResponseEntity<byte[]> searchProducts(@RequestParam String q,
+                                                 @RequestParam(required = false) String view,
+                                                 @RequestParam(required = false) String fields) {
         logger.info("Received search request with query: {}", q);
         if (q == null || q.trim().isEmpty()) {
             return ResponseEntity.badRequest().build(); // Or return empty list
         }
+        ProductProjector.Projection projection = resolveProjection(view, fields);
+        if (projection == null) {
+            return ResponseEntity.badRequest().build();
+        }
         List<ProductDocument> products = productService.searchProducts(q);
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(projection.write(products));
     }
 
+    /** Same {@code view} / {@code fields} parameters as {@link #searchProducts}. */
     @GetMapping
-    public ResponseEntity<List<ProductDocument>> getAllProducts() {
+    public ResponseEntity<byte[]> getAllProducts(@RequestParam(required = false) String view,
+                                                 @RequestParam(required = false) String fields) {
         logger.info("Received request for all products");
+        ProductProjector.Projection projection = resolveProjection(view, fields);
+        if (projection == null) {
+            return ResponseEntity.badRequest().build();
+        }
         List<ProductDocument> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(projection.write(products));
     }
 
     @GetMapping("/categories")
-    public ResponseEntity<List<String>> getCategories() {
+    public ResponseEntity<List<String>> getCategories(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.info("Received request for categories");
         List<String> categories = productService.getAmazonCategories();
-        return ResponseEntity.ok(categories);
+        String etag = "\"" + Integer.toHexString(categories.hashCode()) + "\"";
+        if (ConditionalRequests.isNotModified(ifNoneMatch, null, etag, 0)) {
+            return ConditionalRequests.notModified(etag, 0, REVALIDATE);
+        }
+        return ConditionalRequests.ok(etag, 0, REVALIDATE).body(categories);
     }
 
     @PostMapping("/bookmarks/{userId}/{productId}")
@@ -135,10 +269,49 @@ public class ProductController {
         return ResponseEntity.ok().build();
     }
 
+    @PutMapping("/bookmarks/{userId}/{productId}/alert")
+    public ResponseEntity<Void> setPriceAlert(@PathVariable String userId, @PathVariable String productId,
+                                              @RequestParam double targetPrice) {
+        if (targetPrice <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        productService.setPriceAlertTarget(userId, productId, targetPrice);
+        return ResponseEntity.ok().build();
+    }
+
     @GetMapping("/bookmarks/{userId}")
     public CompletableFuture<ResponseEntity<List<ProductDocument>>> getBookmarks(@PathVariable String userId) {
         return productService.getBookmarks(userId)
                 .thenApply(ResponseEntity::ok)
                 .exceptionally(ex -> ResponseEntity.status(500).build());
     }
+
+    /**
+     * Writes a cached payload as is, in the best encoding the client accepts. A compressed body
+     * is a different representation, so its ETag is sent in weak form; If-None-Match compares
+     * weakly and still matches it.
+     */
+    private static ResponseEntity<byte[]> payloadResponse(PayloadCache.Payload payload, String acceptEncoding,
+                                                          long lastModified) {
+        PayloadCache.ContentCoding coding = payload.negotiate(acceptEncoding);
+        byte[] body = payload.getBody(coding);
+        String etag = payload.getEtag() != null && coding != null ? "W/" + payload.getEtag() : payload.getEtag();
+        ResponseEntity.BodyBuilder response = ConditionalRequests.ok(etag, lastModified, REVALIDATE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (coding != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, coding.token());
+        }
+        return response.contentLength(body.length).body(body);
+    }
+
+    /** Null (after logging why) when the view or a field name is unknown. */
+    private ProductProjector.Projection resolveProjection(String view, String fields) {
+        try {
+            return productProjector.resolve(view, fields);
+        } catch (IllegalArgumentException e) {
+            logger.info("Rejected product projection: {}", e.getMessage());
+            return null;
+        }
+    }
 }
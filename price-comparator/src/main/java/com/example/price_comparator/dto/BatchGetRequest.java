@@ -0,0 +1,13 @@
+package com.example.price_comparator.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/** Body of {@code POST /api/v1/products:batchGet}. */
+@Data
+public class BatchGetRequest {
+    private List<String> ids;
+    /** Look up ids missing from the catalog and Firebase on Amazon (and save them). */
+    private boolean fetchMissing;
+}
@@ -0,0 +1,13 @@
+package com.example.price_comparator.dto;
+
+import com.example.price_comparator.model.ProductDocument;
+import lombok.Data;
+
+import java.util.List;
+
+/** Products found for a batch lookup, in request order, plus the ids that were not found. */
+@Data
+public class BatchGetResponse {
+    private List<ProductDocument> products;
+    private List<String> missing;
+}
@@ -0,0 +1,111 @@
+package com.example.price_comparator.dto;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live counters for one category during a catalog refresh. Updated concurrently by
+ * the page workers and serialized as-is by the ingestion status endpoint.
+ */
+public class CategoryIngestionProgress {
+
+    private final String category;
+    private final int pagesRequested;
+    private final long startedAt;
+    private final AtomicInteger pagesCompleted = new AtomicInteger();
+    private final AtomicInteger pagesFailed = new AtomicInteger();
+    private final AtomicInteger productsFetched = new AtomicInteger();
+    private final AtomicInteger productsSaved = new AtomicInteger();
+    private volatile long finishedAt;
+    private volatile String lastError;
+
+    public CategoryIngestionProgress(String category, int pagesRequested) {
+        this.category = category;
+        this.pagesRequested = pagesRequested;
+        this.startedAt = System.currentTimeMillis();
+    }
+
+    public void recordFetched(int count) {
+        productsFetched.addAndGet(count);
+    }
+
+    public void recordSaved(int count) {
+        productsSaved.addAndGet(count);
+    }
+
+    /**
+     * @return true when this call finished the last outstanding page of the category
+     */
+    public boolean recordPageCompleted() {
+        pagesCompleted.incrementAndGet();
+        return markFinishedIfDone();
+    }
+
+    /**
+     * @return true when this call finished the last outstanding page of the category
+     */
+    public boolean recordPageFailed(String error) {
+        lastError = error;
+        pagesFailed.incrementAndGet();
+        return markFinishedIfDone();
+    }
+
+    private boolean markFinishedIfDone() {
+        if (pagesCompleted.get() + pagesFailed.get() == pagesRequested) {
+            finishedAt = System.currentTimeMillis();
+            return true;
+        }
+        return false;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public int getPagesRequested() {
+        return pagesRequested;
+    }
+
+    public int getPagesCompleted() {
+        return pagesCompleted.get();
+    }
+
+    public int getPagesFailed() {
+        return pagesFailed.get();
+    }
+
+    public int getProductsFetched() {
+        return productsFetched.get();
+    }
+
+    public int getProductsSaved() {
+        return productsSaved.get();
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public long getDurationMs() {
+        long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+        return end - startedAt;
+    }
+
+    public double getProgressPercent() {
+        return pagesRequested == 0 ? 100.0 : (pagesCompleted.get() + pagesFailed.get()) * 100.0 / pagesRequested;
+    }
+
+    public String getStatus() {
+        if (finishedAt == 0) {
+            return "RUNNING";
+        }
+        return pagesFailed.get() == pagesRequested ? "FAILED" : "COMPLETED";
+    }
+}
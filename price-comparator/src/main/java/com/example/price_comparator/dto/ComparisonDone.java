@@ -0,0 +1,19 @@
+package com.example.price_comparator.dto;
+
+import com.example.price_comparator.model.RetailerInfo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Payload of a comparison {@code done} event: the offers kept for the product, or the error
+ * when the comparison failed.
+ */
+@Data
+@AllArgsConstructor
+public class ComparisonDone {
+    private String productId;
+    private List<RetailerInfo> retailers;
+    private String error;
+}
@@ -0,0 +1,12 @@
+package com.example.price_comparator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/** Payload of a comparison {@code progress} event. */
+@Data
+@AllArgsConstructor
+public class ComparisonProgress {
+    private int percent;
+    private String message;
+}
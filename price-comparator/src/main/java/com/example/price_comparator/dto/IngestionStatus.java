@@ -0,0 +1,16 @@
+package com.example.price_comparator.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class IngestionStatus {
+    private boolean running;
+    private long lastRunStartedAt;
+    private List<CategoryIngestionProgress> categories;
+    private double rateLimitPermitsPerSecond;
+    private long rateLimitPermitsGranted;
+    private long rateLimitThrottledPermits;
+    private long rateLimitTotalWaitMs;
+}
@@ -0,0 +1,17 @@
+package com.example.price_comparator.dto;
+
+import lombok.Data;
+
+@Data
+public class PriceAlert {
+    private String productId;
+    private String productName;
+    private String imageUrl;
+    private String retailer;
+    private String productUrl;
+    private double previousPrice;
+    private double currentPrice;
+    private double dropPercent;
+    private double targetPrice;
+    private long timestamp;
+}
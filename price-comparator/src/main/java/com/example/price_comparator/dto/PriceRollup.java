@@ -0,0 +1,16 @@
+package com.example.price_comparator.dto;
+
+import lombok.Data;
+
+@Data
+public class PriceRollup {
+    private String retailer;
+    private long from;
+    private long to;
+    private int count;
+    private double min;
+    private double max;
+    private double avg;
+    private double first;
+    private double last;
+}
@@ -1,5 +1,6 @@
 package com.example.price_comparator.dto;
 
+import com.example.price_comparator.model.PackedSpecifications;
 import com.example.price_comparator.model.SpecificationInfo;
 import lombok.Data;
 import java.util.List;
@@ -11,4 +12,10 @@ public class ShoppingProduct {
     private String seller;    private String productLink;    private String imageUrl;
     private String description;
     private List<SpecificationInfo> specifications;
+    private String provider; // OfferProvider that found this offer
+
+    /** Stores the specs packed against the shared spec dictionary; the list read back is read-only. */
+    public void setSpecifications(List<SpecificationInfo> specifications) {
+        this.specifications = PackedSpecifications.of(specifications);
+    }
 }
\ No newline at end of file
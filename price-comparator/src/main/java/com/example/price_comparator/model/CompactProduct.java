@@ -0,0 +1,338 @@
+package com.example.price_comparator.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Read-optimized, immutable form of a {@link ProductDocument} for the in-memory catalog.
+ *
+ * Compared with the document it drops the per-product list and map objects: retailers are kept
+ * as parallel arrays, product information as one key/value array, and the description and
+ * "about" bullets as a single text blob that is deflated when that pays off and only decoded in
+ * {@link #toDocument()}. Enum-like strings (brand, colour, currency, retailer names) are interned
+ * through the {@link SpecDictionary}. Fields needed to scan the catalog (id, name, lastChecked) stay
+ * directly readable.
+ */
+public final class CompactProduct {
+
+    private static final int COMPRESS_MIN_BYTES = 256;
+    private static final byte BLOB_RAW = 0;
+    private static final byte BLOB_DEFLATED = 1;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final byte IN_STOCK = 1;
+    private static final byte FREE_SHIPPING = 2;
+    private static final byte[] NO_RETAILERS = new byte[0];
+
+    private final String id;
+    private final String name;
+    private final String brand;
+    private final String model;
+    private final String storage;
+    private final String ram;
+    private final String color;
+    private final String imageUrl;
+    private final double rating;
+    private final int reviews;
+    private final String price;
+    private final String originalPrice;
+    private final String currency;
+    private final String productUrl;
+    private final String availability;
+    private final long lastChecked;
+    private final byte[] textBlob;
+    private final String[] photos;
+    private final String[] productInformation;
+    private final PackedSpecifications specifications;
+
+    // Retailers, one array slot per offer
+    private final String[] retailerIds;
+    private final String[] retailerNames;
+    private final String[] retailerLogos;
+    private final String[] retailerUrls;
+    private final double[] retailerPrices;
+    private final double[] retailerShipping;
+    private final byte[] retailerFlags;
+
+    private CompactProduct(ProductDocument document, SpecDictionary dictionary) {
+        this.id = document.getId();
+        this.name = document.getName();
+        this.brand = dictionary.internValue(document.getBrand());
+        this.model = dictionary.internValue(document.getModel());
+        this.storage = dictionary.internValue(document.getStorage());
+        this.ram = dictionary.internValue(document.getRam());
+        this.color = dictionary.internValue(document.getColor());
+        this.imageUrl = document.getImageUrl();
+        this.rating = document.getRating();
+        this.reviews = document.getReviews();
+        this.price = document.getPrice();
+        this.originalPrice = document.getOriginalPrice();
+        this.currency = dictionary.internValue(document.getCurrency());
+        this.productUrl = document.getProductUrl();
+        this.availability = dictionary.internValue(document.getAvailability());
+        this.lastChecked = document.getLastChecked() != null ? document.getLastChecked().getTime() : NO_DATE;
+        this.textBlob = encodeText(document.getDescription(), document.getAbout());
+        this.photos = document.getPhotos() != null ? document.getPhotos().toArray(new String[0]) : null;
+        this.productInformation = flatten(document.getProductInformation(), dictionary);
+        this.specifications = PackedSpecifications.of(document.getSpecifications(), dictionary);
+
+        List<RetailerInfo> retailers = document.getRetailers();
+        if (retailers == null || retailers.isEmpty()) {
+            this.retailerIds = null;
+            this.retailerNames = null;
+            this.retailerLogos = null;
+            this.retailerUrls = null;
+            this.retailerPrices = null;
+            this.retailerShipping = null;
+            this.retailerFlags = retailers == null ? null : NO_RETAILERS;
+            return;
+        }
+        int count = retailers.size();
+        this.retailerIds = new String[count];
+        this.retailerNames = new String[count];
+        this.retailerLogos = new String[count];
+        this.retailerUrls = new String[count];
+        this.retailerPrices = new double[count];
+        this.retailerFlags = new byte[count];
+        double[] shipping = null;
+        for (int i = 0; i < count; i++) {
+            RetailerInfo retailer = retailers.get(i);
+            retailerIds[i] = dictionary.internValue(retailer.getRetailerId());
+            retailerNames[i] = dictionary.internValue(retailer.getName());
+            retailerLogos[i] = dictionary.internValue(retailer.getLogo());
+            retailerUrls[i] = retailer.getProductUrl();
+            retailerPrices[i] = retailer.getCurrentPrice();
+            retailerFlags[i] = (byte) ((retailer.isInStock() ? IN_STOCK : 0) | (retailer.isFreeShipping() ? FREE_SHIPPING : 0));
+            if (retailer.getShippingCost() != 0) {
+                if (shipping == null) {
+                    shipping = new double[count];
+                }
+                shipping[i] = retailer.getShippingCost();
+            }
+        }
+        this.retailerShipping = shipping;
+    }
+
+    public static CompactProduct of(ProductDocument document) {
+        return new CompactProduct(document, SpecDictionary.shared());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Epoch millis of the last price check, or 0 if never checked. */
+    public long getLastCheckedMillis() {
+        return lastChecked == NO_DATE ? 0L : lastChecked;
+    }
+
+    /**
+     * Builds a full, independent document. Changes to it do not affect this instance; store them
+     * back with {@code ProductCatalog.put}.
+     */
+    public ProductDocument toDocument() {
+        ProductDocument document = new ProductDocument();
+        document.setId(id);
+        document.setName(name);
+        document.setBrand(brand);
+        document.setModel(model);
+        document.setStorage(storage);
+        document.setRam(ram);
+        document.setColor(color);
+        document.setImageUrl(imageUrl);
+        document.setRating(rating);
+        document.setReviews(reviews);
+        document.setPrice(price);
+        document.setOriginalPrice(originalPrice);
+        document.setCurrency(currency);
+        document.setProductUrl(productUrl);
+        document.setAvailability(availability);
+        document.setLastChecked(lastChecked == NO_DATE ? null : new Date(lastChecked));
+        decodeText(document);
+        document.setPhotos(photos != null ? new ArrayList<>(Arrays.asList(photos)) : null);
+        document.setProductInformation(unflatten(productInformation));
+        document.setSpecifications(specifications);
+
+        if (retailerFlags == null) {
+            document.setRetailers(null);
+        } else {
+            List<RetailerInfo> retailers = new ArrayList<>(retailerFlags.length);
+            for (int i = 0; i < retailerFlags.length; i++) {
+                RetailerInfo retailer = new RetailerInfo();
+                retailer.setRetailerId(retailerIds[i]);
+                retailer.setName(retailerNames[i]);
+                retailer.setLogo(retailerLogos[i]);
+                retailer.setProductUrl(retailerUrls[i]);
+                retailer.setCurrentPrice(retailerPrices[i]);
+                retailer.setInStock((retailerFlags[i] & IN_STOCK) != 0);
+                retailer.setFreeShipping((retailerFlags[i] & FREE_SHIPPING) != 0);
+                retailer.setShippingCost(retailerShipping != null ? retailerShipping[i] : 0);
+                retailers.add(retailer);
+            }
+            document.setRetailers(retailers);
+        }
+        return document;
+    }
+
+    private static String[] flatten(Map<String, String> map, SpecDictionary dictionary) {
+        if (map == null) {
+            return null;
+        }
+        String[] flat = new String[map.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            flat[i++] = dictionary.internValue(entry.getKey());
+            flat[i++] = dictionary.internValue(entry.getValue());
+        }
+        return flat;
+    }
+
+    private static Map<String, String> unflatten(String[] flat) {
+        if (flat == null) {
+            return null;
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < flat.length; i += 2) {
+            map.put(flat[i], flat[i + 1]);
+        }
+        return map;
+    }
+
+    /** Description and about bullets as one length-prefixed UTF-8 blob, deflated if that is smaller. */
+    private static byte[] encodeText(String description, List<String> about) {
+        if (description == null && about == null) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            writeString(out, description);
+            out.writeInt(about == null ? -1 : about.size());
+            if (about != null) {
+                for (String line : about) {
+                    writeString(out, line);
+                }
+            }
+            byte[] raw = bytes.toByteArray();
+            if (raw.length >= COMPRESS_MIN_BYTES) {
+                byte[] deflated = deflate(raw);
+                if (deflated != null) {
+                    return deflated;
+                }
+            }
+            byte[] blob = new byte[raw.length + 1];
+            blob[0] = BLOB_RAW;
+            System.arraycopy(raw, 0, blob, 1, raw.length);
+            return blob;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void decodeText(ProductDocument document) {
+        if (textBlob == null) {
+            return;
+        }
+        byte[] raw = textBlob[0] == BLOB_DEFLATED ? inflate(textBlob) : Arrays.copyOfRange(textBlob, 1, textBlob.length);
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+            document.setDescription(readString(in));
+            int aboutCount = in.readInt();
+            if (aboutCount >= 0) {
+                List<String> about = new ArrayList<>(aboutCount);
+                for (int i = 0; i < aboutCount; i++) {
+                    about.add(readString(in));
+                }
+                document.setAbout(about);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Deflated blob: flag byte, uncompressed length, then the deflate stream. Null if deflating
+     * does not make the text smaller.
+     */
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[raw.length];
+            int length = deflater.deflate(buffer);
+            if (!deflater.finished() || length + 5 >= raw.length + 1) {
+                return null;
+            }
+            byte[] blob = new byte[length + 5];
+            blob[0] = BLOB_DEFLATED;
+            blob[1] = (byte) (raw.length >>> 24);
+            blob[2] = (byte) (raw.length >>> 16);
+            blob[3] = (byte) (raw.length >>> 8);
+            blob[4] = (byte) raw.length;
+            System.arraycopy(buffer, 0, blob, 5, length);
+            return blob;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] blob) {
+        int rawLength = ((blob[1] & 0xff) << 24) | ((blob[2] & 0xff) << 16) | ((blob[3] & 0xff) << 8) | (blob[4] & 0xff);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(blob, 5, blob.length - 5);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated product text blob");
+                }
+                read += n;
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt product text blob", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.price_comparator.model;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable specification list stored as parallel arrays of dictionary name ids and interned values.
+ *
+ * It is a {@code List<SpecificationInfo>}, so JSON and Firebase see the same shape as before;
+ * {@link #get} builds a small {@link SpecificationInfo} on demand. Names without a dictionary id
+ * (see {@link SpecDictionary#NO_ID}) are kept in a side array that is only allocated when needed.
+ */
+public final class PackedSpecifications extends AbstractList<SpecificationInfo> implements RandomAccess {
+
+    public static final PackedSpecifications EMPTY =
+            new PackedSpecifications(SpecDictionary.shared(), new int[0], new String[0], null);
+
+    private final SpecDictionary dictionary;
+    private final int[] nameIds;
+    private final String[] values;
+    private final String[] unindexedNames;
+
+    private PackedSpecifications(SpecDictionary dictionary, int[] nameIds, String[] values, String[] unindexedNames) {
+        this.dictionary = dictionary;
+        this.nameIds = nameIds;
+        this.values = values;
+        this.unindexedNames = unindexedNames;
+    }
+
+    /**
+     * Packs {@code specifications} against the shared dictionary. Returns null for null and the
+     * argument itself when it is already packed.
+     */
+    public static PackedSpecifications of(List<SpecificationInfo> specifications) {
+        return of(specifications, SpecDictionary.shared());
+    }
+
+    public static PackedSpecifications of(List<SpecificationInfo> specifications, SpecDictionary dictionary) {
+        if (specifications == null) {
+            return null;
+        }
+        if (specifications instanceof PackedSpecifications packed && packed.dictionary == dictionary) {
+            return packed;
+        }
+        if (specifications.isEmpty() && dictionary == EMPTY.dictionary) {
+            return EMPTY;
+        }
+        int size = specifications.size();
+        int[] nameIds = new int[size];
+        String[] values = new String[size];
+        String[] unindexedNames = null;
+        for (int i = 0; i < size; i++) {
+            SpecificationInfo spec = specifications.get(i);
+            String name = spec != null ? spec.getName() : null;
+            nameIds[i] = dictionary.idOf(name);
+            if (nameIds[i] == SpecDictionary.NO_ID && name != null) {
+                if (unindexedNames == null) {
+                    unindexedNames = new String[size];
+                }
+                unindexedNames[i] = name;
+            }
+            values[i] = spec != null ? dictionary.internValue(spec.getValue()) : null;
+        }
+        return new PackedSpecifications(dictionary, nameIds, values, unindexedNames);
+    }
+
+    @Override
+    public SpecificationInfo get(int index) {
+        return new SpecificationInfo(nameAt(index), values[index]);
+    }
+
+    @Override
+    public int size() {
+        return nameIds.length;
+    }
+
+    public String nameAt(int index) {
+        int id = nameIds[index];
+        return id != SpecDictionary.NO_ID ? dictionary.nameOf(id) : unindexedNames == null ? null : unindexedNames[index];
+    }
+
+    public String valueAt(int index) {
+        return values[index];
+    }
+
+    /** Value of the first spec whose name equals {@code name} ignoring case, or null. */
+    public String valueOf(String name) {
+        for (int i = 0; i < nameIds.length; i++) {
+            if (name.equalsIgnoreCase(nameAt(i))) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies {@code rename} to every name. Returns this instance when no name changes, so an
+     * already-clean list is not copied.
+     */
+    public PackedSpecifications withRenamedKeys(UnaryOperator<String> rename) {
+        int[] renamedIds = null;
+        String[] renamedUnindexed = unindexedNames;
+        for (int i = 0; i < nameIds.length; i++) {
+            String name = nameAt(i);
+            if (name == null) {
+                continue;
+            }
+            String renamed = rename.apply(name);
+            if (renamed.equals(name)) {
+                continue;
+            }
+            if (renamedIds == null) {
+                renamedIds = nameIds.clone();
+                renamedUnindexed = unindexedNames != null ? unindexedNames.clone() : null;
+            }
+            renamedIds[i] = dictionary.idOf(renamed);
+            if (renamedIds[i] == SpecDictionary.NO_ID) {
+                if (renamedUnindexed == null) {
+                    renamedUnindexed = new String[nameIds.length];
+                }
+                renamedUnindexed[i] = renamed;
+            }
+        }
+        return renamedIds == null ? this : new PackedSpecifications(dictionary, renamedIds, values, renamedUnindexed);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.price_comparator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceSample {
+    private long timestamp; // epoch millis, second precision
+    private double price;
+    private boolean inStock;
+}
@@ -28,7 +28,7 @@ public class ProductDocument {
     private Map<String, String> productInformation;
     private List<String> photos;
     private List<RetailerInfo> retailers = new ArrayList<>();
-    private List<SpecificationInfo> specifications;
+    private PackedSpecifications specifications;
     private Date lastChecked;
 
     // Default constructor
@@ -194,12 +194,14 @@ public class ProductDocument {
         this.retailers = retailers;
     }
 
+    /** Read-only; replace the whole list with {@link #setSpecifications}. */
     public List<SpecificationInfo> getSpecifications() {
         return specifications;
     }
 
+    /** Stores the specs packed against the shared {@link SpecDictionary}. */
     public void setSpecifications(List<SpecificationInfo> specifications) {
-        this.specifications = specifications;
+        this.specifications = PackedSpecifications.of(specifications);
     }
 
     public Date getLastChecked() {
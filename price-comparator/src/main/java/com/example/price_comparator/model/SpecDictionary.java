@@ -0,0 +1,101 @@
+package com.example.price_comparator.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide dictionary for specification names and common values.
+ *
+ * Each distinct spec name gets a small int id once, so products store ids instead of their own
+ * copies of "Brand" or "Storage Capacity". Short values ("Black", "256 GB") are interned to one
+ * shared instance. Both tables are bounded: past the limits names get no id and values are kept
+ * as given, so unusual scraped data cannot grow the dictionary without limit.
+ */
+public final class SpecDictionary {
+
+    /** Returned by {@link #idOf} for null names and once the name table is full. */
+    public static final int NO_ID = -1;
+
+    private static final SpecDictionary SHARED = new SpecDictionary(1 << 16, 1 << 17, 48);
+
+    private final ConcurrentHashMap<String, Integer> nameIds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+    private final int maxNames;
+    private final int maxValues;
+    private final int maxValueLength;
+    private volatile String[] names = new String[64];
+    private int nameCount;
+
+    public SpecDictionary(int maxNames, int maxValues, int maxValueLength) {
+        this.maxNames = maxNames;
+        this.maxValues = maxValues;
+        this.maxValueLength = maxValueLength;
+    }
+
+    /** The dictionary used by {@link PackedSpecifications#of}. */
+    public static SpecDictionary shared() {
+        return SHARED;
+    }
+
+    /**
+     * Id of {@code name}, assigning the next free id on first sight.
+     */
+    public int idOf(String name) {
+        if (name == null) {
+            return NO_ID;
+        }
+        Integer id = nameIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = nameIds.get(name);
+            if (id != null) {
+                return id;
+            }
+            if (nameCount >= maxNames) {
+                return NO_ID;
+            }
+            String[] table = names;
+            if (nameCount == table.length) {
+                table = Arrays.copyOf(table, table.length * 2);
+            }
+            table[nameCount] = name;
+            // Publish the name before its id so readers never see an id without a name
+            names = table;
+            nameIds.put(name, nameCount);
+            return nameCount++;
+        }
+    }
+
+    public String nameOf(int id) {
+        return names[id];
+    }
+
+    /**
+     * The shared instance equal to {@code value}, or {@code value} itself if it is too long or the
+     * value table is full.
+     */
+    public String internValue(String value) {
+        if (value == null || value.length() > maxValueLength) {
+            return value;
+        }
+        String canonical = values.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (values.size() >= maxValues) {
+            return value;
+        }
+        canonical = values.putIfAbsent(value, value);
+        return canonical != null ? canonical : value;
+    }
+
+    public int nameCount() {
+        return nameIds.size();
+    }
+
+    public int valueCount() {
+        return values.size();
+    }
+}
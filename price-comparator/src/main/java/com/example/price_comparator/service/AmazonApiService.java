@@ -1,10 +1,8 @@
 package com.example.price_comparator.service;
 
 import com.example.price_comparator.model.ProductDocument;
-import com.example.price_comparator.model.RetailerInfo;
-import com.example.price_comparator.model.SpecificationInfo;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import com.example.price_comparator.utils.TokenBucketRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
@@ -14,13 +12,10 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
 @Service
 public class AmazonApiService implements RetailerApiService {
@@ -33,62 +28,52 @@ public class AmazonApiService implements RetailerApiService {
     private static final String API_KEY = "42a390f2a7mshffbaa5774997097p10318fjsneb7bb1d46683";
     private static final String API_HOST = "real-time-amazon-data.p.rapidapi.com";
 
-    public CompletableFuture<List<ProductDocument>> searchProducts(String query) {
-        String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
-        String url = "https://" + API_HOST + "/search?query=" + encodedQuery + "&page=1&country=AE&language=en_AE";
-        HttpRequest request = HttpRequest.newBuilder()
+    private final TokenBucketRateLimiter rateLimiter;
+    private final String baseUrl;
+    private final String apiKey;
+
+    public AmazonApiService(TokenBucketRateLimiter rapidApiRateLimiter,
+                            @Value("${rapidapi.base-url:https://" + API_HOST + "}") String baseUrl,
+                            @Value("${rapidapi.key:" + API_KEY + "}") String apiKey) {
+        this.rateLimiter = rapidApiRateLimiter;
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+    }
+
+    /** False when {@code rapidapi.key} is set empty, which turns the Amazon integration off. */
+    public boolean hasApiKey() {
+        return apiKey != null && !apiKey.isBlank();
+    }
+
+    @Override
+    public String getRetailerId() {
+        return "amazon";
+    }
+
+    private HttpRequest buildRequest(String url) {
+        return HttpRequest.newBuilder()
                 .uri(URI.create(url))
-                .header("x-rapidapi-key", API_KEY)
+                .header("x-rapidapi-key", apiKey)
                 .header("x-rapidapi-host", API_HOST)
                 .build();
+    }
 
-        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .thenApply(responseBody -> {
-                    JSONObject jsonResponse = new JSONObject(responseBody);
-                    if (jsonResponse.has("status") && !jsonResponse.getString("status").equals("OK")) {
-                        System.err.println("API returned an error: " + jsonResponse.toString());
-                        return new ArrayList<ProductDocument>();
-                    }
-
-                    List<ProductDocument> products = new ArrayList<>();
-                    JSONArray productsJson = jsonResponse.getJSONObject("data").getJSONArray("products");
-                    for (int i = 0; i < productsJson.length(); i++) {
-                        JSONObject productJson = productsJson.getJSONObject(i);
-                        ProductDocument product = new ProductDocument();
-                        product.setId(productJson.optString("asin", null));
-                        product.setName(productJson.optString("product_title", null));
-                        product.setProductUrl(productJson.optString("product_url", null));
-                        product.setImageUrl(productJson.optString("product_photo", null));
-                        product.setRating(productJson.optDouble("product_star_rating", 0.0));
-                        product.setReviews(productJson.optInt("product_num_ratings", 0));
-                        product.setCurrency(jsonResponse.getJSONObject("parameters").optString("country", null));
+    /**
+     * All RapidAPI traffic goes through the shared token bucket so that ingestion,
+     * search and detail lookups together stay inside the subscription quota.
+     */
+    private CompletableFuture<String> send(HttpRequest request) {
+        return rateLimiter.acquireAsync()
+                .thenCompose(v -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                .thenApply(HttpResponse::body);
+    }
 
-                        String priceString = productJson.optString("product_price", null);
-                        if (priceString != null && !priceString.isEmpty()) {
-                            try {
-                                RetailerInfo amazonRetailer = new RetailerInfo();
-                                amazonRetailer.setRetailerId("amazon");
-                                amazonRetailer.setName("Amazon.ae");
-                                amazonRetailer.setLogo("https://upload.wikimedia.org/wikipedia/commons/a/a9/Amazon_logo.svg");
-                                amazonRetailer.setProductUrl(product.getProductUrl());
-                                
-                                String priceDigits = priceString.replaceAll("[^\\d.]", "");
-                                amazonRetailer.setCurrentPrice(Double.parseDouble(priceDigits));
-                                
-                                amazonRetailer.setInStock(true);
-                                
-                                product.getRetailers().add(amazonRetailer);
-                                product.setPrice(priceString);
+    public CompletableFuture<List<ProductDocument>> searchProducts(String query) {
+        String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
+        String url = baseUrl + "/search?query=" + encodedQuery + "&page=1&country=AE&language=en_AE";
 
-                            } catch (NumberFormatException e) {
-                                System.err.println("Could not parse price for product " + product.getId() + ": " + priceString);
-                            }
-                        }
-                        products.add(product);
-                    }
-                    return products;
-                })
+        return send(buildRequest(url))
+                .thenApply(this::parseSearchResponse)
                 .exceptionally(e -> {
                     System.err.println("Error searching Amazon products: " + e.getMessage());
                     return new ArrayList<>();
@@ -96,232 +81,49 @@ public class AmazonApiService implements RetailerApiService {
     }
 
     public CompletableFuture<List<ProductDocument>> searchProductsByCategory(String category) {
-        String encodedCategory = URLEncoder.encode(category, StandardCharsets.UTF_8);
-        String url = "https://real-time-amazon-data.p.rapidapi.com/search?query=" + encodedCategory + "&page=1&country=AE&sort_by=RELEVANCE&product_condition=ALL&is_prime=false&deals_and_discounts=NONE&language=en_AE";
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("x-rapidapi-key", API_KEY)
-                .header("x-rapidapi-host", API_HOST)
-                .build();
-
-        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .thenApply(responseBody -> {
-                    JSONObject jsonResponse = new JSONObject(responseBody);
-                    if (jsonResponse.has("status") && !jsonResponse.getString("status").equals("OK")) {
-                        System.err.println("API returned an error: " + jsonResponse.toString());
-                        return new ArrayList<ProductDocument>();
-                    }
-
-                    List<ProductDocument> products = new ArrayList<>();
-                    JSONArray productsJson = jsonResponse.getJSONObject("data").getJSONArray("products");
-                    for (int i = 0; i < productsJson.length(); i++) {
-                        JSONObject productJson = productsJson.getJSONObject(i);
-                        ProductDocument product = new ProductDocument();
-                        product.setId(productJson.optString("asin", null));
-                        product.setName(productJson.optString("product_title", null));
-                        product.setProductUrl(productJson.optString("product_url", null));
-                        product.setImageUrl(productJson.optString("product_photo", null));
-                        product.setRating(productJson.optDouble("product_star_rating", 0.0));
-                        product.setReviews(productJson.optInt("product_num_ratings", 0));
-                        product.setCurrency(jsonResponse.getJSONObject("parameters").optString("country", null));
-
-                        String priceString = productJson.optString("product_price", null);
-                        if (priceString != null && !priceString.isEmpty()) {
-                            try {
-                                RetailerInfo amazonRetailer = new RetailerInfo();
-                                amazonRetailer.setRetailerId("amazon");
-                                amazonRetailer.setName("Amazon.ae");
-                                amazonRetailer.setLogo("https://upload.wikimedia.org/wikipedia/commons/a/a9/Amazon_logo.svg");
-                                amazonRetailer.setProductUrl(product.getProductUrl());
-                                
-                                String priceDigits = priceString.replaceAll("[^\\d.]", "");
-                                amazonRetailer.setCurrentPrice(Double.parseDouble(priceDigits));
-                                
-                                amazonRetailer.setInStock(true);
-                                
-                                product.getRetailers().add(amazonRetailer);
-                                product.setPrice(priceString);
+        return searchProductsByCategory(category, 1);
+    }
 
-                            } catch (NumberFormatException e) {
-                                System.err.println("Could not parse price for product " + product.getId() + ": " + priceString);
-                            }
-                        }
-                        products.add(product);
-                    }
-                    return products;
-                })
+    public CompletableFuture<List<ProductDocument>> searchProductsByCategory(String category, int page) {
+        return fetchCategoryPage(category, page)
+                .thenApply(this::parseSearchResponse)
                 .exceptionally(e -> {
                     System.err.println("Error searching Amazon products by category: " + e.getMessage());
                     return new ArrayList<>();
                 });
     }
 
-    @Cacheable("amazon-product-details")
-    public CompletableFuture<ProductDocument> getProductDetails(String asin) {
-        String url = "https://" + API_HOST + "/product-details?asin=" + asin + "&country=AE";
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("x-rapidapi-key", API_KEY)
-                .header("x-rapidapi-host", API_HOST)
-                .build();
-
-        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .thenApply(responseBody -> {
-                    JSONObject jsonResponse = new JSONObject(responseBody);
-                    if (jsonResponse.has("status") && !jsonResponse.getString("status").equals("OK")) {
-                        System.err.println("API returned an error: " + jsonResponse.toString());
-                        return null;
-                    }
-
-                    JSONObject productJson = jsonResponse.getJSONObject("data");
-                    ProductDocument product = new ProductDocument();
-                    product.setId(productJson.optString("asin", null));
-                    product.setName(productJson.getString("product_title"));
-                    product.setProductUrl(productJson.getString("product_url"));
-                    product.setImageUrl(productJson.getString("product_photo"));
-                    product.setDescription(productJson.optString("product_description", null));
-                    product.setRating(productJson.optDouble("product_star_rating", 0.0));
-                    product.setReviews(productJson.getInt("product_num_ratings"));
-                    product.setAbout(productJson.getJSONArray("about_product").toList().stream().map(Object::toString).collect(Collectors.toList()));
-                    
-                    JSONObject productInfoJson = productJson.optJSONObject("product_information");
-                    if (productInfoJson != null) {
-                        List<SpecificationInfo> specifications = new ArrayList<>();
-                        for (String key : productInfoJson.keySet()) {
-                            Object value = productInfoJson.get(key);
-                            specifications.add(new SpecificationInfo(key, value.toString()));
-                        }
-                        product.setSpecifications(specifications);
-
-                        // Attempt to extract brand from specifications
-                        String brand = specifications.stream()
-                            .filter(s -> "brand".equalsIgnoreCase(s.getName()))
-                            .map(SpecificationInfo::getValue)
-                            .findFirst()
-                            .orElse(null);
-
-                        if (brand == null) {
-                            // Fallback: attempt to extract brand from the product title
-                            String title = product.getName().toLowerCase();
-                            if (title.contains("samsung")) brand = "Samsung";
-                            else if (title.contains("apple")) brand = "Apple";
-                            else if (title.contains("sony")) brand = "Sony";
-                            else if (title.contains("lg")) brand = "LG";
-                            else if (title.contains("dell")) brand = "Dell";
-                            else if (title.contains("hp")) brand = "HP";
-                            else if (title.contains("lenovo")) brand = "Lenovo";
-                            else if (title.contains("redragon")) brand = "Redragon";
-                        }
-                        product.setBrand(brand);
-
-                        // Extract other attributes
-                        String model = extractAttribute(specifications, "model");
-                        if (model == null) {
-                            model = extractModelFromTitle(product.getName());
-                        }
-                        product.setModel(model);
-
-                        product.setStorage(extractAttribute(specifications, "storage capacity"));
-                        product.setRam(extractAttribute(specifications, "ram"));
-                        product.setColor(extractAttribute(specifications, "color"));                    }
-
-                    // Set photos if available
-                    if (productJson.has("product_photos") && !productJson.isNull("product_photos")) {
-                        try {
-                            JSONArray photosArray = productJson.getJSONArray("product_photos");
-                            List<String> photosList = new ArrayList<>();
-                            for (int i = 0; i < photosArray.length(); i++) {
-                                String photoUrl = photosArray.optString(i);
-                                if (photoUrl != null && !photoUrl.isEmpty()) {
-                                    photosList.add(photoUrl);
-                                }
-                            }
-                            if (!photosList.isEmpty()) {
-                                product.setPhotos(photosList);
-                            }
-                        } catch (Exception e) {
-                            // Log but don't fail if photos can't be parsed
-                            System.err.println("Could not parse product photos: " + e.getMessage());
-                        }
-                    }
-
-                    String priceString = productJson.optString("product_price", null);
-                    if (priceString != null && !priceString.isEmpty()) {
-                        try {
-                            RetailerInfo amazonRetailer = new RetailerInfo();
-                            amazonRetailer.setRetailerId("amazon");
-                            amazonRetailer.setName("Amazon.ae");
-                            amazonRetailer.setLogo("https://upload.wikimedia.org/wikipedia/commons/a/a9/Amazon_logo.svg");
-                            amazonRetailer.setProductUrl(product.getProductUrl());
-
-                            String priceDigits = priceString.replaceAll("[^\\d.]", "");
-                            amazonRetailer.setCurrentPrice(Double.parseDouble(priceDigits));
+    /**
+     * Fetches one raw result page for a category. Parsing is left to the caller so that
+     * bulk ingestion can move it off the HTTP client's threads.
+     */
+    public CompletableFuture<String> fetchCategoryPage(String category, int page) {
+        String encodedCategory = URLEncoder.encode(category, StandardCharsets.UTF_8);
+        String url = baseUrl + "/search?query=" + encodedCategory + "&page=" + page + "&country=AE&sort_by=RELEVANCE&product_condition=ALL&is_prime=false&deals_and_discounts=NONE&language=en_AE";
+        return send(buildRequest(url));
+    }
 
-                            String availability = productJson.optString("product_availability", "");
-                            amazonRetailer.setInStock(availability != null && availability.toLowerCase().contains("in stock"));
+    public List<ProductDocument> parseSearchResponse(String responseBody) {
+        return AmazonResponseParser.parseSearch(responseBody);
+    }
 
-                            String currentDate = new SimpleDateFormat("yyyy-MM-dd").format(new Date());
-                            product.getRetailers().add(amazonRetailer);
-                            
-                            product.setPrice(priceString);
-                            product.setOriginalPrice(productJson.optString("product_original_price", null));
-                            product.setCurrency(productJson.getString("currency"));
+    @Cacheable("amazon-product-details")
+    public CompletableFuture<ProductDocument> getProductDetails(String asin) {
+        return fetchProductDetails(asin);
+    }
 
-                        } catch (NumberFormatException e) {
-                            System.err.println("Could not parse price for product " + product.getId() + ": " + priceString);
-                        }
-                    }
+    /**
+     * Uncached detail lookup, used when the caller needs the current price rather than
+     * whatever was cached on first access.
+     */
+    public CompletableFuture<ProductDocument> fetchProductDetails(String asin) {
+        String url = baseUrl + "/product-details?asin=" + asin + "&country=AE";
 
-                    return product;
-                })
+        return send(buildRequest(url))
+                .thenApply(AmazonResponseParser::parseDetails)
                 .exceptionally(e -> {
                     System.err.println("Error getting Amazon product details: " + e.getMessage());
                     return null;
                 });
     }
-
-    private String extractAttribute(List<SpecificationInfo> specifications, String attributeName) {
-        return specifications.stream()
-                .filter(s -> attributeName.equalsIgnoreCase(s.getName()))
-                .map(SpecificationInfo::getValue)
-                .findFirst()
-                .orElse(null);
-    }
-
-    private String extractModelFromTitle(String title) {
-        String lowerCaseTitle = title.toLowerCase();
-        if (lowerCaseTitle.contains("iphone")) {
-            return extractToken(title, "iPhone");
-        }
-        if (lowerCaseTitle.contains("galaxy")) {
-            return extractToken(title, "Galaxy");
-        }
-        if (lowerCaseTitle.contains("macbook")) {
-            return extractToken(title, "MacBook");
-        }
-        if (lowerCaseTitle.contains("dell")) {
-            return extractToken(title, "Dell");
-        }
-        if (lowerCaseTitle.contains("hp")) {
-            return extractToken(title, "HP");
-        }
-        if (lowerCaseTitle.contains("lenovo")) {
-            return extractToken(title, "Lenovo");
-        }
-        return null;
-    }
-
-    private String extractToken(String title, String brand) {
-        String[] parts = title.split(brand);
-        if (parts.length > 1) {
-            String[] modelParts = parts[1].trim().split(" ");
-            if (modelParts.length > 0) {
-                return modelParts[0];
-            }
-        }
-        return null;
-    }
-
 }
@@ -0,0 +1,65 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.ShoppingProduct;
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.model.RetailerInfo;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * Amazon.ae offers straight from the retailer API, without going through a shopping aggregator.
+ */
+@Component
+public class AmazonOfferProvider implements OfferProvider {
+
+    public static final String NAME = "amazon";
+
+    private final AmazonApiService amazonApiService;
+
+    public AmazonOfferProvider(AmazonApiService amazonApiService) {
+        this.amazonApiService = amazonApiService;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return amazonApiService.hasApiKey();
+    }
+
+    @Override
+    public CompletableFuture<List<ShoppingProduct>> findOffers(ProductDocument product, String searchQuery,
+                                                               long deadline, BiConsumer<Integer, String> progressCallback) {
+        return amazonApiService.searchProducts(searchQuery).thenApply(AmazonOfferProvider::toOffers);
+    }
+
+    static List<ShoppingProduct> toOffers(List<ProductDocument> results) {
+        List<ShoppingProduct> offers = new ArrayList<>();
+        for (ProductDocument result : results) {
+            if (result.getName() == null || result.getRetailers() == null) {
+                continue;
+            }
+            for (RetailerInfo retailer : result.getRetailers()) {
+                if (retailer.getProductUrl() == null || retailer.getCurrentPrice() <= 0) {
+                    continue;
+                }
+                ShoppingProduct offer = new ShoppingProduct();
+                offer.setTitle(result.getName());
+                offer.setPrice(retailer.getCurrentPrice());
+                offer.setSeller(retailer.getName());
+                offer.setProductLink(retailer.getProductUrl());
+                offer.setImageUrl(result.getImageUrl());
+                offer.setSpecifications(result.getSpecifications());
+                offers.add(offer);
+            }
+        }
+        return offers;
+    }
+}
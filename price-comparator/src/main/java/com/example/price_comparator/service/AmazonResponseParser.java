@@ -0,0 +1,428 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.model.RetailerInfo;
+import com.example.price_comparator.model.SpecificationInfo;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming parser for RapidAPI Amazon search and product-detail responses.
+ *
+ * Reads straight from the token stream into {@link ProductDocument}s: no intermediate JSON tree is
+ * built, fields the app does not use are skipped, and prices are parsed by a hand-written scanner
+ * instead of a regex per product. Stateless and thread-safe.
+ */
+public final class AmazonResponseParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(AmazonResponseParser.class);
+
+    static final String RETAILER_ID = "amazon";
+    static final String RETAILER_NAME = "Amazon.ae";
+    static final String RETAILER_LOGO = "https://upload.wikimedia.org/wikipedia/commons/a/a9/Amazon_logo.svg";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {1, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15};
+    private static final String[][] TITLE_BRANDS = {
+            {"samsung", "Samsung"}, {"apple", "Apple"}, {"sony", "Sony"}, {"lg", "LG"},
+            {"dell", "Dell"}, {"hp", "HP"}, {"lenovo", "Lenovo"}, {"redragon", "Redragon"}};
+    private static final String[][] TITLE_MODELS = {
+            {"iphone", "iPhone"}, {"galaxy", "Galaxy"}, {"macbook", "MacBook"},
+            {"dell", "Dell"}, {"hp", "HP"}, {"lenovo", "Lenovo"}};
+
+    private AmazonResponseParser() {
+    }
+
+    /**
+     * Parses a {@code /search} response. Returns an empty list when the API reports an error status.
+     */
+    public static List<ProductDocument> parseSearch(String body) {
+        List<ProductDocument> products = new ArrayList<>();
+        String status = null;
+        String country = null;
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "status" -> status = textValue(parser, null);
+                    case "parameters" -> country = readStringField(parser, value, "country");
+                    case "data" -> readSearchData(parser, value, products);
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed Amazon search response", e);
+        }
+
+        if (status != null && !"OK".equals(status)) {
+            logger.error("API returned an error status: {}", status);
+            return new ArrayList<>();
+        }
+        // "parameters" may follow "data" in the stream, so the currency is filled in afterwards
+        for (ProductDocument product : products) {
+            product.setCurrency(country);
+        }
+        return products;
+    }
+
+    /**
+     * Parses a {@code /product-details} response. Returns null when the API reports an error status.
+     */
+    public static ProductDocument parseDetails(String body) {
+        ProductDocument product = null;
+        String status = null;
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("status".equals(field)) {
+                    status = textValue(parser, null);
+                } else if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                    product = readDetails(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed Amazon product-details response", e);
+        }
+
+        if (status != null && !"OK".equals(status)) {
+            logger.error("API returned an error status: {}", status);
+            return null;
+        }
+        return product;
+    }
+
+    private static void readSearchData(JsonParser parser, JsonToken value, List<ProductDocument> products)
+            throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("products".equals(field) && token == JsonToken.START_ARRAY) {
+                JsonToken element;
+                while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (element == JsonToken.START_OBJECT) {
+                        products.add(readSearchProduct(parser));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static ProductDocument readSearchProduct(JsonParser parser) throws IOException {
+        ProductDocument product = new ProductDocument();
+        String price = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "asin" -> product.setId(textValue(parser, null));
+                case "product_title" -> product.setName(textValue(parser, null));
+                case "product_url" -> product.setProductUrl(textValue(parser, null));
+                case "product_photo" -> product.setImageUrl(textValue(parser, null));
+                case "product_star_rating" -> product.setRating(doubleValue(parser));
+                case "product_num_ratings" -> product.setReviews(intValue(parser));
+                case "product_price" -> price = textValue(parser, null);
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (price != null && !price.isEmpty()) {
+            double value = parsePrice(price);
+            if (Double.isNaN(value)) {
+                logger.warn("Could not parse price for product {}: {}", product.getId(), price);
+            } else {
+                product.getRetailers().add(amazonRetailer(product.getProductUrl(), value, true));
+                product.setPrice(price);
+            }
+        }
+        return product;
+    }
+
+    private static ProductDocument readDetails(JsonParser parser) throws IOException {
+        ProductDocument product = new ProductDocument();
+        String price = null;
+        String originalPrice = null;
+        String currency = null;
+        String availability = "";
+        List<SpecificationInfo> specifications = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "asin" -> product.setId(textValue(parser, null));
+                case "product_title" -> product.setName(textValue(parser, null));
+                case "product_url" -> product.setProductUrl(textValue(parser, null));
+                case "product_photo" -> product.setImageUrl(textValue(parser, null));
+                case "product_description" -> product.setDescription(textValue(parser, null));
+                case "product_star_rating" -> product.setRating(doubleValue(parser));
+                case "product_num_ratings" -> product.setReviews(intValue(parser));
+                case "product_price" -> price = textValue(parser, null);
+                case "product_original_price" -> originalPrice = textValue(parser, null);
+                case "product_availability" -> availability = textValue(parser, "");
+                case "currency" -> currency = textValue(parser, null);
+                case "about_product" -> product.setAbout(readStrings(parser, value));
+                case "product_photos" -> {
+                    List<String> photos = readStrings(parser, value);
+                    if (!photos.isEmpty()) {
+                        product.setPhotos(photos);
+                    }
+                }
+                case "product_information" -> specifications = readSpecifications(parser, value);
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (specifications != null) {
+            product.setSpecifications(specifications);
+            applyAttributes(product, specifications);
+        }
+
+        if (price != null && !price.isEmpty()) {
+            double value = parsePrice(price);
+            if (Double.isNaN(value)) {
+                logger.warn("Could not parse price for product {}: {}", product.getId(), price);
+            } else {
+                boolean inStock = availability.toLowerCase(Locale.ROOT).contains("in stock");
+                product.getRetailers().add(amazonRetailer(product.getProductUrl(), value, inStock));
+                product.setPrice(price);
+                product.setOriginalPrice(originalPrice);
+                product.setCurrency(currency);
+            }
+        }
+        return product;
+    }
+
+    /** Brand, model, storage, RAM and colour from the spec table, with title fallbacks for brand and model. */
+    private static void applyAttributes(ProductDocument product, List<SpecificationInfo> specifications) {
+        String brand = null;
+        String model = null;
+        String storage = null;
+        String ram = null;
+        String color = null;
+        for (SpecificationInfo spec : specifications) {
+            String name = spec.getName();
+            if (brand == null && "brand".equalsIgnoreCase(name)) {
+                brand = spec.getValue();
+            } else if (model == null && "model".equalsIgnoreCase(name)) {
+                model = spec.getValue();
+            } else if (storage == null && "storage capacity".equalsIgnoreCase(name)) {
+                storage = spec.getValue();
+            } else if (ram == null && "ram".equalsIgnoreCase(name)) {
+                ram = spec.getValue();
+            } else if (color == null && "color".equalsIgnoreCase(name)) {
+                color = spec.getValue();
+            }
+        }
+
+        String title = product.getName();
+        if (title != null) {
+            String lowerCaseTitle = title.toLowerCase(Locale.ROOT);
+            if (brand == null) {
+                brand = matchTitle(lowerCaseTitle, TITLE_BRANDS);
+            }
+            if (model == null) {
+                String marker = matchTitle(lowerCaseTitle, TITLE_MODELS);
+                model = marker != null ? extractToken(title, marker) : null;
+            }
+        }
+        product.setBrand(brand);
+        product.setModel(model);
+        product.setStorage(storage);
+        product.setRam(ram);
+        product.setColor(color);
+    }
+
+    private static String matchTitle(String lowerCaseTitle, String[][] table) {
+        for (String[] entry : table) {
+            if (lowerCaseTitle.contains(entry[0])) {
+                return entry[1];
+            }
+        }
+        return null;
+    }
+
+    /** The word following {@code marker} in the title, e.g. "15" for "Apple iPhone 15 Pro". */
+    private static String extractToken(String title, String marker) {
+        String[] parts = title.split(marker);
+        if (parts.length > 1) {
+            String[] modelParts = parts[1].trim().split(" ");
+            if (modelParts.length > 0) {
+                return modelParts[0];
+            }
+        }
+        return null;
+    }
+
+    private static RetailerInfo amazonRetailer(String productUrl, double price, boolean inStock) {
+        RetailerInfo retailer = new RetailerInfo();
+        retailer.setRetailerId(RETAILER_ID);
+        retailer.setName(RETAILER_NAME);
+        retailer.setLogo(RETAILER_LOGO);
+        retailer.setProductUrl(productUrl);
+        retailer.setCurrentPrice(price);
+        retailer.setInStock(inStock);
+        return retailer;
+    }
+
+    /**
+     * Parses a display price such as "AED 1,299.00" by keeping only digits and the decimal point,
+     * as the regex it replaces did. Returns NaN when nothing parseable is left (no digits, or
+     * more than one decimal point).
+     */
+    static double parsePrice(CharSequence text) {
+        long mantissa = 0;
+        int fractionDigits = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (mantissa > MAX_EXACT_MANTISSA / 10 || fractionDigits == POWERS_OF_TEN.length - 1) {
+                    return parsePriceSlow(text);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                seenDigit = true;
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (c == '.') {
+                if (seenPoint) {
+                    return Double.NaN;
+                }
+                seenPoint = true;
+            }
+        }
+        if (!seenDigit) {
+            return Double.NaN;
+        }
+        // Both operands are exact doubles, so the division is correctly rounded like Double.parseDouble
+        return mantissa / POWERS_OF_TEN[fractionDigits];
+    }
+
+    private static double parsePriceSlow(CharSequence text) {
+        StringBuilder kept = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c >= '0' && c <= '9') || c == '.') {
+                kept.append(c);
+            }
+        }
+        try {
+            return Double.parseDouble(kept.toString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /** Scalar values as text; objects and arrays are skipped and read as {@code fallback}. */
+    private static String textValue(JsonParser parser, String fallback) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return fallback;
+        }
+        return parser.getValueAsString(fallback);
+    }
+
+    private static double doubleValue(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return 0.0;
+        }
+        return parser.getValueAsDouble(0.0);
+    }
+
+    private static int intValue(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return 0;
+        }
+        return parser.getValueAsInt(0);
+    }
+
+    private static List<String> readStrings(JsonParser parser, JsonToken value) throws IOException {
+        List<String> strings = new ArrayList<>();
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return strings;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                String text = parser.getText();
+                if (!text.isEmpty()) {
+                    strings.add(text);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return strings;
+    }
+
+    private static List<SpecificationInfo> readSpecifications(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        List<SpecificationInfo> specifications = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (token.isScalarValue()) {
+                specifications.add(new SpecificationInfo(key, parser.getText()));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return specifications;
+    }
+
+    private static String readStringField(JsonParser parser, JsonToken value, String name) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String result = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (name.equals(field)) {
+                result = textValue(parser, null);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Expected " + expected + " but found " + actual);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.price_comparator.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Reverse index from product id to the users who bookmarked it, with each user's
+ * optional alert target price (0 when the user only wants to hear about drops).
+ *
+ * Seeded from Firebase once at startup and kept current by the bookmark endpoints,
+ * so finding the subscribers of a product never scans the users node.
+ */
+@Component
+public class BookmarkIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookmarkIndex.class);
+
+    private final FirebaseService firebaseService;
+    private final Map<String, Map<String, Double>> subscribersByProduct = new ConcurrentHashMap<>();
+
+    public BookmarkIndex(FirebaseService firebaseService) {
+        this.firebaseService = firebaseService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromFirebase() {
+        CompletableFuture.supplyAsync(firebaseService::getAllBookmarkSubscriptions)
+                .thenCompose(future -> future)
+                .thenAccept(this::load)
+                .exceptionally(ex -> {
+                    logger.error("Failed to load bookmark index - price alerts only cover bookmarks made since startup", ex);
+                    return null;
+                });
+    }
+
+    /**
+     * Seeds the index from a user id -> (product id -> target) snapshot. Entries
+     * written while the snapshot was in flight win.
+     */
+    public void load(Map<String, Map<String, Double>> subscriptionsByUser) {
+        int count = 0;
+        for (Map.Entry<String, Map<String, Double>> user : subscriptionsByUser.entrySet()) {
+            for (Map.Entry<String, Double> subscription : user.getValue().entrySet()) {
+                String userId = user.getKey();
+                Double target = subscription.getValue();
+                update(subscription.getKey(), subscribers -> subscribers.putIfAbsent(userId, target));
+                count++;
+            }
+        }
+        logger.info("Bookmark index loaded: {} bookmarks across {} products", count, subscribersByProduct.size());
+    }
+
+    public void add(String userId, String productId) {
+        update(productId, subscribers -> subscribers.putIfAbsent(userId, 0.0));
+    }
+
+    public void remove(String userId, String productId) {
+        subscribersByProduct.computeIfPresent(productId, (id, subscribers) -> {
+            subscribers.remove(userId);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    public void setTargetPrice(String userId, String productId, double targetPrice) {
+        update(productId, subscribers -> subscribers.put(userId, targetPrice));
+    }
+
+    /**
+     * Returns a live read-only view of user id -> target price for one product.
+     */
+    public Map<String, Double> getSubscribers(String productId) {
+        Map<String, Double> subscribers = subscribersByProduct.get(productId);
+        return subscribers == null ? Collections.emptyMap() : Collections.unmodifiableMap(subscribers);
+    }
+
+    // Mutations run inside compute() so they cannot race with remove() dropping an empty map.
+    private void update(String productId, Consumer<Map<String, Double>> mutation) {
+        subscribersByProduct.compute(productId, (id, subscribers) -> {
+            Map<String, Double> target = subscribers != null ? subscribers : new ConcurrentHashMap<>();
+            mutation.accept(target);
+            return target;
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.CategoryIngestionProgress;
+import com.example.price_comparator.dto.IngestionStatus;
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.utils.TokenBucketRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Refreshes the catalog from RapidAPI category searches.
+ *
+ * Every category page is requested up front; the shared token bucket decides when each
+ * request actually leaves, so a full refresh takes as long as the quota requires and no
+ * longer. Responses are parsed on the ingestion workers and each page is persisted as
+ * one batched write.
+ */
+@Service
+public class CatalogIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogIngestionService.class);
+
+    private final AmazonApiService amazonApiService;
+    private final ProductService productService;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final Executor ingestionExecutor;
+
+    @Value("${ingestion.pages-per-category:2}")
+    private int pagesPerCategory;
+
+    private final AtomicReference<CompletableFuture<List<CategoryIngestionProgress>>> currentRun = new AtomicReference<>();
+    private volatile List<CategoryIngestionProgress> lastRunProgress = Collections.emptyList();
+    private volatile long lastRunStartedAt;
+
+    public CatalogIngestionService(AmazonApiService amazonApiService, ProductService productService,
+                                   TokenBucketRateLimiter rapidApiRateLimiter,
+                                   @Qualifier("ingestionExecutor") Executor ingestionExecutor) {
+        this.amazonApiService = amazonApiService;
+        this.productService = productService;
+        this.rateLimiter = rapidApiRateLimiter;
+        this.ingestionExecutor = ingestionExecutor;
+    }
+
+    /**
+     * Starts a refresh of the given categories. If a refresh is already running the
+     * caller joins it instead of starting a second one against the same quota.
+     */
+    public CompletableFuture<List<CategoryIngestionProgress>> refreshCategories(List<String> categories) {
+        CompletableFuture<List<CategoryIngestionProgress>> existing = currentRun.get();
+        if (existing != null && !existing.isDone()) {
+            logger.info("Catalog refresh already running - joining the active run");
+            return existing;
+        }
+        CompletableFuture<List<CategoryIngestionProgress>> run = new CompletableFuture<>();
+        if (!currentRun.compareAndSet(existing, run)) {
+            return currentRun.get();
+        }
+
+        lastRunStartedAt = System.currentTimeMillis();
+        logger.info("CATALOG REFRESH STARTED - {} categories x {} pages (rate limit: {} req/s, burst {})",
+                categories.size(), pagesPerCategory, rateLimiter.getPermitsPerSecond(), rateLimiter.getBurstCapacity());
+
+        List<CategoryIngestionProgress> progressList = new ArrayList<>();
+        List<CompletableFuture<Void>> pageFutures = new ArrayList<>();
+        for (String category : categories) {
+            CategoryIngestionProgress progress = new CategoryIngestionProgress(category, pagesPerCategory);
+            progressList.add(progress);
+            for (int page = 1; page <= pagesPerCategory; page++) {
+                pageFutures.add(ingestPage(category, page, progress));
+            }
+        }
+        lastRunProgress = Collections.unmodifiableList(progressList);
+
+        CompletableFuture.allOf(pageFutures.toArray(new CompletableFuture[0]))
+                .whenComplete((v, ex) -> {
+                    int saved = progressList.stream().mapToInt(CategoryIngestionProgress::getProductsSaved).sum();
+                    logger.info("CATALOG REFRESH FINISHED - {} products saved in {}ms ({} requests throttled, {}ms total wait)",
+                            saved, System.currentTimeMillis() - lastRunStartedAt,
+                            rateLimiter.getThrottledPermits(), rateLimiter.getTotalWaitMillis());
+                    run.complete(lastRunProgress);
+                });
+        return run;
+    }
+
+    private CompletableFuture<Void> ingestPage(String category, int page, CategoryIngestionProgress progress) {
+        return amazonApiService.fetchCategoryPage(category, page)
+                .thenApplyAsync(amazonApiService::parseSearchResponse, ingestionExecutor)
+                .thenCompose(products -> {
+                    progress.recordFetched(products.size());
+                    if (products.isEmpty()) {
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    Date checkedAt = new Date();
+                    for (ProductDocument product : products) {
+                        product.setLastChecked(checkedAt);
+                    }
+                    return productService.saveProducts(products)
+                            .thenRun(() -> progress.recordSaved(products.size()));
+                })
+                .handle((v, ex) -> {
+                    boolean categoryDone;
+                    if (ex != null) {
+                        logger.warn("Page {} of category '{}' failed: {}", page, category, ex.getMessage());
+                        categoryDone = progress.recordPageFailed(ex.getMessage());
+                    } else {
+                        categoryDone = progress.recordPageCompleted();
+                    }
+                    if (categoryDone) {
+                        logger.info("CATEGORY COMPLETE: '{}' - {} fetched, {} saved, {}/{} pages failed in {}ms",
+                                category, progress.getProductsFetched(), progress.getProductsSaved(),
+                                progress.getPagesFailed(), progress.getPagesRequested(), progress.getDurationMs());
+                    }
+                    return null;
+                });
+    }
+
+    public IngestionStatus getStatus() {
+        CompletableFuture<List<CategoryIngestionProgress>> run = currentRun.get();
+        IngestionStatus status = new IngestionStatus();
+        status.setRunning(run != null && !run.isDone());
+        status.setLastRunStartedAt(lastRunStartedAt);
+        status.setCategories(lastRunProgress);
+        status.setRateLimitPermitsPerSecond(rateLimiter.getPermitsPerSecond());
+        status.setRateLimitPermitsGranted(rateLimiter.getPermitsGranted());
+        status.setRateLimitThrottledPermits(rateLimiter.getThrottledPermits());
+        status.setRateLimitTotalWaitMs(rateLimiter.getTotalWaitMillis());
+        return status;
+    }
+}
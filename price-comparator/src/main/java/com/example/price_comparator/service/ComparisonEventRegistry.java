@@ -0,0 +1,313 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.ComparisonDone;
+import com.example.price_comparator.dto.ComparisonProgress;
+import com.example.price_comparator.model.RetailerInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Server-Sent Event streams for shopping comparisons, one per task id.
+ *
+ * Each task keeps a short event history, so a client that subscribes after the comparison has
+ * started (or reconnects with {@code Last-Event-ID}) is sent what it missed first. Only the
+ * latest {@code progress} event is kept. Finished tasks stay readable for
+ * {@code comparison.events.retention-ms}.
+ *
+ * Publishing never writes to a connection: events are appended to each subscriber's bounded
+ * queue and written by the {@code comparisonEventExecutor}, so a slow client cannot hold up
+ * the comparison or the task's other subscribers. A subscriber that falls more than
+ * {@code comparison.events.max-queued-events} behind is disconnected; its browser reconnects
+ * with {@code Last-Event-ID} and catches up from the history.
+ */
+@Component
+public class ComparisonEventRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComparisonEventRegistry.class);
+
+    public static final String PROGRESS = "progress";
+    public static final String OFFER_ACCEPTED = "offer-accepted";
+    public static final String DONE = "done";
+
+    private final ConcurrentHashMap<String, Task> tasks = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final long emitterTimeoutMs;
+    private final long retentionMs;
+    private final int maxQueuedEvents;
+
+    public ComparisonEventRegistry(@Qualifier("comparisonEventExecutor") Executor executor,
+                                   @Value("${comparison.events.emitter-timeout-ms:120000}") long emitterTimeoutMs,
+                                   @Value("${comparison.events.retention-ms:60000}") long retentionMs,
+                                   @Value("${comparison.events.max-queued-events:64}") int maxQueuedEvents) {
+        this.executor = executor;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.retentionMs = retentionMs;
+        this.maxQueuedEvents = maxQueuedEvents;
+    }
+
+    private static final class Event {
+        private final long id;
+        private final String name;
+        private final Object data;
+
+        Event(long id, String name, Object data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    /** History and subscribers of one task; guarded by the task's monitor. */
+    private static final class Task {
+        private final List<Event> history = new ArrayList<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private long lastId;
+        private long doneAt;
+
+        boolean isDone() {
+            return doneAt != 0;
+        }
+
+        synchronized void remove(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    /**
+     * One connection and the events still to be written to it. At most one drain runs per
+     * subscriber, so events are written in order; the emitter is only touched by the drain.
+     */
+    private final class Subscriber implements Runnable {
+        private final Task task;
+        private final SseEmitter emitter;
+        private final ArrayDeque<Event> queue = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean closing;
+        private boolean closed;
+
+        Subscriber(Task task, SseEmitter emitter) {
+            this.task = task;
+            this.emitter = emitter;
+        }
+
+        /** Queues a live event; returns false (and starts closing) if the subscriber is too far behind. */
+        synchronized boolean offer(Event event) {
+            if (closing) {
+                return false;
+            }
+            if (queue.size() >= maxQueuedEvents) {
+                logger.debug("Comparison event subscriber fell {} events behind, disconnecting", queue.size());
+                queue.clear();
+                closeAfterDrain();
+                return false;
+            }
+            queue.add(event);
+            schedule();
+            return true;
+        }
+
+        /** Queues history without the bound; the history of a task is small. */
+        synchronized void replay(Event event) {
+            queue.add(event);
+            schedule();
+        }
+
+        synchronized void closeAfterDrain() {
+            closing = true;
+            schedule();
+        }
+
+        synchronized void disconnected() {
+            closing = true;
+            closed = true;
+            queue.clear();
+        }
+
+        private void schedule() {
+            if (scheduled || closed) {
+                return;
+            }
+            scheduled = true;
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Comparison event executor is saturated, disconnecting a subscriber");
+                scheduled = false;
+                closed = true;
+                queue.clear();
+                task.remove(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Event event;
+                synchronized (this) {
+                    event = closed ? null : queue.poll();
+                    if (event == null) {
+                        scheduled = false;
+                        if (!closing || closed) {
+                            return;
+                        }
+                        closed = true;
+                    }
+                }
+                if (event == null) {
+                    task.remove(this);
+                    emitter.complete();
+                    return;
+                }
+                if (!send(emitter, event)) {
+                    disconnected();
+                    task.remove(this);
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Starts accepting subscribers and events for a new task. */
+    public void open(String taskId) {
+        purgeExpired();
+        tasks.put(taskId, new Task());
+    }
+
+    /**
+     * Subscribes to a task's events, starting after {@code lastEventId} (0 for all of them).
+     *
+     * @return the emitter, or null if the task is unknown or has expired
+     */
+    public SseEmitter subscribe(String taskId, long lastEventId) {
+        Task task = task(taskId);
+        if (task == null) {
+            return null;
+        }
+        SseEmitter emitter = createEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(task, emitter);
+        Runnable gone = () -> {
+            subscriber.disconnected();
+            task.remove(subscriber);
+        };
+        emitter.onCompletion(gone);
+        emitter.onTimeout(gone);
+        emitter.onError(ex -> gone.run());
+
+        synchronized (task) {
+            for (Event event : task.history) {
+                if (event.id > lastEventId) {
+                    subscriber.replay(event);
+                }
+            }
+            if (task.isDone()) {
+                subscriber.closeAfterDrain();
+            } else {
+                task.subscribers.add(subscriber);
+            }
+        }
+        return emitter;
+    }
+
+    public void progress(String taskId, int percent, String message) {
+        publish(taskId, PROGRESS, new ComparisonProgress(percent, message));
+    }
+
+    /** Sends one offer the comparison keeps, i.e. one that will also be in its {@code done} event. */
+    public void offerAccepted(String taskId, RetailerInfo offer) {
+        publish(taskId, OFFER_ACCEPTED, offer);
+    }
+
+    /** Sends the final {@code done} event with the offers kept, and closes the task's streams. */
+    public void complete(String taskId, String productId, List<RetailerInfo> retailers) {
+        publish(taskId, DONE, new ComparisonDone(productId, retailers, null));
+    }
+
+    public void fail(String taskId, String productId, String error) {
+        publish(taskId, DONE, new ComparisonDone(productId, null, error));
+    }
+
+    /** Open subscriber connections across all tasks. */
+    public int getSubscriberCount() {
+        int count = 0;
+        for (Task task : tasks.values()) {
+            synchronized (task) {
+                count += task.subscribers.size();
+            }
+        }
+        return count;
+    }
+
+    SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void publish(String taskId, String name, Object data) {
+        Task task = task(taskId);
+        if (task == null) {
+            return;
+        }
+        synchronized (task) {
+            if (task.isDone()) {
+                return;
+            }
+            Event event = new Event(++task.lastId, name, data);
+            if (PROGRESS.equals(name)) {
+                task.history.removeIf(previous -> PROGRESS.equals(previous.name));
+            }
+            task.history.add(event);
+            // Queuing only; the writes happen on the executor, outside this lock
+            for (Subscriber subscriber : new ArrayList<>(task.subscribers)) {
+                if (!subscriber.offer(event)) {
+                    task.subscribers.remove(subscriber);
+                }
+            }
+            if (!DONE.equals(name)) {
+                return;
+            }
+            task.doneAt = System.currentTimeMillis();
+            List<Subscriber> finished = new ArrayList<>(task.subscribers);
+            task.subscribers.clear();
+            finished.forEach(Subscriber::closeAfterDrain);
+        }
+        purgeExpired();
+    }
+
+    private boolean send(SseEmitter emitter, Event event) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.id))
+                    .name(event.name)
+                    .data(event.data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The container reports the broken connection itself; completing here is not allowed
+            logger.debug("Dropping comparison event subscriber: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private Task task(String taskId) {
+        return taskId != null ? tasks.get(taskId) : null;
+    }
+
+    private void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        tasks.values().removeIf(task -> {
+            synchronized (task) {
+                return task.isDone() && task.doneAt < cutoff;
+            }
+        });
+    }
+}
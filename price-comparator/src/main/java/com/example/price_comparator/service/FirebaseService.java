@@ -1,7 +1,9 @@
 package com.example.price_comparator.service;
 
 import com.example.price_comparator.model.ProductDocument;
-import com.example.price_comparator.model.SpecificationInfo;
+import com.example.price_comparator.model.PackedSpecifications;
+import com.example.price_comparator.utils.BoundedAsync;
+import com.google.api.core.ApiFuture;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
@@ -9,44 +11,95 @@ import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ValueEventListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 @Service
 public class FirebaseService {
 
     private static final Logger logger = LoggerFactory.getLogger(FirebaseService.class);
     private final FirebaseDatabase database;
+    private final ProductCatalog productCatalog;
+    private final int maxConcurrentReads;
 
-    public FirebaseService(FirebaseDatabase database) {
+    public FirebaseService(FirebaseDatabase database, ProductCatalog productCatalog,
+                           @Value("${firebase.max-concurrent-reads:8}") int maxConcurrentReads) {
         this.database = database;
+        this.productCatalog = productCatalog;
+        this.maxConcurrentReads = maxConcurrentReads;
     }
 
     private String sanitizeKey(String key) {
         return key.replace(".", "").replace("/", "").replace("#", "").replace("$", "").replace("[", "").replace("]", "");
     }
 
-    public void saveProduct(ProductDocument product) {
+    /**
+     * Writes one product; the returned future completes when Firebase has accepted the write.
+     */
+    public CompletableFuture<Void> saveProduct(ProductDocument product) {
         if (product == null || product.getId() == null) {
             logger.error("Cannot save a null product or a product with a null ID.");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        // Sanitize specification keys
-        if (product.getSpecifications() != null) {
-            List<SpecificationInfo> sanitizedSpecs = new ArrayList<>();
-            for (SpecificationInfo spec : product.getSpecifications()) {
-                String sanitizedName = sanitizeKey(spec.getName());
-                sanitizedSpecs.add(new SpecificationInfo(sanitizedName, spec.getValue()));
+        sanitizeSpecifications(product);
+
+        DatabaseReference ref = database.getReference("products/" + product.getId());
+        return toCompletableFuture(ref.setValueAsync(product));
+    }
+
+    /**
+     * Writes a batch of products with a single multi-path update instead of one
+     * round trip per product.
+     */
+    public CompletableFuture<Void> saveProducts(Collection<ProductDocument> products) {
+        Map<String, Object> updates = new HashMap<>();
+        for (ProductDocument product : products) {
+            if (product == null || product.getId() == null) {
+                logger.warn("Skipping product without an ID in batch save");
+                continue;
             }
-            product.setSpecifications(sanitizedSpecs);
+            sanitizeSpecifications(product);
+            updates.put(product.getId(), product);
         }
+        if (updates.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return toCompletableFuture(database.getReference("products").updateChildrenAsync(updates));
+    }
 
-        DatabaseReference ref = database.getReference("products/" + product.getId());
-        ref.setValueAsync(product);
+    /**
+     * Firebase keys cannot contain . / # $ [ ]. Specs are already packed, so this only copies
+     * the id array when a name actually changes.
+     */
+    private void sanitizeSpecifications(ProductDocument product) {
+        if (product.getSpecifications() != null) {
+            product.setSpecifications(PackedSpecifications.of(product.getSpecifications())
+                    .withRenamedKeys(this::sanitizeKey));
+        }
+    }
+
+    private static <T> CompletableFuture<T> toCompletableFuture(ApiFuture<T> apiFuture) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        apiFuture.addListener(() -> {
+            try {
+                future.complete(apiFuture.get());
+            } catch (ExecutionException e) {
+                future.completeExceptionally(e.getCause());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }, Runnable::run);
+        return future;
     }
     
     public CompletableFuture<ProductDocument> getProduct(String id) {
@@ -66,6 +119,49 @@ public class FirebaseService {
         return future;
     }
 
+    /**
+     * Loads several products, returning the ones that exist in the order of {@code ids}.
+     * Ids already in the in-memory catalog are served from it; the rest are read from
+     * Firebase with at most firebase.max-concurrent-reads reads in flight. A failed read
+     * is logged and the product is left out.
+     */
+    public CompletableFuture<List<ProductDocument>> getProducts(Collection<String> ids) {
+        List<String> orderedIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        ProductDocument[] results = new ProductDocument[orderedIds.size()];
+        List<Integer> misses = new ArrayList<>();
+        for (int i = 0; i < orderedIds.size(); i++) {
+            results[i] = productCatalog.get(orderedIds.get(i));
+            if (results[i] == null) {
+                misses.add(i);
+            }
+        }
+        if (!misses.isEmpty()) {
+            logger.debug("Batch product read: {} of {} served from catalog, {} from Firebase",
+                    orderedIds.size() - misses.size(), orderedIds.size(), misses.size());
+        }
+
+        return BoundedAsync.forEach(misses, maxConcurrentReads, index -> getProduct(orderedIds.get(index))
+                        .orTimeout(10, java.util.concurrent.TimeUnit.SECONDS)
+                        .handle((product, ex) -> {
+                            if (ex != null) {
+                                logger.warn("Failed to read product {}: {}", orderedIds.get(index), ex.getMessage());
+                            } else if (product != null) {
+                                results[index] = product;
+                                productCatalog.put(product);
+                            }
+                            return null;
+                        }))
+                .thenApply(v -> {
+                    List<ProductDocument> products = new ArrayList<>(results.length);
+                    for (ProductDocument product : results) {
+                        if (product != null) {
+                            products.add(product);
+                        }
+                    }
+                    return products;
+                });
+    }
+
     public CompletableFuture<List<ProductDocument>> getAllProducts() {
         DatabaseReference ref = database.getReference("products");
         CompletableFuture<List<ProductDocument>> future = new CompletableFuture<>();
@@ -97,9 +193,15 @@ public class FirebaseService {
             public void onDataChange(DataSnapshot dataSnapshot) {
                 List<ProductDocument> products = new ArrayList<>();
                 for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    ProductDocument product = snapshot.getValue(ProductDocument.class);
-                    if (product != null && product.getName() != null && product.getName().toLowerCase().contains(lowerCaseQuery)) {
-                        products.add(product);
+                    // Not a pushdown: the whole products node is still downloaded, since a substring
+                    // match cannot be expressed as an orderByChild range. Checking the name child first
+                    // only saves deserializing the products that do not match.
+                    Object name = snapshot.child("name").getValue();
+                    if (name instanceof String && ((String) name).toLowerCase().contains(lowerCaseQuery)) {
+                        ProductDocument product = snapshot.getValue(ProductDocument.class);
+                        if (product != null) {
+                            products.add(product);
+                        }
                     }
                 }
                 future.complete(products);
@@ -176,6 +278,53 @@ public class FirebaseService {
         return future;
     }
 
+    public void setPriceAlertTarget(String userId, String productId, double targetPrice) {
+        DatabaseReference ref = database.getReference("users/" + userId + "/priceAlerts");
+        ref.child(productId).setValueAsync(targetPrice);
+    }
+
+    public void removePriceAlertTarget(String userId, String productId) {
+        DatabaseReference ref = database.getReference("users/" + userId + "/priceAlerts/" + productId);
+        ref.removeValueAsync();
+    }
+
+    /**
+     * Reads every user's bookmarks together with any price-alert target, keyed by
+     * user id and then product id. A bookmark without a target maps to 0.
+     */
+    public CompletableFuture<Map<String, Map<String, Double>>> getAllBookmarkSubscriptions() {
+        DatabaseReference ref = database.getReference("users");
+        CompletableFuture<Map<String, Map<String, Double>>> future = new CompletableFuture<>();
+        ref.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                Map<String, Map<String, Double>> subscriptions = new HashMap<>();
+                for (DataSnapshot user : dataSnapshot.getChildren()) {
+                    Map<String, Double> products = new HashMap<>();
+                    for (DataSnapshot bookmark : user.child("bookmarks").getChildren()) {
+                        products.put(bookmark.getKey(), 0.0);
+                    }
+                    for (DataSnapshot alert : user.child("priceAlerts").getChildren()) {
+                        Double target = alert.getValue(Double.class);
+                        if (target != null && products.containsKey(alert.getKey())) {
+                            products.put(alert.getKey(), target);
+                        }
+                    }
+                    if (!products.isEmpty()) {
+                        subscriptions.put(user.getKey(), products);
+                    }
+                }
+                future.complete(subscriptions);
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                future.completeExceptionally(databaseError.toException());
+            }
+        });
+        return future.orTimeout(30, java.util.concurrent.TimeUnit.SECONDS);
+    }
+
     public CompletableFuture<Long> getLastAmazonFetchTimestamp() {
         DatabaseReference ref = database.getReference("metadata/lastAmazonFetch");
         CompletableFuture<Long> future = new CompletableFuture<>();
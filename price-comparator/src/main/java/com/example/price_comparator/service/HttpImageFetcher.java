@@ -0,0 +1,180 @@
+package com.example.price_comparator.service;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.Proxy;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches images from retailer CDNs over HTTP(S).
+ *
+ * Only public addresses are contacted, so the proxy endpoint cannot be used to reach services
+ * on the host or the internal network. The OkHttp client resolves hosts through
+ * {@link #resolveAllowed}, so every address is checked and the connection is made to one of
+ * them; there is no second lookup that DNS rebinding could answer differently. TLS still
+ * verifies the certificate against the host name. Redirects are not followed, since their
+ * targets would bypass the check.
+ *
+ * Lookups and transfers block, so they run on the {@code imageFetchExecutor}, never on the
+ * request thread.
+ */
+@Component
+public class HttpImageFetcher implements ImageFetcher {
+
+    private final Executor executor;
+    private final long maxBytes;
+    private final OkHttpClient httpClient;
+
+    public HttpImageFetcher(@Qualifier("imageFetchExecutor") Executor executor,
+                            @Value("${images.fetch-timeout-ms:15000}") int timeoutMs,
+                            @Value("${images.max-source-bytes:10485760}") long maxBytes) {
+        this.executor = executor;
+        this.maxBytes = maxBytes;
+        // No proxy: a proxy would resolve the host itself, after the check
+        this.httpClient = new OkHttpClient.Builder()
+                .dns(host -> List.of(resolveAllowed(host)))
+                .proxy(Proxy.NO_PROXY)
+                .followRedirects(false)
+                .followSslRedirects(false)
+                .connectTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .callTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<byte[]> fetch(URI url) {
+        String scheme = url.getScheme() == null ? "" : url.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https") || url.getHost() == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Only absolute http(s) image URLs are supported"));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return get(url);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Whether {@code address} is a public unicast address: not loopback, private (RFC 1918 or
+     * IPv6 unique-local), carrier-grade NAT, link-local, multicast or otherwise reserved.
+     * IPv4 addresses embedded in IPv6 (mapped, compatible, 6to4, NAT64) are checked as IPv4.
+     */
+    static boolean isPublicAddress(InetAddress address) {
+        if (address.isLoopbackAddress() || address.isSiteLocalAddress() || address.isLinkLocalAddress()
+                || address.isAnyLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] b = address.getAddress();
+        if (address instanceof Inet4Address) {
+            return isPublicIpv4(b, 0);
+        }
+        if (address instanceof Inet6Address) {
+            if ((b[0] & 0xfe) == 0xfc) {
+                return false;  // fc00::/7 unique local
+            }
+            if ((b[0] & 0xff) == 0x20 && (b[1] & 0xff) == 0x01 && b[2] == 0x0d && (b[3] & 0xff) == 0xb8) {
+                return false;  // 2001:db8::/32 documentation
+            }
+            if ((b[0] & 0xff) == 0x20 && b[1] == 0x02) {
+                return isPublicIpv4(b, 2);  // 2002::/16 6to4
+            }
+            if (b[0] == 0x00 && b[1] == 0x64 && (b[2] & 0xff) == 0xff && (b[3] & 0xff) == 0x9b && allZero(b, 4, 12)) {
+                return isPublicIpv4(b, 12);  // 64:ff9b::/96 NAT64
+            }
+            if (allZero(b, 0, 10) && ((b[10] & 0xff) == 0xff && (b[11] & 0xff) == 0xff || b[10] == 0 && b[11] == 0)) {
+                return isPublicIpv4(b, 12);  // ::ffff:a.b.c.d mapped, ::a.b.c.d compatible
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPublicIpv4(byte[] b, int offset) {
+        int a = b[offset] & 0xff;
+        int c = b[offset + 1] & 0xff;
+        if (a == 0 || a == 10 || a == 127 || a >= 224) {
+            return false;  // "this" network, private, loopback, multicast, reserved, broadcast
+        }
+        if (a == 100 && (c & 0xc0) == 64) {
+            return false;  // 100.64.0.0/10 carrier-grade NAT
+        }
+        if (a == 169 && c == 254 || a == 172 && (c & 0xf0) == 16 || a == 192 && c == 168) {
+            return false;
+        }
+        if (a == 192 && c == 0 && (b[offset + 2] & 0xff) == 0) {
+            return false;  // 192.0.0.0/24 IETF protocol assignments
+        }
+        return !(a == 198 && (c & 0xfe) == 18);  // 198.18.0.0/15 benchmarking
+    }
+
+    private static boolean allZero(byte[] b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (b[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Resolves {@code host} and returns its addresses, all of which must be allowed. */
+    InetAddress[] resolveAllowed(String host) throws UnknownHostException {
+        InetAddress[] addresses = resolve(host);
+        for (InetAddress address : addresses) {
+            if (!isAllowedAddress(address)) {
+                throw new IllegalArgumentException("Image host " + host + " is not a public address");
+            }
+        }
+        return addresses;
+    }
+
+    InetAddress[] resolve(String host) throws UnknownHostException {
+        return InetAddress.getAllByName(host);
+    }
+
+    boolean isAllowedAddress(InetAddress address) {
+        return isPublicAddress(address);
+    }
+
+    private byte[] get(URI url) throws IOException {
+        Request request = new Request.Builder()
+                .url(url.toString())
+                .header("Accept", "image/*")
+                .header("Accept-Encoding", "identity")
+                .header("User-Agent", "Mozilla/5.0 (compatible; findr-image-proxy)")
+                .build();
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (response.code() != 200) {
+                throw new IllegalStateException("Image request to " + url.getHost() + " failed with status " + response.code());
+            }
+            ResponseBody body = response.body();
+            if (body.contentLength() > maxBytes) {
+                throw new IllegalStateException("Image is larger than " + maxBytes + " bytes");
+            }
+            // Content-Length may be absent or wrong, so the read itself stops one byte past the cap
+            byte[] bytes = body.byteStream().readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxBytes + 1));
+            if (bytes.length > maxBytes) {
+                throw new IllegalStateException("Image is larger than " + maxBytes + " bytes");
+            }
+            return bytes;
+        }
+    }
+}
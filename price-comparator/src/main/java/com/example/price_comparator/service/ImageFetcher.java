@@ -0,0 +1,19 @@
+package com.example.price_comparator.service;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Downloads original product images for {@link ImageProxyService}.
+ *
+ * The production implementation is {@link HttpImageFetcher}; tests pass a local stub so that
+ * resizing and caching can be exercised without network access.
+ */
+public interface ImageFetcher {
+
+    /**
+     * Fetches the raw bytes of an image. The future fails when the URL is not allowed,
+     * the upstream answers with an error or the body exceeds the configured size limit.
+     */
+    CompletableFuture<byte[]> fetch(URI url);
+}
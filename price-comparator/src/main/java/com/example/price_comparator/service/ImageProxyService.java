@@ -0,0 +1,317 @@
+package com.example.price_comparator.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Serves product images at a few fixed widths from a local cache.
+ *
+ * On a miss the original is fetched once, every configured width is rendered from it and all
+ * of them are stored in the {@link ThumbnailCache}, so later requests for any size of the same
+ * image never go upstream. Concurrent misses for the same URL share one fetch.
+ *
+ * Only images of catalog products and images on {@code images.allowed-hosts} (or their
+ * subdomains) are proxied, so the endpoint cannot be pointed at arbitrary URLs to fill the
+ * cache or use the server's bandwidth.
+ */
+@Service
+public class ImageProxyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageProxyService.class);
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    /** An encoded thumbnail together with its strong (quoted) ETag. */
+    public static final class Thumbnail {
+        private final byte[] bytes;
+        private final String etag;
+        private final String contentType;
+
+        Thumbnail(byte[] bytes, String etag, String contentType) {
+            this.bytes = bytes;
+            this.etag = etag;
+            this.contentType = contentType;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    private final ImageFetcher fetcher;
+    private final ProductCatalog productCatalog;
+    private final String[] allowedHosts;
+    private final Executor executor;
+    private final int[] widths;
+    private final long maxSourcePixels;
+    private final ThumbnailCache cache;
+    private final Map<String, CompletableFuture<Map<Integer, Thumbnail>>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageProxyService(ImageFetcher fetcher, ProductCatalog productCatalog,
+                             @Value("${images.allowed-hosts:media-amazon.com,ssl-images-amazon.com}") String[] allowedHosts,
+                             @Qualifier("imageExecutor") Executor executor,
+                             @Value("${images.cache-dir:data/image-cache}") String cacheDir,
+                             @Value("${images.cache-max-bytes:268435456}") long cacheMaxBytes,
+                             @Value("${images.sizes:160,320,640}") int[] widths,
+                             @Value("${images.max-source-pixels:40000000}") long maxSourcePixels) {
+        this.fetcher = fetcher;
+        this.productCatalog = productCatalog;
+        this.allowedHosts = Arrays.stream(allowedHosts)
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .toArray(String[]::new);
+        this.executor = executor;
+        this.widths = widths.clone();
+        Arrays.sort(this.widths);
+        this.maxSourcePixels = maxSourcePixels;
+        ThumbnailCache opened;
+        try {
+            opened = new ThumbnailCache(Paths.get(cacheDir), cacheMaxBytes);
+        } catch (IOException e) {
+            logger.error("Image cache directory {} unavailable - thumbnails will not be cached", cacheDir, e);
+            opened = null;
+        }
+        this.cache = opened;
+    }
+
+    /** The widths thumbnails are rendered at, smallest first. */
+    public int[] getWidths() {
+        return widths.clone();
+    }
+
+    /** Whether {@code url} may be proxied: a catalog product's image, or on an allowed host. */
+    public boolean isAllowedSource(String url) {
+        if (url == null) {
+            return false;
+        }
+        if (productCatalog.isKnownImage(url)) {
+            return true;
+        }
+        String host;
+        try {
+            host = new URI(url).getHost();
+        } catch (URISyntaxException e) {
+            return false;
+        }
+        if (host == null) {
+            return false;
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        for (String allowed : allowedHosts) {
+            if (host.equals(allowed) || host.endsWith("." + allowed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the thumbnail of {@code url} at {@code width}.
+     *
+     * @throws IllegalArgumentException if the URL is not an absolute http(s) URL, is not an allowed
+     *                                  source, or the width is not configured
+     */
+    public CompletableFuture<Thumbnail> getThumbnail(String url, int width) {
+        URI uri = parseUrl(url);
+        checkWidth(width);
+        if (!isAllowedSource(url)) {
+            throw new IllegalArgumentException("Image source is not allowed");
+        }
+        String urlKey = urlKey(url);
+
+        Thumbnail cached = cache == null ? null : cache.get(cacheKey(urlKey, width));
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return renderAll(urlKey, uri).thenApply(thumbnails -> thumbnails.get(width));
+    }
+
+    /** Returns the ETag of an already cached thumbnail, or null, without reading the image. */
+    public String getCachedEtag(String url, int width) {
+        if (cache == null || url == null || Arrays.binarySearch(widths, width) < 0) {
+            return null;
+        }
+        return cache.etag(cacheKey(urlKey(url), width));
+    }
+
+    private CompletableFuture<Map<Integer, Thumbnail>> renderAll(String urlKey, URI uri) {
+        CompletableFuture<Map<Integer, Thumbnail>> created = new CompletableFuture<>();
+        CompletableFuture<Map<Integer, Thumbnail>> existing = inFlight.putIfAbsent(urlKey, created);
+        if (existing != null) {
+            return existing;
+        }
+        logger.debug("Fetching original image {}", uri);
+        fetcher.fetch(uri)
+                .thenApplyAsync(original -> render(urlKey, original), executor)
+                .whenComplete((thumbnails, ex) -> {
+                    inFlight.remove(urlKey, created);
+                    if (ex != null) {
+                        created.completeExceptionally(ex);
+                    } else {
+                        created.complete(thumbnails);
+                    }
+                });
+        return created;
+    }
+
+    private Map<Integer, Thumbnail> render(String urlKey, byte[] original) {
+        BufferedImage source = decode(original);
+        boolean alpha = source.getColorModel().hasAlpha();
+        Map<Integer, Thumbnail> thumbnails = new HashMap<>();
+
+        // Largest first, so each size is scaled down from the previous one instead of the original
+        BufferedImage current = source;
+        for (int i = widths.length - 1; i >= 0; i--) {
+            current = scaleToWidth(current, Math.min(widths[i], source.getWidth()), alpha);
+            byte[] encoded = alpha ? encodePng(current) : encodeJpeg(current);
+            String contentType = alpha ? "image/png" : "image/jpeg";
+            thumbnails.put(widths[i], cache == null
+                    ? new Thumbnail(encoded, "\"" + ThumbnailCache.sha256(encoded).substring(0, 32) + "\"", contentType)
+                    : cache.put(cacheKey(urlKey, widths[i]), encoded, contentType));
+        }
+        return thumbnails;
+    }
+
+    private BufferedImage decode(byte[] original) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(original))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxSourcePixels) {
+                    throw new IllegalArgumentException("Image has too many pixels: " + pixels);
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Bilinear scaling in steps of at most one half, which keeps downscaled edges smooth. */
+    private static BufferedImage scaleToWidth(BufferedImage image, int targetWidth, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int targetHeight = Math.max(1, (int) Math.round((double) image.getHeight() * targetWidth / image.getWidth()));
+        if (image.getWidth() == targetWidth && image.getType() == type) {
+            return image;
+        }
+
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = width == targetWidth ? targetHeight : Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width != targetWidth);
+        return current;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static URI parseUrl(String url) {
+        try {
+            URI uri = new URI(url == null ? "" : url.trim());
+            String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+            if ((scheme.equals("http") || scheme.equals("https")) && uri.getHost() != null) {
+                return uri;
+            }
+        } catch (URISyntaxException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Not an absolute http(s) URL: " + url);
+    }
+
+    private void checkWidth(int width) {
+        if (Arrays.binarySearch(widths, width) < 0) {
+            throw new IllegalArgumentException("Unsupported image size " + width + ", expected one of "
+                    + Arrays.toString(widths));
+        }
+    }
+
+    private static String urlKey(String url) {
+        return ThumbnailCache.sha256(url.trim().getBytes(StandardCharsets.UTF_8)).substring(0, 40);
+    }
+
+    private static String cacheKey(String urlKey, int width) {
+        return urlKey + "-" + width;
+    }
+}
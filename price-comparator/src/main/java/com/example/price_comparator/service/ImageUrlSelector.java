@@ -0,0 +1,330 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.utils.AhoCorasick;
+import com.example.price_comparator.utils.JsonUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Picks the best product image URL from a shopping result item.
+ *
+ * The item's keys are read once and sorted into candidate slots; the slots are then resolved in
+ * the fixed priority order (image, main_image, direct fields, images array, product_info, content,
+ * merchant) with the same scores and tie rules as before. Each candidate URL is lower-cased and
+ * scanned once by an Aho-Corasick automaton over the host and size-hint tables below, and that one
+ * feature mask answers both "is this an image URL" and "how good is it". Lower-priority slots are
+ * not looked at once no later strategy could replace the current pick. Stateless and thread-safe.
+ */
+final class ImageUrlSelector {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageUrlSelector.class);
+
+    private static final int PRIMARY_BASE = 2_000_000;
+    private static final int MAIN_IMAGE_BASE = 1_800_000;
+    private static final int DIRECT_FIELD_BASE = 1_500_000;
+    private static final int IMAGES_ARRAY_BASE = 1_200_000;
+    private static final int IMAGES_TYPE_BOOST = 500_000;
+    private static final int PRODUCT_INFO_BASE = 1_000_000;
+    private static final int CONTENT_BASE = 800_000;
+    private static final int MERCHANT_BASE = 100_000;
+
+    /** Direct string fields, in priority order; the first valid one wins. */
+    private static final String[] DIRECT_FIELDS = {"thumbnail", "image_url", "thumb", "picture", "photo", "img_url",
+            "product_image", "featured_image"};
+
+    // Keyword tables; bits() registers each keyword once and returns its mask
+    private static final List<String> KEYWORDS = new ArrayList<>();
+
+    private static final long IMAGE_EXTENSIONS = bits(".jpg", ".jpeg", ".png", ".gif", ".webp", ".svg", ".bmp",
+            ".tiff", ".ico");
+    private static final long IMAGE_HOSTS = bits("images-amazon.com", "media-amazon.com", "cloudfront.net",
+            "googleapis.com", "shopify.com", "nooncdn.com", "desertcart.ae/products/", "/images/", "/img/",
+            "/photos/", "/pic/", "imgix.net", "fastly.com", "cdn", "image", "thumb", "photo", "picture",
+            "shopping.googleusercontent.com", "lh3.googleusercontent.com", "ssl-images-amazon.com",
+            "m.media-amazon.com");
+    private static final long UAE_RETAILERS = bits("noon.com", "amazon.ae", "carrefouruae.com", "sharafdg.com",
+            "emirates.com", "dubaistore.com");
+    private static final long VALID = IMAGE_EXTENSIONS | IMAGE_HOSTS | UAE_RETAILERS;
+
+    // Size hints, first match wins. "_sl1500_" and "1500x1500" both contain "1500", so the digits suffice
+    private static final long[] SIZE_HINTS = {
+            bits("1500"), bits("1200"), bits("800"), bits("500"),
+            bits("large", "big", "high"), bits("medium", "med"), bits("small", "thumb", "mini")};
+    private static final int[] SIZE_QUALITY = {1500 * 1500, 1200 * 1200, 800 * 800, 500 * 500, 1000 * 1000,
+            500 * 500, 200 * 200};
+    private static final int BASE_QUALITY = 100;
+    private static final long MAIN_HINT = bits("main", "primary", "hero");
+    private static final long PRODUCT_HINT = bits("product", "item");
+    private static final long AMAZON_IMAGE_HOST = bits("images-amazon.com", "ssl-images-amazon.com");
+    private static final long GOOGLE_IMAGE_HOST = bits("googleusercontent.com");
+    private static final long CDN_HOST = bits("cloudfront.net", "cdn");
+
+    private static final AhoCorasick AUTOMATON = new AhoCorasick(KEYWORDS.toArray(new String[0]));
+    /** Feature bit for an http:// or https:// URL, above all keyword bits. */
+    private static final long HTTP = 1L << 63;
+
+    private ImageUrlSelector() {
+    }
+
+    /** The best image URL of {@code item}, or null if it has none. */
+    static String select(JSONObject item) {
+        // One pass over the item's keys
+        Object image = null;
+        Object mainImage = null;
+        Object[] direct = null;
+        Object images = null;
+        Object productInfo = null;
+        Object content = null;
+        Object merchant = null;
+        for (String key : item.keySet()) {
+            switch (key) {
+                case "image" -> image = present(item.opt(key));
+                case "main_image" -> mainImage = present(item.opt(key));
+                case "images" -> images = item.opt(key);
+                case "product_info" -> productInfo = item.opt(key);
+                case "content" -> content = item.opt(key);
+                case "merchant" -> merchant = item.opt(key);
+                default -> {
+                    int slot = directFieldIndex(key);
+                    if (slot >= 0) {
+                        if (direct == null) {
+                            direct = new Object[DIRECT_FIELDS.length];
+                        }
+                        direct[slot] = present(item.opt(key));
+                    }
+                }
+            }
+        }
+
+        String imageUrl = null;
+        String source = "none";
+        int bestQuality = 0;
+
+        // Strategy 1: Oxylabs "image" field, string or object
+        if (image instanceof String candidate) {
+            long features = features(candidate);
+            if (isValid(candidate, features)) {
+                imageUrl = candidate;
+                source = "image (primary)";
+                bestQuality = quality(candidate, features) + PRIMARY_BASE;
+            }
+        } else if (image instanceof JSONObject imageObj) {
+            String candidate = objectUrl(imageObj);
+            if (isValid(candidate, features(candidate))) {
+                imageUrl = candidate;
+                source = "image object (primary)";
+                bestQuality = imageObj.optInt("width", 0) * imageObj.optInt("height", 0) + PRIMARY_BASE;
+            }
+        }
+
+        // Strategy 2: main_image; strategy 3: the first valid direct field. Both only fill a gap
+        if (imageUrl == null && mainImage != null) {
+            String candidate = stringOf(mainImage);
+            long features = features(candidate);
+            if (isValid(candidate, features)) {
+                imageUrl = candidate;
+                source = "main_image";
+                bestQuality = quality(candidate, features) + MAIN_IMAGE_BASE;
+            }
+        }
+        if (imageUrl == null && direct != null) {
+            for (int i = 0; i < direct.length; i++) {
+                if (direct[i] instanceof String candidate) {
+                    long features = features(candidate);
+                    if (isValid(candidate, features)) {
+                        imageUrl = candidate;
+                        source = DIRECT_FIELDS[i];
+                        bestQuality = quality(candidate, features) + DIRECT_FIELD_BASE;
+                        break;
+                    }
+                }
+            }
+        }
+
+        // Strategy 4: images array, highest scoring entry; can replace any earlier pick
+        if (images instanceof JSONArray array && array.length() > 0) {
+            String bestImage = null;
+            int currentBestQuality = bestQuality;
+            for (int i = 0; i < array.length(); i++) {
+                Object entry = array.opt(i);
+                String candidate = null;
+                long features = 0;
+                int quality = 0;
+                if (entry instanceof String url) {
+                    candidate = url;
+                    features = features(url);
+                    quality = quality(url, features) + IMAGES_ARRAY_BASE;
+                } else if (entry instanceof JSONObject imgObj) {
+                    candidate = objectUrl(imgObj);
+                    features = features(candidate);
+                    quality = imgObj.optInt("width", 0) * imgObj.optInt("height", 0) + IMAGES_ARRAY_BASE;
+                    if (quality == IMAGES_ARRAY_BASE) {
+                        quality = quality(candidate, features) + IMAGES_ARRAY_BASE;
+                    }
+                    String type = JsonUtils.optString(imgObj, "type", "");
+                    if ("main".equalsIgnoreCase(type) || "primary".equalsIgnoreCase(type)) {
+                        quality += IMAGES_TYPE_BOOST;
+                    }
+                }
+                // Only validate entries that would win
+                if (quality > currentBestQuality && isValid(candidate, features)) {
+                    bestImage = candidate;
+                    currentBestQuality = quality;
+                }
+            }
+            if (bestImage != null) {
+                imageUrl = bestImage;
+                bestQuality = currentBestQuality;
+                source = "images array (quality: " + (currentBestQuality - IMAGES_ARRAY_BASE) + ")";
+            }
+        }
+
+        // Strategies 5 and 6 only replace a missing or weak pick, strategy 7 only a missing one
+        if ((imageUrl == null || bestQuality < PRODUCT_INFO_BASE) && productInfo instanceof JSONObject info) {
+            String candidate = firstString(info, "image", "main_image", "primary_image");
+            long features = features(candidate);
+            if (isValid(candidate, features)) {
+                imageUrl = candidate;
+                source = "product_info image";
+                bestQuality = quality(candidate, features) + PRODUCT_INFO_BASE;
+            }
+        }
+        if ((imageUrl == null || bestQuality < CONTENT_BASE) && content instanceof JSONObject contentObj) {
+            String candidate = firstString(contentObj, "image_url", "featured_image", "main_image");
+            long features = features(candidate);
+            if (isValid(candidate, features)) {
+                imageUrl = candidate;
+                source = "content image";
+                bestQuality = quality(candidate, features) + CONTENT_BASE;
+            }
+        }
+        if (imageUrl == null && merchant instanceof JSONObject merchantObj) {
+            String candidate = firstString(merchantObj, "image", "logo");
+            long features = features(candidate);
+            if (isValid(candidate, features)) {
+                imageUrl = candidate;
+                source = "merchant image";
+                bestQuality = quality(candidate, features) + MERCHANT_BASE;
+            }
+        }
+
+        logger.debug("Image extraction: Found '{}' from source '{}' (quality: {})",
+                imageUrl != null ? imageUrl : "null", source, bestQuality);
+        return imageUrl;
+    }
+
+    /** True for http(s) URLs that look like an image: extension, image host or known retailer. */
+    static boolean isValid(String url) {
+        return isValid(url, features(url));
+    }
+
+    /**
+     * Rough pixel-count score from size hints in the URL, plus boosts for main-image hints,
+     * product paths and image CDNs. 0 for null.
+     */
+    static int estimateQuality(String url) {
+        return quality(url, features(url));
+    }
+
+    /** Keyword bits of the lower-cased URL, plus {@link #HTTP}; computed once per candidate. */
+    private static long features(String url) {
+        if (url == null) {
+            return 0;
+        }
+        String lower = url.toLowerCase();
+        long features = AUTOMATON.matchMask(lower);
+        if (lower.startsWith("http://") || lower.startsWith("https://")) {
+            features |= HTTP;
+        }
+        return features;
+    }
+
+    private static boolean isValid(String url, long features) {
+        if (url == null || url.trim().isEmpty()) {
+            return false;
+        }
+        return (features & HTTP) != 0 && (features & VALID) != 0;
+    }
+
+    private static int quality(String url, long features) {
+        if (url == null) {
+            return 0;
+        }
+        int quality = BASE_QUALITY;
+        for (int i = 0; i < SIZE_HINTS.length; i++) {
+            if ((features & SIZE_HINTS[i]) != 0) {
+                quality = SIZE_QUALITY[i];
+                break;
+            }
+        }
+        if ((features & MAIN_HINT) != 0) {
+            quality += 200000;
+        }
+        if ((features & PRODUCT_HINT) != 0) {
+            quality += 100000;
+        }
+        if ((features & AMAZON_IMAGE_HOST) != 0) {
+            quality += 150000;
+        } else if ((features & GOOGLE_IMAGE_HOST) != 0) {
+            quality += 100000;
+        } else if ((features & CDN_HOST) != 0) {
+            quality += 75000;
+        }
+        return quality;
+    }
+
+    /** url, then src, then href, as strings. */
+    private static String objectUrl(JSONObject obj) {
+        return firstString(obj, "url", "src", "href");
+    }
+
+    /** The first of {@code keys} that is present and not null, as {@link JsonUtils#optString} renders it. */
+    private static String firstString(JSONObject obj, String... keys) {
+        for (String key : keys) {
+            String value = JsonUtils.optString(obj, key, null);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static Object present(Object value) {
+        return value == null || JSONObject.NULL.equals(value) ? null : value;
+    }
+
+    private static String stringOf(Object value) {
+        return value instanceof String string ? string : value.toString();
+    }
+
+    private static int directFieldIndex(String key) {
+        for (int i = 0; i < DIRECT_FIELDS.length; i++) {
+            if (DIRECT_FIELDS[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long bits(String... keywords) {
+        long mask = 0;
+        for (String keyword : keywords) {
+            int index = KEYWORDS.indexOf(keyword);
+            if (index < 0) {
+                // Bit 63 is reserved for HTTP
+                if (KEYWORDS.size() == Long.SIZE - 1) {
+                    throw new IllegalStateException("Too many image URL keywords");
+                }
+                index = KEYWORDS.size();
+                KEYWORDS.add(keyword);
+            }
+            mask |= 1L << index;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.ShoppingProduct;
+import com.example.price_comparator.model.ProductDocument;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * A source of third-party offers for a product (a scraping API, a search API or a retailer's own API).
+ *
+ * Providers are discovered as Spring beans by {@link OfferSearchService}, which runs the selected
+ * ones concurrently under one deadline. Implementations must not block the calling thread.
+ */
+public interface OfferProvider {
+
+    /** Stable id used in configuration, metrics and the {@code provider} field of each offer. */
+    String getName();
+
+    /** False when the provider is not configured (e.g. no API key), so it is never selected. */
+    boolean isAvailable();
+
+    /**
+     * Searches for offers. Failures may be reported either by throwing or through the future.
+     *
+     * @param deadline epoch millis after which the answer is discarded; providers that make several
+     *                 paid calls should stop starting new ones and answer with what they have
+     * @param progressCallback may be null; only long-running providers report progress
+     */
+    CompletableFuture<List<ShoppingProduct>> findOffers(ProductDocument product, String searchQuery, long deadline,
+                                                        BiConsumer<Integer, String> progressCallback);
+}
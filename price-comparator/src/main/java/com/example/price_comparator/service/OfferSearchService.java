@@ -0,0 +1,246 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.ShoppingProduct;
+import com.example.price_comparator.model.ProductDocument;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Fans an offer search out to every selected {@link OfferProvider} at once and merges what
+ * comes back before the deadline.
+ *
+ * Providers are ranked by observed yield (matched offers per call) over latency, both kept
+ * as moving averages. The ranking decides which providers run when {@code offers.max-providers}
+ * is lower than the number available, and the order in which their offers are merged, so the
+ * better provider's copy survives deduplication. Providers with no history rank first so
+ * every one of them gets measured.
+ */
+@Service
+public class OfferSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfferSearchService.class);
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+    public static final String OUTCOME_TIMEOUT = "timeout";
+
+    private static final double SMOOTHING = 0.2;
+
+    /** Providers are asked to answer this much before the deadline, so their answer does not race the timer. */
+    static final long ANSWER_MARGIN_MILLIS = 1000;
+
+    /** Moving averages of one provider's latency and yield. */
+    static final class ProviderStats {
+        private long calls;
+        private double latencyMillis;
+        private double yield;
+
+        synchronized void recordCall(long millis) {
+            latencyMillis = calls == 0 ? millis : latencyMillis + SMOOTHING * (millis - latencyMillis);
+            calls++;
+        }
+
+        synchronized void recordYield(int matched) {
+            yield = yield + SMOOTHING * (matched - yield);
+        }
+
+        /** Matched offers per second of waiting; unmeasured providers rank first. */
+        synchronized double score() {
+            if (calls == 0) {
+                return Double.MAX_VALUE;
+            }
+            return yield / Math.max(latencyMillis / 1000.0, 0.001);
+        }
+
+        synchronized long getCalls() {
+            return calls;
+        }
+    }
+
+    private final Map<String, OfferProvider> providers = new LinkedHashMap<>();
+    private final Map<String, ProviderStats> stats = new HashMap<>();
+    private final ShoppingService shoppingService;
+    private final MeterRegistry registry;
+    private final long deadlineMillis;
+    private final int maxProviders;
+
+    @Autowired
+    public OfferSearchService(List<OfferProvider> providers, ShoppingService shoppingService, MeterRegistry registry,
+                              @Value("${offers.providers:oxylabs,serpapi,amazon}") String enabledProviders,
+                              @Value("${offers.deadline-ms:210000}") long deadlineMillis,
+                              @Value("${offers.max-providers:3}") int maxProviders) {
+        this.shoppingService = shoppingService;
+        this.registry = registry;
+        this.deadlineMillis = deadlineMillis;
+        this.maxProviders = maxProviders;
+
+        List<String> enabled = Arrays.stream(enabledProviders.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toList());
+        for (OfferProvider provider : providers) {
+            if (!enabled.contains(provider.getName())) {
+                logger.info("Offer provider '{}' is disabled by configuration", provider.getName());
+                continue;
+            }
+            ProviderStats providerStats = new ProviderStats();
+            this.providers.put(provider.getName(), provider);
+            this.stats.put(provider.getName(), providerStats);
+            Gauge.builder("offers.provider.score", providerStats,
+                            s -> s.getCalls() == 0 ? 0.0 : s.score())
+                    .description("Matched offers per second of latency, as used to rank providers")
+                    .tag("provider", provider.getName())
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Searches every selected provider concurrently. The future completes with the merged offers
+     * at the latest when the deadline passes; providers that have not answered by then are left out.
+     * Each offer is tagged with the provider it came from.
+     */
+    public CompletableFuture<List<ShoppingProduct>> findOffers(ProductDocument product,
+                                                               BiConsumer<Integer, String> progressCallback) {
+        String searchQuery = shoppingService.buildSearchQuery(product);
+        List<OfferProvider> selected = selectProviders();
+        if (selected.isEmpty()) {
+            logger.warn("No offer providers available for '{}'", searchQuery);
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        logger.info("OFFER SEARCH - Query '{}' across providers {} (deadline {}ms)", searchQuery,
+                selected.stream().map(OfferProvider::getName).collect(Collectors.toList()), deadlineMillis);
+
+        long deadline = System.currentTimeMillis() + deadlineMillis - Math.min(ANSWER_MARGIN_MILLIS, deadlineMillis / 10);
+        List<CompletableFuture<List<ShoppingProduct>>> calls = new ArrayList<>();
+        for (OfferProvider provider : selected) {
+            calls.add(call(provider, product, searchQuery, deadline, progressCallback));
+        }
+
+        return CompletableFuture.allOf(calls.toArray(new CompletableFuture[0]))
+                .thenApply(v -> merge(calls));
+    }
+
+    /**
+     * Feeds matching results back into the ranking: each provider's yield is the number of
+     * its offers that passed matching.
+     */
+    public void recordMatches(List<ShoppingProduct> offered, List<ShoppingProduct> matched) {
+        Map<String, Integer> matchedByProvider = new HashMap<>();
+        for (ShoppingProduct offer : offered) {
+            if (offer.getProvider() != null) {
+                matchedByProvider.putIfAbsent(offer.getProvider(), 0);
+            }
+        }
+        for (ShoppingProduct offer : matched) {
+            if (offer.getProvider() != null) {
+                matchedByProvider.merge(offer.getProvider(), 1, Integer::sum);
+            }
+        }
+        matchedByProvider.forEach((name, count) -> {
+            ProviderStats providerStats = stats.get(name);
+            if (providerStats != null) {
+                providerStats.recordYield(count);
+            }
+        });
+    }
+
+    /** Available providers, best first, limited to {@code offers.max-providers}. */
+    List<OfferProvider> selectProviders() {
+        return providers.values().stream()
+                .filter(OfferProvider::isAvailable)
+                .sorted(Comparator.comparingDouble((OfferProvider p) -> stats.get(p.getName()).score()).reversed())
+                .limit(Math.max(1, maxProviders))
+                .collect(Collectors.toList());
+    }
+
+    private CompletableFuture<List<ShoppingProduct>> call(OfferProvider provider, ProductDocument product,
+                                                          String searchQuery, long deadline,
+                                                          BiConsumer<Integer, String> progressCallback) {
+        String name = provider.getName();
+        long start = System.nanoTime();
+        AtomicBoolean recorded = new AtomicBoolean();
+
+        CompletableFuture<List<ShoppingProduct>> future;
+        try {
+            future = provider.findOffers(product, searchQuery, deadline, progressCallback);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        if (future == null) {
+            future = CompletableFuture.completedFuture(List.of());
+        }
+
+        return future
+                .handle((offers, error) -> {
+                    long elapsed = System.nanoTime() - start;
+                    if (error != null) {
+                        logger.warn("Offer provider '{}' failed: {}", name, error.getMessage());
+                        record(name, OUTCOME_ERROR, elapsed, 0, recorded);
+                        return List.<ShoppingProduct>of();
+                    }
+                    List<ShoppingProduct> result = offers != null ? offers : List.of();
+                    result.forEach(offer -> offer.setProvider(name));
+                    logger.info("Offer provider '{}' returned {} offers in {}ms", name, result.size(),
+                            TimeUnit.NANOSECONDS.toMillis(elapsed));
+                    record(name, OUTCOME_SUCCESS, elapsed, result.size(), recorded);
+                    return result;
+                })
+                .completeOnTimeout(null, deadlineMillis, TimeUnit.MILLISECONDS)
+                .thenApply(result -> {
+                    if (result == null) {
+                        logger.warn("Offer provider '{}' missed the {}ms deadline", name, deadlineMillis);
+                        record(name, OUTCOME_TIMEOUT, System.nanoTime() - start, 0, recorded);
+                        return List.<ShoppingProduct>of();
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Records a provider call once: whichever of completion and deadline comes first wins, so a late
+     * answer does not count twice. A provider that returned nothing has yielded nothing.
+     */
+    private void record(String name, String outcome, long elapsedNanos, int offers, AtomicBoolean recorded) {
+        if (!recorded.compareAndSet(false, true)) {
+            return;
+        }
+        ProviderStats providerStats = stats.get(name);
+        providerStats.recordCall(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        if (offers == 0) {
+            providerStats.recordYield(0);
+        }
+        Timer.builder("offers.provider")
+                .description("Duration of one offer provider search")
+                .tag("provider", name)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private List<ShoppingProduct> merge(List<CompletableFuture<List<ShoppingProduct>>> calls) {
+        List<ShoppingProduct> merged = new ArrayList<>();
+        for (CompletableFuture<List<ShoppingProduct>> call : calls) {
+            merged.addAll(call.join());
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.utils.AimdConcurrencyLimiter;
+import com.example.price_comparator.utils.CircuitBreaker;
+import com.example.price_comparator.utils.HedgingPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import okhttp3.ConnectionPool;
+import okhttp3.Credentials;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Shared transport for the Oxylabs realtime API.
+ *
+ * All calls go through one connection pool, an adaptive concurrency limit and a circuit
+ * breaker. Critical calls (the initial shopping search) wait for a concurrency slot and
+ * are attempted even while the breaker is open. Optional calls (enhancement) fail fast
+ * with {@link OxylabsUnavailableException} when the breaker is open or no slot is free,
+ * so a provider brownout degrades comparisons to search-only instead of tying up threads.
+ * Calls with a long latency tail can be hedged, see {@link #executeForBodyHedged}.
+ */
+@Component
+public class OxylabsClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(OxylabsClient.class);
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    public static final String DEFAULT_ENDPOINT = "https://realtime.oxylabs.io/v1/queries";
+
+    public enum Priority { CRITICAL, OPTIONAL }
+
+    /** Timeouts in seconds: connect, read, write. */
+    public enum Timeouts {
+        SEARCH(10, 180, 10),
+        FAST(5, 20, 5);
+
+        final int connect;
+        final int read;
+        final int write;
+
+        Timeouts(int connect, int read, int write) {
+            this.connect = connect;
+            this.read = read;
+            this.write = write;
+        }
+    }
+
+    /** Thrown without contacting Oxylabs when the breaker or concurrency limit refuses a call. */
+    public static class OxylabsUnavailableException extends IOException {
+        public OxylabsUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    private final String endpoint;
+    private final CircuitBreaker circuitBreaker;
+    private final AimdConcurrencyLimiter concurrencyLimiter;
+    private final PipelineMetrics pipelineMetrics;
+    private final long criticalWaitMillis;
+    private final Map<Timeouts, OkHttpClient> clients = new EnumMap<>(Timeouts.class);
+    private final Counter fastFailures;
+    private final HedgingPolicy hedgingPolicy;
+    private final ThreadPoolExecutor hedgeExecutor;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter hedgesDenied;
+
+    @Autowired
+    public OxylabsClient(@Value("${oxylabs.endpoint:" + DEFAULT_ENDPOINT + "}") String endpoint,
+                         CircuitBreaker oxylabsCircuitBreaker,
+                         AimdConcurrencyLimiter oxylabsConcurrencyLimiter,
+                         HedgingPolicy oxylabsHedgingPolicy,
+                         PipelineMetrics pipelineMetrics,
+                         MeterRegistry registry,
+                         @Value("${oxylabs.concurrency.critical-wait-ms:30000}") long criticalWaitMillis,
+                         @Value("${oxylabs.hedge.threads:32}") int hedgeThreads) {
+        this.endpoint = endpoint;
+        this.circuitBreaker = oxylabsCircuitBreaker;
+        this.concurrencyLimiter = oxylabsConcurrencyLimiter;
+        this.hedgingPolicy = oxylabsHedgingPolicy;
+        this.pipelineMetrics = pipelineMetrics;
+        this.criticalWaitMillis = criticalWaitMillis;
+        // No queue: a call that finds every thread busy runs on the caller's thread, unhedged
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hedgeExecutor = new ThreadPoolExecutor(0, hedgeThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "oxylabs-hedge-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        OkHttpClient base = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(16, 5, TimeUnit.MINUTES))
+                .build();
+        for (Timeouts timeouts : Timeouts.values()) {
+            clients.put(timeouts, base.newBuilder()
+                    .connectTimeout(timeouts.connect, TimeUnit.SECONDS)
+                    .readTimeout(timeouts.read, TimeUnit.SECONDS)
+                    .writeTimeout(timeouts.write, TimeUnit.SECONDS)
+                    .build());
+        }
+
+        this.fastFailures = Counter.builder("oxylabs.fast.failures")
+                .description("Optional Oxylabs calls refused by the breaker or concurrency limit")
+                .register(registry);
+        Gauge.builder("oxylabs.breaker.state", circuitBreaker, b -> b.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half open")
+                .register(registry);
+        Gauge.builder("oxylabs.concurrency.limit", concurrencyLimiter, AimdConcurrencyLimiter::getLimit)
+                .register(registry);
+        Gauge.builder("oxylabs.concurrency.in.flight", concurrencyLimiter, AimdConcurrencyLimiter::getInFlight)
+                .register(registry);
+
+        this.hedgesSent = hedgeCounter(registry, "sent");
+        this.hedgesWon = hedgeCounter(registry, "won");
+        this.hedgesDenied = hedgeCounter(registry, "denied");
+        Gauge.builder("oxylabs.hedge.delay", hedgingPolicy, p -> p.getHedgeDelayNanos() / 1_000_000.0)
+                .description("Current hedge delay in milliseconds")
+                .register(registry);
+        pipelineMetrics.monitorExecutor(hedgeExecutor, "oxylabsHedge");
+    }
+
+    /**
+     * A client with default breaker and limiter settings, for scrapers built outside Spring.
+     */
+    public static OxylabsClient withDefaults() {
+        return new OxylabsClient(DEFAULT_ENDPOINT,
+                new CircuitBreaker("oxylabs", 20, 10, 0.5, 15_000, 30_000, 2),
+                new AimdConcurrencyLimiter("oxylabs", 8, 1, 16, 15_000, 0.7),
+                HedgingPolicy.disabled(), new PipelineMetrics(), new SimpleMeterRegistry(), 30_000, 32);
+    }
+
+    /**
+     * Posts a query and returns the raw response, which the caller must close. Non-2xx
+     * responses are returned, not thrown. {@code stage} may be null when the caller times
+     * the call itself.
+     */
+    public Response execute(String payload, String username, String password,
+                            Timeouts timeouts, Priority priority, String stage) throws IOException {
+        if (priority == Priority.OPTIONAL && !isEnhancementAvailable()) {
+            fastFailures.increment();
+            throw new OxylabsUnavailableException("Oxylabs circuit breaker is open");
+        }
+        acquireSlot(priority);
+        boolean breakerPermitted = circuitBreaker.tryAcquirePermission();
+        if (!breakerPermitted && priority == Priority.OPTIONAL) {
+            concurrencyLimiter.onIgnore();
+            fastFailures.increment();
+            throw new OxylabsUnavailableException("Oxylabs circuit breaker is not accepting calls");
+        }
+        return send(payload, username, password, timeouts, stage, breakerPermitted);
+    }
+
+    /**
+     * Posts a query and returns the body, throwing on a non-2xx status.
+     */
+    public String executeForBody(String payload, String username, String password,
+                                 Timeouts timeouts, Priority priority, String stage) throws IOException {
+        try (Response response = execute(payload, username, password, timeouts, priority, stage)) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("Unexpected response code: " + response.code());
+            }
+            return response.body().string();
+        }
+    }
+
+    /**
+     * Like {@link #executeForBody}, but if no response has arrived after the policy's hedge
+     * delay, sends the same request again and returns whichever succeeds first. A hedge is
+     * sent only if a hedge thread is free and the hedging budget and {@code hedgePermit} (e.g. the
+     * caller's quota) allow; {@code hedgePermit} is asked last, so it is only charged for hedges
+     * that are sent. The slower attempt is left to finish in the background, so it still reports
+     * to the breaker and concurrency limit instead of looking like a failure. Only successful
+     * attempts feed the hedge delay, so fast failures do not pull it down.
+     */
+    public String executeForBodyHedged(String payload, String username, String password, Timeouts timeouts,
+                                       Priority priority, String stage, BooleanSupplier hedgePermit) throws IOException {
+        if (!hedgingPolicy.isEnabled()) {
+            return executeForBody(payload, username, password, timeouts, priority, stage);
+        }
+        hedgingPolicy.onRequest();
+        Callable<String> attempt = () -> {
+            long start = System.nanoTime();
+            String body = executeForBody(payload, username, password, timeouts, priority, stage);
+            hedgingPolicy.recordLatency(System.nanoTime() - start);
+            return body;
+        };
+
+        CompletionService<String> attempts = new ExecutorCompletionService<>(hedgeExecutor);
+        attempts.submit(attempt);
+        Future<String> hedge = null;
+        int pending = 1;
+        IOException failure = null;
+        try {
+            Future<String> done = attempts.poll(hedgingPolicy.getHedgeDelayNanos(), TimeUnit.NANOSECONDS);
+            if (done == null) {
+                if (hasIdleHedgeThread() && acquireHedge(hedgePermit)) {
+                    hedge = attempts.submit(attempt);
+                    pending++;
+                    hedgesSent.increment();
+                    logger.debug("OXYLABS HEDGE - primary slower than {}ms, sending duplicate",
+                            hedgingPolicy.getHedgeDelayNanos() / 1_000_000);
+                } else {
+                    hedgesDenied.increment();
+                }
+            }
+            while (pending > 0) {
+                if (done == null) {
+                    done = attempts.take();
+                }
+                pending--;
+                try {
+                    String body = done.get();
+                    if (done == hedge) {
+                        hedgesWon.increment();
+                    }
+                    return body;
+                } catch (ExecutionException e) {
+                    IOException cause = e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+                    // Report a call that reached Oxylabs over one refused locally, so the caller knows it was spent
+                    if (failure == null || failure instanceof OxylabsUnavailableException) {
+                        failure = cause;
+                    }
+                }
+                done = null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for Oxylabs response");
+        }
+        throw failure;
+    }
+
+    private boolean hasIdleHedgeThread() {
+        return hedgeExecutor.getActiveCount() < hedgeExecutor.getMaximumPoolSize();
+    }
+
+    /** Takes a hedge from the policy's budget, then the caller's permit; a refused permit returns the hedge. */
+    private boolean acquireHedge(BooleanSupplier hedgePermit) {
+        if (!hedgingPolicy.tryAcquireHedge()) {
+            return false;
+        }
+        if (!hedgePermit.getAsBoolean()) {
+            hedgingPolicy.releaseHedge();
+            return false;
+        }
+        return true;
+    }
+
+    /** False while the breaker is open; enhancement should not even be attempted. */
+    public boolean isEnhancementAvailable() {
+        return circuitBreaker.getState() != CircuitBreaker.State.OPEN;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    // Caller holds a concurrency slot; every path below releases it through recordOutcome.
+    private Response send(String payload, String username, String password, Timeouts timeouts,
+                          String stage, boolean breakerPermitted) throws IOException {
+        Request request = new Request.Builder()
+                .url(endpoint)
+                .post(RequestBody.create(payload, JSON))
+                .header("Authorization", Credentials.basic(username, password))
+                .build();
+
+        long start = System.nanoTime();
+        try {
+            Response response = clients.get(timeouts).newCall(request).execute();
+            long elapsed = System.nanoTime() - start;
+            recordOutcome(response.code() >= 500 || response.code() == 429, judgedLatency(elapsed, timeouts), breakerPermitted);
+            if (stage != null) {
+                pipelineMetrics.recordStage(stage,
+                        response.isSuccessful() ? PipelineMetrics.OUTCOME_SUCCESS : "http_" + response.code(), elapsed);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            long elapsed = System.nanoTime() - start;
+            recordOutcome(true, judgedLatency(elapsed, timeouts), breakerPermitted);
+            if (stage != null) {
+                pipelineMetrics.recordStage(stage, PipelineMetrics.OUTCOME_ERROR, elapsed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The slow-call thresholds are set for FAST calls; a call with a longer read timeout is judged
+     * slow at the same share of its own timeout, so a normal search does not count as slow.
+     */
+    static long judgedLatency(long elapsedNanos, Timeouts timeouts) {
+        return elapsedNanos * Timeouts.FAST.read / timeouts.read;
+    }
+
+    private void recordOutcome(boolean providerFailure, long elapsedNanos, boolean breakerPermitted) {
+        if (providerFailure) {
+            concurrencyLimiter.onFailure();
+        } else {
+            concurrencyLimiter.onSuccess(elapsedNanos);
+        }
+        if (!breakerPermitted) {
+            return;
+        }
+        CircuitBreaker.State before = circuitBreaker.getState();
+        if (providerFailure) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess(elapsedNanos);
+        }
+        CircuitBreaker.State after = circuitBreaker.getState();
+        if (before != after) {
+            logger.warn("OXYLABS CIRCUIT BREAKER {} -> {} (failure rate {}%, concurrency limit {})", before, after,
+                    String.format("%.0f", circuitBreaker.getFailureRate() * 100), concurrencyLimiter.getLimit());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Attempts still running are losers nobody waits for
+        hedgeExecutor.shutdownNow();
+    }
+
+    private static Counter hedgeCounter(MeterRegistry registry, String result) {
+        return Counter.builder("oxylabs.hedge.requests")
+                .description("Hedged Oxylabs requests")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private void acquireSlot(Priority priority) throws IOException {
+        if (priority == Priority.OPTIONAL) {
+            if (!concurrencyLimiter.tryAcquire()) {
+                fastFailures.increment();
+                throw new OxylabsUnavailableException("Oxylabs concurrency limit reached ("
+                        + concurrencyLimiter.getLimit() + ")");
+            }
+            return;
+        }
+        try {
+            if (!concurrencyLimiter.tryAcquire(criticalWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new OxylabsUnavailableException("Timed out waiting for an Oxylabs concurrency slot");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OxylabsUnavailableException("Interrupted waiting for an Oxylabs concurrency slot");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.ShoppingProduct;
+import com.example.price_comparator.model.ProductDocument;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * Google Shopping offers scraped through Oxylabs, including the detailed-spec enhancement.
+ */
+@Component
+public class OxylabsOfferProvider implements OfferProvider {
+
+    public static final String NAME = "oxylabs";
+
+    private final ShoppingService shoppingService;
+    private final Executor executor;
+    private final String username;
+    private final String password;
+
+    public OxylabsOfferProvider(ShoppingService shoppingService,
+                                @Qualifier("offerProviderExecutor") Executor executor,
+                                @Value("${oxylabs.username}") String username,
+                                @Value("${oxylabs.password}") String password) {
+        this.shoppingService = shoppingService;
+        this.executor = executor;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return username != null && !username.isBlank();
+    }
+
+    @Override
+    public CompletableFuture<List<ShoppingProduct>> findOffers(ProductDocument product, String searchQuery,
+                                                               long deadline, BiConsumer<Integer, String> progressCallback) {
+        // The scraper is blocking, so it gets a thread of its own
+        return CompletableFuture.supplyAsync(
+                () -> shoppingService.findOffersEnhanced(product, username, password, deadline, progressCallback), executor);
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.price_comparator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts Oxylabs calls and enforces call budgets per comparison, per minute and per day.
+ *
+ * Callers ask for a permit before every request and are expected to degrade (skip
+ * enhancement, return what they have) when one is refused. Minute and day windows are
+ * fixed UTC windows. Spend is published as {@code oxylabs.requests} and
+ * {@code oxylabs.requests.rejected} counters, tagged by source, plus per-window usage gauges.
+ */
+@Component
+public class OxylabsQuotaManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(OxylabsQuotaManager.class);
+
+    public static final String SOURCE_SEARCH = "search";
+    public static final String SOURCE_DISCOVERY = "discovery";
+    public static final String SOURCE_PRODUCT = "product";
+    public static final String SOURCE_HEDGE = "hedge";
+
+    private static final long MINUTE_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    private final int perComparisonLimit;
+    private final int perMinuteLimit;
+    private final int perDayLimit;
+    private final LongSupplier clock;
+    private final MeterRegistry registry;
+
+    private long currentMinute = -1;
+    private int minuteUsed;
+    private long currentDay = -1;
+    private int dayUsed;
+
+    private final Map<String, Counter> requestCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> refundCounters = new ConcurrentHashMap<>();
+    private final DistributionSummary requestsPerComparison;
+
+    @Autowired
+    public OxylabsQuotaManager(MeterRegistry registry,
+                               @Value("${oxylabs.budget.per-comparison:25}") int perComparisonLimit,
+                               @Value("${oxylabs.budget.per-minute:60}") int perMinuteLimit,
+                               @Value("${oxylabs.budget.per-day:2000}") int perDayLimit) {
+        this(registry, perComparisonLimit, perMinuteLimit, perDayLimit, System::currentTimeMillis);
+    }
+
+    public OxylabsQuotaManager(MeterRegistry registry, int perComparisonLimit, int perMinuteLimit,
+                               int perDayLimit, LongSupplier clock) {
+        this.registry = registry;
+        this.perComparisonLimit = perComparisonLimit;
+        this.perMinuteLimit = perMinuteLimit;
+        this.perDayLimit = perDayLimit;
+        this.clock = clock;
+        this.requestsPerComparison = DistributionSummary.builder("oxylabs.comparison.requests")
+                .description("Oxylabs calls made by one comparison")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("oxylabs.quota.used", this, OxylabsQuotaManager::getMinuteUsed)
+                .tag("window", "minute").register(registry);
+        Gauge.builder("oxylabs.quota.used", this, OxylabsQuotaManager::getDayUsed)
+                .tag("window", "day").register(registry);
+        Gauge.builder("oxylabs.quota.limit", this, m -> m.perMinuteLimit)
+                .tag("window", "minute").register(registry);
+        Gauge.builder("oxylabs.quota.limit", this, m -> m.perDayLimit)
+                .tag("window", "day").register(registry);
+    }
+
+    /**
+     * A manager with no limits, for scrapers built outside Spring.
+     */
+    public static OxylabsQuotaManager unlimited() {
+        return new OxylabsQuotaManager(new SimpleMeterRegistry(), Integer.MAX_VALUE, Integer.MAX_VALUE,
+                Integer.MAX_VALUE, System::currentTimeMillis);
+    }
+
+    /** Call budget and spend of a single comparison. Safe to share across worker threads. */
+    public static final class ComparisonBudget {
+        private final String label;
+        private final int limit;
+        private final AtomicInteger used = new AtomicInteger();
+        private final Map<String, AtomicInteger> callsBySource = new ConcurrentHashMap<>();
+        private volatile boolean exhausted;
+
+        ComparisonBudget(String label, int limit) {
+            this.label = label;
+            this.limit = limit;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public int getUsed() {
+            return used.get();
+        }
+
+        /** True once any request for this comparison has been refused. */
+        public boolean isExhausted() {
+            return exhausted;
+        }
+
+        public Map<String, Integer> getCallsBySource() {
+            Map<String, Integer> calls = new TreeMap<>();
+            callsBySource.forEach((source, count) -> calls.put(source, count.get()));
+            return calls;
+        }
+    }
+
+    /**
+     * One granted call, remembering the windows it was counted in so that a refund only gives
+     * back what is still counted.
+     */
+    public static final class Permit {
+        private final ComparisonBudget budget;
+        private final String source;
+        private final long minute;
+        private final long day;
+        private final AtomicBoolean refunded = new AtomicBoolean();
+
+        Permit(ComparisonBudget budget, String source, long minute, long day) {
+            this.budget = budget;
+            this.source = source;
+            this.minute = minute;
+            this.day = day;
+        }
+    }
+
+    public ComparisonBudget startComparison(String label) {
+        return new ComparisonBudget(label, perComparisonLimit);
+    }
+
+    /**
+     * Takes one call from every applicable budget, or none if any of them is spent.
+     *
+     * @param budget the comparison making the call, or null for calls outside a comparison
+     * @return true if the call may be made
+     */
+    public boolean tryAcquire(ComparisonBudget budget, String source) {
+        return acquire(budget, source, true) != null;
+    }
+
+    /**
+     * Like {@link #tryAcquire}, for calls that may be {@link #refund refunded}.
+     *
+     * @return the permit, or null if the call may not be made
+     */
+    public Permit tryAcquirePermit(ComparisonBudget budget, String source) {
+        return acquire(budget, source, true);
+    }
+
+    /**
+     * Like {@link #tryAcquire}, for optional extra calls such as hedges: a refusal does not mark
+     * the comparison's budget exhausted, so its own calls still go ahead while they fit.
+     */
+    public boolean tryAcquireSpare(ComparisonBudget budget, String source) {
+        return acquire(budget, source, false) != null;
+    }
+
+    private Permit acquire(ComparisonBudget budget, String source, boolean exhaustOnRefusal) {
+        String refusedBy = null;
+        Permit permit = null;
+        synchronized (this) {
+            rollWindows(clock.getAsLong());
+            if (budget != null && budget.used.get() >= budget.limit) {
+                refusedBy = "comparison";
+            } else if (minuteUsed >= perMinuteLimit) {
+                refusedBy = "minute";
+            } else if (dayUsed >= perDayLimit) {
+                refusedBy = "day";
+            } else {
+                minuteUsed++;
+                dayUsed++;
+                if (budget != null) {
+                    budget.used.incrementAndGet();
+                }
+                permit = new Permit(budget, source, currentMinute, currentDay);
+            }
+        }
+
+        if (refusedBy != null) {
+            if (budget != null && exhaustOnRefusal) {
+                budget.exhausted = true;
+            }
+            rejectionCounter(source, refusedBy).increment();
+            logger.warn("OXYLABS BUDGET - {} call refused by {} budget{}", source, refusedBy,
+                    budget != null ? " (comparison '" + budget.label + "')" : "");
+            return null;
+        }
+        if (budget != null) {
+            budget.callsBySource.computeIfAbsent(source, s -> new AtomicInteger()).incrementAndGet();
+        }
+        requestCounter(source).increment();
+        return permit;
+    }
+
+    /**
+     * Gives back a permit whose call never reached Oxylabs, e.g. because the circuit breaker or
+     * concurrency limit refused it. A window that has rolled over since the permit was taken no
+     * longer counts it and is left as it is. Refunding a permit twice has no effect.
+     */
+    public void refund(Permit permit) {
+        if (!permit.refunded.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (this) {
+            rollWindows(clock.getAsLong());
+            if (permit.minute == currentMinute) {
+                minuteUsed = Math.max(0, minuteUsed - 1);
+            }
+            if (permit.day == currentDay) {
+                dayUsed = Math.max(0, dayUsed - 1);
+            }
+        }
+        ComparisonBudget budget = permit.budget;
+        String source = permit.source;
+        if (budget != null) {
+            budget.used.decrementAndGet();
+            AtomicInteger calls = budget.callsBySource.get(source);
+            if (calls != null) {
+                calls.decrementAndGet();
+            }
+        }
+        refundCounters.computeIfAbsent(source, s -> Counter.builder("oxylabs.requests.refunded")
+                .description("Oxylabs permits given back because the call was refused locally")
+                .tag("source", s)
+                .register(registry)).increment();
+    }
+
+    /**
+     * Records the comparison's total spend and logs a per-source breakdown.
+     */
+    public void finishComparison(ComparisonBudget budget) {
+        requestsPerComparison.record(budget.getUsed());
+        logger.info("OXYLABS SPEND - '{}': {} of {} calls {}{}", budget.label, budget.getUsed(), budget.limit,
+                budget.getCallsBySource(), budget.isExhausted() ? " (budget exhausted, enhancement degraded)" : "");
+    }
+
+    private void rollWindows(long now) {
+        long minute = now / MINUTE_MS;
+        if (minute != currentMinute) {
+            currentMinute = minute;
+            minuteUsed = 0;
+        }
+        long day = now / DAY_MS;
+        if (day != currentDay) {
+            currentDay = day;
+            dayUsed = 0;
+        }
+    }
+
+    public synchronized int getMinuteUsed() {
+        rollWindows(clock.getAsLong());
+        return minuteUsed;
+    }
+
+    public synchronized int getDayUsed() {
+        rollWindows(clock.getAsLong());
+        return dayUsed;
+    }
+
+    private Counter requestCounter(String source) {
+        return requestCounters.computeIfAbsent(source, s -> Counter.builder("oxylabs.requests")
+                .description("Oxylabs calls made")
+                .tag("source", s)
+                .register(registry));
+    }
+
+    private Counter rejectionCounter(String source, String budget) {
+        return rejectionCounters.computeIfAbsent(source + "|" + budget, key -> Counter.builder("oxylabs.requests.rejected")
+                .description("Oxylabs calls refused by a budget")
+                .tag("source", source)
+                .tag("budget", budget)
+                .register(registry));
+    }
+}
@@ -8,6 +8,7 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PreDestroy;
@@ -18,9 +19,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -32,7 +35,38 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
     // Enhanced executor service for parallel processing - optimized for faster enhancement
     private final ExecutorService executorService = Executors.newFixedThreadPool(8); // Process 8 products concurrently for maximum speed
 
+    /** Worst case of one enhancement batch: URL discovery plus product fetch, each on the FAST timeout. */
+    static final long ENHANCEMENT_BATCH_MILLIS = TimeUnit.SECONDS.toMillis(2L * OxylabsClient.Timeouts.FAST.read);
+
+    private final PipelineMetrics pipelineMetrics;
+    private final OxylabsQuotaManager quotaManager;
+    private final OxylabsClient oxylabsClient;
+
+    public OxylabsShoppingScraper() {
+        this(new PipelineMetrics(), OxylabsQuotaManager.unlimited(), OxylabsClient.withDefaults());
+    }
+
+    @Autowired
+    public OxylabsShoppingScraper(PipelineMetrics pipelineMetrics, OxylabsQuotaManager quotaManager,
+                                  OxylabsClient oxylabsClient) {
+        this.pipelineMetrics = pipelineMetrics;
+        this.quotaManager = quotaManager;
+        this.oxylabsClient = oxylabsClient;
+        pipelineMetrics.monitorExecutor(executorService, "oxylabsScraper");
+    }
+
     public List<ShoppingProduct> scrapeShoppingResults(String query, String geoLocation, String username, String password, BiConsumer<Integer, String> progressCallback) {
+        OxylabsQuotaManager.ComparisonBudget budget = quotaManager.startComparison(query);
+        try {
+            return scrapeShoppingResults(query, geoLocation, username, password, progressCallback, budget);
+        } finally {
+            quotaManager.finishComparison(budget);
+        }
+    }
+
+    private List<ShoppingProduct> scrapeShoppingResults(String query, String geoLocation, String username, String password,
+                                                        BiConsumer<Integer, String> progressCallback,
+                                                        OxylabsQuotaManager.ComparisonBudget budget) {
         List<ShoppingProduct> products = new ArrayList<>();
         
         logger.info("=====================================");
@@ -44,6 +78,15 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
         logger.info("  Username: '{}'", username != null ? username.substring(0, Math.min(3, username.length())) + "***" : "null");
         logger.info("  Password: {}", password != null ? "[PROVIDED]" : "[NOT PROVIDED]");
         logger.info("=====================================");
+
+        OxylabsQuotaManager.Permit permit = quotaManager.tryAcquirePermit(budget, OxylabsQuotaManager.SOURCE_SEARCH);
+        if (permit == null) {
+            logger.warn("Oxylabs quota exhausted - skipping search for '{}'", query);
+            if (progressCallback != null) {
+                progressCallback.accept(100, "Search quota exhausted, try again shortly.");
+            }
+            return products;
+        }
         
         try {
         if (progressCallback != null) {
@@ -72,40 +115,21 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
             logger.debug("Complete Request Payload:");            logger.debug("{}", formatJsonForLogging(jsonObject.toString()));
 
             logger.info("PREPARING HTTP CLIENT:");
-            logger.info("  Endpoint: https://realtime.oxylabs.io/v1/queries");
+            logger.info("  Endpoint: {}", oxylabsClient.getEndpoint());
             logger.info("  Method: POST");
             logger.info("  Authentication: Basic Auth");
             logger.info("  Timeout: 180 seconds");
 
-            OkHttpClient client = new OkHttpClient.Builder()
-                    .addInterceptor(chain -> {
-                        String credential = Credentials.basic(username, password);
-                        Request originalRequest = chain.request();
-                        Request newRequest = originalRequest.newBuilder()
-                                .header("Authorization", credential)
-                                .build();
-                        return chain.proceed(newRequest);
-                    })
-                    .readTimeout(180, TimeUnit.SECONDS)
-                    .build();
-
-            MediaType mediaType = MediaType.parse("application/json; charset=utf-8");
-            RequestBody body = RequestBody.create(jsonObject.toString(), mediaType);
-
-            Request request = new Request.Builder()
-                    .url("https://realtime.oxylabs.io/v1/queries")
-                    .post(body)
-                    .build();
-
             logger.info("SENDING REQUEST TO OXYLABS:");
-            logger.info("  URL: {}", request.url());
+            logger.info("  URL: {}", oxylabsClient.getEndpoint());
             logger.info("  Payload size: {} characters", jsonObject.toString().length());
             if (progressCallback != null) {
                 progressCallback.accept(25, "Sending request to Oxylabs...");
             }
             
             long requestStartTime = System.currentTimeMillis();
-              try (Response response = client.newCall(request).execute()) {
+              try (Response response = oxylabsClient.execute(jsonObject.toString(), username, password,
+                      OxylabsClient.Timeouts.SEARCH, OxylabsClient.Priority.CRITICAL, PipelineMetrics.STAGE_OXYLABS_SEARCH)) {
                 long responseTime = System.currentTimeMillis() - requestStartTime;
                 
                 logger.info("RESPONSE RECEIVED FROM OXYLABS:");
@@ -135,7 +159,7 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
                     JSONArray results = responseJson.optJSONArray("results");
                     if (results != null && results.length() > 0) {
                         logger.info("Processing {} result objects from response", results.length());
-                        extractProducts(results, products);
+                        pipelineMetrics.timeStage(PipelineMetrics.STAGE_EXTRACTION, () -> extractProducts(results, products));
                         if (progressCallback != null) {
                             progressCallback.accept(90, "Found " + products.size() + " potential offers.");
                         }
@@ -154,8 +178,8 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
                     logger.error("OXYLABS REQUEST FAILED");
                     logger.error("  Status Code: {}", response.code());
                     logger.error("  Status Message: {}", response.message());
-                    logger.error("  Request URL: {}", request.url());
-                    logger.error("  Request Method: {}", request.method());
+                    logger.error("  Request URL: {}", oxylabsClient.getEndpoint());
+                    logger.error("  Request Method: {}", "POST");
                     
                     if (response.body() != null) {
                         String errorBody = response.body().string();
@@ -170,7 +194,11 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
                         progressCallback.accept(100, "Failed to retrieve offers - HTTP " + response.code());
                     }
                 }
-            }        } catch (Exception e) {
+            } catch (OxylabsClient.OxylabsUnavailableException e) {
+                quotaManager.refund(permit);
+                throw e;
+            }
+        } catch (Exception e) {
             logger.error("OXYLABS SCRAPING ERROR OCCURRED");
             logger.error("  Exception Type: {}", e.getClass().getSimpleName());
             logger.error("  Exception Message: {}", e.getMessage());
@@ -687,277 +715,14 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
      * Updated to handle full Oxylabs Shopping Product API response structure
      */
     private String extractBestImageUrl(JSONObject item) {
-        String imageUrl = null;
-        String source = "none";
-        int bestQuality = 0;
-        
-        // Strategy 1: Check for Oxylabs standard product image field first (highest priority)
-        if (item.has("image") && !item.isNull("image")) {
-            Object imageField = item.opt("image");
-            if (imageField instanceof String) {
-                String candidateUrl = (String) imageField;
-                if (isValidImageUrl(candidateUrl)) {
-                    imageUrl = candidateUrl;
-                    source = "image (primary)";
-                    bestQuality = estimateImageQuality(candidateUrl) + 2000000; // Highest priority
-                }
-            } else if (imageField instanceof JSONObject) {
-                JSONObject imageObj = (JSONObject) imageField;
-                String candidateUrl = JsonUtils.optString(imageObj, "url", null);
-                if (candidateUrl == null) candidateUrl = JsonUtils.optString(imageObj, "src", null);
-                if (candidateUrl == null) candidateUrl = JsonUtils.optString(imageObj, "href", null);
-                if (isValidImageUrl(candidateUrl)) {
-                    imageUrl = candidateUrl;
-                    source = "image object (primary)";
-                    int width = imageObj.optInt("width", 0);
-                    int height = imageObj.optInt("height", 0);
-                    bestQuality = (width * height) + 2000000; // Highest priority
-                }
-            }
-        }
-        
-        // Strategy 2: Check for main_image field (Oxylabs Product API specific)
-        if (imageUrl == null && item.has("main_image") && !item.isNull("main_image")) {
-            String candidateUrl = JsonUtils.optString(item, "main_image", null);
-            if (isValidImageUrl(candidateUrl)) {
-                imageUrl = candidateUrl;
-                source = "main_image";
-                bestQuality = estimateImageQuality(candidateUrl) + 1800000;
-            }
-        }
-        
-        // Strategy 3: Check for direct string image fields
-        String[] imageFields = {"thumbnail", "image_url", "thumb", "picture", "photo", "img_url", "product_image", "featured_image"};
-        
-        for (String field : imageFields) {
-            if (item.has(field) && !item.isNull(field)) {
-                Object fieldValue = item.opt(field);
-                if (fieldValue instanceof String) {
-                    String candidateUrl = (String) fieldValue;
-                    if (isValidImageUrl(candidateUrl)) {
-                        if (imageUrl == null) {
-                            imageUrl = candidateUrl;
-                            source = field;
-                            bestQuality = estimateImageQuality(candidateUrl) + 1500000;
-                        }
-                        break;
-                    }
-                }
-            }
-        }        
-        // Strategy 4: Check for image arrays and select highest quality
-        if (item.has("images") && !item.isNull("images")) {
-            JSONArray images = item.optJSONArray("images");
-            if (images != null && images.length() > 0) {
-                String bestImage = null;
-                int currentBestQuality = bestQuality;
-                
-                for (int i = 0; i < images.length(); i++) {
-                    Object imgItem = images.opt(i);
-                    String candidateUrl = null;
-                    int quality = 0;
-                    
-                    if (imgItem instanceof String) {
-                        candidateUrl = (String) imgItem;
-                        quality = estimateImageQuality(candidateUrl) + 1200000;
-                    } else if (imgItem instanceof JSONObject) {
-                        JSONObject imgObj = (JSONObject) imgItem;
-                        candidateUrl = JsonUtils.optString(imgObj, "url", null);
-                        if (candidateUrl == null) {
-                            candidateUrl = JsonUtils.optString(imgObj, "src", null);
-                        }
-                        if (candidateUrl == null) {
-                            candidateUrl = JsonUtils.optString(imgObj, "href", null);
-                        }
-                        
-                        // Calculate quality based on dimensions
-                        int width = imgObj.optInt("width", 0);
-                        int height = imgObj.optInt("height", 0);
-                        quality = (width * height) + 1200000;
-                        
-                        // If no dimensions, estimate from URL
-                        if (quality == 1200000) {
-                            quality = estimateImageQuality(candidateUrl) + 1200000;
-                        }
-                        
-                        // Prefer main product images
-                        String type = JsonUtils.optString(imgObj, "type", "");
-                        if ("main".equalsIgnoreCase(type) || "primary".equalsIgnoreCase(type)) {
-                            quality += 500000; // Boost main images
-                        }
-                    }
-                    
-                    if (isValidImageUrl(candidateUrl) && quality > currentBestQuality) {
-                        bestImage = candidateUrl;
-                        currentBestQuality = quality;
-                    }
-                }
-                
-                if (bestImage != null && (imageUrl == null || currentBestQuality > bestQuality)) {
-                    imageUrl = bestImage;
-                    bestQuality = currentBestQuality;
-                    source = "images array (quality: " + (currentBestQuality - 1200000) + ")";
-                }
-            }
-        }
-        
-        // Strategy 5: Check for product_info nested images (Oxylabs specific)
-        if (item.has("product_info") && !item.isNull("product_info")) {
-            JSONObject productInfo = item.optJSONObject("product_info");
-            if (productInfo != null) {
-                String productImage = JsonUtils.optString(productInfo, "image", null);
-                if (productImage == null) {
-                    productImage = JsonUtils.optString(productInfo, "main_image", null);
-                }
-                if (productImage == null) {
-                    productImage = JsonUtils.optString(productInfo, "primary_image", null);
-                }
-                if (isValidImageUrl(productImage) && (imageUrl == null || bestQuality < 1000000)) {
-                    imageUrl = productImage;
-                    source = "product_info image";
-                    bestQuality = estimateImageQuality(productImage) + 1000000;
-                }
-            }
-        }
-        
-        // Strategy 6: Check content object for images
-        if (item.has("content") && !item.isNull("content")) {
-            JSONObject content = item.optJSONObject("content");
-            if (content != null) {
-                String contentImage = JsonUtils.optString(content, "image_url", null);
-                if (contentImage == null) {
-                    contentImage = JsonUtils.optString(content, "featured_image", null);
-                }
-                if (contentImage == null) {
-                    contentImage = JsonUtils.optString(content, "main_image", null);
-                }
-                if (isValidImageUrl(contentImage) && (imageUrl == null || bestQuality < 800000)) {
-                    imageUrl = contentImage;
-                    source = "content image";
-                    bestQuality = estimateImageQuality(contentImage) + 800000;
-                }
-            }
-        }
-        
-        // Strategy 7: Check merchant or seller image (lowest priority)
-        if (imageUrl == null || bestQuality < 500000) {
-            JSONObject merchant = item.optJSONObject("merchant");
-            if (merchant != null) {
-                String merchantImage = JsonUtils.optString(merchant, "image", null);
-                if (merchantImage == null) {
-                    merchantImage = JsonUtils.optString(merchant, "logo", null);
-                }
-                if (isValidImageUrl(merchantImage) && imageUrl == null) {
-                    imageUrl = merchantImage;
-                    source = "merchant image";
-                    bestQuality = estimateImageQuality(merchantImage) + 100000;
-                }
-            }
-        }
-        
-        logger.debug("Image extraction: Found '{}' from source '{}' (quality: {})", 
-            imageUrl != null ? imageUrl : "null", source, bestQuality);
-        return imageUrl;
-    }
-      /**
-     * Validate if a URL is a proper image URL
-     * Enhanced validation for better product image detection
-     */
-    private boolean isValidImageUrl(String url) {
-        if (url == null || url.trim().isEmpty()) {
-            return false;
-        }
-        
-        url = url.toLowerCase();
-        
-        // Check if it's a valid HTTP/HTTPS URL
-        if (!url.startsWith("http://") && !url.startsWith("https://")) {
-            return false;
-        }
-        
-        // Check for common image extensions
-        if (url.contains(".jpg") || url.contains(".jpeg") || url.contains(".png") || 
-            url.contains(".gif") || url.contains(".webp") || url.contains(".svg") ||
-            url.contains(".bmp") || url.contains(".tiff") || url.contains(".ico")) {
-            return true;
-        }
-        
-        // Check for image hosting patterns (Amazon, CDN, etc.)
-        if (url.contains("images-amazon.com") || url.contains("media-amazon.com") ||
-            url.contains("cloudfront.net") || url.contains("googleapis.com") ||
-            url.contains("shopify.com") || url.contains("nooncdn.com") ||
-            url.contains("desertcart.ae/products/") || url.contains("/images/") ||
-            url.contains("/img/") || url.contains("/photos/") || url.contains("/pic/") ||
-            url.contains("imgix.net") || url.contains("fastly.com") ||
-            url.contains("cdn") || url.contains("image") || url.contains("thumb") ||
-            url.contains("photo") || url.contains("picture")) {
-            return true;
-        }
-        
-        // Google Shopping specific image patterns
-        if (url.contains("shopping.googleusercontent.com") || 
-            url.contains("lh3.googleusercontent.com") ||
-            url.contains("ssl-images-amazon.com") ||
-            url.contains("m.media-amazon.com")) {
-            return true;
-        }
-        
-        // UAE-specific e-commerce platforms
-        if (url.contains("noon.com") || url.contains("amazon.ae") || 
-            url.contains("carrefouruae.com") || url.contains("sharafdg.com") ||
-            url.contains("emirates.com") || url.contains("dubaistore.com")) {
-            return true;
-        }
-        
-        return false;
+        return ImageUrlSelector.select(item);
     }
       /**
      * Estimate image quality based on URL patterns
      * Enhanced quality detection for better image selection
      */
     private int estimateImageQuality(String url) {
-        if (url == null) return 0;
-        
-        String lowerUrl = url.toLowerCase();
-        int quality = 100; // Base quality
-        
-        // Look for size indicators in URL (higher resolution = better quality)
-        if (lowerUrl.contains("_sl1500_") || lowerUrl.contains("1500x1500") || lowerUrl.contains("1500")) {
-            quality = 1500 * 1500;
-        } else if (lowerUrl.contains("_sl1200_") || lowerUrl.contains("1200x1200") || lowerUrl.contains("1200")) {
-            quality = 1200 * 1200;
-        } else if (lowerUrl.contains("_sl800_") || lowerUrl.contains("800x800") || lowerUrl.contains("800")) {
-            quality = 800 * 800;
-        } else if (lowerUrl.contains("_sl500_") || lowerUrl.contains("500x500") || lowerUrl.contains("500")) {
-            quality = 500 * 500;
-        } else if (lowerUrl.contains("large") || lowerUrl.contains("big") || lowerUrl.contains("high")) {
-            quality = 1000 * 1000;
-        } else if (lowerUrl.contains("medium") || lowerUrl.contains("med")) {
-            quality = 500 * 500;
-        } else if (lowerUrl.contains("small") || lowerUrl.contains("thumb") || lowerUrl.contains("mini")) {
-            quality = 200 * 200;
-        }
-        
-        // Boost quality for main product images
-        if (lowerUrl.contains("main") || lowerUrl.contains("primary") || lowerUrl.contains("hero")) {
-            quality += 200000;
-        }
-        
-        // Boost quality for product-specific image sources
-        if (lowerUrl.contains("product") || lowerUrl.contains("item")) {
-            quality += 100000;
-        }
-        
-        // Prefer high-quality image hosting services
-        if (lowerUrl.contains("images-amazon.com") || lowerUrl.contains("ssl-images-amazon.com")) {
-            quality += 150000;
-        } else if (lowerUrl.contains("googleusercontent.com")) {
-            quality += 100000;
-        } else if (lowerUrl.contains("cloudfront.net") || lowerUrl.contains("cdn")) {
-            quality += 75000;
-        }
-        
-        return quality;
+        return ImageUrlSelector.estimateQuality(url);
     }/**
      * Enhanced specification extraction with multiple strategies based on Oxylabs Shopping Product API
      * This method implements comprehensive extraction following the documented API response structure
@@ -1151,180 +916,12 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
      * Enhanced to handle various text formats and extract more specifications
      */
     private List<SpecificationInfo> parseSpecificationsFromText(String text, String source) {
-        List<SpecificationInfo> specs = new ArrayList<>();
-        
-        if (text == null || text.trim().isEmpty()) {
-            return specs;
-        }
-        
-        logger.trace("Parsing specifications from text (source: {}): {}", source, 
-            text.length() > 100 ? text.substring(0, 97) + "..." : text);
-        
-        // Split text into lines and look for key-value patterns
-        String[] lines = text.split("\\n|\\r\\n|\\r|;");
-        
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty()) continue;
-            
-            // Pattern 1: "Key: Value" or "Key - Value"
-            if (line.contains(":") || line.contains(" - ")) {
-                String[] parts;
-                if (line.contains(":")) {
-                    parts = line.split(":", 2);
-                } else {
-                    parts = line.split(" - ", 2);
-                }
-                  if (parts.length == 2) {
-                    String key = normalizeSpecificationKey(parts[0].trim());
-                    String value = parts[1].trim();
-                    
-                    if (!key.isEmpty() && !value.isEmpty() && key.length() < 100 && value.length() < 500) {
-                        specs.add(new SpecificationInfo(key, value));
-                        logger.trace("Parsed spec: {} = {}", key, value);
-                    }
-                }
-            }
-            
-            // Pattern 2: Look for bullet points with specifications
-            else if (line.startsWith("•") || line.startsWith("*") || line.startsWith("-")) {
-                String cleanLine = line.substring(1).trim();
-                if (cleanLine.contains(":")) {
-                    String[] parts = cleanLine.split(":", 2);                    if (parts.length == 2) {
-                        String key = normalizeSpecificationKey(parts[0].trim());
-                        String value = parts[1].trim();
-                        
-                        if (!key.isEmpty() && !value.isEmpty()) {
-                            specs.add(new SpecificationInfo(key, value));
-                            logger.trace("Parsed bullet spec: {} = {}", key, value);
-                        }
-                    }
-                } else if (cleanLine.length() > 5 && cleanLine.length() < 200) {
-                    // Try to extract technical specs from the feature line
-                    List<SpecificationInfo> techSpecs = extractTechnicalSpecifications(cleanLine);
-                    if (!techSpecs.isEmpty()) {
-                        specs.addAll(techSpecs);
-                    } else {
-                        // Treat entire line as a feature
-                        specs.add(new SpecificationInfo("Feature", cleanLine));
-                        logger.trace("Parsed feature: {}", cleanLine);
-                    }
-                }
-            }
-            
-            // Pattern 3: Lines without bullet points but containing technical specs
-            else if (line.length() > 10 && line.length() < 300) {
-                List<SpecificationInfo> techSpecs = extractTechnicalSpecifications(line);
-                specs.addAll(techSpecs);
-            }
-        }
-        
-        // If we didn't find much structured data, try to extract from the whole text
-        if (specs.size() < 3) {
-            List<SpecificationInfo> techSpecs = extractTechnicalSpecifications(text);
-            specs.addAll(techSpecs);
-        }
-        
+        List<SpecificationInfo> specs = SpecificationExtractor.parseText(text);
         logger.trace("Parsed {} specifications from text (source: {})", specs.size(), source);
         return specs;
     }
     
     /**
-     * Extract technical specifications from natural language text
-     */
-    private List<SpecificationInfo> extractTechnicalSpecifications(String text) {
-        List<SpecificationInfo> specs = new ArrayList<>();
-        
-        if (text == null || text.trim().isEmpty()) {
-            return specs;
-        }
-        
-        text = text.toLowerCase().trim();
-        
-        // Display patterns: "6.8-inch", "13.6 inch", "6.1" display"
-        if (text.matches(".*\\d+\\.?\\d*[\\s-]?inch.*")) {
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("(\\d+\\.?\\d*)[\\s-]?inch");
-            java.util.regex.Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
-                String size = matcher.group(1) + " inches";
-                specs.add(new SpecificationInfo("Display Size", size));
-            }
-        }
-        
-        // Storage patterns: "256GB", "1TB", "512 GB"
-        if (text.matches(".*\\d+\\s?[gt]b.*")) {
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("(\\d+)\\s?([gt]b)");
-            java.util.regex.Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
-                String storage = matcher.group(1) + matcher.group(2).toUpperCase();
-                if (text.contains("storage") || text.contains("ssd") || text.contains("memory")) {
-                    specs.add(new SpecificationInfo("Storage", storage));
-                } else if (text.contains("ram")) {
-                    specs.add(new SpecificationInfo("RAM", storage));
-                }
-            }
-        }
-        
-        // RAM patterns: "8GB RAM", "16 GB memory"
-        if (text.matches(".*\\d+\\s?gb\\s?(ram|memory).*")) {
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("(\\d+)\\s?gb\\s?(ram|memory)");
-            java.util.regex.Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
-                String ram = matcher.group(1) + "GB";
-                specs.add(new SpecificationInfo("RAM", ram));
-            }
-        }
-        
-        // Battery patterns: "5000mAh", "18 hours battery"
-        if (text.matches(".*\\d+\\s?mah.*")) {
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("(\\d+)\\s?mah");
-            java.util.regex.Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
-                specs.add(new SpecificationInfo("Battery", matcher.group(1) + "mAh"));
-            }
-        } else if (text.matches(".*\\d+\\s?hour.*battery.*")) {
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("(\\d+)\\s?hour");
-            java.util.regex.Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
-                specs.add(new SpecificationInfo("Battery Life", matcher.group(1) + " hours"));
-            }
-        }
-        
-        // Camera patterns: "200MP", "12MP main camera"
-        if (text.matches(".*\\d+mp.*")) {
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("(\\d+)mp");
-            java.util.regex.Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
-                String camera = matcher.group(1) + "MP";
-                if (text.contains("main") || text.contains("primary")) {
-                    camera += " Main";
-                } else if (text.contains("ultra") || text.contains("wide")) {
-                    camera += " Ultra Wide";
-                } else if (text.contains("telephoto")) {
-                    camera += " Telephoto";
-                }
-                specs.add(new SpecificationInfo("Camera", camera));
-            }
-        }
-        
-        // Connectivity patterns: "Bluetooth 5.3", "Wi-Fi 6E"
-        if (text.contains("bluetooth")) {
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("bluetooth\\s?(\\d+\\.?\\d*)");
-            java.util.regex.Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
-                specs.add(new SpecificationInfo("Connectivity", "Bluetooth " + matcher.group(1)));
-            }
-        }
-          if (text.contains("wi-fi") || text.contains("wifi")) {
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("wi-?fi\\s?(\\d+\\w*)");
-            java.util.regex.Matcher matcher = pattern.matcher(text);
-            if (matcher.find()) {
-                specs.add(new SpecificationInfo("Wi-Fi", "Wi-Fi " + matcher.group(1)));
-            }
-        }
-        
-        return specs;
-    }    /**
      * Enhance specification title with section context when meaningful
      */
     private String enhanceSpecificationTitle(String title, String sectionTitle) {
@@ -1347,56 +944,8 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
      * Groups related keywords into meaningful specifications
      */
     private List<SpecificationInfo> extractSpecificationsFromKeywords(List<String> keywords) {
-        List<SpecificationInfo> specs = new ArrayList<>();
-        
-        if (keywords == null || keywords.isEmpty()) {
-            return specs;
-        }
-        
-        // Group keywords by category
-        List<String> materials = new ArrayList<>();
-        List<String> features = new ArrayList<>();
-        List<String> design = new ArrayList<>();
-        List<String> technical = new ArrayList<>();
-        
-        for (String keyword : keywords) {
-            String lowerKeyword = keyword.toLowerCase();
-            
-            // Categorize keywords
-            if (lowerKeyword.contains("leather") || lowerKeyword.contains("cotton") || 
-                lowerKeyword.contains("metal") || lowerKeyword.contains("plastic") ||
-                lowerKeyword.contains("fabric") || lowerKeyword.contains("synthetic")) {
-                materials.add(keyword);
-            } else if (lowerKeyword.contains("closure") || lowerKeyword.contains("cushioned") ||
-                      lowerKeyword.contains("grip") || lowerKeyword.contains("insole") ||
-                      lowerKeyword.contains("outsole") || lowerKeyword.contains("lining")) {
-                features.add(keyword);
-            } else if (lowerKeyword.contains("design") || lowerKeyword.contains("style") ||
-                      lowerKeyword.contains("pattern") || lowerKeyword.contains("finish")) {
-                design.add(keyword);
-            } else if (lowerKeyword.matches(".*\\d+.*") || lowerKeyword.contains("tech") ||
-                      lowerKeyword.contains("battery") || lowerKeyword.contains("processor")) {
-                technical.add(keyword);
-            } else {
-                features.add(keyword); // Default to features
-            }
-        }
-        
-        // Convert grouped keywords to specifications
-        if (!materials.isEmpty()) {
-            specs.add(new SpecificationInfo("Materials", String.join(", ", materials)));
-        }
-        if (!features.isEmpty()) {
-            specs.add(new SpecificationInfo("Features", String.join(", ", features)));
-        }
-        if (!design.isEmpty()) {
-            specs.add(new SpecificationInfo("Design", String.join(", ", design)));
-        }
-        if (!technical.isEmpty()) {
-            specs.add(new SpecificationInfo("Technical Details", String.join(", ", technical)));
-        }
-        
-        logger.trace("Grouped {} keywords into {} specification categories", keywords.size(), specs.size());
+        List<SpecificationInfo> specs = SpecificationExtractor.groupKeywords(keywords);
+        logger.trace("Grouped {} keywords into {} specification categories", keywords != null ? keywords.size() : 0, specs.size());
         return specs;
     }
     
@@ -1722,74 +1271,32 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
      * Clean up specification key names for better readability
      */
     private String normalizeSpecificationKey(String key) {
-        if (key == null) return "Unknown";
-        
-        // Convert snake_case and camelCase to Title Case
-        String cleaned = key.replaceAll("_", " ")
-                           .replaceAll("([a-z])([A-Z])", "$1 $2");
-        
-        // Capitalize first letter of each word
-        String[] words = cleaned.split("\\s+");
-        StringBuilder result = new StringBuilder();
-        
-        for (String word : words) {
-            if (word.length() > 0) {
-                if (result.length() > 0) result.append(" ");
-                result.append(Character.toUpperCase(word.charAt(0)));
-                if (word.length() > 1) {
-                    result.append(word.substring(1).toLowerCase());
-                }
-            }
-        }
-        
-        return result.toString();
+        return SpecificationExtractor.normalizeKey(key);
     }
     
     /**
      * Remove duplicate specifications based on name similarity
      */
     private List<SpecificationInfo> removeSpecificationDuplicates(List<SpecificationInfo> specifications) {
-        List<SpecificationInfo> unique = new ArrayList<>();
-        
-        for (SpecificationInfo spec : specifications) {
-            boolean isDuplicate = false;
-            
-            for (SpecificationInfo existing : unique) {
-                if (areSpecificationNamesSimilar(spec.getName(), existing.getName())) {
-                    isDuplicate = true;
-                    // Keep the one with more detailed value
-                    if (spec.getValue().length() > existing.getValue().length()) {
-                        unique.remove(existing);
-                        unique.add(spec);
-                    }
-                    break;
-                }
-            }
-            
-            if (!isDuplicate) {
-                unique.add(spec);
-            }
-        }
-        
+        List<SpecificationInfo> unique = SpecificationExtractor.deduplicate(specifications);
         logger.trace("Deduplication: {} original specs -> {} unique specs", specifications.size(), unique.size());
         return unique;
     }
     
-    /**
-     * Check if two specification names are similar enough to be considered duplicates
-     */
-    private boolean areSpecificationNamesSimilar(String name1, String name2) {
-        if (name1 == null || name2 == null) return false;
-        
-        String clean1 = name1.toLowerCase().replaceAll("[^a-z0-9]", "");
-        String clean2 = name2.toLowerCase().replaceAll("[^a-z0-9]", "");
-        
-        return clean1.equals(clean2);
-    }
       /**
      * Enhanced scraping that combines search results with detailed product specifications
      * Uses google_shopping_search for initial results, then google_shopping_product for detailed specs
      */    public List<ShoppingProduct> scrapeShoppingResultsEnhanced(String query, String geoLocation, String username, String password) throws Exception {
+        return scrapeShoppingResultsEnhanced(query, geoLocation, username, password, Long.MAX_VALUE);
+    }
+
+    /**
+     * Enhanced scraping that answers by {@code deadline} (epoch millis): no enhancement batch is
+     * started unless it can finish in time, and products still being enhanced at the deadline are
+     * returned as the search found them.
+     */
+    public List<ShoppingProduct> scrapeShoppingResultsEnhanced(String query, String geoLocation, String username, String password,
+                                                               long deadline) throws Exception {
         logger.info("=====================================");
         logger.info("ENHANCED OXYLABS SCRAPING INITIATED");
         logger.info("=====================================");
@@ -1801,9 +1308,19 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
         logger.info("  Strategy: Parallel Enhanced Search + Detailed Product Info");
         logger.info("=====================================");
 
+        OxylabsQuotaManager.ComparisonBudget budget = quotaManager.startComparison(query);
+        try {
+            return scrapeShoppingResultsEnhanced(query, geoLocation, username, password, deadline, budget);
+        } finally {
+            quotaManager.finishComparison(budget);
+        }
+    }
+
+    private List<ShoppingProduct> scrapeShoppingResultsEnhanced(String query, String geoLocation, String username, String password,
+                                                                long deadline, OxylabsQuotaManager.ComparisonBudget budget) {
         // Step 1: Get initial search results with progress callback
         List<ShoppingProduct> searchResults = scrapeShoppingResults(query, geoLocation, username, password, 
-            (progress, message) -> logger.debug("Enhanced scraper step 1 progress: {}% - {}", progress, message));
+            (progress, message) -> logger.debug("Enhanced scraper step 1 progress: {}% - {}", progress, message), budget);
         logger.info("STEP 1 COMPLETE: Found {} products from shopping search", searchResults.size());        // Step 2: Enhance top products with detailed specifications using parallel processing
         List<ShoppingProduct> enhancedProducts = new ArrayList<>();
         int maxProductsToEnhance = Math.min(10, searchResults.size()); // Limit to top 10 to avoid quota issues
@@ -1838,6 +1355,24 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
             for (int i = 0; i < productsToEnhance.size(); i += batchSize) {
                 int endIndex = Math.min(i + batchSize, productsToEnhance.size());
                 List<ShoppingProduct> batch = productsToEnhance.subList(i, endIndex);
+
+                if (budget.isExhausted()) {
+                    logger.warn("Oxylabs budget exhausted - keeping {} remaining products unenhanced", productsToEnhance.size() - i);
+                    enhancedProducts.addAll(productsToEnhance.subList(i, productsToEnhance.size()));
+                    break;
+                }
+                if (!oxylabsClient.isEnhancementAvailable()) {
+                    logger.warn("Oxylabs circuit breaker open - search-only mode, keeping {} remaining products unenhanced",
+                            productsToEnhance.size() - i);
+                    enhancedProducts.addAll(productsToEnhance.subList(i, productsToEnhance.size()));
+                    break;
+                }
+                if (deadline - System.currentTimeMillis() < ENHANCEMENT_BATCH_MILLIS) {
+                    logger.warn("Offer search deadline is near - keeping {} remaining products unenhanced",
+                            productsToEnhance.size() - i);
+                    enhancedProducts.addAll(productsToEnhance.subList(i, productsToEnhance.size()));
+                    break;
+                }
                 
                 logger.info("Processing batch {}/{} ({} products)", 
                     (i/batchSize) + 1, (productsToEnhance.size() + batchSize - 1) / batchSize, batch.size());
@@ -1846,7 +1381,7 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
                 List<CompletableFuture<ShoppingProduct>> batchFutures = batch.stream()
                     .map(product -> CompletableFuture.supplyAsync(() -> {
                         try {
-                            ShoppingProduct enhanced = enhanceProductWithDetailedSpecsWithRetry(product, username, password);
+                            ShoppingProduct enhanced = enhanceProductWithDetailedSpecsWithRetry(product, username, password, deadline, budget);
                             int globalIndex = productsToEnhance.indexOf(product) + 1;
                             logger.info("Enhanced product {}/{}: {}", globalIndex, maxProductsToEnhance, 
                                 product.getTitle().length() > 50 ? product.getTitle().substring(0, 47) + "..." : product.getTitle());
@@ -1858,10 +1393,11 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
                     }, executorService))
                     .collect(Collectors.toList());
                 
-                // Wait for batch to complete before starting next batch
-                List<ShoppingProduct> batchResults = batchFutures.stream()
-                    .map(CompletableFuture::join)
-                    .collect(Collectors.toList());
+                // Wait for batch to complete before starting next batch, but not past the deadline
+                List<ShoppingProduct> batchResults = new ArrayList<>();
+                for (int j = 0; j < batchFutures.size(); j++) {
+                    batchResults.add(joinBefore(batchFutures.get(j), batch.get(j), deadline));
+                }
                 
                 enhancedProducts.addAll(batchResults);
                 
@@ -1886,6 +1422,27 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
         return enhancedProducts;
     }
 
+    /**
+     * The enhanced product, or {@code original} if enhancement has not finished by the deadline.
+     * The late call is left to finish; its result is discarded.
+     */
+    private static ShoppingProduct joinBefore(CompletableFuture<ShoppingProduct> future, ShoppingProduct original, long deadline) {
+        if (deadline == Long.MAX_VALUE) {
+            return future.join();
+        }
+        try {
+            return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Enhancement of '{}' missed the offer search deadline, using original product", original.getTitle());
+            return original;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return original;
+        } catch (ExecutionException e) {
+            return original;
+        }
+    }
+
     /**
      * Cleanup method to properly shutdown the executor service
      */
@@ -1905,13 +1462,15 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
     }    /**
      * Enhanced version with retry logic for more reliable processing
      */
-    private ShoppingProduct enhanceProductWithDetailedSpecsWithRetry(ShoppingProduct product, String username, String password) {
+    private ShoppingProduct enhanceProductWithDetailedSpecsWithRetry(ShoppingProduct product, String username, String password,
+                                                                     long deadline, OxylabsQuotaManager.ComparisonBudget budget) {
         int maxRetries = 2;
         int attempt = 0;
         
-        while (attempt < maxRetries) {
+        while (attempt < maxRetries && !budget.isExhausted() && oxylabsClient.isEnhancementAvailable()
+                && System.currentTimeMillis() < deadline) {
             try {
-                return enhanceProductWithDetailedSpecs(product, username, password);
+                return enhanceProductWithDetailedSpecs(product, username, password, budget);
             } catch (Exception e) {
                 attempt++;
                 logger.debug("Enhancement attempt {} failed for '{}': {}", 
@@ -1940,7 +1499,8 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
      * Enhance a single product with detailed specifications using google_shopping_product
      * NEW STRATEGY: Find associated Google Shopping URL for retailer products
      */
-    private ShoppingProduct enhanceProductWithDetailedSpecs(ShoppingProduct product, String username, String password) throws Exception {
+    ShoppingProduct enhanceProductWithDetailedSpecs(ShoppingProduct product, String username, String password,
+                                                    OxylabsQuotaManager.ComparisonBudget budget) throws Exception {
         if (product.getProductLink() == null || product.getProductLink().trim().isEmpty()) {
             logger.debug("Skipping enhancement for product without URL: {}", product.getTitle());
             return product;
@@ -1959,11 +1519,18 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
                 logger.debug("Using direct Google Shopping URL");
             } else {
                 // Find associated Google Shopping URL for this retailer product
-                googleShoppingUrl = findGoogleShoppingUrl(product, username, password);
+                long discoveryStart = System.nanoTime();
+                googleShoppingUrl = findGoogleShoppingUrl(product, username, password, budget);
+                pipelineMetrics.recordStage(PipelineMetrics.STAGE_URL_DISCOVERY,
+                        googleShoppingUrl != null ? PipelineMetrics.OUTCOME_SUCCESS : "not_found",
+                        System.nanoTime() - discoveryStart);
             }
             
             if (googleShoppingUrl != null) {
-                return fetchDetailedSpecsFromGoogleShopping(product, googleShoppingUrl, username, password);
+                long fetchStart = System.nanoTime();
+                String outcome = fetchDetailedSpecsFromGoogleShopping(product, googleShoppingUrl, username, password, budget);
+                pipelineMetrics.recordStage(PipelineMetrics.STAGE_PRODUCT_FETCH, outcome, System.nanoTime() - fetchStart);
+                return product;
             } else {
                 logger.debug("No Google Shopping URL found, using original product data");
                 return product;
@@ -1990,7 +1557,8 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
      * Find the associated Google Shopping URL for a retailer product
      * Uses targeted search to find the Google Shopping page for this specific product
      */
-    private String findGoogleShoppingUrl(ShoppingProduct product, String username, String password) throws Exception {
+    private String findGoogleShoppingUrl(ShoppingProduct product, String username, String password,
+                                         OxylabsQuotaManager.ComparisonBudget budget) throws Exception {
         logger.debug("Searching for Google Shopping URL for: {}", product.getTitle());
         
         // Create a targeted search query to find this specific product
@@ -2016,8 +1584,20 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
             geoLocation.put("value", "United Arab Emirates");
             context.put(geoLocation);
               jsonObject.put("context", context);
-            
-            String response = sendOxylabsRequestFast(jsonObject, username, password);
+
+            OxylabsQuotaManager.Permit permit = oxylabsClient.isEnhancementAvailable()
+                    ? quotaManager.tryAcquirePermit(budget, OxylabsQuotaManager.SOURCE_DISCOVERY) : null;
+            if (permit == null) {
+                return null;
+            }
+            String response;
+            try {
+                response = sendOxylabsRequestFast(jsonObject, username, password);
+            } catch (OxylabsClient.OxylabsUnavailableException e) {
+                // Refused before reaching Oxylabs, so nothing was spent
+                quotaManager.refund(permit);
+                throw e;
+            }
             JSONObject jsonResponse = new JSONObject(response);
             
             // Find matching product in Google Shopping results
@@ -2200,9 +1780,12 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
         return totalWords > 0 ? (double) matches / totalWords : 0.0;
     }
       /**
-     * Fetch detailed specifications from Google Shopping URL
+     * Fetch detailed specifications from Google Shopping URL into {@code product}.
+     *
+     * @return the stage outcome: success, "skipped" when no call was made, "no_results" or error
      */
-    private ShoppingProduct fetchDetailedSpecsFromGoogleShopping(ShoppingProduct product, String googleShoppingUrl, String username, String password) throws Exception {
+    private String fetchDetailedSpecsFromGoogleShopping(ShoppingProduct product, String googleShoppingUrl, String username, String password,
+                                                        OxylabsQuotaManager.ComparisonBudget budget) {
         logger.debug("Fetching detailed specs from Google Shopping: {}", googleShoppingUrl);
         
         try {
@@ -2218,7 +1801,22 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
             resultsLanguage.put("value", "en");
             context.put(resultsLanguage);
             jsonObject.put("context", context);            // Send request
-            String response = sendOxylabsRequestFast(jsonObject, username, password);
+            OxylabsQuotaManager.Permit permit = oxylabsClient.isEnhancementAvailable()
+                    ? quotaManager.tryAcquirePermit(budget, OxylabsQuotaManager.SOURCE_PRODUCT) : null;
+            if (permit == null) {
+                return "skipped";
+            }
+            // Product pages have a long latency tail; a hedge is charged to the same budget
+            String response;
+            try {
+                response = oxylabsClient.executeForBodyHedged(jsonObject.toString(), username, password,
+                        OxylabsClient.Timeouts.FAST, OxylabsClient.Priority.OPTIONAL, null,
+                        () -> quotaManager.tryAcquireSpare(budget, OxylabsQuotaManager.SOURCE_HEDGE));
+            } catch (OxylabsClient.OxylabsUnavailableException e) {
+                quotaManager.refund(permit);
+                logger.debug("Skipped Google Shopping product fetch: {}", e.getMessage());
+                return "skipped";
+            }
             
             // Parse detailed product info
             JSONObject jsonResponse = new JSONObject(response);
@@ -2239,15 +1837,15 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
                     
                     logger.debug("Enhanced product with {} detailed specifications from Google Shopping", 
                         detailedSpecs.size());
-                    return product;
+                    return PipelineMetrics.OUTCOME_SUCCESS;
                 }
             }
+            return "no_results";
             
         } catch (Exception e) {
             logger.warn("Failed to fetch specs from Google Shopping {}: {}", googleShoppingUrl, e.getMessage());
+            return PipelineMetrics.OUTCOME_ERROR;
         }
-        
-        return product;
     }
     
     /**
@@ -2327,96 +1925,19 @@ public class OxylabsShoppingScraper {    private static final Logger logger = Lo
     }
 
     /**
-     * Send request to Oxylabs API (extracted for reuse)
-     */
-    private String sendOxylabsRequest(JSONObject jsonObject, String username, String password) throws Exception {
-        OkHttpClient client = new OkHttpClient.Builder()
-                .addInterceptor(chain -> {
-                    String credential = Credentials.basic(username, password);
-                    Request originalRequest = chain.request();
-                    Request newRequest = originalRequest.newBuilder()
-                            .header("Authorization", credential)
-                            .build();
-                    return chain.proceed(newRequest);
-                })
-                .readTimeout(180, TimeUnit.SECONDS)
-                .build();
-
-        MediaType mediaType = MediaType.parse("application/json; charset=utf-8");
-        RequestBody body = RequestBody.create(jsonObject.toString(), mediaType);
-
-        Request request = new Request.Builder()
-                .url("https://realtime.oxylabs.io/v1/queries")
-                .post(body)
-                .addHeader("Content-Type", "application/json")
-                .build();
-
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Unexpected response code: " + response.code());
-            }
-            return response.body().string();
-        }
-    }    /**
-     * Faster version of sendOxylabsRequest with optimized timeouts for parallel processing
+     * Faster version for parallel enhancement calls; refused immediately when Oxylabs is degraded.
+     * Stage timing is recorded by the caller.
      */
     private String sendOxylabsRequestFast(JSONObject jsonObject, String username, String password) throws Exception {
-        OkHttpClient client = new OkHttpClient.Builder()
-                .addInterceptor(chain -> {
-                    String credential = Credentials.basic(username, password);
-                    Request originalRequest = chain.request();
-                    Request newRequest = originalRequest.newBuilder()
-                            .header("Authorization", credential)
-                            .build();
-                    return chain.proceed(newRequest);
-                })
-                .connectTimeout(5, TimeUnit.SECONDS)     // Reduced from 10 seconds for faster connection
-                .readTimeout(20, TimeUnit.SECONDS)       // Reduced from 30 seconds for faster response
-                .writeTimeout(5, TimeUnit.SECONDS)       // Reduced write timeout
-                .build();
-
-        MediaType mediaType = MediaType.parse("application/json; charset=utf-8");
-        RequestBody body = RequestBody.create(jsonObject.toString(), mediaType);
-
-        Request request = new Request.Builder()
-                .url("https://realtime.oxylabs.io/v1/queries")
-                .post(body)
-                .addHeader("Content-Type", "application/json")
-                .build();
-
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Unexpected response code: " + response.code());
-            }
-            return response.body().string();
-        }
+        return oxylabsClient.executeForBody(jsonObject.toString(), username, password,
+                OxylabsClient.Timeouts.FAST, OxylabsClient.Priority.OPTIONAL, null);
     }
 
     /**
      * Merge specifications from search results with detailed specifications
      */
     private List<SpecificationInfo> mergeSpecifications(List<SpecificationInfo> searchSpecs, List<SpecificationInfo> detailedSpecs) {
-        List<SpecificationInfo> merged = new ArrayList<>();
-        
-        // Add detailed specs first (they're more comprehensive)
-        if (detailedSpecs != null) {
-            merged.addAll(detailedSpecs);
-        }
-        
-        // Add search specs that don't duplicate detailed specs
-        if (searchSpecs != null) {
-            for (SpecificationInfo searchSpec : searchSpecs) {
-                boolean isDuplicate = merged.stream()
-                    .anyMatch(detailedSpec -> areSpecificationNamesSimilar(searchSpec.getName(), detailedSpec.getName()));
-                
-                if (!isDuplicate) {
-                    merged.add(searchSpec);
-                }
-            }
-        }
-        
-        // Remove duplicates and return
-        return removeSpecificationDuplicates(merged);
+        return SpecificationExtractor.merge(searchSpecs, detailedSpecs);
     }    /**
      * Enhance product with additional details from detailed product response
      * Enhanced to prioritize better image extraction
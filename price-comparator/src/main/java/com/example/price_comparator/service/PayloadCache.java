@@ -0,0 +1,235 @@
+package com.example.price_comparator.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized JSON responses, kept together with their compressed forms.
+ *
+ * Each entry is stored under the ETag it was built for and only returned for that ETag, so a
+ * save that bumps the catalog version makes older payloads unreachable even if they are stored
+ * after the save. {@link #invalidate(String)} additionally frees them right away.
+ *
+ * Compression happens once, at maximum level, when the entry is built. Further encodings (e.g.
+ * brotli) only need a {@link ContentCoding} constant; negotiation picks the client's most
+ * preferred coding that is available.
+ */
+@Component
+public class PayloadCache {
+
+    static final String PRODUCT_PREFIX = "product:";
+    static final String LIST_PREFIX = "list:";
+
+    /** Content codings the cache can produce, in the server's order of preference. */
+    public enum ContentCoding {
+        GZIP("gzip") {
+            @Override
+            byte[] encode(byte[] identity) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(identity.length / 4 + 64);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+                    {
+                        def.setLevel(Deflater.BEST_COMPRESSION);
+                    }
+                }) {
+                    gzip.write(identity);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return out.toByteArray();
+            }
+        };
+
+        private final String token;
+
+        ContentCoding(String token) {
+            this.token = token;
+        }
+
+        /** The {@code Content-Encoding} / {@code Accept-Encoding} token. */
+        public String token() {
+            return token;
+        }
+
+        abstract byte[] encode(byte[] identity);
+    }
+
+    /** One serialized response body and its encodings. */
+    public static final class Payload {
+        private final String etag;
+        private final byte[] identity;
+        private final Map<ContentCoding, byte[]> encoded;
+
+        Payload(String etag, byte[] identity, Map<ContentCoding, byte[]> encoded) {
+            this.etag = etag;
+            this.identity = identity;
+            this.encoded = encoded;
+        }
+
+        /** The ETag the payload was built for, or null if it was not cacheable. */
+        public String getEtag() {
+            return etag;
+        }
+
+        /** The best available coding acceptable to the client, or null for identity. */
+        public ContentCoding negotiate(String acceptEncoding) {
+            if (encoded.isEmpty() || acceptEncoding == null || acceptEncoding.isBlank()) {
+                return null;
+            }
+            ContentCoding best = null;
+            double bestQuality = 0;
+            for (ContentCoding coding : encoded.keySet()) {
+                double quality = quality(acceptEncoding, coding.token());
+                if (quality > bestQuality) {
+                    best = coding;
+                    bestQuality = quality;
+                }
+            }
+            return best;
+        }
+
+        /** The body in the given coding; null means identity. */
+        public byte[] getBody(ContentCoding coding) {
+            return coding == null ? identity : encoded.get(coding);
+        }
+
+        long sizeBytes() {
+            long size = identity.length;
+            for (byte[] bytes : encoded.values()) {
+                size += bytes.length;
+            }
+            return size;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final int minCompressBytes;
+    private final LinkedHashMap<String, Payload> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public PayloadCache(ObjectMapper objectMapper,
+                        @Value("${payloads.cache-max-bytes:33554432}") long maxBytes,
+                        @Value("${payloads.min-compress-bytes:1024}") int minCompressBytes) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        this.minCompressBytes = minCompressBytes;
+    }
+
+    public static String productKey(String id) {
+        return PRODUCT_PREFIX + id;
+    }
+
+    public static String listKey(String name) {
+        return LIST_PREFIX + name;
+    }
+
+    /** The cached payload for {@code key} if it was built for {@code etag}, otherwise null. */
+    public synchronized Payload get(String key, String etag) {
+        if (etag == null) {
+            return null;
+        }
+        Payload payload = entries.get(key);
+        return payload != null && etag.equals(payload.etag) ? payload : null;
+    }
+
+    /**
+     * Serializes and compresses {@code body}. The result is cached under {@code key} when an
+     * ETag is given; without one it is built for this response only.
+     */
+    public Payload put(String key, String etag, Object body) {
+        byte[] identity;
+        try {
+            identity = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + key, e);
+        }
+        Map<ContentCoding, byte[]> encoded = new EnumMap<>(ContentCoding.class);
+        if (etag != null && identity.length >= minCompressBytes) {
+            for (ContentCoding coding : ContentCoding.values()) {
+                byte[] bytes = coding.encode(identity);
+                if (bytes.length < identity.length) {
+                    encoded.put(coding, bytes);
+                }
+            }
+        }
+        Payload payload = new Payload(etag, identity, encoded);
+        if (etag != null && payload.sizeBytes() <= maxBytes) {
+            store(key, payload);
+        }
+        return payload;
+    }
+
+    /** Drops the product's payload and every list payload, which may include the product. */
+    public synchronized void invalidate(String productId) {
+        remove(productKey(productId));
+        entries.entrySet().removeIf(entry -> {
+            if (entry.getKey().startsWith(LIST_PREFIX)) {
+                totalBytes -= entry.getValue().sizeBytes();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    synchronized long sizeBytes() {
+        return totalBytes;
+    }
+
+    private synchronized void store(String key, Payload payload) {
+        remove(key);
+        entries.put(key, payload);
+        totalBytes += payload.sizeBytes();
+        Iterator<Payload> eldest = entries.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().sizeBytes();
+            eldest.remove();
+        }
+    }
+
+    private void remove(String key) {
+        Payload previous = entries.remove(key);
+        if (previous != null) {
+            totalBytes -= previous.sizeBytes();
+        }
+    }
+
+    /** The q-value the client gives {@code token} (0 if it is not acceptable). */
+    static double quality(String acceptEncoding, String token) {
+        double wildcard = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String name = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (name.equals(token)) {
+                return q;
+            }
+            if (name.equals("*")) {
+                wildcard = q;
+            }
+        }
+        return wildcard;
+    }
+}
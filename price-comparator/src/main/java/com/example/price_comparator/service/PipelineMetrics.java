@@ -0,0 +1,129 @@
+package com.example.price_comparator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers and counters for the comparison pipeline.
+ *
+ * Every stage is recorded under one timer name, {@code comparison.stage}, tagged with
+ * the stage and its outcome, and publishes a percentile histogram so latency
+ * percentiles can be computed in Prometheus. Offer counts are recorded under
+ * {@code comparison.offers}, tagged accepted or rejected.
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String STAGE_OXYLABS_SEARCH = "oxylabs_search";
+    public static final String STAGE_URL_DISCOVERY = "url_discovery";
+    public static final String STAGE_PRODUCT_FETCH = "product_fetch";
+    public static final String STAGE_EXTRACTION = "extraction";
+    public static final String STAGE_MATCHING = "matching";
+    public static final String STAGE_DEDUP = "dedup";
+    public static final String STAGE_PERSISTENCE = "persistence";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+
+    private static final String STAGE_TIMER = "comparison.stage";
+    private static final String OFFERS_COUNTER = "comparison.offers";
+
+    private final MeterRegistry registry;
+    private final Counter acceptedOffers;
+    private final Counter rejectedOffers;
+
+    /**
+     * Records into a private in-memory registry; for components built outside Spring.
+     */
+    public PipelineMetrics() {
+        this(new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.acceptedOffers = Counter.builder(OFFERS_COUNTER)
+                .description("Scraped offers that passed product matching")
+                .tag("result", "accepted")
+                .register(registry);
+        this.rejectedOffers = Counter.builder(OFFERS_COUNTER)
+                .description("Scraped offers that failed product matching")
+                .tag("result", "rejected")
+                .register(registry);
+    }
+
+    public void recordStage(String stage, String outcome, long durationNanos) {
+        stageTimer(stage, outcome).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs {@code work} and records its duration, tagging the outcome as error if it throws.
+     */
+    public <T> T timeStage(String stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        String outcome = OUTCOME_ERROR;
+        try {
+            T result = work.get();
+            outcome = OUTCOME_SUCCESS;
+            return result;
+        } finally {
+            recordStage(stage, outcome, System.nanoTime() - start);
+        }
+    }
+
+    public void timeStage(String stage, Runnable work) {
+        timeStage(stage, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Times work that finishes asynchronously: the stage is recorded when the returned future
+     * completes, with its real outcome.
+     */
+    public <T> CompletableFuture<T> timeStageAsync(String stage, Supplier<CompletableFuture<T>> work) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = work.get();
+        } catch (RuntimeException e) {
+            recordStage(stage, OUTCOME_ERROR, System.nanoTime() - start);
+            throw e;
+        }
+        return future.whenComplete((result, error) ->
+                recordStage(stage, error == null ? OUTCOME_SUCCESS : OUTCOME_ERROR, System.nanoTime() - start));
+    }
+
+    public void recordOffers(int accepted, int rejected) {
+        acceptedOffers.increment(accepted);
+        rejectedOffers.increment(rejected);
+    }
+
+    /**
+     * Publishes pool size, active threads and queue depth of an executor that is not a Spring bean.
+     */
+    public void monitorExecutor(ExecutorService executor, String name) {
+        new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(registry);
+    }
+
+    private Timer stageTimer(String stage, String outcome) {
+        return Timer.builder(STAGE_TIMER)
+                .description("Duration of one comparison pipeline stage")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
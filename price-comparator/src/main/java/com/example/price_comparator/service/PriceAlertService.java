@@ -0,0 +1,131 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.PriceAlert;
+import com.example.price_comparator.model.PriceSample;
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.model.RetailerInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends price-drop alerts to users who bookmarked a product.
+ *
+ * Every save remembers the product's best in-stock offer. When a later save lowers it,
+ * only that product's subscribers are looked up and each one whose threshold is met
+ * gets a message on /topic/users/{userId}/alerts. A subscriber with a target price is
+ * alerted when the price first crosses the target; one without a target is alerted on
+ * any drop of at least alerts.min-drop-percent.
+ *
+ * The first save of a product in this process is compared with the latest samples in
+ * {@link PriceHistoryStore}, so a drop right after a restart is not missed; evaluate a
+ * product before its new offers are recorded there.
+ */
+@Service
+public class PriceAlertService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceAlertService.class);
+
+    private final BookmarkIndex bookmarkIndex;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PriceHistoryStore priceHistoryStore;
+    private final Map<String, Double> lastBestPrice = new ConcurrentHashMap<>();
+
+    @Value("${alerts.min-drop-percent:1.0}")
+    private double minDropPercent;
+
+    public PriceAlertService(BookmarkIndex bookmarkIndex, SimpMessagingTemplate messagingTemplate,
+                             PriceHistoryStore priceHistoryStore) {
+        this.bookmarkIndex = bookmarkIndex;
+        this.messagingTemplate = messagingTemplate;
+        this.priceHistoryStore = priceHistoryStore;
+    }
+
+    public void evaluate(ProductDocument product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        RetailerInfo best = bestOffer(product);
+        if (best == null) {
+            return;
+        }
+        double currentPrice = best.getCurrentPrice();
+        Double previousPrice = lastBestPrice.put(product.getId(), currentPrice);
+        if (previousPrice == null) {
+            previousPrice = recordedBestPrice(product.getId());
+        }
+        if (previousPrice == null || currentPrice >= previousPrice) {
+            return;
+        }
+
+        Map<String, Double> subscribers = bookmarkIndex.getSubscribers(product.getId());
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        double dropPercent = (previousPrice - currentPrice) / previousPrice * 100.0;
+        int sent = 0;
+        for (Map.Entry<String, Double> subscriber : subscribers.entrySet()) {
+            double target = subscriber.getValue() != null ? subscriber.getValue() : 0.0;
+            boolean triggered = target > 0
+                    ? currentPrice <= target && previousPrice > target
+                    : dropPercent >= minDropPercent;
+            if (triggered) {
+                messagingTemplate.convertAndSend("/topic/users/" + subscriber.getKey() + "/alerts",
+                        buildAlert(product, best, previousPrice, dropPercent, target));
+                sent++;
+            }
+        }
+        if (sent > 0) {
+            logger.info("PRICE DROP - {} {} -> {} ({}%), alerted {} of {} subscribers", product.getId(),
+                    previousPrice, currentPrice, String.format("%.1f", dropPercent), sent, subscribers.size());
+        }
+    }
+
+    private PriceAlert buildAlert(ProductDocument product, RetailerInfo best, double previousPrice,
+                                  double dropPercent, double target) {
+        PriceAlert alert = new PriceAlert();
+        alert.setProductId(product.getId());
+        alert.setProductName(product.getName());
+        alert.setImageUrl(product.getImageUrl());
+        alert.setRetailer(best.getName());
+        alert.setProductUrl(best.getProductUrl());
+        alert.setPreviousPrice(previousPrice);
+        alert.setCurrentPrice(best.getCurrentPrice());
+        alert.setDropPercent(dropPercent);
+        alert.setTargetPrice(target);
+        alert.setTimestamp(System.currentTimeMillis());
+        return alert;
+    }
+
+    /** Lowest in-stock price among the retailers' latest recorded samples, or null if there are none. */
+    private Double recordedBestPrice(String productId) {
+        Double best = null;
+        for (PriceSample sample : priceHistoryStore.latest(productId).values()) {
+            if (sample.isInStock() && sample.getPrice() > 0 && (best == null || sample.getPrice() < best)) {
+                best = sample.getPrice();
+            }
+        }
+        return best;
+    }
+
+    private static RetailerInfo bestOffer(ProductDocument product) {
+        if (product.getRetailers() == null) {
+            return null;
+        }
+        RetailerInfo best = null;
+        for (RetailerInfo retailer : product.getRetailers()) {
+            if (retailer == null || !retailer.isInStock() || retailer.getCurrentPrice() <= 0) {
+                continue;
+            }
+            if (best == null || retailer.getCurrentPrice() < best.getCurrentPrice()) {
+                best = retailer;
+            }
+        }
+        return best;
+    }
+}
@@ -3,28 +3,31 @@ package com.example.price_comparator.service;
 import com.example.price_comparator.model.ProductDocument;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Service
 public class PriceApiService {
 
-    private final AmazonApiService amazonApiService;
+    private final Map<String, RetailerApiService> retailerApis = new HashMap<>();
 
-    public PriceApiService(AmazonApiService amazonApiService) {
-        this.amazonApiService = amazonApiService;
+    public PriceApiService(List<RetailerApiService> retailerApis) {
+        retailerApis.forEach(api -> this.retailerApis.put(api.getRetailerId(), api));
     }
 
     public List<ProductDocument> fetchProductData(String retailer, String query) {
-        if ("amazon".equalsIgnoreCase(retailer)) {
-            return amazonApiService.searchProducts(query).join();
-        }
-        return null;
+        RetailerApiService api = lookup(retailer);
+        return api != null ? api.searchProducts(query).join() : null;
     }
 
     public ProductDocument getProductDetails(String retailer, String id) {
-        if ("amazon".equalsIgnoreCase(retailer)) {
-            return amazonApiService.getProductDetails(id).join();
-        }
-        return null;
+        RetailerApiService api = lookup(retailer);
+        return api != null ? api.getProductDetails(id).join() : null;
     }
-}
\ No newline at end of file
+
+    private RetailerApiService lookup(String retailer) {
+        return retailer != null ? retailerApis.get(retailer.toLowerCase(Locale.ROOT)) : null;
+    }
+}
@@ -0,0 +1,697 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.PriceRollup;
+import com.example.price_comparator.model.PriceSample;
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.model.RetailerInfo;
+import com.example.price_comparator.utils.PriceChunkDecoder;
+import com.example.price_comparator.utils.PriceChunkEncoder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only price history, one series per (product, retailer).
+ *
+ * Samples accumulate in an open in-memory chunk per series. When a chunk reaches
+ * {@code pricehistory.chunk-size} samples it is sealed and appended to the active
+ * segment file together with a small summary (time range, min, max, sum, first and
+ * last price). Rollups over whole chunks are answered from the summary alone; only
+ * chunks that straddle the query range are decoded.
+ *
+ * Open chunks are checkpointed to {@code heads.snapshot} periodically and on shutdown,
+ * so a crash loses at most one checkpoint interval of samples.
+ */
+@Service
+public class PriceHistoryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceHistoryStore.class);
+
+    private static final int RECORD_MAGIC = 0x50485331; // "PHS1"
+    private static final int SUMMARY_BYTES = 8 + 8 + 4 + 8 * 5;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".phs";
+    private static final String HEADS_FILE = "heads.snapshot";
+
+    private final Path directory;
+    private final int chunkSize;
+    private final long segmentMaxBytes;
+    private final long minSampleIntervalMs;
+
+    private final Map<String, Series> seriesByKey = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> retailersByProduct = new ConcurrentHashMap<>();
+    private final Map<Integer, FileChannel> readChannels = new ConcurrentHashMap<>();
+
+    private final Object segmentLock = new Object();
+    private FileChannel activeSegment;
+    private int activeSegmentId;
+    private volatile boolean persistent;
+
+    public PriceHistoryStore(@Value("${pricehistory.dir:data/price-history}") String directory,
+                             @Value("${pricehistory.chunk-size:120}") int chunkSize,
+                             @Value("${pricehistory.segment-max-bytes:67108864}") long segmentMaxBytes,
+                             @Value("${pricehistory.min-sample-interval-ms:3600000}") long minSampleIntervalMs) {
+        this.directory = Paths.get(directory);
+        this.chunkSize = chunkSize;
+        this.segmentMaxBytes = segmentMaxBytes;
+        this.minSampleIntervalMs = minSampleIntervalMs;
+        try {
+            open();
+            persistent = true;
+        } catch (IOException e) {
+            logger.error("Price history directory {} unavailable - keeping history in memory only", directory, e);
+            persistent = false;
+        }
+    }
+
+    /** Summary and location of one sealed chunk. */
+    private static final class ChunkRef {
+        int segmentId;
+        long payloadOffset;
+        int payloadLength;
+        byte[] inMemoryPayload;
+        ChunkSummary summary;
+    }
+
+    private static final class ChunkSummary {
+        long minTimestamp;
+        long maxTimestamp;
+        int count;
+        double minPrice = Double.POSITIVE_INFINITY;
+        double maxPrice = Double.NEGATIVE_INFINITY;
+        double sumPrice;
+        double firstPrice;
+        double lastPrice;
+
+        void add(long timestamp, double price) {
+            if (count == 0) {
+                minTimestamp = timestamp;
+                firstPrice = price;
+            }
+            maxTimestamp = timestamp;
+            lastPrice = price;
+            minPrice = Math.min(minPrice, price);
+            maxPrice = Math.max(maxPrice, price);
+            sumPrice += price;
+            count++;
+        }
+    }
+
+    private static final class Series {
+        final String productId;
+        final String retailer;
+        final List<ChunkRef> chunks = new ArrayList<>();
+        PriceChunkEncoder head;
+        ChunkSummary headSummary;
+        boolean hasLast;
+        long lastTimestamp;
+        double lastPrice;
+        boolean lastInStock;
+
+        Series(String productId, String retailer) {
+            this.productId = productId;
+            this.retailer = retailer;
+        }
+    }
+
+    // ------------------------------------------------------------------ writes
+
+    /**
+     * Records the current offer of every retailer on the product.
+     */
+    public void recordOffers(ProductDocument product) {
+        if (product == null || product.getId() == null || product.getRetailers() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (RetailerInfo retailer : product.getRetailers()) {
+            if (retailer == null || retailer.getCurrentPrice() <= 0) {
+                continue;
+            }
+            String retailerKey = retailerKey(retailer);
+            if (retailerKey != null) {
+                record(product.getId(), retailerKey, now, retailer.getCurrentPrice(), retailer.isInStock());
+            }
+        }
+    }
+
+    /**
+     * Appends a sample. A sample identical to the previous one is skipped unless
+     * {@code pricehistory.min-sample-interval-ms} has passed, so repeated saves of an
+     * unchanged product cost nothing.
+     *
+     * @return true if the sample was stored
+     */
+    public boolean record(String productId, String retailer, long timestampMillis, double price, boolean inStock) {
+        Series series = seriesByKey.computeIfAbsent(seriesKey(productId, retailer), k -> new Series(productId, retailer));
+        retailersByProduct.computeIfAbsent(productId, k -> ConcurrentHashMap.newKeySet()).add(retailer);
+        synchronized (series) {
+            if (series.hasLast && series.lastPrice == price && series.lastInStock == inStock
+                    && timestampMillis - series.lastTimestamp < minSampleIntervalMs) {
+                return false;
+            }
+            appendToHead(series, timestampMillis, price, inStock);
+            if (series.head.getCount() >= chunkSize) {
+                seal(series);
+            }
+            return true;
+        }
+    }
+
+    private void appendToHead(Series series, long timestampMillis, double price, boolean inStock) {
+        if (series.head == null) {
+            series.head = new PriceChunkEncoder();
+            series.headSummary = new ChunkSummary();
+        }
+        series.head.append(timestampMillis, price, inStock);
+        series.headSummary.add(series.head.getLastTimestampMillis(), price);
+        series.hasLast = true;
+        series.lastTimestamp = series.head.getLastTimestampMillis();
+        series.lastPrice = price;
+        series.lastInStock = inStock;
+    }
+
+    private void seal(Series series) {
+        byte[] payload = series.head.toByteArray();
+        ChunkRef ref = new ChunkRef();
+        ref.summary = series.headSummary;
+        ref.payloadLength = payload.length;
+        if (persistent) {
+            try {
+                appendRecord(series, ref, payload);
+            } catch (IOException e) {
+                logger.error("Failed to persist price history chunk for {}/{} - keeping it in memory",
+                        series.productId, series.retailer, e);
+                ref.inMemoryPayload = payload;
+            }
+        } else {
+            ref.inMemoryPayload = payload;
+        }
+        series.chunks.add(ref);
+        series.head = null;
+        series.headSummary = null;
+    }
+
+    // ------------------------------------------------------------------ reads
+
+    public Set<String> getRetailers(String productId) {
+        Set<String> retailers = retailersByProduct.get(productId);
+        return retailers == null ? Collections.emptySet() : new TreeSet<>(retailers);
+    }
+
+    public List<PriceSample> query(String productId, String retailer, long fromMillis, long toMillis) {
+        Series series = seriesByKey.get(seriesKey(productId, retailer));
+        if (series == null) {
+            return Collections.emptyList();
+        }
+        List<ChunkRef> chunks;
+        byte[] headPayload = null;
+        int headCount = 0;
+        synchronized (series) {
+            chunks = new ArrayList<>(series.chunks);
+            if (series.head != null) {
+                headPayload = series.head.toByteArray();
+                headCount = series.head.getCount();
+            }
+        }
+
+        List<PriceSample> result = new ArrayList<>();
+        for (ChunkRef chunk : chunks) {
+            if (chunk.summary.maxTimestamp < fromMillis || chunk.summary.minTimestamp > toMillis) {
+                continue;
+            }
+            addInRange(result, PriceChunkDecoder.decode(readPayload(chunk), chunk.summary.count), fromMillis, toMillis);
+        }
+        if (headPayload != null) {
+            addInRange(result, PriceChunkDecoder.decode(headPayload, headCount), fromMillis, toMillis);
+        }
+        return result;
+    }
+
+    /**
+     * The most recent sample of each of the product's retailers, e.g. to compare a new offer
+     * against what was stored before a restart.
+     */
+    public Map<String, PriceSample> latest(String productId) {
+        Map<String, PriceSample> result = new LinkedHashMap<>();
+        for (String retailer : getRetailers(productId)) {
+            Series series = seriesByKey.get(seriesKey(productId, retailer));
+            long lastTimestamp;
+            synchronized (series) {
+                if (!series.hasLast) {
+                    continue;
+                }
+                lastTimestamp = series.lastTimestamp;
+            }
+            List<PriceSample> samples = query(productId, retailer, lastTimestamp, lastTimestamp);
+            if (!samples.isEmpty()) {
+                result.put(retailer, samples.get(samples.size() - 1));
+            }
+        }
+        return result;
+    }
+
+    public Map<String, List<PriceSample>> queryAll(String productId, long fromMillis, long toMillis) {
+        Map<String, List<PriceSample>> result = new LinkedHashMap<>();
+        for (String retailer : getRetailers(productId)) {
+            result.put(retailer, query(productId, retailer, fromMillis, toMillis));
+        }
+        return result;
+    }
+
+    public PriceRollup rollup(String productId, String retailer, long fromMillis, long toMillis) {
+        Series series = seriesByKey.get(seriesKey(productId, retailer));
+        ChunkSummary total = new ChunkSummary();
+        if (series != null) {
+            List<ChunkRef> chunks;
+            byte[] headPayload = null;
+            int headCount = 0;
+            synchronized (series) {
+                chunks = new ArrayList<>(series.chunks);
+                if (series.head != null) {
+                    headPayload = series.head.toByteArray();
+                    headCount = series.head.getCount();
+                }
+            }
+            for (ChunkRef chunk : chunks) {
+                ChunkSummary summary = chunk.summary;
+                if (summary.maxTimestamp < fromMillis || summary.minTimestamp > toMillis) {
+                    continue;
+                }
+                if (summary.minTimestamp >= fromMillis && summary.maxTimestamp <= toMillis) {
+                    merge(total, summary);
+                } else {
+                    for (PriceSample sample : PriceChunkDecoder.decode(readPayload(chunk), summary.count)) {
+                        if (sample.getTimestamp() >= fromMillis && sample.getTimestamp() <= toMillis) {
+                            total.add(sample.getTimestamp(), sample.getPrice());
+                        }
+                    }
+                }
+            }
+            if (headPayload != null) {
+                for (PriceSample sample : PriceChunkDecoder.decode(headPayload, headCount)) {
+                    if (sample.getTimestamp() >= fromMillis && sample.getTimestamp() <= toMillis) {
+                        total.add(sample.getTimestamp(), sample.getPrice());
+                    }
+                }
+            }
+        }
+
+        PriceRollup rollup = new PriceRollup();
+        rollup.setRetailer(retailer);
+        rollup.setCount(total.count);
+        if (total.count > 0) {
+            rollup.setFrom(total.minTimestamp);
+            rollup.setTo(total.maxTimestamp);
+            rollup.setMin(total.minPrice);
+            rollup.setMax(total.maxPrice);
+            rollup.setAvg(total.sumPrice / total.count);
+            rollup.setFirst(total.firstPrice);
+            rollup.setLast(total.lastPrice);
+        }
+        return rollup;
+    }
+
+    public List<PriceRollup> rollupAll(String productId, long fromMillis, long toMillis) {
+        return getRetailers(productId).stream()
+                .map(retailer -> rollup(productId, retailer, fromMillis, toMillis))
+                .collect(Collectors.toList());
+    }
+
+    private static void merge(ChunkSummary total, ChunkSummary chunk) {
+        if (chunk.count == 0) {
+            return;
+        }
+        if (total.count == 0) {
+            total.minTimestamp = chunk.minTimestamp;
+            total.firstPrice = chunk.firstPrice;
+        }
+        total.maxTimestamp = chunk.maxTimestamp;
+        total.lastPrice = chunk.lastPrice;
+        total.minPrice = Math.min(total.minPrice, chunk.minPrice);
+        total.maxPrice = Math.max(total.maxPrice, chunk.maxPrice);
+        total.sumPrice += chunk.sumPrice;
+        total.count += chunk.count;
+    }
+
+    private static void addInRange(List<PriceSample> target, List<PriceSample> samples, long from, long to) {
+        for (PriceSample sample : samples) {
+            if (sample.getTimestamp() >= from && sample.getTimestamp() <= to) {
+                target.add(sample);
+            }
+        }
+    }
+
+    private byte[] readPayload(ChunkRef chunk) {
+        if (chunk.inMemoryPayload != null) {
+            return chunk.inMemoryPayload;
+        }
+        try {
+            FileChannel channel = readChannels.computeIfAbsent(chunk.segmentId, id -> {
+                try {
+                    return FileChannel.open(segmentPath(id), StandardOpenOption.READ);
+                } catch (IOException e) {
+                    throw new java.io.UncheckedIOException(e);
+                }
+            });
+            ByteBuffer buffer = ByteBuffer.allocate(chunk.payloadLength);
+            long position = chunk.payloadOffset;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of segment " + chunk.segmentId);
+                }
+                position += read;
+            }
+            return buffer.array();
+        } catch (IOException | java.io.UncheckedIOException e) {
+            throw new IllegalStateException("Failed to read price history chunk from segment " + chunk.segmentId, e);
+        }
+    }
+
+    // ------------------------------------------------------------------ segment files
+
+    /*
+     * Record layout (big-endian):
+     *   int magic, short productIdLength, productId, short retailerLength, retailer,
+     *   long minTs, long maxTs, int count, double min, max, sum, first, last,
+     *   int payloadLength, payload, int crc32(all preceding bytes of the record)
+     */
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Integer> segmentIds = listSegmentIds();
+        for (int i = 0; i < segmentIds.size(); i++) {
+            boolean last = i == segmentIds.size() - 1;
+            scanSegment(segmentIds.get(i), last);
+        }
+        for (Series series : seriesByKey.values()) {
+            restoreLastStock(series);
+        }
+        activeSegmentId = segmentIds.isEmpty() ? 1 : segmentIds.get(segmentIds.size() - 1);
+        activeSegment = FileChannel.open(segmentPath(activeSegmentId),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        activeSegment.position(activeSegment.size());
+        loadHeads();
+        logger.info("Price history opened at {} - {} series in {} segment(s)",
+                directory.toAbsolutePath(), seriesByKey.size(), Math.max(1, segmentIds.size()));
+    }
+
+    private List<Integer> listSegmentIds() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path segmentPath(int segmentId) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segmentId, SEGMENT_SUFFIX));
+    }
+
+    private void scanSegment(int segmentId, boolean lastSegment) throws IOException {
+        byte[] content = Files.readAllBytes(segmentPath(segmentId));
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        int goodEnd = 0;
+        while (buffer.remaining() > 0) {
+            ParsedRecord record = parseRecord(buffer);
+            if (record == null) {
+                break;
+            }
+            Series series = seriesByKey.computeIfAbsent(seriesKey(record.productId, record.retailer),
+                    k -> new Series(record.productId, record.retailer));
+            retailersByProduct.computeIfAbsent(record.productId, k -> ConcurrentHashMap.newKeySet()).add(record.retailer);
+            ChunkRef ref = new ChunkRef();
+            ref.segmentId = segmentId;
+            ref.payloadOffset = record.payloadOffset;
+            ref.payloadLength = record.payload.length;
+            ref.summary = record.summary;
+            series.chunks.add(ref);
+            series.hasLast = true;
+            series.lastTimestamp = record.summary.maxTimestamp;
+            series.lastPrice = record.summary.lastPrice;
+            goodEnd = buffer.position();
+        }
+        if (goodEnd < content.length) {
+            logger.warn("Segment {} has {} trailing bytes that do not form a complete record", segmentId, content.length - goodEnd);
+            if (lastSegment) {
+                try (FileChannel channel = FileChannel.open(segmentPath(segmentId), StandardOpenOption.WRITE)) {
+                    channel.truncate(goodEnd);
+                }
+            }
+        }
+    }
+
+    /**
+     * The record summary has no stock flag, so the duplicate check's last stock state is read
+     * from the series' newest sealed sample. Only that one chunk is decoded.
+     */
+    private void restoreLastStock(Series series) {
+        ChunkRef last = series.chunks.get(series.chunks.size() - 1);
+        List<PriceSample> samples = PriceChunkDecoder.decode(readPayload(last), last.summary.count);
+        if (samples.isEmpty()) {
+            series.hasLast = false;
+        } else {
+            series.lastInStock = samples.get(samples.size() - 1).isInStock();
+        }
+    }
+
+    private static final class ParsedRecord {
+        String productId;
+        String retailer;
+        ChunkSummary summary;
+        byte[] payload;
+        int payloadOffset;
+    }
+
+    /**
+     * Parses one record at the buffer's position, or returns null if the remaining
+     * bytes are truncated or fail the checksum.
+     */
+    private static ParsedRecord parseRecord(ByteBuffer buffer) {
+        int start = buffer.position();
+        try {
+            if (buffer.getInt() != RECORD_MAGIC) {
+                return null;
+            }
+            ParsedRecord record = new ParsedRecord();
+            record.productId = readString(buffer);
+            record.retailer = readString(buffer);
+            ChunkSummary summary = new ChunkSummary();
+            summary.minTimestamp = buffer.getLong();
+            summary.maxTimestamp = buffer.getLong();
+            summary.count = buffer.getInt();
+            summary.minPrice = buffer.getDouble();
+            summary.maxPrice = buffer.getDouble();
+            summary.sumPrice = buffer.getDouble();
+            summary.firstPrice = buffer.getDouble();
+            summary.lastPrice = buffer.getDouble();
+            record.summary = summary;
+            int payloadLength = buffer.getInt();
+            if (payloadLength < 0 || payloadLength > buffer.remaining()) {
+                buffer.position(start);
+                return null;
+            }
+            record.payloadOffset = buffer.position();
+            record.payload = new byte[payloadLength];
+            buffer.get(record.payload);
+            int end = buffer.position();
+            int storedCrc = buffer.getInt();
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), start, end - start);
+            if ((int) crc.getValue() != storedCrc) {
+                buffer.position(start);
+                return null;
+            }
+            return record;
+        } catch (java.nio.BufferUnderflowException e) {
+            buffer.position(start);
+            return null;
+        }
+    }
+
+    private static byte[] encodeRecord(String productId, String retailer, ChunkSummary summary, byte[] payload) {
+        byte[] productBytes = productId.getBytes(StandardCharsets.UTF_8);
+        byte[] retailerBytes = retailer.getBytes(StandardCharsets.UTF_8);
+        int size = 4 + 2 + productBytes.length + 2 + retailerBytes.length + SUMMARY_BYTES + 4 + payload.length + 4;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(RECORD_MAGIC);
+        buffer.putShort((short) productBytes.length).put(productBytes);
+        buffer.putShort((short) retailerBytes.length).put(retailerBytes);
+        buffer.putLong(summary.minTimestamp);
+        buffer.putLong(summary.maxTimestamp);
+        buffer.putInt(summary.count);
+        buffer.putDouble(summary.minPrice);
+        buffer.putDouble(summary.maxPrice);
+        buffer.putDouble(summary.sumPrice);
+        buffer.putDouble(summary.firstPrice);
+        buffer.putDouble(summary.lastPrice);
+        buffer.putInt(payload.length);
+        buffer.put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void appendRecord(Series series, ChunkRef ref, byte[] payload) throws IOException {
+        byte[] record = encodeRecord(series.productId, series.retailer, ref.summary, payload);
+        synchronized (segmentLock) {
+            if (activeSegment.size() > 0 && activeSegment.size() + record.length > segmentMaxBytes) {
+                activeSegment.force(false);
+                activeSegment.close();
+                activeSegmentId++;
+                activeSegment = FileChannel.open(segmentPath(activeSegmentId),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+                logger.info("Rolled price history to segment {}", activeSegmentId);
+            }
+            long recordStart = activeSegment.size();
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            long position = recordStart;
+            while (buffer.hasRemaining()) {
+                position += activeSegment.write(buffer, position);
+            }
+            ref.segmentId = activeSegmentId;
+            ref.payloadOffset = recordStart + record.length - 4 - payload.length;
+        }
+    }
+
+    // ------------------------------------------------------------------ open chunk checkpoints
+
+    @Scheduled(fixedDelayString = "${pricehistory.checkpoint-ms:900000}", initialDelayString = "${pricehistory.checkpoint-ms:900000}")
+    public void checkpoint() {
+        if (!persistent) {
+            return;
+        }
+        Path target = directory.resolve(HEADS_FILE);
+        Path temp = directory.resolve(HEADS_FILE + ".tmp");
+        int written = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Series series : seriesByKey.values()) {
+                byte[] record;
+                synchronized (series) {
+                    if (series.head == null || series.head.getCount() == 0) {
+                        continue;
+                    }
+                    record = encodeRecord(series.productId, series.retailer, series.headSummary, series.head.toByteArray());
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                written++;
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            logger.error("Failed to checkpoint open price history chunks", e);
+            return;
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synchronized (segmentLock) {
+                activeSegment.force(false);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to publish price history checkpoint", e);
+            return;
+        }
+        logger.debug("Checkpointed {} open price history chunks", written);
+    }
+
+    private void loadHeads() throws IOException {
+        Path headsFile = directory.resolve(HEADS_FILE);
+        if (!Files.exists(headsFile)) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(headsFile));
+        int restored = 0;
+        while (buffer.remaining() > 0) {
+            ParsedRecord record = parseRecord(buffer);
+            if (record == null) {
+                logger.warn("Ignoring unreadable tail of {}", headsFile);
+                break;
+            }
+            Series series = seriesByKey.computeIfAbsent(seriesKey(record.productId, record.retailer),
+                    k -> new Series(record.productId, record.retailer));
+            retailersByProduct.computeIfAbsent(record.productId, k -> ConcurrentHashMap.newKeySet()).add(record.retailer);
+            // Samples that were sealed into a segment after the checkpoint are already on disk.
+            long sealedUpTo = series.chunks.isEmpty() ? Long.MIN_VALUE
+                    : series.chunks.get(series.chunks.size() - 1).summary.maxTimestamp;
+            for (PriceSample sample : PriceChunkDecoder.decode(record.payload, record.summary.count)) {
+                if (sample.getTimestamp() > sealedUpTo) {
+                    appendToHead(series, sample.getTimestamp(), sample.getPrice(), sample.isInStock());
+                    restored++;
+                }
+            }
+        }
+        logger.info("Restored {} unsealed price history samples", restored);
+    }
+
+    @PreDestroy
+    public void close() {
+        checkpoint();
+        synchronized (segmentLock) {
+            try {
+                if (activeSegment != null) {
+                    activeSegment.close();
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to close active price history segment", e);
+            }
+        }
+        for (FileChannel channel : readChannels.values()) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close price history reader", e);
+            }
+        }
+        readChannels.clear();
+    }
+
+    private static String seriesKey(String productId, String retailer) {
+        return productId + '\u0000' + retailer;
+    }
+
+    static String retailerKey(RetailerInfo retailer) {
+        if (retailer.getName() != null && !retailer.getName().isBlank()) {
+            return retailer.getName().trim().toLowerCase(Locale.ROOT);
+        }
+        return retailer.getRetailerId();
+    }
+}
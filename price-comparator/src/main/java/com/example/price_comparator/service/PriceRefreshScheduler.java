@@ -0,0 +1,226 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.model.CompactProduct;
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.model.RetailerInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Incremental price refresh driven by per-product staleness.
+ *
+ * Every {@code refresh.tick-ms} every product in the catalog is scored by how stale its
+ * price is, weighted by demand (recent views, bookmarks) and by how much its price has been
+ * moving. The top candidates, up to the tick's share of the per-minute API budget, are
+ * refreshed from the Amazon detail endpoint; everything else waits for a later tick.
+ */
+@Service
+public class PriceRefreshScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceRefreshScheduler.class);
+
+    private static final long MINUTE_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final double HOTNESS_WEIGHT = 0.5;
+    private static final double BOOKMARK_WEIGHT = 1.0;
+    private static final double VOLATILITY_WEIGHT = 20.0;
+
+    private final ProductCatalog catalog;
+    private final ProductDemandTracker demandTracker;
+    private final AmazonApiService amazonApiService;
+    private final ProductService productService;
+    private final FirebaseService firebaseService;
+
+    private final boolean enabled;
+    private final int budgetPerMinute;
+    /** Calls earned per tick, in 1/60000ths of a call so that the carry is exact. */
+    private final long budgetPerTick;
+    private final long minIntervalMinutes;
+    private final long targetAgeHours;
+
+    private final AtomicBoolean tickInProgress = new AtomicBoolean(false);
+    private long budgetCarry;
+
+    public PriceRefreshScheduler(ProductCatalog catalog, ProductDemandTracker demandTracker,
+                                 AmazonApiService amazonApiService, ProductService productService,
+                                 FirebaseService firebaseService,
+                                 @Value("${refresh.enabled:true}") boolean enabled,
+                                 @Value("${refresh.budget-per-minute:6}") int budgetPerMinute,
+                                 @Value("${refresh.tick-ms:60000}") long tickMs,
+                                 @Value("${refresh.min-interval-minutes:30}") long minIntervalMinutes,
+                                 @Value("${refresh.target-age-hours:24}") long targetAgeHours) {
+        this.catalog = catalog;
+        this.demandTracker = demandTracker;
+        this.amazonApiService = amazonApiService;
+        this.productService = productService;
+        this.firebaseService = firebaseService;
+        this.enabled = enabled;
+        this.budgetPerMinute = budgetPerMinute;
+        this.budgetPerTick = budgetPerMinute * tickMs;
+        this.minIntervalMinutes = minIntervalMinutes;
+        this.targetAgeHours = targetAgeHours;
+    }
+
+    static final class RefreshCandidate {
+        final CompactProduct product;
+        final double score;
+
+        RefreshCandidate(CompactProduct product, double score) {
+            this.product = product;
+            this.score = score;
+        }
+    }
+
+    @Scheduled(fixedRateString = "${refresh.tick-ms:60000}", initialDelayString = "${refresh.initial-delay-ms:120000}")
+    public void refreshStalestProducts() {
+        if (!enabled || !tickInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (!catalog.isLoaded()) {
+                logger.info("Loading product catalog for incremental refresh");
+                catalog.load(firebaseService.getAllProducts().join());
+                logger.info("Catalog loaded with {} products", catalog.size());
+            }
+
+            int budget = takeTickBudget();
+            if (budget == 0) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            List<RefreshCandidate> selected = selectCandidates(now, budget);
+            if (selected.isEmpty()) {
+                logger.debug("No products due for a price refresh");
+                return;
+            }
+
+            logger.info("PRICE REFRESH - refreshing {} of {} products (budget {} this tick, {}/min)",
+                    selected.size(), catalog.size(), budget, budgetPerMinute);
+            List<CompletableFuture<Void>> refreshes = new ArrayList<>();
+            for (RefreshCandidate candidate : selected) {
+                demandTracker.recordRefreshAttempt(candidate.product.getId(), now);
+                refreshes.add(refreshProduct(candidate));
+            }
+            CompletableFuture.allOf(refreshes.toArray(new CompletableFuture[0])).join();
+        } catch (Exception e) {
+            logger.error("Incremental price refresh failed", e);
+        } finally {
+            tickInProgress.set(false);
+        }
+    }
+
+    /**
+     * This tick's share of the per-minute budget. The fractional part carries over, so e.g.
+     * 6 per minute at a 15 second tick refreshes 1, 2, 1, 2 products; unused whole calls do not.
+     */
+    int takeTickBudget() {
+        long available = budgetCarry + budgetPerTick;
+        budgetCarry = available % MINUTE_MS;
+        return (int) (available / MINUTE_MS);
+    }
+
+    /**
+     * Picks the highest-scoring due products with a bounded min-heap, so each tick costs
+     * O(n log budget) regardless of catalog size.
+     */
+    List<RefreshCandidate> selectCandidates(long now, int budget) {
+        long minIntervalMs = TimeUnit.MINUTES.toMillis(minIntervalMinutes);
+        PriorityQueue<RefreshCandidate> topCandidates =
+                new PriorityQueue<>(Comparator.comparingDouble((RefreshCandidate c) -> c.score));
+
+        // Scans the compact entries; only the selected products are materialized
+        for (CompactProduct product : catalog.getAllCompact()) {
+            String id = product.getId();
+            long lastChecked = product.getLastCheckedMillis();
+            long lastTouched = Math.max(lastChecked, demandTracker.getLastRefreshAttempt(id));
+            if (now - lastTouched < minIntervalMs) {
+                continue;
+            }
+            double score = priorityScore(id, now - lastChecked, now);
+            if (topCandidates.size() < budget) {
+                topCandidates.add(new RefreshCandidate(product, score));
+            } else if (!topCandidates.isEmpty() && score > topCandidates.peek().score) {
+                topCandidates.poll();
+                topCandidates.add(new RefreshCandidate(product, score));
+            }
+        }
+
+        List<RefreshCandidate> selected = new ArrayList<>(topCandidates);
+        selected.sort(Comparator.comparingDouble((RefreshCandidate c) -> c.score).reversed());
+        return selected;
+    }
+
+    /** Staleness as a fraction of the target age, scaled up by views, bookmarks and price volatility. */
+    double priorityScore(String productId, long stalenessMs, long now) {
+        double staleness = (double) stalenessMs / TimeUnit.HOURS.toMillis(targetAgeHours);
+        double demand = 1.0
+                + HOTNESS_WEIGHT * demandTracker.getHotness(productId, now)
+                + BOOKMARK_WEIGHT * demandTracker.getBookmarkCount(productId)
+                + VOLATILITY_WEIGHT * demandTracker.getVolatility(productId);
+        return staleness * demand;
+    }
+
+    private CompletableFuture<Void> refreshProduct(RefreshCandidate candidate) {
+        ProductDocument product = candidate.product.toDocument();
+        return amazonApiService.fetchProductDetails(product.getId())
+                .thenAccept(fresh -> {
+                    if (fresh == null) {
+                        logger.warn("Refresh of {} returned no data", product.getId());
+                        return;
+                    }
+                    RetailerInfo freshAmazon = findAmazonRetailer(fresh.getRetailers());
+                    if (freshAmazon == null) {
+                        logger.debug("Refresh of {} returned no Amazon price", product.getId());
+                        return;
+                    }
+
+                    List<RetailerInfo> retailers = product.getRetailers() != null
+                            ? new ArrayList<>(product.getRetailers()) : new ArrayList<>();
+                    RetailerInfo previousAmazon = findAmazonRetailer(retailers);
+                    if (previousAmazon != null) {
+                        demandTracker.recordPriceObservation(product.getId(),
+                                previousAmazon.getCurrentPrice(), freshAmazon.getCurrentPrice());
+                        retailers.remove(previousAmazon);
+                    }
+                    retailers.add(freshAmazon);
+                    retailers.sort(Comparator.comparingDouble(RetailerInfo::getCurrentPrice));
+
+                    product.setRetailers(retailers);
+                    product.setPrice(fresh.getPrice());
+                    if (fresh.getOriginalPrice() != null) {
+                        product.setOriginalPrice(fresh.getOriginalPrice());
+                    }
+                    product.setLastChecked(new Date());
+                    productService.saveProduct(product);
+                    logger.info("Refreshed {} (score {}): Amazon price {}", product.getId(),
+                            String.format("%.2f", candidate.score), freshAmazon.getCurrentPrice());
+                })
+                .exceptionally(ex -> {
+                    logger.warn("Refresh of {} failed: {}", product.getId(), ex.getMessage());
+                    return null;
+                });
+    }
+
+    private RetailerInfo findAmazonRetailer(List<RetailerInfo> retailers) {
+        if (retailers == null) {
+            return null;
+        }
+        for (RetailerInfo retailer : retailers) {
+            if ("amazon".equals(retailer.getRetailerId())) {
+                return retailer;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.BatchGetResponse;
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.utils.BoundedAsync;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Resolves many product ids in one call: from the in-memory catalog, then with bounded-parallel
+ * Firebase reads ({@link FirebaseService#getProducts}), then optionally from Amazon with at most
+ * {@code products.batch-get.amazon-concurrency} detail lookups in flight. Amazon lookups are paid,
+ * so one request fetches at most {@code products.batch-get.max-amazon-fetches} of its misses.
+ */
+@Service
+public class ProductBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductBatchService.class);
+
+    private final FirebaseService firebaseService;
+    private final RetailerApiService amazonApiService;
+    private final Consumer<ProductDocument> saver;
+    private final int maxIds;
+    private final int amazonConcurrency;
+    private final int maxAmazonFetches;
+
+    @Autowired
+    public ProductBatchService(FirebaseService firebaseService, AmazonApiService amazonApiService,
+                               ProductService productService,
+                               @Value("${products.batch-get.max-ids:100}") int maxIds,
+                               @Value("${products.batch-get.amazon-concurrency:2}") int amazonConcurrency,
+                               @Value("${products.batch-get.max-amazon-fetches:5}") int maxAmazonFetches) {
+        this(firebaseService, amazonApiService, productService::saveProduct, maxIds, amazonConcurrency, maxAmazonFetches);
+    }
+
+    ProductBatchService(FirebaseService firebaseService, RetailerApiService amazonApiService,
+                        Consumer<ProductDocument> saver, int maxIds, int amazonConcurrency, int maxAmazonFetches) {
+        this.firebaseService = firebaseService;
+        this.amazonApiService = amazonApiService;
+        this.saver = saver;
+        this.maxIds = maxIds;
+        this.amazonConcurrency = amazonConcurrency;
+        this.maxAmazonFetches = maxAmazonFetches;
+    }
+
+    public int getMaxIds() {
+        return maxIds;
+    }
+
+    /**
+     * Looks up the distinct ids in request order. Failed reads and lookups are logged and the id
+     * is reported as missing, as are misses beyond the Amazon fetch cap.
+     *
+     * @throws IllegalArgumentException if there are no ids, more than the limit, or an id
+     *                                  that is not a valid Firebase key
+     */
+    public CompletableFuture<BatchGetResponse> getProducts(List<String> ids, boolean fetchMissing) {
+        List<String> distinct = validate(ids);
+        return firebaseService.getProducts(distinct).thenCompose(found -> {
+            Map<String, ProductDocument> byId = new HashMap<>();
+            for (ProductDocument product : found) {
+                byId.put(product.getId(), product);
+            }
+            List<String> misses = new ArrayList<>();
+            for (String id : distinct) {
+                if (!byId.containsKey(id)) {
+                    misses.add(id);
+                }
+            }
+            if (!fetchMissing || misses.isEmpty()) {
+                return CompletableFuture.completedFuture(response(distinct, byId));
+            }
+
+            List<String> toFetch = misses.subList(0, Math.min(misses.size(), Math.max(0, maxAmazonFetches)));
+            logger.info("Batch get: {} of {} ids not stored, fetching {} from Amazon", misses.size(), distinct.size(),
+                    toFetch.size());
+            Map<String, ProductDocument> fetched = new ConcurrentHashMap<>();
+            return BoundedAsync.forEach(toFetch, amazonConcurrency, id -> amazonApiService.getProductDetails(id)
+                            .orTimeout(30, TimeUnit.SECONDS)
+                            .handle((product, ex) -> {
+                                if (ex != null) {
+                                    logger.warn("Batch get: Amazon lookup for {} failed: {}", id, ex.getMessage());
+                                } else if (product != null) {
+                                    saver.accept(product);
+                                    fetched.put(id, product);
+                                }
+                                return null;
+                            }))
+                    .thenApply(v -> {
+                        byId.putAll(fetched);
+                        return response(distinct, byId);
+                    });
+        });
+    }
+
+    private List<String> validate(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("No ids given");
+        }
+        LinkedHashSet<String> distinct = new LinkedHashSet<>();
+        for (String id : ids) {
+            String trimmed = id == null ? "" : id.trim();
+            if (trimmed.isEmpty() || !isValidKey(trimmed)) {
+                throw new IllegalArgumentException("Invalid product id '" + id + "'");
+            }
+            distinct.add(trimmed);
+        }
+        if (distinct.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " ids per request, got " + distinct.size());
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    /** Firebase keys may not contain . $ # [ ] / or control characters. */
+    private static boolean isValidKey(String id) {
+        if (id.length() > 128) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < 0x20 || c == 0x7f || ".$#[]/".indexOf(c) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BatchGetResponse response(List<String> ids, Map<String, ProductDocument> byId) {
+        List<ProductDocument> products = new ArrayList<>(byId.size());
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            ProductDocument product = byId.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missing.add(id);
+            }
+        }
+        BatchGetResponse response = new BatchGetResponse();
+        response.setProducts(products);
+        response.setMissing(missing);
+        return response;
+    }
+}
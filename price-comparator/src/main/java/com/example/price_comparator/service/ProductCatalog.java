@@ -0,0 +1,242 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.model.CompactProduct;
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.model.RetailerInfo;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory replica of the products node, kept current by every save that goes
+ * through ProductService. Lets background jobs inspect the whole catalog without
+ * re-reading it from Firebase.
+ *
+ * Entries are held as {@link CompactProduct}s; a full {@link ProductDocument} is only
+ * built when a caller asks for one, and is a copy that callers may modify freely.
+ *
+ * Every stored entry gets a new version, from which HTTP validators (ETags) are derived.
+ * Versions restart with the process, so ETags also carry a per-process epoch and never
+ * match a validator handed out before a restart.
+ *
+ * The replica is per process: it is only updated by saves made through this instance, so a
+ * product saved by another instance stays stale here until this instance saves it again or
+ * restarts. Reads served from it (product pages, featured and trending lists) assume a single
+ * instance; with several, route writes and reads for a product to the same one.
+ */
+@Component
+public class ProductCatalog {
+
+    private static final Pattern INT_KEY = Pattern.compile("-?(0|[1-9][0-9]{0,9})");
+
+    private static final Comparator<String> FIREBASE_KEY_ORDER = (a, b) -> {
+        Integer x = asInt(a);
+        Integer y = asInt(b);
+        if (x != null && y != null) {
+            return Integer.compare(x, y);
+        }
+        if (x != null || y != null) {
+            return x != null ? -1 : 1;
+        }
+        return a.compareTo(b);
+    };
+
+    private final Map<String, CompactProduct> products = new ConcurrentHashMap<>();
+    /** Ids in Firebase key order, kept as products are added; entries are never removed. */
+    private final NavigableSet<String> orderedIds = new ConcurrentSkipListSet<>(FIREBASE_KEY_ORDER);
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final Set<String> imageUrls = ConcurrentHashMap.newKeySet();
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final AtomicLong maxLastChecked = new AtomicLong();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private volatile boolean loaded;
+
+    public void put(ProductDocument product) {
+        if (product != null && product.getId() != null) {
+            CompactProduct compact = CompactProduct.of(product);
+            if (products.put(product.getId(), compact) == null) {
+                orderedIds.add(product.getId());
+            }
+            stored(compact);
+            indexImages(product);
+        }
+    }
+
+    public void putAll(Collection<ProductDocument> batch) {
+        for (ProductDocument product : batch) {
+            put(product);
+        }
+    }
+
+    /**
+     * Seeds the catalog from a full read. Entries saved while the read was in flight win.
+     */
+    public void load(Collection<ProductDocument> snapshot) {
+        for (ProductDocument product : snapshot) {
+            if (product != null && product.getId() != null) {
+                products.computeIfAbsent(product.getId(), id -> {
+                    CompactProduct compact = CompactProduct.of(product);
+                    orderedIds.add(id);
+                    stored(compact);
+                    indexImages(product);
+                    return compact;
+                });
+            }
+        }
+        loaded = true;
+    }
+
+    public ProductDocument get(String id) {
+        CompactProduct product = id == null ? null : products.get(id);
+        return product == null ? null : product.toDocument();
+    }
+
+    /**
+     * Materializes every product; prefer {@link #getAllCompact()} for scans that only need
+     * a few fields.
+     */
+    public List<ProductDocument> getAll() {
+        List<ProductDocument> all = new ArrayList<>(products.size());
+        for (CompactProduct product : products.values()) {
+            all.add(product.toDocument());
+        }
+        return all;
+    }
+
+    /**
+     * The first {@code limit} products in the order Firebase returns children of the products
+     * node: keys that are 32-bit integers first, numerically, then the rest lexicographically.
+     */
+    public List<ProductDocument> getFirst(int limit) {
+        List<ProductDocument> first = new ArrayList<>(Math.min(limit, products.size()));
+        for (String id : orderedIds) {
+            if (first.size() == limit) {
+                break;
+            }
+            CompactProduct product = products.get(id);
+            if (product != null) {
+                first.add(product.toDocument());
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Products whose name contains {@code query}, ignoring case, ordered by name as Firebase's
+     * {@code orderByChild("name")} would. Only matches are materialized.
+     */
+    public List<ProductDocument> findByName(String query) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        List<CompactProduct> matches = new ArrayList<>();
+        for (CompactProduct product : products.values()) {
+            if (product.getName() != null && product.getName().toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(product);
+            }
+        }
+        matches.sort(Comparator.comparing(CompactProduct::getName).thenComparing(CompactProduct::getId, FIREBASE_KEY_ORDER));
+        List<ProductDocument> documents = new ArrayList<>(matches.size());
+        for (CompactProduct product : matches) {
+            documents.add(product.toDocument());
+        }
+        return documents;
+    }
+
+    public Collection<CompactProduct> getAllCompact() {
+        return Collections.unmodifiableCollection(products.values());
+    }
+
+    /**
+     * Strong ETag of the product's current entry, or null when the product is not in the catalog.
+     * Read it before reading the product: a save in between then yields an older ETag, which
+     * costs the client one extra full response but never a stale 304.
+     */
+    public String getEtag(String id) {
+        Long version = id == null ? null : versions.get(id);
+        return version == null ? null : "\"" + epoch + "-" + Long.toString(version, 36) + "\"";
+    }
+
+    /** {@code lastChecked} of the product in epoch milliseconds, or 0 when unknown. */
+    public long getLastModified(String id) {
+        CompactProduct product = id == null ? null : products.get(id);
+        return product == null ? 0L : product.getLastCheckedMillis();
+    }
+
+    /**
+     * ETag covering the whole catalog, for responses built from a scan of all products. It
+     * changes with every save. Null until the catalog has been loaded, since a partial
+     * catalog cannot vouch for a full read.
+     */
+    public String getCatalogEtag() {
+        return loaded ? "\"" + epoch + "-c" + Long.toString(catalogVersion.get(), 36) + "\"" : null;
+    }
+
+    /** Latest {@code lastChecked} of any product stored so far, or 0. */
+    public long getCatalogLastModified() {
+        return maxLastChecked.get();
+    }
+
+    /**
+     * Whether {@code url} is, or was during this process, the image, a photo or a retailer logo
+     * of a catalog product. URLs are not removed when a product's images change.
+     */
+    public boolean isKnownImage(String url) {
+        return url != null && imageUrls.contains(url);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    /** Versions are bumped after the entry is replaced, see {@link #getEtag(String)}. */
+    private void stored(CompactProduct product) {
+        versions.put(product.getId(), catalogVersion.incrementAndGet());
+        maxLastChecked.accumulateAndGet(product.getLastCheckedMillis(), Math::max);
+    }
+
+    private void indexImages(ProductDocument product) {
+        if (product.getImageUrl() != null) {
+            imageUrls.add(product.getImageUrl());
+        }
+        if (product.getPhotos() != null) {
+            for (String photo : product.getPhotos()) {
+                if (photo != null) {
+                    imageUrls.add(photo);
+                }
+            }
+        }
+        if (product.getRetailers() != null) {
+            for (RetailerInfo retailer : product.getRetailers()) {
+                if (retailer != null && retailer.getLogo() != null) {
+                    imageUrls.add(retailer.getLogo());
+                }
+            }
+        }
+    }
+
+    private static Integer asInt(String key) {
+        if (!INT_KEY.matcher(key).matches()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            return null;  // Out of the 32-bit range, so Firebase sorts it as a string
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.price_comparator.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-product demand and price-movement signals used to decide what to refresh first.
+ *
+ * Views decay with a fixed half-life so that a product that was popular yesterday
+ * does not outrank one that is popular now. Volatility is an exponentially weighted
+ * average of the relative price change seen on each refresh. Bookmark counts come from
+ * the {@link BookmarkIndex}, which is seeded from Firebase at startup, so they survive a
+ * restart.
+ */
+@Component
+public class ProductDemandTracker {
+
+    private static final double VIEW_HALF_LIFE_MS = TimeUnit.HOURS.toMillis(6);
+    private static final double VOLATILITY_ALPHA = 0.3;
+
+    private final BookmarkIndex bookmarkIndex;
+    private final Map<String, Stats> statsByProduct = new ConcurrentHashMap<>();
+
+    public ProductDemandTracker(BookmarkIndex bookmarkIndex) {
+        this.bookmarkIndex = bookmarkIndex;
+    }
+
+    private static final class Stats {
+        double decayedViews;
+        long viewsUpdatedAt;
+        double volatility;
+        long lastRefreshAttempt;
+    }
+
+    public void recordView(String productId) {
+        long now = System.currentTimeMillis();
+        statsByProduct.compute(productId, (id, stats) -> {
+            Stats s = stats != null ? stats : new Stats();
+            s.decayedViews = decayedViews(s, now) + 1.0;
+            s.viewsUpdatedAt = now;
+            return s;
+        });
+    }
+
+    public void recordPriceObservation(String productId, double previousPrice, double newPrice) {
+        if (previousPrice <= 0 || newPrice <= 0) {
+            return;
+        }
+        double change = Math.abs(newPrice - previousPrice) / previousPrice;
+        statsByProduct.compute(productId, (id, stats) -> {
+            Stats s = stats != null ? stats : new Stats();
+            s.volatility = VOLATILITY_ALPHA * change + (1 - VOLATILITY_ALPHA) * s.volatility;
+            return s;
+        });
+    }
+
+    public void recordRefreshAttempt(String productId, long timestamp) {
+        statsByProduct.compute(productId, (id, stats) -> {
+            Stats s = stats != null ? stats : new Stats();
+            s.lastRefreshAttempt = timestamp;
+            return s;
+        });
+    }
+
+    public double getHotness(String productId, long now) {
+        Stats s = statsByProduct.get(productId);
+        return s == null ? 0.0 : decayedViews(s, now);
+    }
+
+    public int getBookmarkCount(String productId) {
+        return bookmarkIndex.getSubscribers(productId).size();
+    }
+
+    public double getVolatility(String productId) {
+        Stats s = statsByProduct.get(productId);
+        return s == null ? 0.0 : s.volatility;
+    }
+
+    public long getLastRefreshAttempt(String productId) {
+        Stats s = statsByProduct.get(productId);
+        return s == null ? 0L : s.lastRefreshAttempt;
+    }
+
+    private static double decayedViews(Stats s, long now) {
+        if (s.decayedViews == 0.0) {
+            return 0.0;
+        }
+        long elapsed = Math.max(0L, now - s.viewsUpdatedAt);
+        return s.decayedViews * Math.pow(0.5, elapsed / VIEW_HALF_LIFE_MS);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.model.RetailerInfo;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Serializes product lists with only the requested top-level fields.
+ *
+ * Fields are dropped by a Jackson property filter while the documents are written, so no
+ * trimmed copies are built. Callers choose either a named view ({@code card}, {@code detail})
+ * or an explicit {@code fields=} list; the id is always included.
+ */
+@Component
+public class ProductProjector {
+
+    private static final String FILTER_ID = "productProjection";
+    private static final String RETAILERS = "retailers";
+
+    /** What a product card and the search results page read. */
+    static final Set<String> CARD_FIELDS = Set.of("id", "name", "imageUrl", "price", "currency", "rating", "reviews", RETAILERS);
+
+    @JsonFilter(FILTER_ID)
+    private abstract static class ProjectionMixin {
+    }
+
+    /** A resolved view or field list, ready to write. */
+    public static final class Projection {
+        private final ObjectWriter writer;
+
+        private Projection(ObjectWriter writer) {
+            this.writer = writer;
+        }
+
+        public byte[] write(List<ProductDocument> products) {
+            try {
+                return writer.writeValueAsBytes(products);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize products", e);
+            }
+        }
+    }
+
+    /**
+     * Writes the listed properties only. For the card view the retailers array is reduced to the
+     * cheapest offer while it is being written.
+     */
+    private static final class FieldFilter extends SimpleBeanPropertyFilter {
+        private final Set<String> fields;
+        private final boolean cheapestRetailerOnly;
+
+        FieldFilter(Set<String> fields, boolean cheapestRetailerOnly) {
+            this.fields = fields;
+            this.cheapestRetailerOnly = cheapestRetailerOnly;
+        }
+
+        @Override
+        protected boolean include(BeanPropertyWriter writer) {
+            return fields.contains(writer.getName());
+        }
+
+        @Override
+        protected boolean include(PropertyWriter writer) {
+            return fields.contains(writer.getName());
+        }
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider, PropertyWriter writer)
+                throws Exception {
+            if (cheapestRetailerOnly && RETAILERS.equals(writer.getName()) && pojo instanceof ProductDocument) {
+                RetailerInfo cheapest = cheapest(((ProductDocument) pojo).getRetailers());
+                gen.writeFieldName(RETAILERS);
+                gen.writeStartArray();
+                if (cheapest != null) {
+                    provider.defaultSerializeValue(cheapest, gen);
+                }
+                gen.writeEndArray();
+                return;
+            }
+            super.serializeAsField(pojo, gen, provider, writer);
+        }
+    }
+
+    private final ObjectMapper mapper;
+    private final Set<String> propertyNames;
+    private final Projection detail;
+    private final Projection card;
+
+    public ProductProjector(ObjectMapper objectMapper) {
+        this.mapper = objectMapper.copy().addMixIn(ProductDocument.class, ProjectionMixin.class);
+        BeanDescription description = mapper.getSerializationConfig()
+                .introspect(mapper.constructType(ProductDocument.class));
+        Set<String> names = new TreeSet<>();
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            if (property.couldSerialize()) {
+                names.add(property.getName());
+            }
+        }
+        this.propertyNames = Collections.unmodifiableSet(names);
+        this.detail = projection(SimpleBeanPropertyFilter.serializeAll());
+        this.card = projection(new FieldFilter(CARD_FIELDS, true));
+    }
+
+    /**
+     * Resolves the request parameters. Without either parameter the full document is written.
+     *
+     * @throws IllegalArgumentException for an unknown view or field name
+     */
+    public Projection resolve(String view, String fields) {
+        if (fields != null && !fields.isBlank()) {
+            Set<String> selected = new LinkedHashSet<>();
+            selected.add("id");
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (!propertyNames.contains(name)) {
+                    throw new IllegalArgumentException("Unknown product field '" + name + "', expected one of " + propertyNames);
+                }
+                selected.add(name);
+            }
+            return projection(new FieldFilter(selected, false));
+        }
+        if (view == null || view.isBlank()) {
+            return detail;
+        }
+        switch (view.trim().toLowerCase(Locale.ROOT)) {
+            case "card":
+                return card;
+            case "detail":
+                return detail;
+            default:
+                throw new IllegalArgumentException("Unknown product view '" + view + "', expected card or detail");
+        }
+    }
+
+    /** Names accepted by {@code fields=}. */
+    public Set<String> getPropertyNames() {
+        return propertyNames;
+    }
+
+    private Projection projection(SimpleBeanPropertyFilter filter) {
+        return new Projection(mapper.writer(new SimpleFilterProvider().addFilter(FILTER_ID, filter)));
+    }
+
+    private static RetailerInfo cheapest(List<RetailerInfo> retailers) {
+        RetailerInfo cheapest = null;
+        if (retailers != null) {
+            for (RetailerInfo retailer : retailers) {
+                if (retailer != null && (cheapest == null || retailer.getCurrentPrice() < cheapest.getCurrentPrice())) {
+                    cheapest = retailer;
+                }
+            }
+        }
+        return cheapest;
+    }
+}
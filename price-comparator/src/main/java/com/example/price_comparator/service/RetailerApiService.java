@@ -6,6 +6,9 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public interface RetailerApiService {
+    /** Lower-case id matching {@code RetailerInfo.retailerId}, e.g. "amazon". */
+    String getRetailerId();
+
     CompletableFuture<List<ProductDocument>> searchProducts(String query);
     CompletableFuture<ProductDocument> getProductDetails(String id);
 }
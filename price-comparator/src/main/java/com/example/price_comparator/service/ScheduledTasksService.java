@@ -1,7 +1,6 @@
 package com.example.price_comparator.service;
 
-import com.example.price_comparator.model.ProductDocument;
-import com.example.price_comparator.model.RetailerInfo;
+import com.example.price_comparator.dto.CategoryIngestionProgress;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,13 +18,13 @@ public class ScheduledTasksService {
 
     private static final Logger logger = LoggerFactory.getLogger(ScheduledTasksService.class);
 
-    private final AmazonApiService amazonApiService;
+    private final CatalogIngestionService catalogIngestionService;
     private final ProductService productService;
     private final FirebaseService firebaseService;
 
     @Autowired
-    public ScheduledTasksService(AmazonApiService amazonApiService, ProductService productService, FirebaseService firebaseService) {
-        this.amazonApiService = amazonApiService;
+    public ScheduledTasksService(CatalogIngestionService catalogIngestionService, ProductService productService, FirebaseService firebaseService) {
+        this.catalogIngestionService = catalogIngestionService;
         this.productService = productService;
         this.firebaseService = firebaseService;
     }
@@ -48,19 +47,10 @@ public class ScheduledTasksService {
             return;
         }
 
-        for (String category : categories) {
-            try {
-                logger.info("Attempting to update product data for category: {}", category);
-                List<com.example.price_comparator.model.ProductDocument> products = amazonApiService.searchProductsByCategory(category).join();
-                for (com.example.price_comparator.model.ProductDocument product : products) {
-                    productService.saveProduct(product);
-                }
-                logger.info("Waiting for 10 seconds before next category update to avoid rate-limiting...");
-                TimeUnit.SECONDS.sleep(10);
-            } catch (InterruptedException e) {
-                logger.error("Scheduled task interrupted during wait", e);
-                Thread.currentThread().interrupt();
-            }
+        List<CategoryIngestionProgress> results = catalogIngestionService.refreshCategories(categories).join();
+        for (CategoryIngestionProgress progress : results) {
+            logger.info("Category '{}' refreshed: {} products saved ({})",
+                    progress.getCategory(), progress.getProductsSaved(), progress.getStatus());
         }
         
         firebaseService.updateLastAmazonFetchTimestamp(currentTime);
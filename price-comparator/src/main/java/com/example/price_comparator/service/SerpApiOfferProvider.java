@@ -0,0 +1,96 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.ShoppingProduct;
+import com.example.price_comparator.model.ProductDocument;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.serpapi.SerpApiClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * Google Shopping offers from SerpApi, fetched without blocking through the shared {@link SerpApiClient}.
+ * Only selected when {@code serpapi.api-key} is set.
+ */
+@Component
+public class SerpApiOfferProvider implements OfferProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(SerpApiOfferProvider.class);
+
+    public static final String NAME = "serpapi";
+
+    private final SerpApiClient serpApiClient;
+
+    public SerpApiOfferProvider(SerpApiClient serpApiClient) {
+        this.serpApiClient = serpApiClient;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return serpApiClient.hasApiKey();
+    }
+
+    @Override
+    public CompletableFuture<List<ShoppingProduct>> findOffers(ProductDocument product, String searchQuery,
+                                                               long deadline, BiConsumer<Integer, String> progressCallback) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("engine", "google_shopping");
+        parameters.put("q", searchQuery);
+        parameters.put("location", ShoppingService.GEO_LOCATION);
+        parameters.put("google_domain", "google.ae");
+        parameters.put("gl", "ae");
+        parameters.put("hl", "en");
+        // Parsing a result page is cheap enough to stay on the client's I/O thread
+        return serpApiClient.search(parameters).thenApply(this::parseShoppingResults);
+    }
+
+    List<ShoppingProduct> parseShoppingResults(JsonObject response) {
+        List<ShoppingProduct> products = new ArrayList<>();
+        if (response == null || !response.has("shopping_results")) {
+            if (response != null && response.has("error")) {
+                logger.warn("SerpApi returned an error: {}", response.get("error").getAsString());
+            }
+            return products;
+        }
+        JsonArray results = response.getAsJsonArray("shopping_results");
+        for (JsonElement element : results) {
+            JsonObject result = element.getAsJsonObject();
+            String title = optString(result, "title");
+            String link = optString(result, "product_link");
+            if (link == null) {
+                link = optString(result, "link");
+            }
+            if (title == null || link == null || !result.has("extracted_price")) {
+                continue;
+            }
+            ShoppingProduct product = new ShoppingProduct();
+            product.setTitle(title);
+            product.setPrice(result.get("extracted_price").getAsDouble());
+            product.setSeller(optString(result, "source"));
+            product.setProductLink(link);
+            product.setImageUrl(optString(result, "thumbnail"));
+            product.setDescription(optString(result, "snippet"));
+            products.add(product);
+        }
+        return products;
+    }
+
+    private static String optString(JsonObject object, String key) {
+        JsonElement value = object.get(key);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+}
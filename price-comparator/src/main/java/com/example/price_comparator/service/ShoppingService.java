@@ -15,7 +15,7 @@ import java.util.function.BiConsumer;
 public class ShoppingService {
 
     private static final Logger logger = LoggerFactory.getLogger(ShoppingService.class);
-    private static final String GEO_LOCATION = "United Arab Emirates";
+    static final String GEO_LOCATION = "United Arab Emirates";
 
     @Autowired
     private OxylabsShoppingScraper oxylabsShoppingScraper;    public List<ShoppingProduct> findOffers(ProductDocument product, String username, String password, BiConsumer<Integer, String> progressCallback) {
@@ -26,16 +26,18 @@ public class ShoppingService {
 
     /**
      * Find offers using enhanced scraping with detailed product specifications
-     * This provides more accurate matching by fetching detailed specs for top products
+     * This provides more accurate matching by fetching detailed specs for top products.
+     * Enhancement stops early enough to return what it has by {@code deadline} (epoch millis).
      */
-    public List<ShoppingProduct> findOffersEnhanced(ProductDocument product, String username, String password, BiConsumer<Integer, String> progressCallback) {
+    public List<ShoppingProduct> findOffersEnhanced(ProductDocument product, String username, String password, long deadline,
+                                                    BiConsumer<Integer, String> progressCallback) {
         String searchQuery = buildSearchQuery(product);
         logger.info("Searching with enhanced targeted query: '{}'", searchQuery);
         try {
             if (progressCallback != null) {
                 progressCallback.accept(20, "Starting enhanced scraping with detailed specifications...");
             }
-            return oxylabsShoppingScraper.scrapeShoppingResultsEnhanced(searchQuery, GEO_LOCATION, username, password);
+            return oxylabsShoppingScraper.scrapeShoppingResultsEnhanced(searchQuery, GEO_LOCATION, username, password, deadline);
         } catch (Exception e) {
             logger.error("Enhanced scraping failed, falling back to standard scraping: {}", e.getMessage());
             if (progressCallback != null) {
@@ -46,7 +48,7 @@ public class ShoppingService {
         }
     }
 
-    private String buildSearchQuery(ProductDocument product) {
+    public String buildSearchQuery(ProductDocument product) {
         StringJoiner queryBuilder = new StringJoiner(" ");
 
         // Start with the product name, cleaning it up a bit
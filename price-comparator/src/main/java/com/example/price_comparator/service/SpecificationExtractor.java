@@ -0,0 +1,470 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.model.SpecificationInfo;
+import com.example.price_comparator.utils.AhoCorasick;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rule tables behind the free-text specification parsing in {@link OxylabsShoppingScraper}.
+ *
+ * Every regex is compiled once. A text is lower-cased and read once by an Aho-Corasick automaton
+ * that reports which keywords, digits and line breaks it contains; a rule's pattern only runs
+ * when the keywords it needs are present, which rules most lines out without touching a regex.
+ * Deduplication compares canonical keys computed once per spec instead of cleaning both names
+ * for every pair. Output is the same as the original inline checks, including their quirks
+ * (a guard written as {@code text.matches(".*x.*")} fails on text with line breaks, for instance).
+ * Stateless and thread-safe.
+ */
+final class SpecificationExtractor {
+
+    // Keyword bits for the technical rules; the order must match TECH_KEYWORDS
+    private static final long INCH = 1L;
+    private static final long GB = 1L << 1;
+    private static final long TB = 1L << 2;
+    private static final long MAH = 1L << 3;
+    private static final long HOUR = 1L << 4;
+    private static final long BATTERY = 1L << 5;
+    private static final long MP = 1L << 6;
+    private static final long BLUETOOTH = 1L << 7;
+    private static final long WI_FI = 1L << 8;
+    private static final long WIFI = 1L << 9;
+    private static final long STORAGE = 1L << 10;
+    private static final long SSD = 1L << 11;
+    private static final long MEMORY = 1L << 12;
+    private static final long RAM = 1L << 13;
+    private static final long MAIN = 1L << 14;
+    private static final long PRIMARY = 1L << 15;
+    private static final long ULTRA = 1L << 16;
+    private static final long WIDE = 1L << 17;
+    private static final long TELEPHOTO = 1L << 18;
+    private static final int TECH_WORDS = 19;
+
+    /** Characters that end a line for {@code .} in a regex: \n, \r, NEL, LS and PS. */
+    private static final char[] LINE_BREAKS = {'\n', '\r', (char) 0x85, (char) 0x2028, (char) 0x2029};
+
+    private static final AhoCorasick TECH_KEYWORDS = new AhoCorasick(withDigitsAndLineBreaks(
+            "inch", "gb", "tb", "mah", "hour", "battery", "mp", "bluetooth", "wi-fi", "wifi",
+            "storage", "ssd", "memory", "ram", "main", "primary", "ultra", "wide", "telephoto"));
+    private static final long TECH_DIGIT = digitBits(TECH_WORDS);
+    private static final long TECH_LINE_BREAK = lineBreakBits(TECH_WORDS);
+
+    private static final List<TechnicalRule> TECHNICAL_RULES = List.of(
+            // "6.8-inch", "13.6 inch"
+            TechnicalRule.guarded(INCH, 0, 0,
+                    "\\d+\\.?\\d*[\\s-]?inch", "(\\d+\\.?\\d*)[\\s-]?inch",
+                    (m, words) -> new SpecificationInfo("Display Size", m.group(1) + " inches")),
+            // "256GB", "1TB", "512 GB": storage or RAM depending on the surrounding words
+            TechnicalRule.guarded(0, GB | TB, 0,
+                    "\\d+\\s?[gt]b", "(\\d+)\\s?([gt]b)",
+                    (m, words) -> {
+                        String size = m.group(1) + m.group(2).toUpperCase();
+                        if ((words & (STORAGE | SSD | MEMORY)) != 0) {
+                            return new SpecificationInfo("Storage", size);
+                        }
+                        return (words & RAM) != 0 ? new SpecificationInfo("RAM", size) : null;
+                    }),
+            // "8GB RAM", "16 GB memory"
+            TechnicalRule.guarded(GB, RAM | MEMORY, 0,
+                    "\\d+\\s?gb\\s?(ram|memory)", "(\\d+)\\s?gb\\s?(ram|memory)",
+                    (m, words) -> new SpecificationInfo("RAM", m.group(1) + "GB")),
+            // "5000mAh", else "18 hours battery"
+            TechnicalRule.guarded(MAH, 0, 1,
+                    "\\d+\\s?mah", "(\\d+)\\s?mah",
+                    (m, words) -> new SpecificationInfo("Battery", m.group(1) + "mAh")),
+            TechnicalRule.guarded(HOUR | BATTERY, 0, 1,
+                    "\\d+\\s?hour.*battery", "(\\d+)\\s?hour",
+                    (m, words) -> new SpecificationInfo("Battery Life", m.group(1) + " hours")),
+            // "200MP", "12MP main camera"
+            TechnicalRule.guarded(MP, 0, 0,
+                    "\\d+mp", "(\\d+)mp",
+                    (m, words) -> new SpecificationInfo("Camera", m.group(1) + "MP" + cameraSuffix(words))),
+            // "Bluetooth 5.3", "Wi-Fi 6E"
+            TechnicalRule.keyword(BLUETOOTH, 0, "bluetooth\\s?(\\d+\\.?\\d*)",
+                    (m, words) -> new SpecificationInfo("Connectivity", "Bluetooth " + m.group(1))),
+            TechnicalRule.keyword(0, WI_FI | WIFI, "wi-?fi\\s?(\\d+\\w*)",
+                    (m, words) -> new SpecificationInfo("Wi-Fi", "Wi-Fi " + m.group(1))));
+
+    // Product detail keyword groups, checked in this order
+    private static final String[] MATERIAL_WORDS = {"leather", "cotton", "metal", "plastic", "fabric", "synthetic"};
+    private static final String[] FEATURE_WORDS = {"closure", "cushioned", "grip", "insole", "outsole", "lining"};
+    private static final String[] DESIGN_WORDS = {"design", "style", "pattern", "finish"};
+    private static final String[] TECHNICAL_WORDS = {"tech", "battery", "processor"};
+    private static final AhoCorasick GROUP_KEYWORDS = new AhoCorasick(withDigitsAndLineBreaks(
+            concat(MATERIAL_WORDS, FEATURE_WORDS, DESIGN_WORDS, TECHNICAL_WORDS)));
+    private static final long MATERIAL_MASK = rangeBits(0, MATERIAL_WORDS.length);
+    private static final long FEATURE_MASK = rangeBits(MATERIAL_WORDS.length, FEATURE_WORDS.length);
+    private static final long DESIGN_MASK = rangeBits(MATERIAL_WORDS.length + FEATURE_WORDS.length, DESIGN_WORDS.length);
+    private static final int GROUP_WORDS = MATERIAL_WORDS.length + FEATURE_WORDS.length + DESIGN_WORDS.length
+            + TECHNICAL_WORDS.length;
+    private static final long TECHNICAL_MASK = rangeBits(GROUP_WORDS - TECHNICAL_WORDS.length, TECHNICAL_WORDS.length);
+    private static final long GROUP_DIGIT = digitBits(GROUP_WORDS);
+    private static final long GROUP_LINE_BREAK = lineBreakBits(GROUP_WORDS);
+
+    private SpecificationExtractor() {
+    }
+
+    /**
+     * Key/value lines ("Key: Value", "Key - Value"), bullet features and technical phrases from
+     * free text such as "About this item".
+     */
+    static List<SpecificationInfo> parseText(String text) {
+        List<SpecificationInfo> specs = new ArrayList<>();
+        if (text == null || text.trim().isEmpty()) {
+            return specs;
+        }
+
+        int length = text.length();
+        int lineStart = 0;
+        for (int i = 0; i <= length; i++) {
+            // Same lines as splitting on \n, \r\n, \r and ';' once empty lines are skipped
+            if (i < length) {
+                char c = text.charAt(i);
+                if (c != '\n' && c != '\r' && c != ';') {
+                    continue;
+                }
+            }
+            if (i > lineStart) {
+                parseLine(text.substring(lineStart, i).trim(), specs);
+            }
+            lineStart = i + 1;
+        }
+
+        // If we didn't find much structured data, try the whole text
+        if (specs.size() < 3) {
+            specs.addAll(technicalSpecifications(text));
+        }
+        return specs;
+    }
+
+    private static void parseLine(String line, List<SpecificationInfo> specs) {
+        if (line.isEmpty()) {
+            return;
+        }
+        int colon = line.indexOf(':');
+        int dash = colon < 0 ? line.indexOf(" - ") : -1;
+        if (colon >= 0 || dash >= 0) {
+            // "Key: Value" or "Key - Value"
+            String key = normalizeKey(line.substring(0, colon >= 0 ? colon : dash).trim());
+            String value = line.substring(colon >= 0 ? colon + 1 : dash + 3).trim();
+            if (!key.isEmpty() && !value.isEmpty() && key.length() < 100 && value.length() < 500) {
+                specs.add(new SpecificationInfo(key, value));
+            }
+        } else if (line.startsWith("•") || line.startsWith("*") || line.startsWith("-")) {
+            // Bullet without a colon: technical phrases, or the whole line as a feature
+            String feature = line.substring(1).trim();
+            if (feature.length() > 5 && feature.length() < 200) {
+                List<SpecificationInfo> techSpecs = technicalSpecifications(feature);
+                if (!techSpecs.isEmpty()) {
+                    specs.addAll(techSpecs);
+                } else {
+                    specs.add(new SpecificationInfo("Feature", feature));
+                }
+            }
+        } else if (line.length() > 10 && line.length() < 300) {
+            specs.addAll(technicalSpecifications(line));
+        }
+    }
+
+    /** Display size, storage, RAM, battery, camera and connectivity from natural language. */
+    static List<SpecificationInfo> technicalSpecifications(String text) {
+        List<SpecificationInfo> specs = new ArrayList<>();
+        if (text == null || text.trim().isEmpty()) {
+            return specs;
+        }
+
+        String lower = text.toLowerCase().trim();
+        long words = TECH_KEYWORDS.matchMask(lower);
+        boolean multiline = (words & TECH_LINE_BREAK) != 0;
+        int firedGroups = 0;
+        for (TechnicalRule rule : TECHNICAL_RULES) {
+            if ((firedGroups & rule.exclusiveGroup) != 0 || !rule.mayApply(words)) {
+                continue;
+            }
+            if (!rule.guardPasses(lower, multiline)) {
+                continue;
+            }
+            firedGroups |= rule.exclusiveGroup;
+            Matcher matcher = rule.value.matcher(lower);
+            if (matcher.find()) {
+                SpecificationInfo spec = rule.emitter.emit(matcher, words);
+                if (spec != null) {
+                    specs.add(spec);
+                }
+            }
+        }
+        return specs;
+    }
+
+    /**
+     * Groups product detail keywords into "Materials", "Features", "Design" and
+     * "Technical Details", keeping the keywords' order within each group.
+     */
+    static List<SpecificationInfo> groupKeywords(List<String> keywords) {
+        List<SpecificationInfo> specs = new ArrayList<>();
+        if (keywords == null || keywords.isEmpty()) {
+            return specs;
+        }
+
+        List<String> materials = new ArrayList<>();
+        List<String> features = new ArrayList<>();
+        List<String> design = new ArrayList<>();
+        List<String> technical = new ArrayList<>();
+        for (String keyword : keywords) {
+            long words = GROUP_KEYWORDS.matchMask(keyword.toLowerCase());
+            // A digit counts only on a single line, like the original ".*\\d+.*" check
+            boolean hasNumber = (words & GROUP_DIGIT) != 0 && (words & GROUP_LINE_BREAK) == 0;
+            if ((words & MATERIAL_MASK) != 0) {
+                materials.add(keyword);
+            } else if ((words & FEATURE_MASK) != 0) {
+                features.add(keyword);
+            } else if ((words & DESIGN_MASK) != 0) {
+                design.add(keyword);
+            } else if (hasNumber || (words & TECHNICAL_MASK) != 0) {
+                technical.add(keyword);
+            } else {
+                features.add(keyword);
+            }
+        }
+
+        if (!materials.isEmpty()) {
+            specs.add(new SpecificationInfo("Materials", String.join(", ", materials)));
+        }
+        if (!features.isEmpty()) {
+            specs.add(new SpecificationInfo("Features", String.join(", ", features)));
+        }
+        if (!design.isEmpty()) {
+            specs.add(new SpecificationInfo("Design", String.join(", ", design)));
+        }
+        if (!technical.isEmpty()) {
+            specs.add(new SpecificationInfo("Technical Details", String.join(", ", technical)));
+        }
+        return specs;
+    }
+
+    /**
+     * snake_case and camelCase keys to Title Case words: "screen_size" and "screenSize" both
+     * become "Screen Size".
+     */
+    static String normalizeKey(String key) {
+        if (key == null) {
+            return "Unknown";
+        }
+        StringBuilder result = new StringBuilder(key.length() + 4);
+        int length = key.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && isKeySeparator(key.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
+            int start = i++;
+            while (i < length && !isKeySeparator(key.charAt(i)) && !isCamelBoundary(key, i)) {
+                i++;
+            }
+            if (result.length() > 0) {
+                result.append(' ');
+            }
+            result.append(Character.toUpperCase(key.charAt(start)));
+            if (i - start > 1) {
+                result.append(key.substring(start + 1, i).toLowerCase());
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Key under which two spec names count as the same: lower case, ASCII letters and digits
+     * only. Null for a null name, which never matches anything.
+     */
+    static String canonicalKey(String name) {
+        if (name == null) {
+            return null;
+        }
+        String lower = name.toLowerCase();
+        StringBuilder key = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                key.append(c);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * One spec per canonical name. A later spec with a longer value replaces the earlier one and
+     * moves to the end of the list; otherwise the first one wins.
+     */
+    static List<SpecificationInfo> deduplicate(List<SpecificationInfo> specifications) {
+        Map<Object, SpecificationInfo> unique = new LinkedHashMap<>();
+        for (SpecificationInfo spec : specifications) {
+            String key = canonicalKey(spec.getName());
+            if (key == null) {
+                unique.put(new Object(), spec);
+                continue;
+            }
+            SpecificationInfo existing = unique.get(key);
+            if (existing == null) {
+                unique.put(key, spec);
+            } else if (spec.getValue().length() > existing.getValue().length()) {
+                unique.remove(key);
+                unique.put(key, spec);
+            }
+        }
+        return new ArrayList<>(unique.values());
+    }
+
+    /**
+     * Detailed specs first, then search specs whose names are not already present, deduplicated.
+     */
+    static List<SpecificationInfo> merge(List<SpecificationInfo> searchSpecs, List<SpecificationInfo> detailedSpecs) {
+        List<SpecificationInfo> merged = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        if (detailedSpecs != null) {
+            for (SpecificationInfo spec : detailedSpecs) {
+                merged.add(spec);
+                addKey(seen, spec.getName());
+            }
+        }
+        if (searchSpecs != null) {
+            for (SpecificationInfo spec : searchSpecs) {
+                String key = canonicalKey(spec.getName());
+                if (key == null || seen.add(key)) {
+                    merged.add(spec);
+                }
+            }
+        }
+        return deduplicate(merged);
+    }
+
+    private static void addKey(Set<String> seen, String name) {
+        String key = canonicalKey(name);
+        if (key != null) {
+            seen.add(key);
+        }
+    }
+
+    private static String cameraSuffix(long words) {
+        if ((words & (MAIN | PRIMARY)) != 0) {
+            return " Main";
+        } else if ((words & (ULTRA | WIDE)) != 0) {
+            return " Ultra Wide";
+        } else if ((words & TELEPHOTO) != 0) {
+            return " Telephoto";
+        }
+        return "";
+    }
+
+    private static boolean isKeySeparator(char c) {
+        // '_' plus the characters "\\s" matches
+        return c == '_' || c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isCamelBoundary(String key, int i) {
+        char previous = key.charAt(i - 1);
+        char current = key.charAt(i);
+        return previous >= 'a' && previous <= 'z' && current >= 'A' && current <= 'Z';
+    }
+
+    /** The words, then the digits 0-9, then the line break characters, one keyword each. */
+    private static String[] withDigitsAndLineBreaks(String... words) {
+        String[] all = new String[words.length + 10 + LINE_BREAKS.length];
+        System.arraycopy(words, 0, all, 0, words.length);
+        for (int d = 0; d < 10; d++) {
+            all[words.length + d] = String.valueOf((char) ('0' + d));
+        }
+        for (int i = 0; i < LINE_BREAKS.length; i++) {
+            all[words.length + 10 + i] = String.valueOf(LINE_BREAKS[i]);
+        }
+        return all;
+    }
+
+    private static String[] concat(String[]... groups) {
+        List<String> all = new ArrayList<>();
+        for (String[] group : groups) {
+            all.addAll(List.of(group));
+        }
+        return all.toArray(new String[0]);
+    }
+
+    private static long rangeBits(int from, int count) {
+        return ((1L << count) - 1) << from;
+    }
+
+    private static long digitBits(int wordCount) {
+        return rangeBits(wordCount, 10);
+    }
+
+    private static long lineBreakBits(int wordCount) {
+        return rangeBits(wordCount + 10, LINE_BREAKS.length);
+    }
+
+    @FunctionalInterface
+    private interface Emitter {
+        /** The spec for a successful match, or null if the context rules it out. */
+        SpecificationInfo emit(Matcher matcher, long words);
+    }
+
+    /**
+     * One technical rule: keyword bits that must all be present ({@code allOf}) and of which at
+     * least one must be ({@code anyOf}), an optional guard, and the pattern whose first match
+     * produces the value. Every guard starts with a digit, so guarded rules also need one. Rules
+     * sharing an {@code exclusiveGroup} bit are alternatives: once one passes its guard, the
+     * later ones are skipped.
+     */
+    private static final class TechnicalRule {
+        final long allOf;
+        final long anyOf;
+        final int exclusiveGroup;
+        final Pattern guard;
+        final Pattern wholeTextGuard;
+        final Pattern value;
+        final Emitter emitter;
+
+        private TechnicalRule(long allOf, long anyOf, int exclusiveGroup, String guard, String value, Emitter emitter) {
+            this.allOf = allOf;
+            this.anyOf = anyOf;
+            this.exclusiveGroup = exclusiveGroup;
+            this.guard = guard != null ? Pattern.compile(guard) : null;
+            this.wholeTextGuard = guard != null ? Pattern.compile(".*" + guard + ".*") : null;
+            this.value = Pattern.compile(value);
+            this.emitter = emitter;
+        }
+
+        /** Guard is {@code text.matches(".*" + guard + ".*")}. */
+        static TechnicalRule guarded(long allOf, long anyOf, int exclusiveGroup, String guard, String value, Emitter emitter) {
+            return new TechnicalRule(allOf, anyOf, exclusiveGroup, guard, value, emitter);
+        }
+
+        /** Guard is the keywords alone, like {@code text.contains("bluetooth")}. */
+        static TechnicalRule keyword(long allOf, long anyOf, String value, Emitter emitter) {
+            return new TechnicalRule(allOf, anyOf, 0, null, value, emitter);
+        }
+
+        boolean mayApply(long words) {
+            return (words & allOf) == allOf && (anyOf == 0 || (words & anyOf) != 0)
+                    && (guard == null || (words & TECH_DIGIT) != 0);
+        }
+
+        /**
+         * On single-line text {@code matches(".*g.*")} is the same as finding {@code g}; only
+         * text with line breaks needs the whole-text match.
+         */
+        boolean guardPasses(String text, boolean multiline) {
+            if (guard == null) {
+                return true;
+            }
+            return multiline ? wholeTextGuard.matcher(text).matches() : guard.matcher(text).find();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.price_comparator.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded least-recently-used cache of encoded thumbnails on disk.
+ *
+ * Each entry is one file named {@code <key>.<etag>.<ext>}, so the index can be rebuilt from a
+ * directory listing on startup without reading any image. File modification times are refreshed
+ * on every hit and used to restore the recency order after a restart.
+ */
+final class ThumbnailCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailCache.class);
+
+    private static final class Entry {
+        final Path path;
+        final String etag;
+        final String contentType;
+        final long length;
+
+        Entry(Path path, String etag, String contentType, long length) {
+            this.path = path;
+            this.etag = etag;
+            this.contentType = contentType;
+            this.length = length;
+        }
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    ThumbnailCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        load();
+    }
+
+    /** Returns the cached thumbnail, or null on a miss. */
+    ImageProxyService.Thumbnail get(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return null;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(entry.path);
+            Files.setLastModifiedTime(entry.path, FileTime.fromMillis(System.currentTimeMillis()));
+            return new ImageProxyService.Thumbnail(bytes, entry.etag, entry.contentType);
+        } catch (NoSuchFileException e) {
+            remove(key, entry);
+            return null;
+        } catch (IOException e) {
+            logger.warn("Could not read cached thumbnail {}: {}", entry.path, e.getMessage());
+            return null;
+        }
+    }
+
+    /** Returns the ETag of a cached thumbnail without touching the file, or null on a miss. */
+    synchronized String etag(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : entry.etag;
+    }
+
+    /** Stores a thumbnail and evicts the least recently used entries until the cache fits its budget. */
+    ImageProxyService.Thumbnail put(String key, byte[] bytes, String contentType) {
+        String etag = "\"" + sha256(bytes).substring(0, 32) + "\"";
+        ImageProxyService.Thumbnail thumbnail = new ImageProxyService.Thumbnail(bytes, etag, contentType);
+        if (bytes.length > maxBytes) {
+            return thumbnail;
+        }
+
+        Path target = directory.resolve(key + "." + etag.substring(1, etag.length() - 1) + "." + extension(contentType));
+        Path temp = directory.resolve(key + ".tmp-" + UUID.randomUUID());
+        try {
+            Files.write(temp, bytes);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not store thumbnail {}: {}", target, e.getMessage());
+            deleteQuietly(temp);
+            return thumbnail;
+        }
+
+        List<Path> evicted = new ArrayList<>();
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(target, etag, contentType, bytes.length));
+            totalBytes += bytes.length;
+            if (previous != null) {
+                totalBytes -= previous.length;
+                if (!previous.path.equals(target)) {
+                    evicted.add(previous.path);
+                }
+            }
+            evictOverflow(evicted);
+        }
+        evicted.forEach(ThumbnailCache::deleteQuietly);
+        return thumbnail;
+    }
+
+    synchronized long sizeBytes() {
+        return totalBytes;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    private void load() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(Files::isRegularFile).forEach(files::add);
+        }
+        files.sort(Comparator.comparing(ThumbnailCache::modifiedTime));
+
+        List<Path> evicted = new ArrayList<>();
+        synchronized (this) {
+            for (Path file : files) {
+                String[] parts = file.getFileName().toString().split("\\.");
+                String contentType = parts.length == 3 ? contentType(parts[2]) : null;
+                if (contentType == null) {
+                    evicted.add(file);  // Interrupted writes and foreign files
+                    continue;
+                }
+                long length = Files.size(file);
+                Entry previous = entries.put(parts[0], new Entry(file, "\"" + parts[1] + "\"", contentType, length));
+                totalBytes += length;
+                if (previous != null) {
+                    totalBytes -= previous.length;
+                    evicted.add(previous.path);
+                }
+            }
+            evictOverflow(evicted);
+        }
+        evicted.forEach(ThumbnailCache::deleteQuietly);
+        logger.info("Thumbnail cache {} holds {} images ({} bytes)", directory, entries.size(), totalBytes);
+    }
+
+    private void evictOverflow(List<Path> evicted) {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Entry entry = eldest.next().getValue();
+            eldest.remove();
+            totalBytes -= entry.length;
+            evicted.add(entry.path);
+        }
+    }
+
+    private synchronized void remove(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            totalBytes -= entry.length;
+        }
+    }
+
+    private static String extension(String contentType) {
+        return "image/png".equals(contentType) ? "png" : "jpg";
+    }
+
+    private static String contentType(String extension) {
+        switch (extension) {
+            case "png":
+                return "image/png";
+            case "jpg":
+                return "image/jpeg";
+            default:
+                return null;
+        }
+    }
+
+    private static FileTime modifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete thumbnail {}: {}", file, e.getMessage());
+        }
+    }
+
+    static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.price_comparator.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton over a fixed set of up to 64 keywords.
+ *
+ * {@link #matchMask} reads the text once and returns bit {@code i} set when keyword {@code i}
+ * occurs anywhere in it, overlapping occurrences included. That answers a whole list of
+ * {@code text.contains(keyword)} checks in one pass. Matching is case-sensitive; lower-case the
+ * text first if the keywords are lower case. Immutable and thread-safe once built.
+ */
+public final class AhoCorasick {
+
+    private static final int ASCII = 128;
+    private static final int NOT_IN_ALPHABET = -1;
+
+    private final int[] asciiIndex;
+    private final Map<Character, Integer> otherIndex;
+    private final int alphabetSize;
+    /** Dense transition table, {@code state * alphabetSize + symbol}. */
+    private final int[] transitions;
+    /** Keywords ending at each state, including those reached through failure links. */
+    private final long[] outputs;
+
+    public AhoCorasick(String... keywords) {
+        if (keywords.length > Long.SIZE) {
+            throw new IllegalArgumentException("At most 64 keywords are supported, got " + keywords.length);
+        }
+        asciiIndex = new int[ASCII];
+        Arrays.fill(asciiIndex, NOT_IN_ALPHABET);
+        otherIndex = new HashMap<>();
+        int symbols = 0;
+        for (String keyword : keywords) {
+            if (keyword == null || keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keywords must be non-empty");
+            }
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (symbolOf(c) == NOT_IN_ALPHABET) {
+                    if (c < ASCII) {
+                        asciiIndex[c] = symbols++;
+                    } else {
+                        otherIndex.put(c, symbols++);
+                    }
+                }
+            }
+        }
+        alphabetSize = symbols;
+
+        // Trie first, with -1 for missing edges
+        List<int[]> trie = new ArrayList<>();
+        List<Long> ends = new ArrayList<>();
+        trie.add(newRow(symbols));
+        ends.add(0L);
+        for (int k = 0; k < keywords.length; k++) {
+            int state = 0;
+            for (int i = 0; i < keywords[k].length(); i++) {
+                int symbol = symbolOf(keywords[k].charAt(i));
+                int next = trie.get(state)[symbol];
+                if (next < 0) {
+                    next = trie.size();
+                    trie.add(newRow(symbols));
+                    ends.add(0L);
+                    trie.get(state)[symbol] = next;
+                }
+                state = next;
+            }
+            ends.set(state, ends.get(state) | (1L << k));
+        }
+
+        // Breadth-first over the trie to fill failure transitions, turning it into a DFA
+        int stateCount = trie.size();
+        transitions = new int[stateCount * symbols];
+        outputs = new long[stateCount];
+        int[] failure = new int[stateCount];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            int child = trie.get(0)[symbol];
+            if (child < 0) {
+                transitions[symbol] = 0;
+            } else {
+                transitions[symbol] = child;
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+        outputs[0] = ends.get(0);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = ends.get(state) | outputs[failure[state]];
+            for (int symbol = 0; symbol < symbols; symbol++) {
+                int child = trie.get(state)[symbol];
+                int fallback = transitions[failure[state] * symbols + symbol];
+                if (child < 0) {
+                    transitions[state * symbols + symbol] = fallback;
+                } else {
+                    transitions[state * symbols + symbol] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    /** Bit {@code i} is set when keyword {@code i} occurs in {@code text}. */
+    public long matchMask(CharSequence text) {
+        long mask = 0;
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            int symbol = symbolOf(text.charAt(i));
+            state = symbol == NOT_IN_ALPHABET ? 0 : transitions[state * alphabetSize + symbol];
+            mask |= outputs[state];
+        }
+        return mask;
+    }
+
+    private int symbolOf(char c) {
+        if (c < ASCII) {
+            return asciiIndex[c];
+        }
+        Integer symbol = otherIndex.get(c);
+        return symbol != null ? symbol : NOT_IN_ALPHABET;
+    }
+
+    private static int[] newRow(int symbols) {
+        int[] row = new int[symbols];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
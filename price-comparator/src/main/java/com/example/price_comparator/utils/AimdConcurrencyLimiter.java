@@ -0,0 +1,122 @@
+package com.example.price_comparator.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrency limit that adapts to upstream latency (additive increase, multiplicative decrease).
+ *
+ * Each call that completes under {@code latencyThresholdNanos} while at least half the
+ * limit is in use raises the limit by 1/limit, i.e. by about one per "round" of calls. A slow call or an
+ * error multiplies the limit by {@code backoffRatio}. A provider that slows down therefore
+ * sees fewer concurrent requests within a few calls, instead of every caller piling up
+ * behind its timeouts.
+ */
+public class AimdConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+    private long rejected;
+
+    public AimdConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                  long latencyThresholdMillis, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Require 1 <= minLimit <= maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot only if one is free right now.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight < (int) limit) {
+            inFlight++;
+            return true;
+        }
+        rejected++;
+        return false;
+    }
+
+    /**
+     * Waits up to {@code timeout} for a free slot.
+     */
+    public synchronized boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (inFlight >= (int) limit) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                rejected++;
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Releases a slot after a completed call and adjusts the limit from its latency.
+     */
+    public synchronized void onSuccess(long durationNanos) {
+        if (durationNanos >= latencyThresholdNanos) {
+            decrease();
+        } else if (inFlight * 2 >= (int) limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+        release();
+    }
+
+    /**
+     * Releases a slot after a failed call and backs off.
+     */
+    public synchronized void onFailure() {
+        decrease();
+        release();
+    }
+
+    /**
+     * Releases a slot without affecting the limit, e.g. when the call was never made.
+     */
+    public synchronized void onIgnore() {
+        release();
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+    private void release() {
+        inFlight = Math.max(0, inFlight - 1);
+        notifyAll();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+}
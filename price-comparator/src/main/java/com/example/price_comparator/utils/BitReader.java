@@ -0,0 +1,34 @@
+package com.example.price_comparator.utils;
+
+/**
+ * Reads bits written by {@link BitWriter}, most significant bit first.
+ */
+public class BitReader {
+
+    private final byte[] buffer;
+    private final long bitLimit;
+    private long position;
+
+    public BitReader(byte[] buffer) {
+        this.buffer = buffer;
+        this.bitLimit = (long) buffer.length * 8;
+    }
+
+    public boolean readBit() {
+        if (position >= bitLimit) {
+            throw new IllegalStateException("read past end of bit buffer");
+        }
+        int byteIndex = (int) (position >>> 3);
+        boolean bit = (buffer[byteIndex] & (0x80 >>> (int) (position & 7))) != 0;
+        position++;
+        return bit;
+    }
+
+    public long readBits(int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value << 1) | (readBit() ? 1L : 0L);
+        }
+        return value;
+    }
+}
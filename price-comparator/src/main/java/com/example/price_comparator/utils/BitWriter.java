@@ -0,0 +1,61 @@
+package com.example.price_comparator.utils;
+
+import java.util.Arrays;
+
+/**
+ * Append-only bit buffer, most significant bit first.
+ */
+public class BitWriter {
+
+    private byte[] buffer;
+    private long bitLength;
+
+    public BitWriter() {
+        this(64);
+    }
+
+    public BitWriter(int initialBytes) {
+        this.buffer = new byte[Math.max(8, initialBytes)];
+    }
+
+    public void writeBit(boolean bit) {
+        ensureCapacity(bitLength + 1);
+        if (bit) {
+            int byteIndex = (int) (bitLength >>> 3);
+            buffer[byteIndex] |= (byte) (0x80 >>> (int) (bitLength & 7));
+        }
+        bitLength++;
+    }
+
+    /**
+     * Writes the low {@code count} bits of {@code value}, high bit first.
+     */
+    public void writeBits(long value, int count) {
+        if (count < 0 || count > 64) {
+            throw new IllegalArgumentException("bit count must be between 0 and 64: " + count);
+        }
+        ensureCapacity(bitLength + count);
+        for (int i = count - 1; i >= 0; i--) {
+            if (((value >>> i) & 1L) != 0) {
+                int byteIndex = (int) (bitLength >>> 3);
+                buffer[byteIndex] |= (byte) (0x80 >>> (int) (bitLength & 7));
+            }
+            bitLength++;
+        }
+    }
+
+    public long getBitLength() {
+        return bitLength;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (int) ((bitLength + 7) >>> 3));
+    }
+
+    private void ensureCapacity(long bits) {
+        long bytesNeeded = (bits + 7) >>> 3;
+        if (bytesNeeded > buffer.length) {
+            buffer = Arrays.copyOf(buffer, (int) Math.max(bytesNeeded, buffer.length * 2L));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.price_comparator.utils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Runs an async task per item with at most {@code maxConcurrency} tasks in flight.
+ *
+ * Each of the concurrency "lanes" starts the next item when its current one
+ * completes, so no thread is blocked waiting for a slot.
+ */
+public final class BoundedAsync {
+
+    private BoundedAsync() {
+    }
+
+    /**
+     * Completes when every task has completed. If any task fails, the returned
+     * future fails with the first error once all tasks have finished.
+     */
+    public static <T> CompletableFuture<Void> forEach(List<T> items, int maxConcurrency,
+                                                      Function<T, CompletableFuture<?>> task) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (items.isEmpty()) {
+            done.complete(null);
+            return done;
+        }
+        Run<T> run = new Run<>(items, task, done);
+        int lanes = Math.min(maxConcurrency, items.size());
+        for (int i = 0; i < lanes; i++) {
+            run.drain();
+        }
+        return done;
+    }
+
+    private static final class Run<T> {
+        final List<T> items;
+        final Function<T, CompletableFuture<?>> task;
+        final CompletableFuture<Void> done;
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger remaining;
+        final AtomicReference<Throwable> firstError = new AtomicReference<>();
+
+        Run(List<T> items, Function<T, CompletableFuture<?>> task, CompletableFuture<Void> done) {
+            this.items = items;
+            this.task = task;
+            this.done = done;
+            this.remaining = new AtomicInteger(items.size());
+        }
+
+        // Loops while tasks complete synchronously so a long run of cache hits cannot overflow the stack.
+        void drain() {
+            while (true) {
+                int index = next.getAndIncrement();
+                if (index >= items.size()) {
+                    return;
+                }
+                CompletableFuture<?> future;
+                try {
+                    future = task.apply(items.get(index));
+                } catch (Throwable t) {
+                    future = CompletableFuture.failedFuture(t);
+                }
+                if (future == null) {
+                    future = CompletableFuture.completedFuture(null);
+                }
+                if (!future.isDone()) {
+                    future.whenComplete((result, error) -> {
+                        finish(error);
+                        drain();
+                    });
+                    return;
+                }
+                Throwable error = null;
+                if (future.isCompletedExceptionally()) {
+                    try {
+                        future.join();
+                    } catch (Throwable t) {
+                        error = t;
+                    }
+                }
+                finish(error);
+            }
+        }
+
+        private void finish(Throwable error) {
+            if (error != null) {
+                firstError.compareAndSet(null, error);
+            }
+            if (remaining.decrementAndGet() == 0) {
+                Throwable failure = firstError.get();
+                if (failure != null) {
+                    done.completeExceptionally(failure);
+                } else {
+                    done.complete(null);
+                }
+            }
+        }
+    }
+}
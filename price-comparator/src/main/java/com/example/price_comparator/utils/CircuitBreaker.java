@@ -0,0 +1,162 @@
+package com.example.price_comparator.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for an upstream provider.
+ *
+ * Outcomes of the last {@code windowSize} calls are kept in a ring. Once at least
+ * {@code minimumCalls} have been seen and the share of failures (errors and calls slower
+ * than {@code slowCallNanos}) reaches {@code failureRateThreshold}, the breaker opens and
+ * refuses calls for {@code openNanos}. It then lets {@code halfOpenProbes} calls through;
+ * if they all succeed it closes again, otherwise it reopens.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesIssued;
+    private int probesSucceeded;
+    private long timesOpened;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          long slowCallMillis, long openMillis, int halfOpenProbes) {
+        this(name, windowSize, minimumCalls, failureRateThreshold, slowCallMillis, openMillis, halfOpenProbes, System::nanoTime);
+    }
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          long slowCallMillis, long openMillis, int halfOpenProbes, LongSupplier nanoClock) {
+        if (windowSize < 1 || minimumCalls < 1 || halfOpenProbes < 1) {
+            throw new IllegalArgumentException("windowSize, minimumCalls and halfOpenProbes must be at least 1");
+        }
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.halfOpenProbes = halfOpenProbes;
+        this.nanoClock = nanoClock;
+        this.window = new boolean[windowSize];
+    }
+
+    /**
+     * Returns true if a call may be made now. A caller that gets true must report the
+     * outcome through {@link #onSuccess} or {@link #onFailure}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        switch (currentState()) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (probesIssued < halfOpenProbes) {
+                    probesIssued++;
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    public synchronized void onSuccess(long durationNanos) {
+        boolean failed = durationNanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open();
+            } else if (++probesSucceeded >= halfOpenProbes) {
+                close();
+            }
+            return;
+        }
+        record(failed);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+    }
+
+    /**
+     * Returns the state, moving from OPEN to HALF_OPEN once the open period has passed.
+     */
+    public synchronized State getState() {
+        return currentState();
+    }
+
+    private State currentState() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            probesIssued = 0;
+            probesSucceeded = 0;
+        }
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (state != State.CLOSED) {
+            return;
+        }
+        if (windowCount == windowSize) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % windowSize;
+
+        if (windowCount >= minimumCalls && (double) windowFailures / windowCount >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+        timesOpened++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0.0 : (double) windowFailures / windowCount;
+    }
+
+    public synchronized long getTimesOpened() {
+        return timesOpened;
+    }
+}
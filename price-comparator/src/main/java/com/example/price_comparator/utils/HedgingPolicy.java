@@ -0,0 +1,114 @@
+package com.example.price_comparator.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when a slow request is worth duplicating ("hedging").
+ *
+ * The hedge delay is the {@code percentile} of the last {@code windowSize} observed
+ * latencies, clamped to [minDelay, maxDelay]; until enough samples exist it is maxDelay.
+ * Every primary request earns {@code budgetRatio} of a hedge, so at most that share of
+ * extra requests is ever sent (plus a small banked burst).
+ */
+public class HedgingPolicy {
+
+    private static final int MIN_SAMPLES = 20;
+    private static final double MAX_BANKED_HEDGES = 3.0;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final double budgetRatio;
+
+    private final long[] samples;
+    private int sampleIndex;
+    private int sampleCount;
+
+    private double hedgeTokens;
+    private long hedgesIssued;
+    private long hedgesDenied;
+
+    public HedgingPolicy(boolean enabled, double percentile, int windowSize,
+                         long minDelayMillis, long maxDelayMillis, double budgetRatio) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1");
+        }
+        if (windowSize < 1 || minDelayMillis > maxDelayMillis || budgetRatio < 0) {
+            throw new IllegalArgumentException("Invalid hedging configuration");
+        }
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.budgetRatio = budgetRatio;
+        this.samples = new long[windowSize];
+    }
+
+    public static HedgingPolicy disabled() {
+        return new HedgingPolicy(false, 0.95, 1, 0, 0, 0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized void recordLatency(long durationNanos) {
+        samples[sampleIndex] = durationNanos;
+        sampleIndex = (sampleIndex + 1) % samples.length;
+        if (sampleCount < samples.length) {
+            sampleCount++;
+        }
+    }
+
+    /**
+     * How long to wait for the primary request before sending a hedge.
+     */
+    public synchronized long getHedgeDelayNanos() {
+        if (sampleCount < Math.min(MIN_SAMPLES, samples.length)) {
+            return maxDelayNanos;
+        }
+        long[] sorted = Arrays.copyOf(samples, sampleCount);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * sampleCount) - 1;
+        long delay = sorted[Math.max(0, Math.min(sampleCount - 1, rank))];
+        return Math.max(minDelayNanos, Math.min(maxDelayNanos, delay));
+    }
+
+    /** Counts a primary request towards the hedge budget. */
+    public synchronized void onRequest() {
+        hedgeTokens = Math.min(MAX_BANKED_HEDGES, hedgeTokens + budgetRatio);
+    }
+
+    /**
+     * Takes one hedge from the budget, or returns false if the budget is spent.
+     */
+    public synchronized boolean tryAcquireHedge() {
+        if (hedgeTokens >= 1.0) {
+            hedgeTokens -= 1.0;
+            hedgesIssued++;
+            return true;
+        }
+        hedgesDenied++;
+        return false;
+    }
+
+    /**
+     * Gives back a hedge taken with {@link #tryAcquireHedge} that was not sent after all,
+     * e.g. because the caller's quota refused it.
+     */
+    public synchronized void releaseHedge() {
+        hedgeTokens = Math.min(MAX_BANKED_HEDGES, hedgeTokens + 1.0);
+        hedgesIssued--;
+        hedgesDenied++;
+    }
+
+    public synchronized long getHedgesIssued() {
+        return hedgesIssued;
+    }
+
+    public synchronized long getHedgesDenied() {
+        return hedgesDenied;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.price_comparator.utils;
+
+import com.example.price_comparator.model.PriceSample;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes chunks produced by {@link PriceChunkEncoder}.
+ */
+public final class PriceChunkDecoder {
+
+    private PriceChunkDecoder() {
+    }
+
+    public static List<PriceSample> decode(byte[] payload, int count) {
+        List<PriceSample> samples = new ArrayList<>(count);
+        if (count == 0) {
+            return samples;
+        }
+        BitReader in = new BitReader(payload);
+
+        long seconds = in.readBits(64);
+        double price = Double.longBitsToDouble(in.readBits(64));
+        boolean inStock = in.readBit();
+        samples.add(new PriceSample(seconds * 1000L, price, inStock));
+
+        long delta = 0;
+        int leading = -1;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            delta += unZigZag(readBucketed(in));
+            seconds += delta;
+
+            if (in.readBit()) {
+                if (!in.readBit()) {
+                    long cents = Math.round(price * 100) + unZigZag(readBucketed(in));
+                    price = cents / 100.0;
+                } else {
+                    long previousBits = Double.doubleToRawLongBits(price);
+                    long xor;
+                    if (!in.readBit()) {
+                        xor = in.readBits(64 - leading - trailing) << trailing;
+                    } else {
+                        leading = (int) in.readBits(5);
+                        int significant = (int) in.readBits(6) + 1;
+                        trailing = 64 - leading - significant;
+                        xor = in.readBits(significant) << trailing;
+                    }
+                    price = Double.longBitsToDouble(previousBits ^ xor);
+                }
+            }
+
+            if (in.readBit()) {
+                inStock = !inStock;
+            }
+            samples.add(new PriceSample(seconds * 1000L, price, inStock));
+        }
+        return samples;
+    }
+
+    private static long readBucketed(BitReader in) {
+        int[] buckets = PriceChunkEncoder.BUCKET_BITS;
+        int ones = 0;
+        while (ones < buckets.length && in.readBit()) {
+            ones++;
+        }
+        if (ones == 0) {
+            return 0L;
+        }
+        return in.readBits(buckets[ones - 1]);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
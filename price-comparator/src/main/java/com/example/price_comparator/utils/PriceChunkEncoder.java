@@ -0,0 +1,138 @@
+package com.example.price_comparator.utils;
+
+/**
+ * Encodes a run of (timestamp, price, inStock) samples into a compact bit stream.
+ *
+ * Timestamps are stored in seconds as delta-of-delta values, so regularly spaced
+ * samples cost a single bit. Prices that are whole cents are stored as a cent delta
+ * from the previous sample; anything else falls back to XOR of the IEEE-754 bits with
+ * the previous price. An unchanged price and an unchanged stock flag cost one bit each.
+ * The layout is decoded by {@link PriceChunkDecoder}.
+ */
+public class PriceChunkEncoder {
+
+    static final int[] BUCKET_BITS = {7, 9, 12, 32, 64};
+
+    private final BitWriter out = new BitWriter(128);
+    private int count;
+
+    private long previousSeconds;
+    private long previousDelta;
+    private double previousPrice;
+    private int previousLeading = -1;
+    private int previousTrailing;
+    private boolean previousInStock;
+
+    /**
+     * Appends a sample. Timestamps must not go backwards; an earlier timestamp is
+     * clamped to the previous one.
+     */
+    public void append(long timestampMillis, double price, boolean inStock) {
+        long seconds = Math.floorDiv(timestampMillis, 1000L);
+        if (count == 0) {
+            out.writeBits(seconds, 64);
+            out.writeBits(Double.doubleToRawLongBits(price), 64);
+            out.writeBit(inStock);
+        } else {
+            seconds = Math.max(seconds, previousSeconds);
+            long delta = seconds - previousSeconds;
+            writeBucketed(zigZag(delta - previousDelta));
+            previousDelta = delta;
+            writePrice(price);
+            out.writeBit(inStock != previousInStock);
+        }
+        previousSeconds = seconds;
+        previousPrice = price;
+        previousInStock = inStock;
+        count++;
+    }
+
+    private void writePrice(double price) {
+        long bits = Double.doubleToRawLongBits(price);
+        long previousBits = Double.doubleToRawLongBits(previousPrice);
+        if (bits == previousBits) {
+            out.writeBit(false);
+            return;
+        }
+        out.writeBit(true);
+        if (isWholeCents(previousPrice) && isWholeCents(price)) {
+            out.writeBit(false);
+            writeBucketed(zigZag(Math.round(price * 100) - Math.round(previousPrice * 100)));
+            return;
+        }
+        out.writeBit(true);
+        long xor = bits ^ previousBits;
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+            out.writeBit(false);
+            out.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+        } else {
+            int significant = 64 - leading - trailing;
+            out.writeBit(true);
+            out.writeBits(leading, 5);
+            out.writeBits(significant - 1, 6);
+            out.writeBits(xor >>> trailing, significant);
+            previousLeading = leading;
+            previousTrailing = trailing;
+        }
+    }
+
+    /**
+     * Prefix code: 0 for zero, then 10, 110, 1110, 11110, 11111 selecting 7, 9, 12, 32 or 64 value bits.
+     */
+    private void writeBucketed(long zigZagged) {
+        if (zigZagged == 0) {
+            out.writeBit(false);
+            return;
+        }
+        for (int i = 0; i < BUCKET_BITS.length; i++) {
+            int bits = BUCKET_BITS[i];
+            if (bits == 64 || (zigZagged >>> bits) == 0) {
+                for (int j = 0; j <= i; j++) {
+                    out.writeBit(true);
+                }
+                if (i < BUCKET_BITS.length - 1) {
+                    out.writeBit(false);
+                }
+                out.writeBits(zigZagged, bits);
+                return;
+            }
+        }
+    }
+
+    static boolean isWholeCents(double price) {
+        if (Double.isNaN(price) || Double.isInfinite(price) || Math.abs(price) >= 1e13) {
+            return false;
+        }
+        return Math.round(price * 100) / 100.0 == price;
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getLastTimestampMillis() {
+        return previousSeconds * 1000L;
+    }
+
+    public double getLastPrice() {
+        return previousPrice;
+    }
+
+    public boolean getLastInStock() {
+        return previousInStock;
+    }
+
+    public long getBitLength() {
+        return out.getBitLength();
+    }
+
+    public byte[] toByteArray() {
+        return out.toByteArray();
+    }
+}
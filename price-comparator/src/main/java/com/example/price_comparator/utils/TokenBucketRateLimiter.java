@@ -0,0 +1,152 @@
+package com.example.price_comparator.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket shared by every caller of a rate-limited upstream API.
+ *
+ * Permits are reserved rather than polled: a caller that finds the bucket empty
+ * takes a permit "on credit" and is told how long to wait before using it. This
+ * keeps the dispatch order fair and lets async callers wait without holding a thread.
+ */
+public class TokenBucketRateLimiter {
+
+    private final String name;
+    private final double permitsPerSecond;
+    private final int burstCapacity;
+    private final LongSupplier nanoClock;
+
+    private double storedPermits;
+    private long nextRefillNanos;
+
+    private final AtomicLong permitsGranted = new AtomicLong();
+    private final AtomicLong throttledPermits = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    public TokenBucketRateLimiter(String name, double permitsPerSecond, int burstCapacity) {
+        this(name, permitsPerSecond, burstCapacity, System::nanoTime);
+    }
+
+    public TokenBucketRateLimiter(String name, double permitsPerSecond, int burstCapacity, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        if (burstCapacity < 1) {
+            throw new IllegalArgumentException("burstCapacity must be at least 1");
+        }
+        this.name = name;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burstCapacity = burstCapacity;
+        this.nanoClock = nanoClock;
+        this.storedPermits = burstCapacity;
+        this.nextRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Reserves one permit and returns how many nanoseconds the caller must wait before using it.
+     */
+    public long reserve() {
+        long waitNanos;
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            refill(now);
+            if (storedPermits >= 1.0) {
+                storedPermits -= 1.0;
+                waitNanos = 0L;
+            } else {
+                // Borrow against the next permit; callers queue up behind each other.
+                double missing = 1.0 - storedPermits;
+                long debtNanos = (long) Math.ceil(missing * nanosPerPermit());
+                storedPermits = 0.0;
+                nextRefillNanos = Math.max(now, nextRefillNanos) + debtNanos;
+                waitNanos = nextRefillNanos - now;
+            }
+        }
+        permitsGranted.incrementAndGet();
+        if (waitNanos > 0) {
+            throttledPermits.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Takes a permit only if one is available right now.
+     */
+    public boolean tryAcquire() {
+        synchronized (this) {
+            refill(nanoClock.getAsLong());
+            if (storedPermits < 1.0) {
+                return false;
+            }
+            storedPermits -= 1.0;
+        }
+        permitsGranted.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Blocks the calling thread until a permit is available.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Completes once a permit is available, without blocking the caller.
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        long waitNanos = reserve();
+        if (waitNanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    private void refill(long now) {
+        if (now > nextRefillNanos) {
+            double refilled = (now - nextRefillNanos) / nanosPerPermit();
+            storedPermits = Math.min(burstCapacity, storedPermits + refilled);
+            nextRefillNanos = now;
+        }
+    }
+
+    private double nanosPerPermit() {
+        return TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+    }
+
+    public synchronized double getAvailablePermits() {
+        refill(nanoClock.getAsLong());
+        return storedPermits;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int getBurstCapacity() {
+        return burstCapacity;
+    }
+
+    public long getPermitsGranted() {
+        return permitsGranted.get();
+    }
+
+    public long getThrottledPermits() {
+        return throttledPermits.get();
+    }
+
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get());
+    }
+}
@@ -0,0 +1,131 @@
+package com.serpapi;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.net.URIBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Long-lived SerpApi client on a pooled, non-blocking HTTP client.
+ *
+ * One instance is meant to be shared: connections are kept alive between searches and
+ * responses are parsed with a single {@link Gson}. Searches fail with {@link SerpApiSearchException}.
+ */
+public class SerpApiClient implements Closeable {
+
+    public static final String DEFAULT_BASE_URL = "https://serpapi.com";
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/108.0.0.0 Safari/537.36";
+    private static final Gson GSON = new Gson();
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final String searchUrl;
+    private final String apiKey;
+
+    /**
+     * @param apiKey added to every search that does not set {@code api_key} itself; may be empty
+     */
+    public SerpApiClient(String baseUrl, String apiKey, long connectTimeoutMillis, long responseTimeoutMillis,
+                         int maxConnections) {
+        this.searchUrl = baseUrl.replaceAll("/+$", "") + "/search.json";
+        this.apiKey = apiKey;
+        this.httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnections)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                                .setTimeToLive(TimeValue.ofMinutes(5))
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMillis))
+                        .build())
+                .evictIdleConnections(TimeValue.ofMinutes(1))
+                .setUserAgent(USER_AGENT)
+                .build();
+        this.httpClient.start();
+    }
+
+    public boolean hasApiKey() {
+        return apiKey != null && !apiKey.isBlank();
+    }
+
+    /**
+     * Runs a search without blocking the caller. The future completes on the client's I/O thread.
+     */
+    public CompletableFuture<JsonObject> search(Map<String, String> parameters) {
+        CompletableFuture<JsonObject> result = new CompletableFuture<>();
+        SimpleHttpRequest request;
+        try {
+            request = SimpleRequestBuilder.get(buildUri(parameters)).build();
+        } catch (URISyntaxException e) {
+            result.completeExceptionally(new SerpApiSearchException(e));
+            return result;
+        }
+
+        httpClient.execute(request, new FutureCallback<SimpleHttpResponse>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                if (response.getCode() != 200) {
+                    result.completeExceptionally(
+                            new SerpApiSearchException("API request failed with code: " + response.getCode()));
+                    return;
+                }
+                try {
+                    result.complete(GSON.fromJson(response.getBodyText(), JsonObject.class));
+                } catch (JsonSyntaxException e) {
+                    result.completeExceptionally(new SerpApiSearchException(e));
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                result.completeExceptionally(new SerpApiSearchException(e));
+            }
+
+            @Override
+            public void cancelled() {
+                result.completeExceptionally(new SerpApiSearchException("API request cancelled"));
+            }
+        });
+        return result;
+    }
+
+    private URI buildUri(Map<String, String> parameters) throws URISyntaxException {
+        Map<String, String> query = new LinkedHashMap<>(parameters);
+        if (hasApiKey()) {
+            query.putIfAbsent("api_key", apiKey);
+        }
+        URIBuilder builder = new URIBuilder(searchUrl);
+        for (Map.Entry<String, String> entry : query.entrySet()) {
+            builder.addParameter(entry.getKey(), entry.getValue());
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void close() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.price_comparator.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Compact Product Tests")
+public class CompactProductTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static ProductDocument fullProduct() {
+        ProductDocument product = new ProductDocument();
+        product.setId("B0CS5XW6TN");
+        product.setName("Samsung Galaxy S24 Ultra, 256GB, Titanium Gray");
+        product.setBrand("Samsung");
+        product.setModel("S24");
+        product.setStorage("256 GB");
+        product.setRam("12 GB");
+        product.setColor("Titanium Gray");
+        product.setImageUrl("https://m.media-amazon.com/s24.jpg");
+        product.setRating(4.6);
+        product.setReviews(1234);
+        product.setPrice("AED 4,299.00");
+        product.setOriginalPrice("AED 5,199.00");
+        product.setCurrency("AED");
+        product.setProductUrl("https://www.amazon.ae/dp/B0CS5XW6TN");
+        product.setAvailability("In Stock");
+        product.setDescription("Galaxy AI is here. ".repeat(40) + "Ünïcödé ✓");
+        product.setAbout(List.of("200MP camera", "Built-in S Pen", ""));
+        product.setPhotos(List.of("a.jpg", "b.jpg"));
+        Map<String, String> information = new LinkedHashMap<>();
+        information.put("Brand", "Samsung");
+        information.put("Item Weight", "233 g");
+        product.setProductInformation(information);
+        product.setSpecifications(List.of(new SpecificationInfo("Brand", "Samsung")));
+        product.setRetailers(new ArrayList<>(List.of(
+                new RetailerInfo("amazon", "Amazon.ae", "logo.svg", 4299.0, true, true, 0, "https://amazon.ae/x"),
+                new RetailerInfo("noon", "Noon", null, 4199.5, false, false, 15.0, "https://noon.com/x"))));
+        product.setLastChecked(new Date(1_700_000_000_000L));
+        return product;
+    }
+
+    @Test
+    @DisplayName("A materialized product serializes exactly like the original")
+    void testRoundTrip() throws Exception {
+        ProductDocument original = fullProduct();
+
+        ProductDocument restored = CompactProduct.of(original).toDocument();
+
+        assertEquals(objectMapper.writeValueAsString(original), objectMapper.writeValueAsString(restored));
+        assertNotSame(original.getRetailers(), restored.getRetailers());
+    }
+
+    @Test
+    @DisplayName("Null and empty collections keep their distinction")
+    void testSparseProduct() throws Exception {
+        ProductDocument sparse = new ProductDocument();
+        sparse.setId("B0SPARSE");
+        sparse.setAbout(new ArrayList<>());
+        sparse.setRetailers(null);
+
+        ProductDocument restored = CompactProduct.of(sparse).toDocument();
+
+        assertEquals(objectMapper.writeValueAsString(sparse), objectMapper.writeValueAsString(restored));
+        assertNull(restored.getDescription());
+        assertTrue(restored.getAbout().isEmpty());
+        assertNull(restored.getRetailers());
+        assertNull(restored.getLastChecked());
+        assertEquals(0L, CompactProduct.of(sparse).getLastCheckedMillis());
+        assertTrue(CompactProduct.of(new ProductDocument()).toDocument().getRetailers().isEmpty());
+    }
+}
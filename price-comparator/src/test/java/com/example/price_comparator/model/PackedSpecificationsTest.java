@@ -0,0 +1,75 @@
+package com.example.price_comparator.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Packed Specifications Tests")
+public class PackedSpecificationsTest {
+
+    private static List<SpecificationInfo> specs(String... namesAndValues) {
+        List<SpecificationInfo> specs = new ArrayList<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            specs.add(new SpecificationInfo(namesAndValues[i], namesAndValues[i + 1]));
+        }
+        return specs;
+    }
+
+    @Test
+    @DisplayName("Packed list reads back the same names and values and shares instances")
+    void testRoundTripAndInterning() {
+        SpecDictionary dictionary = new SpecDictionary(100, 100, 16);
+        List<SpecificationInfo> original = specs("Brand", "Samsung", "Color", "Black", "Notes", "a value longer than sixteen chars");
+
+        PackedSpecifications first = PackedSpecifications.of(original, dictionary);
+        PackedSpecifications second = PackedSpecifications.of(specs("Color", new String("Black")), dictionary);
+
+        assertEquals(original, first);
+        assertSame(first.valueAt(1), second.valueAt(0), "Short values are interned");
+        assertSame(first.nameAt(1), second.nameAt(0), "Names come from the dictionary");
+        assertEquals(3, dictionary.nameCount(), "Color is only added once");
+        assertEquals("Samsung", first.valueOf("brand"));
+        assertThrows(UnsupportedOperationException.class, () -> first.add(new SpecificationInfo("x", "y")));
+    }
+
+    @Test
+    @DisplayName("Names beyond the dictionary limit are still kept")
+    void testFullDictionary() {
+        SpecDictionary dictionary = new SpecDictionary(1, 1, 16);
+        PackedSpecifications packed = PackedSpecifications.of(specs("Brand", "Apple", "Model", "15", null, null), dictionary);
+
+        assertEquals(SpecDictionary.NO_ID, dictionary.idOf("Model"));
+        assertEquals(specs("Brand", "Apple", "Model", "15", null, null), packed);
+    }
+
+    @Test
+    @DisplayName("Renaming keys copies only when a name changes")
+    void testRenamedKeys() {
+        PackedSpecifications clean = PackedSpecifications.of(specs("Brand", "Apple", "Weight", "187 g"));
+        assertSame(clean, clean.withRenamedKeys(name -> name.replace(".", "")));
+
+        PackedSpecifications dotted = PackedSpecifications.of(specs("Dim. (mm)", "147 x 71", "Brand", "Apple"));
+        PackedSpecifications renamed = dotted.withRenamedKeys(name -> name.replace(".", ""));
+        assertEquals(specs("Dim (mm)", "147 x 71", "Brand", "Apple"), renamed);
+        assertEquals("Dim. (mm)", dotted.nameAt(0), "The original is not modified");
+    }
+
+    @Test
+    @DisplayName("JSON shape of a product is unchanged")
+    void testJsonShape() throws Exception {
+        ProductDocument product = new ProductDocument();
+        product.setSpecifications(specs("RAM", "8 GB"));
+
+        String json = new ObjectMapper().writeValueAsString(product);
+        assertTrue(json.contains("\"specifications\":[{\"name\":\"RAM\",\"value\":\"8 GB\"}]"), json);
+
+        ProductDocument read = new ObjectMapper().readValue(json, ProductDocument.class);
+        assertTrue(read.getSpecifications() instanceof PackedSpecifications);
+        assertEquals(product.getSpecifications(), read.getSpecifications());
+    }
+}
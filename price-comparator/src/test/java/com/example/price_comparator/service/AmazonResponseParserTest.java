@@ -0,0 +1,86 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.model.RetailerInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Amazon Response Parser Tests")
+public class AmazonResponseParserTest {
+
+    @Test
+    @DisplayName("Search results map to products with an Amazon retailer entry")
+    void testParseSearch() {
+        String body = "{\"data\":{\"total_products\":2,\"products\":["
+                + "{\"asin\":\"B0CS5XW6TN\",\"product_title\":\"Galaxy S24\",\"product_url\":\"https://amazon.ae/dp/B0CS5XW6TN\","
+                + "\"product_photo\":\"https://m.media-amazon.com/s24.jpg\",\"product_star_rating\":\"4.5\","
+                + "\"product_num_ratings\":120,\"product_price\":\"AED 2,899.00\",\"badges\":[\"x\"]},"
+                + "{\"asin\":\"B0NOPRICE\",\"product_title\":\"No price\",\"product_price\":null}]},"
+                + "\"status\":\"OK\",\"parameters\":{\"query\":\"s24\",\"country\":\"AE\"}}";
+
+        List<ProductDocument> products = AmazonResponseParser.parseSearch(body);
+
+        assertEquals(2, products.size());
+        ProductDocument s24 = products.get(0);
+        assertEquals("B0CS5XW6TN", s24.getId());
+        assertEquals(4.5, s24.getRating());
+        assertEquals(120, s24.getReviews());
+        assertEquals("AE", s24.getCurrency(), "Currency comes from parameters even when they follow data");
+        assertEquals("AED 2,899.00", s24.getPrice());
+        RetailerInfo amazon = s24.getRetailers().get(0);
+        assertEquals("amazon", amazon.getRetailerId());
+        assertEquals(2899.0, amazon.getCurrentPrice());
+        assertTrue(products.get(1).getRetailers().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Error status yields no products")
+    void testErrorStatus() {
+        assertTrue(AmazonResponseParser.parseSearch("{\"status\":\"ERROR\",\"error\":{\"message\":\"quota\"}}").isEmpty());
+        assertNull(AmazonResponseParser.parseDetails("{\"status\":\"ERROR\"}"));
+    }
+
+    @Test
+    @DisplayName("Details fill specifications and derive brand and model")
+    void testParseDetails() {
+        String body = "{\"status\":\"OK\",\"data\":{\"asin\":\"B0CHX1W1XY\",\"product_title\":\"Apple iPhone 15 Pro 256GB\","
+                + "\"product_url\":\"https://amazon.ae/dp/B0CHX1W1XY\",\"product_photo\":\"p.jpg\",\"product_num_ratings\":9,"
+                + "\"about_product\":[\"A17 Pro\",\"Titanium\"],\"product_photos\":[\"a.jpg\",\"\",\"b.jpg\"],"
+                + "\"product_information\":{\"Storage Capacity\":\"256 GB\",\"Color\":\"Natural\",\"Weight\":187,\"Nested\":{\"a\":1}},"
+                + "\"product_price\":\"AED 4,589\",\"product_availability\":\"In Stock\",\"currency\":\"AED\"}}";
+
+        ProductDocument product = AmazonResponseParser.parseDetails(body);
+
+        assertEquals("Apple", product.getBrand());
+        assertEquals("15", product.getModel());
+        assertEquals("256 GB", product.getStorage());
+        assertEquals("Natural", product.getColor());
+        assertEquals(List.of("A17 Pro", "Titanium"), product.getAbout());
+        assertEquals(List.of("a.jpg", "b.jpg"), product.getPhotos());
+        assertEquals(3, product.getSpecifications().size());
+        assertEquals("AED", product.getCurrency());
+        assertEquals(4589.0, product.getRetailers().get(0).getCurrentPrice());
+        assertTrue(product.getRetailers().get(0).isInStock());
+    }
+
+    @Test
+    @DisplayName("Price scanner agrees with the regex-and-parseDouble it replaces")
+    void testParsePriceMatchesRegex() {
+        String[] samples = {"AED 1,299.00", "AED 0.99", "12", "5.", ".5", "AED 12,345,678.905", "1.2.3", "AED", ".",
+                "0.1", "99.99", "1234567890123456789", "AED 3,499.5"};
+        for (String sample : samples) {
+            String digits = sample.replaceAll("[^\\d.]", "");
+            double expected;
+            try {
+                expected = Double.parseDouble(digits);
+            } catch (NumberFormatException e) {
+                expected = Double.NaN;
+            }
+            assertEquals(expected, AmazonResponseParser.parsePrice(sample), sample);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.ComparisonDone;
+import com.example.price_comparator.dto.ComparisonProgress;
+import com.example.price_comparator.model.RetailerInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Comparison Event Registry Tests")
+public class ComparisonEventRegistryTest {
+
+    /** Records the events written to it, as "id:name" plus the payload objects. */
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> events = new ArrayList<>();
+        final List<Object> payloads = new ArrayList<>();
+        Runnable timeoutCallback;
+        boolean failSends;
+        boolean completed;
+
+        RecordingEmitter(long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failSends) {
+                throw new IOException("Broken pipe");
+            }
+            String id = null;
+            String name = null;
+            for (ResponseBodyEmitter.DataWithMediaType item : builder.build()) {
+                if (item.getData() instanceof String) {
+                    for (String line : ((String) item.getData()).split("\n")) {
+                        if (line.startsWith("id:")) {
+                            id = line.substring(3);
+                        } else if (line.startsWith("event:")) {
+                            name = line.substring(6);
+                        }
+                    }
+                } else {
+                    payloads.add(item.getData());
+                }
+            }
+            events.add(id + ":" + name);
+        }
+
+        @Override
+        public void onTimeout(Runnable callback) {
+            timeoutCallback = callback;
+            super.onTimeout(callback);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+
+    private final List<RecordingEmitter> created = new ArrayList<>();
+
+    private ComparisonEventRegistry registry(long retentionMs) {
+        return registry(Runnable::run, retentionMs, 64);
+    }
+
+    private ComparisonEventRegistry registry(Executor executor, long retentionMs, int maxQueuedEvents) {
+        return new ComparisonEventRegistry(executor, 1_000, retentionMs, maxQueuedEvents) {
+            @Override
+            SseEmitter createEmitter(long timeoutMs) {
+                RecordingEmitter emitter = new RecordingEmitter(timeoutMs);
+                created.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private static RetailerInfo offer(String id, double price) {
+        return new RetailerInfo(id, id, null, price, false, false, 0, "https://" + id + ".ae/x");
+    }
+
+    @Test
+    @DisplayName("Live subscribers get typed events in order and the stream ends after done")
+    void testLiveEvents() {
+        ComparisonEventRegistry registry = registry(60_000);
+        registry.open("t1");
+        RecordingEmitter emitter = (RecordingEmitter) registry.subscribe("t1", 0);
+
+        registry.progress("t1", 20, "Searching");
+        registry.offerAccepted("t1", offer("noon", 99.0));
+        registry.complete("t1", "B001", List.of(offer("noon", 99.0)));
+        registry.progress("t1", 100, "Too late");
+
+        assertEquals(List.of("1:progress", "2:offer-accepted", "3:done"), emitter.events);
+        assertEquals(new ComparisonProgress(20, "Searching"), emitter.payloads.get(0));
+        assertEquals("noon", ((RetailerInfo) emitter.payloads.get(1)).getRetailerId());
+        ComparisonDone done = (ComparisonDone) emitter.payloads.get(2);
+        assertEquals("B001", done.getProductId());
+        assertNull(done.getError());
+        assertTrue(emitter.completed);
+        assertEquals(0, registry.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Late subscribers are sent the history, keeping only the latest progress")
+    void testReplayToLateSubscribers() {
+        ComparisonEventRegistry registry = registry(60_000);
+        registry.open("t1");
+        registry.progress("t1", 10, "Starting");
+        registry.offerAccepted("t1", offer("noon", 99.0));
+        registry.progress("t1", 60, "Matching");
+
+        RecordingEmitter late = (RecordingEmitter) registry.subscribe("t1", 0);
+        assertEquals(List.of("2:offer-accepted", "3:progress"), late.events);
+        assertFalse(late.completed);
+
+        RecordingEmitter resumed = (RecordingEmitter) registry.subscribe("t1", 2);
+        assertEquals(List.of("3:progress"), resumed.events, "Last-Event-ID skips what the client has seen");
+
+        registry.fail("t1", "B001", "Comparison failed");
+        RecordingEmitter afterDone = (RecordingEmitter) registry.subscribe("t1", 0);
+        assertEquals(List.of("2:offer-accepted", "3:progress", "4:done"), afterDone.events);
+        assertEquals("Comparison failed", ((ComparisonDone) afterDone.payloads.get(2)).getError());
+        assertTrue(afterDone.completed);
+    }
+
+    @Test
+    @DisplayName("Broken and timed-out subscribers are dropped without affecting the others")
+    void testDropsFailedSubscribers() {
+        ComparisonEventRegistry registry = registry(60_000);
+        registry.open("t1");
+        RecordingEmitter broken = (RecordingEmitter) registry.subscribe("t1", 0);
+        RecordingEmitter timedOut = (RecordingEmitter) registry.subscribe("t1", 0);
+        RecordingEmitter healthy = (RecordingEmitter) registry.subscribe("t1", 0);
+        assertEquals(3, registry.getSubscriberCount());
+
+        broken.failSends = true;
+        timedOut.timeoutCallback.run();
+        registry.progress("t1", 50, "Halfway");
+
+        assertEquals(1, registry.getSubscriberCount());
+        assertEquals(List.of("1:progress"), healthy.events);
+        assertTrue(broken.events.isEmpty());
+        assertTrue(timedOut.events.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Unknown, missing and expired tasks have no stream")
+    void testUnknownAndExpiredTasks() throws InterruptedException {
+        ComparisonEventRegistry registry = registry(1);
+        assertNull(registry.subscribe("nope", 0));
+        assertNull(registry.subscribe(null, 0));
+        registry.progress(null, 10, "Ignored");
+
+        registry.open("t1");
+        registry.complete("t1", "B001", null);
+        Thread.sleep(5);
+        registry.open("t2");
+
+        assertNull(registry.subscribe("t1", 0), "Finished tasks are purged after the retention period");
+        assertNotNull(registry.subscribe("t2", 0));
+        assertEquals(1, created.size());
+    }
+
+    @Test
+    @DisplayName("Publishing only queues; a subscriber that falls behind is disconnected without holding up others")
+    void testSlowSubscribersDoNotBlockPublishing() {
+        Queue<Runnable> drains = new ArrayDeque<>();
+        ComparisonEventRegistry registry = registry(drains::add, 60_000, 2);
+        registry.open("t1");
+        RecordingEmitter slow = (RecordingEmitter) registry.subscribe("t1", 0);
+        RecordingEmitter fast = (RecordingEmitter) registry.subscribe("t1", 0);
+
+        registry.progress("t1", 10, "Searching");
+        registry.offerAccepted("t1", offer("noon", 99.0));
+        assertTrue(slow.events.isEmpty() && fast.events.isEmpty(), "Nothing is written on the publishing thread");
+        assertEquals(2, drains.size(), "One drain per subscriber, not per event");
+
+        Runnable slowDrain = drains.poll();  // the slow client's writes stay pending
+        drains.poll().run();
+        registry.offerAccepted("t1", offer("amazon", 95.0));
+        registry.complete("t1", "B001", List.of(offer("amazon", 95.0)));
+        while (!drains.isEmpty()) {
+            drains.poll().run();
+        }
+        slowDrain.run();
+
+        assertTrue(slow.events.isEmpty());
+        assertTrue(slow.completed, "A subscriber that fell behind is closed and can resume with Last-Event-ID");
+        assertEquals(List.of("1:progress", "2:offer-accepted", "3:offer-accepted", "4:done"), fast.events);
+        assertTrue(fast.completed);
+        assertEquals(0, registry.getSubscriberCount());
+    }
+}
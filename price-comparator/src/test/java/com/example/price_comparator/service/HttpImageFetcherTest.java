@@ -0,0 +1,161 @@
+package com.example.price_comparator.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HTTP Image Fetcher Tests")
+public class HttpImageFetcherTest {
+
+    private HttpServer server;
+    private final List<String> hostHeaders = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/photo.jpg", exchange -> {
+            hostHeaders.add(exchange.getRequestHeaders().getFirst("Host"));
+            byte[] body = "JPEGDATA".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/chunked.jpg", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < 3; i++) {
+                    out.write(("part" + i).getBytes());
+                    out.flush();
+                }
+            }
+        });
+        server.createContext("/moved.jpg", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/photo.jpg");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.createContext("/missing.jpg", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    /** Resolves every host to the given addresses and counts the lookups. */
+    private static class PinnedFetcher extends HttpImageFetcher {
+        final InetAddress[] addresses;
+        final boolean allowLoopback;
+        int lookups;
+
+        PinnedFetcher(long maxBytes, boolean allowLoopback, InetAddress... addresses) {
+            super(Runnable::run, 2_000, maxBytes);
+            this.addresses = addresses;
+            this.allowLoopback = allowLoopback;
+        }
+
+        @Override
+        InetAddress[] resolve(String host) {
+            lookups++;
+            return addresses;
+        }
+
+        @Override
+        boolean isAllowedAddress(InetAddress address) {
+            return allowLoopback && address.isLoopbackAddress() || super.isAllowedAddress(address);
+        }
+    }
+
+    private URI url(String path) {
+        return URI.create("http://images.example:" + server.getAddress().getPort() + path);
+    }
+
+    private static InetAddress ip(String literal) throws UnknownHostException {
+        return InetAddress.getByName(literal);
+    }
+
+    private static Throwable failure(PinnedFetcher fetcher, URI url) {
+        CompletionException e = assertThrows(CompletionException.class, () -> fetcher.fetch(url).join());
+        return e.getCause();
+    }
+
+    @Test
+    @DisplayName("Private, shared and reserved ranges are not public, including IPv6 ULA and CGNAT")
+    void testPublicAddresses() throws UnknownHostException {
+        for (String blocked : List.of("127.0.0.1", "10.1.2.3", "172.16.0.1", "192.168.1.1", "169.254.169.254",
+                "100.64.0.1", "100.127.255.254", "0.0.0.0", "198.18.0.1", "192.0.0.8", "224.0.0.1",
+                "255.255.255.255", "::1", "::", "fc00::1", "fd12:3456::1", "fe80::1", "ff02::1",
+                "::ffff:10.0.0.1", "::ffff:127.0.0.1", "64:ff9b::a9fe:a9fe", "2002:0a00:0001::1", "2001:db8::1")) {
+            assertFalse(HttpImageFetcher.isPublicAddress(ip(blocked)), blocked);
+        }
+        for (String allowed : List.of("8.8.8.8", "100.63.255.255", "100.128.0.1", "172.32.0.1", "2a00:1450:4001::200e",
+                "64:ff9b::808:808")) {
+            assertTrue(HttpImageFetcher.isPublicAddress(ip(allowed)), allowed);
+        }
+    }
+
+    @Test
+    @DisplayName("The connection goes to the address that was checked; the host is looked up once")
+    void testConnectsToCheckedAddress() {
+        PinnedFetcher fetcher = new PinnedFetcher(1_000, true, InetAddress.getLoopbackAddress());
+
+        assertArrayEquals("JPEGDATA".getBytes(), fetcher.fetch(url("/photo.jpg")).join());
+        assertEquals(1, fetcher.lookups);
+        assertEquals(List.of("images.example:" + server.getAddress().getPort()), hostHeaders,
+                "The request names the original host even though no DNS lookup of it succeeds");
+    }
+
+    @Test
+    @DisplayName("A host with any non-public address is refused before connecting")
+    void testRefusesRebindableHosts() throws UnknownHostException {
+        PinnedFetcher mixed = new PinnedFetcher(1_000, false, ip("93.184.216.34"), ip("10.0.0.5"));
+        assertInstanceOf(IllegalArgumentException.class, failure(mixed, url("/photo.jpg")));
+
+        PinnedFetcher loopback = new PinnedFetcher(1_000, false, InetAddress.getLoopbackAddress());
+        assertInstanceOf(IllegalArgumentException.class, failure(loopback, url("/photo.jpg")));
+        assertTrue(hostHeaders.isEmpty());
+
+        assertInstanceOf(IllegalArgumentException.class, failure(loopback, URI.create("file:///etc/passwd")));
+        assertEquals(1, loopback.lookups, "Non-http(s) URLs are refused before any lookup");
+    }
+
+    @Test
+    @DisplayName("Chunked bodies are decoded; error statuses, redirects and oversized images fail")
+    void testBodiesAndErrors() {
+        PinnedFetcher fetcher = new PinnedFetcher(100, true, InetAddress.getLoopbackAddress());
+        assertArrayEquals("part0part1part2".getBytes(), fetcher.fetch(url("/chunked.jpg")).join());
+
+        Throwable missing = failure(fetcher, url("/missing.jpg"));
+        assertInstanceOf(IllegalStateException.class, missing);
+        assertTrue(missing.getMessage().contains("404"), missing.getMessage());
+
+        Throwable moved = failure(fetcher, url("/moved.jpg"));
+        assertInstanceOf(IllegalStateException.class, moved);
+        assertTrue(moved.getMessage().contains("302"), moved.getMessage());
+        assertTrue(hostHeaders.isEmpty(), "Redirects are not followed");
+
+        PinnedFetcher small = new PinnedFetcher(5, true, InetAddress.getLoopbackAddress());
+        assertInstanceOf(IllegalStateException.class, failure(small, url("/photo.jpg")));
+        assertInstanceOf(IllegalStateException.class, failure(small, url("/chunked.jpg")));
+    }
+}
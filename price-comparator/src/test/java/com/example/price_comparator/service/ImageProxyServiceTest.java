@@ -0,0 +1,212 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.model.ProductDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Image Proxy Service Tests")
+public class ImageProxyServiceTest {
+
+    private static final String PHOTO = "https://m.media-amazon.com/images/I/photo.jpg";
+    private static final String LOGO = "https://m.media-amazon.com/images/I/logo.png";
+
+    @TempDir
+    Path tempDir;
+
+    private final ProductCatalog catalog = new ProductCatalog();
+
+    /** Serves in-memory images and records every URL it is asked for. */
+    private static final class StubFetcher implements ImageFetcher {
+        final Map<String, byte[]> images = new HashMap<>();
+        final List<String> requests = new ArrayList<>();
+        CompletableFuture<byte[]> pending;
+
+        @Override
+        public CompletableFuture<byte[]> fetch(URI url) {
+            requests.add(url.toString());
+            if (pending != null) {
+                return pending;
+            }
+            byte[] image = images.get(url.toString());
+            return image != null
+                    ? CompletableFuture.completedFuture(image)
+                    : CompletableFuture.failedFuture(new IllegalStateException("404 " + url));
+        }
+    }
+
+    private ImageProxyService open(StubFetcher fetcher, long maxBytes) {
+        return new ImageProxyService(fetcher, catalog, new String[]{" Media-Amazon.com ", ""}, Runnable::run, tempDir.toString(), maxBytes, new int[]{320, 160, 640}, 40_000_000L);
+    }
+
+    @Test
+    @DisplayName("One fetch produces every size, without upscaling small originals")
+    void testRendersAllSizesFromOneFetch() throws IOException {
+        StubFetcher fetcher = new StubFetcher();
+        fetcher.images.put(PHOTO, image(1200, 900, false, "jpeg"));
+        fetcher.images.put(LOGO, image(200, 100, true, "png"));
+        ImageProxyService service = open(fetcher, 10_000_000);
+
+        ImageProxyService.Thumbnail small = service.getThumbnail(PHOTO, 160).join();
+        ImageProxyService.Thumbnail medium = service.getThumbnail(PHOTO, 320).join();
+        ImageProxyService.Thumbnail large = service.getThumbnail(PHOTO, 640).join();
+        assertEquals(List.of(PHOTO), fetcher.requests, "The original is fetched once for all sizes");
+
+        assertEquals("image/jpeg", medium.getContentType());
+        assertEquals(160, decode(small).getWidth());
+        assertEquals(240, decode(medium).getHeight());
+        assertEquals(640, decode(large).getWidth());
+        assertTrue(small.getEtag().matches("\"[0-9a-f]{32}\""), small.getEtag());
+        assertNotEquals(small.getEtag(), large.getEtag());
+
+        ImageProxyService.Thumbnail logo = service.getThumbnail(LOGO, 640).join();
+        assertEquals("image/png", logo.getContentType(), "Transparent images stay PNG");
+        assertEquals(200, decode(logo).getWidth());
+        assertTrue(decode(logo).getColorModel().hasAlpha());
+    }
+
+    @Test
+    @DisplayName("Cached thumbnails survive a restart with the same ETag and never go upstream")
+    void testCacheSurvivesRestart() throws IOException {
+        StubFetcher fetcher = new StubFetcher();
+        fetcher.images.put(PHOTO, image(800, 800, false, "jpeg"));
+        ImageProxyService.Thumbnail first = open(fetcher, 10_000_000).getThumbnail(PHOTO, 320).join();
+
+        StubFetcher offline = new StubFetcher();
+        ImageProxyService restarted = open(offline, 10_000_000);
+        assertEquals(first.getEtag(), restarted.getCachedEtag(PHOTO, 320));
+        ImageProxyService.Thumbnail again = restarted.getThumbnail(PHOTO, 320).join();
+
+        assertEquals(first.getEtag(), again.getEtag());
+        assertArrayEquals(first.getBytes(), again.getBytes());
+        assertTrue(offline.requests.isEmpty());
+    }
+
+    @Test
+    @DisplayName("The disk cache evicts least recently used thumbnails to stay within budget")
+    void testLruEviction() throws IOException {
+        StubFetcher fetcher = new StubFetcher();
+        for (int i = 0; i < 4; i++) {
+            fetcher.images.put(PHOTO + "?v=" + i, image(640, 640, false, "jpeg"));
+        }
+        long perImage = totalBytes(open(fetcher, Long.MAX_VALUE), PHOTO + "?v=0");
+        deleteAll();
+        fetcher.requests.clear();
+
+        ImageProxyService service = open(fetcher, perImage * 2 + perImage / 2);
+        service.getThumbnail(PHOTO + "?v=0", 160).join();
+        service.getThumbnail(PHOTO + "?v=1", 160).join();
+        service.getThumbnail(PHOTO + "?v=0", 640).join();  // v=0 is now more recent than v=1
+        service.getThumbnail(PHOTO + "?v=2", 160).join();
+
+        assertNotNull(service.getCachedEtag(PHOTO + "?v=0", 640));
+        assertNull(service.getCachedEtag(PHOTO + "?v=1", 640));
+        assertNotNull(service.getCachedEtag(PHOTO + "?v=2", 320));
+        assertTrue(directoryBytes() <= perImage * 2 + perImage / 2);
+        assertEquals(3, fetcher.requests.size());
+    }
+
+    @Test
+    @DisplayName("Concurrent misses share one fetch and bad requests are rejected up front")
+    void testSharedFetchAndValidation() throws IOException {
+        StubFetcher fetcher = new StubFetcher();
+        fetcher.pending = new CompletableFuture<>();
+        ImageProxyService service = open(fetcher, 10_000_000);
+
+        CompletableFuture<ImageProxyService.Thumbnail> a = service.getThumbnail(PHOTO, 160);
+        CompletableFuture<ImageProxyService.Thumbnail> b = service.getThumbnail(PHOTO, 640);
+        assertEquals(1, fetcher.requests.size());
+        fetcher.pending.complete(image(1000, 500, false, "jpeg"));
+        assertEquals(160, decode(a.join()).getWidth());
+        assertEquals(640, decode(b.join()).getWidth());
+
+        assertThrows(IllegalArgumentException.class, () -> service.getThumbnail(PHOTO, 500));
+        assertThrows(IllegalArgumentException.class, () -> service.getThumbnail("file:///etc/passwd", 160));
+        assertThrows(IllegalArgumentException.class, () -> service.getThumbnail("not a url", 160));
+        assertNull(service.getCachedEtag(PHOTO, 500));
+    }
+
+    @Test
+    @DisplayName("Only catalog images and images on allowed hosts are proxied")
+    void testAllowedSources() {
+        StubFetcher fetcher = new StubFetcher();
+        ImageProxyService service = open(fetcher, 10_000_000);
+        String retailerImage = "https://cdn.noon.ae/p/photo.jpg";
+
+        assertTrue(service.isAllowedSource(PHOTO));
+        assertTrue(service.isAllowedSource("https://media-amazon.com/x.jpg"));
+        assertFalse(service.isAllowedSource("https://evilmedia-amazon.com/x.jpg"));
+        assertFalse(service.isAllowedSource("https://media-amazon.com.evil.net/x.jpg"));
+        assertFalse(service.isAllowedSource("http://169.254.169.254/latest/meta-data"));
+        assertFalse(service.isAllowedSource(retailerImage));
+        assertFalse(service.isAllowedSource(null));
+        assertThrows(IllegalArgumentException.class, () -> service.getThumbnail(retailerImage, 160));
+
+        ProductDocument product = new ProductDocument();
+        product.setId("B001");
+        product.setPhotos(List.of(retailerImage));
+        catalog.put(product);
+        assertTrue(service.isAllowedSource(retailerImage));
+        assertFalse(service.isAllowedSource(retailerImage + "?other"));
+        assertTrue(fetcher.requests.isEmpty());
+    }
+
+    private long totalBytes(ImageProxyService service, String url) throws IOException {
+        service.getThumbnail(url, 160).join();
+        return directoryBytes();
+    }
+
+    private long directoryBytes() throws IOException {
+        long total = 0;
+        try (Stream<Path> files = Files.list(tempDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                total += Files.size(file);
+            }
+        }
+        return total;
+    }
+
+    private void deleteAll() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static BufferedImage decode(ImageProxyService.Thumbnail thumbnail) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(thumbnail.getBytes()));
+    }
+
+    private static byte[] image(int width, int height, boolean alpha, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.ORANGE);
+        g.fillRect(0, 0, width / 2, height);
+        g.setColor(new Color(20, 60, 200, alpha ? 128 : 255));
+        g.fillOval(width / 4, height / 4, width / 2, height / 2);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.price_comparator.service;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Image URL Selector Tests")
+public class ImageUrlSelectorTest {
+
+    @Test
+    @DisplayName("Recorded shopping results only carry gstatic thumbnails, which are not image hosts")
+    void testRecordedItems() throws IOException {
+        JSONArray organic = new JSONObject(load("replay/google_shopping_search/default.json"))
+                .getJSONArray("results").getJSONObject(0)
+                .getJSONObject("content").getJSONObject("results")
+                .getJSONArray("organic");
+        assertEquals(3, organic.length());
+        for (int i = 0; i < organic.length(); i++) {
+            JSONObject item = organic.getJSONObject(i);
+            assertTrue(item.getString("thumbnail").startsWith("https://encrypted-tbn0.gstatic.com/"));
+            assertNull(ImageUrlSelector.select(item), item.getString("title"));
+        }
+
+        JSONObject product = new JSONObject(load("replay/google_shopping_product/default.json"))
+                .getJSONArray("results").getJSONObject(0).getJSONObject("content").getJSONObject("results");
+        assertNull(ImageUrlSelector.select(product), "images.full_size is an object, not an images array");
+    }
+
+    @Test
+    @DisplayName("Validation needs http(s) and an image extension, image host or known retailer")
+    void testIsValid() {
+        for (String url : List.of("https://m.media-amazon.com/images/I/71abc._AC_SL1500_.jpg",
+                "https://images-na.ssl-images-amazon.com/images/I/main-product.png",
+                "https://lh3.googleusercontent.com/product-800x800",
+                "https://d1.cloudfront.net/item/large/hero.webp",
+                "http://www.sharafdg.com/p/1200/galaxy",
+                "https://www.noon.com/uae-en/galaxy-s24/",
+                "https://example.com/pic/mini-primary",
+                "HTTPS://EXAMPLE.COM/IMAGES/BIG.JPG",
+                "https://amazon.ae/dp/B0CS5XW6TN")) {
+            assertTrue(ImageUrlSelector.isValid(url), url);
+        }
+        for (String url : List.of("https://encrypted-tbn0.gstatic.com/shopping?q=tbn:replay-s24-1",
+                "https://example.com/page.html",
+                "ftp://files.example.com/image.jpg",
+                "//cdn.example.com/img.png",
+                "",
+                "   ")) {
+            assertFalse(ImageUrlSelector.isValid(url), url);
+        }
+        assertFalse(ImageUrlSelector.isValid(null));
+    }
+
+    @Test
+    @DisplayName("Quality comes from size hints plus main-image, product and CDN boosts")
+    void testEstimateQuality() {
+        assertEquals(2_250_000, ImageUrlSelector.estimateQuality("https://m.media-amazon.com/images/I/71abc._AC_SL1500_.jpg"));
+        assertEquals(1_440_000, ImageUrlSelector.estimateQuality("http://www.sharafdg.com/p/1200/galaxy"));
+        assertEquals(1_375_000, ImageUrlSelector.estimateQuality("https://d1.cloudfront.net/item/large/hero.webp"));
+        assertEquals(1_000_000, ImageUrlSelector.estimateQuality("HTTPS://EXAMPLE.COM/IMAGES/BIG.JPG"));
+        assertEquals(840_000, ImageUrlSelector.estimateQuality("https://lh3.googleusercontent.com/product-800x800"));
+        assertEquals(450_100, ImageUrlSelector.estimateQuality("https://images-na.ssl-images-amazon.com/images/I/main-product.png"));
+        assertEquals(325_000, ImageUrlSelector.estimateQuality("https://f.nooncdn.com/p/v1/medium.jpg"));
+        assertEquals(240_000, ImageUrlSelector.estimateQuality("https://example.com/pic/mini-primary"));
+        assertEquals(140_000, ImageUrlSelector.estimateQuality("https://shopping.googleusercontent.com/thumb/small"));
+        assertEquals(75_100, ImageUrlSelector.estimateQuality("//cdn.example.com/img.png"));
+        assertEquals(100, ImageUrlSelector.estimateQuality("https://www.noon.com/uae-en/galaxy-s24/"));
+        assertEquals(100, ImageUrlSelector.estimateQuality(""));
+        assertEquals(0, ImageUrlSelector.estimateQuality(null));
+    }
+
+    @Test
+    @DisplayName("Fields are tried in priority order, skipping values that are not valid image URLs")
+    void testFieldPriority() {
+        assertEquals("https://f.nooncdn.com/p/v1/medium.jpg", select("{\"main_image\": \"https://example.com/page.html\","
+                + " \"thumbnail\": \"https://f.nooncdn.com/p/v1/medium.jpg\","
+                + " \"photo\": \"https://d1.cloudfront.net/item/large/hero.webp\"}"),
+                "The first valid direct field wins, not the best one");
+        assertEquals("https://lh3.googleusercontent.com/product-800x800", select("{\"image\": 42, \"main_image\": null,"
+                + " \"picture\": \"ftp://files.example.com/image.jpg\","
+                + " \"featured_image\": \"https://lh3.googleusercontent.com/product-800x800\"}"));
+        assertEquals("https://m.media-amazon.com/images/I/71abc._AC_SL1500_.jpg", select("{\"image\": {\"src\":"
+                + " \"https://m.media-amazon.com/images/I/71abc._AC_SL1500_.jpg\", \"width\": 300, \"height\": 300},"
+                + " \"images\": [{\"url\": \"https://example.com/pic/mini-primary\", \"type\": \"PRIMARY\"}]}"),
+                "A primary-typed entry of the images array does not beat the primary image object");
+        assertEquals("https://shopping.googleusercontent.com/thumb/small", select("{\"thumb\":"
+                + " \"https://shopping.googleusercontent.com/thumb/small\","
+                + " \"product_info\": {\"primary_image\": \"https://images-na.ssl-images-amazon.com/images/I/main-product.png\"},"
+                + " \"content\": {\"main_image\": \"https://d1.cloudfront.net/item/large/hero.webp\"}}"),
+                "product_info and content only replace a weak pick");
+    }
+
+    @Test
+    @DisplayName("The images array, content and merchant images fill in when nothing better exists")
+    void testFallbackSources() {
+        assertEquals("https://shopping.googleusercontent.com/thumb/small", select("{\"images\": ["
+                + "\"https://example.com/page.html\", \"https://shopping.googleusercontent.com/thumb/small\","
+                + " {\"link\": \"https://f.nooncdn.com/p/v1/medium.jpg\", \"width\": -50, \"height\": 900}],"
+                + " \"content\": {\"image_url\": \"http://www.sharafdg.com/p/1200/galaxy\"}}"));
+        assertEquals("https://f.nooncdn.com/p/v1/medium.jpg", select("{\"images\": {\"full_size\":"
+                + " [\"https://m.media-amazon.com/images/I/71abc._AC_SL1500_.jpg\"]},"
+                + " \"merchant\": {\"name\": \"noon\", \"logo\": \"https://f.nooncdn.com/p/v1/medium.jpg\"}}"));
+        assertEquals("https://amazon.ae/dp/B0CS5XW6TN", select("{\"merchant\": {\"image\": \"https://amazon.ae/dp/B0CS5XW6TN\"},"
+                + " \"content\": {\"featured_image\": \"//cdn.example.com/img.png\"}}"));
+    }
+
+    @Test
+    @DisplayName("A larger image in the images array beats the primary image field")
+    void testImagesArrayCanOverridePrimary() {
+        JSONObject item = new JSONObject()
+                .put("image", "https://example.com/a.jpg")
+                .put("thumbnail", "https://example.com/thumb.jpg")
+                .put("images", new JSONArray()
+                        .put(new JSONObject().put("url", "https://example.com/b.jpg").put("width", 2000).put("height", 2000)));
+
+        assertEquals("https://example.com/b.jpg", ImageUrlSelector.select(item));
+        assertNull(ImageUrlSelector.select(new JSONObject().put("title", "No images")));
+    }
+
+    private static String select(String json) {
+        return ImageUrlSelector.select(new JSONObject(json));
+    }
+
+    private String load(String path) throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(path)) {
+            assertNotNull(in, "Missing fixture " + path);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
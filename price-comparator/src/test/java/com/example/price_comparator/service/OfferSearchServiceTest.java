@@ -0,0 +1,126 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.ShoppingProduct;
+import com.example.price_comparator.model.ProductDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Offer Search Service Tests")
+public class OfferSearchServiceTest {
+
+    private static final class FakeProvider implements OfferProvider {
+        private final String name;
+        private final Supplier<CompletableFuture<List<ShoppingProduct>>> result;
+        private int calls;
+        private long deadline;
+
+        FakeProvider(String name, Supplier<CompletableFuture<List<ShoppingProduct>>> result) {
+            this.name = name;
+            this.result = result;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<List<ShoppingProduct>> findOffers(ProductDocument product, String searchQuery,
+                                                                   long deadline, BiConsumer<Integer, String> progressCallback) {
+            calls++;
+            this.deadline = deadline;
+            return result.get();
+        }
+    }
+
+    private static ShoppingProduct offer(String title) {
+        ShoppingProduct offer = new ShoppingProduct();
+        offer.setTitle(title);
+        return offer;
+    }
+
+    private static ProductDocument product() {
+        ProductDocument product = new ProductDocument();
+        product.setName("Galaxy S24");
+        return product;
+    }
+
+    private static OfferSearchService service(long deadlineMillis, int maxProviders, OfferProvider... providers) {
+        String names = List.of(providers).stream().map(OfferProvider::getName).collect(Collectors.joining(","));
+        return new OfferSearchService(List.of(providers), new ShoppingService(), new SimpleMeterRegistry(),
+                names, deadlineMillis, maxProviders);
+    }
+
+    @Test
+    @DisplayName("Offers that arrive before the deadline are merged and tagged; late and failed providers are dropped")
+    void testDeadlineAndFailures() {
+        FakeProvider fast = new FakeProvider("fast",
+                () -> CompletableFuture.completedFuture(List.of(offer("a"), offer("b"))));
+        FakeProvider slow = new FakeProvider("slow", CompletableFuture::new);
+        FakeProvider broken = new FakeProvider("broken", () -> {
+            throw new IllegalStateException("down");
+        });
+        OfferSearchService service = service(200, 3, fast, slow, broken);
+
+        long start = System.nanoTime();
+        long startMillis = System.currentTimeMillis();
+        List<ShoppingProduct> offers = service.findOffers(product(), null).join();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(slow.deadline >= startMillis && slow.deadline < startMillis + 200 + 100,
+                "Providers are told when their answer stops counting");
+        assertTrue(slow.deadline < System.currentTimeMillis(), "The deadline passed to providers is a little early");
+
+        assertEquals(List.of("a", "b"), offers.stream().map(ShoppingProduct::getTitle).collect(Collectors.toList()));
+        assertTrue(offers.stream().allMatch(o -> "fast".equals(o.getProvider())));
+        assertTrue(elapsedMillis < 2_000, "Search should end at the deadline, took " + elapsedMillis + "ms");
+    }
+
+    @Test
+    @DisplayName("Providers with a better yield per second are preferred")
+    void testRankingByYieldAndLatency() {
+        FakeProvider good = new FakeProvider("good",
+                () -> CompletableFuture.completedFuture(List.of(offer("x"))));
+        FakeProvider poor = new FakeProvider("poor",
+                () -> CompletableFuture.completedFuture(List.of(offer("y"))));
+        OfferSearchService service = service(1_000, 1, poor, good);
+
+        // Untried providers rank first, so two searches measure both
+        List<ShoppingProduct> first = service.findOffers(product(), null).join();
+        List<ShoppingProduct> second = service.findOffers(product(), null).join();
+        assertEquals(1, good.calls);
+        assertEquals(1, poor.calls);
+
+        List<ShoppingProduct> goodOffers = first.get(0).getProvider().equals("good") ? first : second;
+        List<ShoppingProduct> poorOffers = first.get(0).getProvider().equals("poor") ? first : second;
+        service.recordMatches(goodOffers, goodOffers);
+        service.recordMatches(poorOffers, List.of());
+
+        assertEquals("good", service.selectProviders().get(0).getName());
+        service.findOffers(product(), null).join();
+        assertEquals(2, good.calls);
+        assertEquals(1, poor.calls);
+    }
+
+    @Test
+    @DisplayName("The Amazon provider is unavailable without a RapidAPI key")
+    void testAmazonProviderNeedsKey() {
+        assertFalse(new AmazonOfferProvider(new AmazonApiService(null, "http://localhost:1", "")).isAvailable());
+        assertFalse(new AmazonOfferProvider(new AmazonApiService(null, "http://localhost:1", null)).isAvailable());
+        assertTrue(new AmazonOfferProvider(new AmazonApiService(null, "http://localhost:1", "key")).isAvailable());
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.utils.AimdConcurrencyLimiter;
+import com.example.price_comparator.utils.CircuitBreaker;
+import com.example.price_comparator.utils.HedgingPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Oxylabs Client Hedging Tests")
+public class OxylabsClientTest {
+
+    private static final long HEDGE_DELAY_MS = 20;
+    private static final long MAX_DELAY_MS = 5_000;
+
+    /** Answers the n-th attempt with the n-th scripted behaviour instead of calling Oxylabs. */
+    private interface Attempt {
+        String run() throws IOException, InterruptedException;
+    }
+
+    private static class ScriptedClient extends OxylabsClient {
+        final List<Attempt> script = new ArrayList<>();
+        final AtomicInteger attempts = new AtomicInteger();
+
+        ScriptedClient(HedgingPolicy policy, int hedgeThreads) {
+            super(DEFAULT_ENDPOINT, new CircuitBreaker("oxylabs", 20, 10, 0.5, 60_000, 30_000, 2),
+                    new AimdConcurrencyLimiter("oxylabs", 8, 1, 16, 30_000, 0.7),
+                    policy, new PipelineMetrics(), new SimpleMeterRegistry(), 30_000, hedgeThreads);
+        }
+
+        @Override
+        public String executeForBody(String payload, String username, String password, Timeouts timeouts,
+                                     Priority priority, String stage) throws IOException {
+            Attempt attempt = script.get(attempts.getAndIncrement());
+            try {
+                return attempt.run();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException("interrupted");
+            }
+        }
+
+        String hedged(AtomicInteger permits, boolean allow) throws IOException {
+            return executeForBodyHedged("{}", "user", "pass", Timeouts.FAST, Priority.OPTIONAL, null, () -> {
+                permits.incrementAndGet();
+                return allow;
+            });
+        }
+    }
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<ScriptedClient> clients = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        clients.forEach(OxylabsClient::shutdown);
+    }
+
+    private ScriptedClient client(HedgingPolicy policy, int hedgeThreads, Attempt... script) {
+        ScriptedClient client = new ScriptedClient(policy, hedgeThreads);
+        client.script.addAll(List.of(script));
+        clients.add(client);
+        return client;
+    }
+
+    private static HedgingPolicy policy(double budgetRatio) {
+        return new HedgingPolicy(true, 0.95, 100, HEDGE_DELAY_MS, HEDGE_DELAY_MS, budgetRatio);
+    }
+
+    private Attempt blocked(String body) {
+        return () -> {
+            release.await();
+            return body;
+        };
+    }
+
+    @Test
+    @DisplayName("A hedge sent after the delay wins the race and the slow primary is left to finish")
+    void testHedgeWinsRace() throws IOException {
+        ScriptedClient client = client(policy(1.0), 4, blocked("primary"), () -> "hedge");
+        AtomicInteger permits = new AtomicInteger();
+
+        assertEquals("hedge", client.hedged(permits, true));
+        assertEquals(2, client.attempts.get());
+        assertEquals(1, permits.get());
+    }
+
+    @Test
+    @DisplayName("A failed primary does not end the call while the hedge can still succeed")
+    void testLoserFailureIsIgnored() throws IOException {
+        CountDownLatch hedgeSent = new CountDownLatch(1);
+        ScriptedClient client = client(policy(1.0), 4,
+                () -> {
+                    hedgeSent.await();
+                    throw new IOException("primary failed");
+                },
+                () -> {
+                    hedgeSent.countDown();
+                    Thread.sleep(50);
+                    return "hedge";
+                });
+
+        assertEquals("hedge", client.hedged(new AtomicInteger(), true));
+    }
+
+    @Test
+    @DisplayName("When both attempts fail the first failure is thrown")
+    void testBothFail() {
+        ScriptedClient client = client(policy(1.0), 4,
+                () -> {
+                    Thread.sleep(100);
+                    throw new IOException("primary failed");
+                },
+                () -> {
+                    throw new IOException("hedge failed");
+                });
+
+        IOException e = assertThrows(IOException.class, () -> client.hedged(new AtomicInteger(), true));
+        assertEquals("hedge failed", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("A failure that reached Oxylabs is reported over a local refusal")
+    void testSpentFailureWins() {
+        ScriptedClient client = client(policy(1.0), 4,
+                () -> {
+                    Thread.sleep(100);
+                    throw new IOException("primary failed");
+                },
+                () -> {
+                    throw new OxylabsClient.OxylabsUnavailableException("limit reached");
+                });
+
+        IOException e = assertThrows(IOException.class, () -> client.hedged(new AtomicInteger(), true));
+        assertEquals("primary failed", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Searches are judged slow at the same share of their timeout as fast calls")
+    void testJudgedLatency() {
+        long twentySeconds = TimeUnit.SECONDS.toNanos(20);
+        assertEquals(twentySeconds, OxylabsClient.judgedLatency(twentySeconds, OxylabsClient.Timeouts.FAST));
+        assertEquals(twentySeconds / 9, OxylabsClient.judgedLatency(twentySeconds, OxylabsClient.Timeouts.SEARCH));
+    }
+
+    @Test
+    @DisplayName("A refused permit sends no hedge and returns the hedge to the budget")
+    void testRefusedPermit() throws IOException {
+        HedgingPolicy policy = policy(1.0);
+        ScriptedClient client = client(policy, 4, () -> {
+            Thread.sleep(100);
+            return "primary";
+        });
+        AtomicInteger permits = new AtomicInteger();
+
+        assertEquals("primary", client.hedged(permits, false));
+        assertEquals(1, client.attempts.get());
+        assertEquals(1, permits.get());
+        assertEquals(0L, policy.getHedgesIssued());
+        assertTrue(policy.tryAcquireHedge(), "The hedge token was given back");
+    }
+
+    @Test
+    @DisplayName("No hedge (and no permit) while every hedge thread is busy")
+    void testBoundedHedgeThreads() throws IOException {
+        ScriptedClient client = client(policy(1.0), 1, () -> {
+            Thread.sleep(100);
+            return "primary";
+        });
+        AtomicInteger permits = new AtomicInteger();
+
+        assertEquals("primary", client.hedged(permits, true));
+        assertEquals(1, client.attempts.get());
+        assertEquals(0, permits.get());
+    }
+
+    @Test
+    @DisplayName("Fast failures do not pull the hedge delay down; successes do")
+    void testOnlySuccessesFeedTheDelay() {
+        HedgingPolicy policy = new HedgingPolicy(true, 0.95, 20, HEDGE_DELAY_MS, MAX_DELAY_MS, 0.0);
+        ScriptedClient client = client(policy, 4);
+        for (int i = 0; i < 20; i++) {
+            client.script.add(() -> {
+                throw new IOException("503");
+            });
+        }
+        for (int i = 0; i < 20; i++) {
+            assertThrows(IOException.class, () -> client.hedged(new AtomicInteger(), true));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(MAX_DELAY_MS), policy.getHedgeDelayNanos());
+
+        for (int i = 0; i < 20; i++) {
+            client.script.add(() -> "ok");
+        }
+        for (int i = 0; i < 20; i++) {
+            assertDoesNotThrow(() -> client.hedged(new AtomicInteger(), true));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(HEDGE_DELAY_MS), policy.getHedgeDelayNanos());
+    }
+
+    @Test
+    @DisplayName("An interrupted caller stops waiting and keeps its interrupt flag")
+    void testCancelledCaller() throws InterruptedException {
+        ScriptedClient client = client(policy(0.0), 4, blocked("primary"));
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        AtomicReference<Boolean> interrupted = new AtomicReference<>();
+
+        Thread caller = new Thread(() -> {
+            try {
+                client.hedged(new AtomicInteger(), true);
+            } catch (IOException e) {
+                thrown.set(e);
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        caller.start();
+        Thread.sleep(HEDGE_DELAY_MS * 3);
+        caller.interrupt();
+        caller.join(2_000);
+
+        assertFalse(caller.isAlive());
+        assertInstanceOf(InterruptedIOException.class, thrown.get());
+        assertTrue(interrupted.get());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.price_comparator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Oxylabs Quota Manager Tests")
+public class OxylabsQuotaManagerTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toMillis(20_000));
+
+    private OxylabsQuotaManager manager(int perComparison, int perMinute, int perDay) {
+        return new OxylabsQuotaManager(new SimpleMeterRegistry(), perComparison, perMinute, perDay, clock::get);
+    }
+
+    @Test
+    @DisplayName("Per-comparison budget stops one comparison without affecting another")
+    void testComparisonBudget() {
+        OxylabsQuotaManager quota = manager(3, 100, 1000);
+        OxylabsQuotaManager.ComparisonBudget first = quota.startComparison("first");
+
+        assertTrue(quota.tryAcquire(first, OxylabsQuotaManager.SOURCE_SEARCH));
+        assertTrue(quota.tryAcquire(first, OxylabsQuotaManager.SOURCE_DISCOVERY));
+        assertTrue(quota.tryAcquire(first, OxylabsQuotaManager.SOURCE_PRODUCT));
+        assertFalse(first.isExhausted());
+        assertFalse(quota.tryAcquire(first, OxylabsQuotaManager.SOURCE_PRODUCT));
+        assertTrue(first.isExhausted());
+        assertEquals(3, first.getUsed());
+        assertEquals(Map.of("discovery", 1, "product", 1, "search", 1), first.getCallsBySource());
+
+        OxylabsQuotaManager.ComparisonBudget second = quota.startComparison("second");
+        assertTrue(quota.tryAcquire(second, OxylabsQuotaManager.SOURCE_SEARCH));
+    }
+
+    @Test
+    @DisplayName("A refused spare call does not mark the comparison exhausted")
+    void testSpareCalls() {
+        OxylabsQuotaManager quota = manager(2, 100, 1000);
+        OxylabsQuotaManager.ComparisonBudget budget = quota.startComparison("spare");
+
+        assertTrue(quota.tryAcquireSpare(budget, OxylabsQuotaManager.SOURCE_HEDGE));
+        assertTrue(quota.tryAcquire(budget, OxylabsQuotaManager.SOURCE_SEARCH));
+        assertFalse(quota.tryAcquireSpare(budget, OxylabsQuotaManager.SOURCE_HEDGE));
+        assertFalse(budget.isExhausted());
+        assertEquals(Map.of("hedge", 1, "search", 1), budget.getCallsBySource());
+    }
+
+    @Test
+    @DisplayName("A refunded permit is available again and is only taken back from the windows that counted it")
+    void testRefund() {
+        OxylabsQuotaManager quota = manager(1, 1, 1000);
+        OxylabsQuotaManager.ComparisonBudget budget = quota.startComparison("refund");
+
+        OxylabsQuotaManager.Permit permit = quota.tryAcquirePermit(budget, OxylabsQuotaManager.SOURCE_PRODUCT);
+        assertNotNull(permit);
+        quota.refund(permit);
+        quota.refund(permit);
+        assertEquals(0, budget.getUsed());
+        assertEquals(0, quota.getMinuteUsed());
+        assertEquals(0, quota.getDayUsed());
+
+        assertTrue(quota.tryAcquire(budget, OxylabsQuotaManager.SOURCE_DISCOVERY));
+        assertFalse(budget.isExhausted());
+        assertEquals(Map.of("discovery", 1, "product", 0), budget.getCallsBySource());
+
+        // Taken in the last millisecond of a minute, refunded after it rolled over
+        OxylabsQuotaManager windows = manager(100, 100, 1000);
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(1) - 1);
+        OxylabsQuotaManager.Permit late = windows.tryAcquirePermit(null, OxylabsQuotaManager.SOURCE_PRODUCT);
+        clock.incrementAndGet();
+        assertTrue(windows.tryAcquire(null, OxylabsQuotaManager.SOURCE_SEARCH));
+        windows.refund(late);
+        assertEquals(1, windows.getMinuteUsed(), "The permit was counted in the previous minute");
+        assertEquals(1, windows.getDayUsed(), "The day has not rolled over, so it gets the call back");
+
+        OxylabsQuotaManager.Permit lastOfDay = windows.tryAcquirePermit(null, OxylabsQuotaManager.SOURCE_PRODUCT);
+        clock.addAndGet(TimeUnit.DAYS.toMillis(1));
+        assertTrue(windows.tryAcquire(null, OxylabsQuotaManager.SOURCE_SEARCH));
+        windows.refund(lastOfDay);
+        assertEquals(1, windows.getMinuteUsed());
+        assertEquals(1, windows.getDayUsed());
+    }
+
+    @Test
+    @DisplayName("Minute window resets on the next minute")
+    void testMinuteWindow() {
+        OxylabsQuotaManager quota = manager(100, 2, 1000);
+
+        assertTrue(quota.tryAcquire(null, OxylabsQuotaManager.SOURCE_SEARCH));
+        assertTrue(quota.tryAcquire(null, OxylabsQuotaManager.SOURCE_SEARCH));
+        assertFalse(quota.tryAcquire(null, OxylabsQuotaManager.SOURCE_SEARCH));
+
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(1));
+        assertEquals(0, quota.getMinuteUsed());
+        assertTrue(quota.tryAcquire(null, OxylabsQuotaManager.SOURCE_SEARCH));
+        assertEquals(3, quota.getDayUsed());
+    }
+
+    @Test
+    @DisplayName("Daily budget holds across minutes until the day rolls over")
+    void testDayWindow() {
+        OxylabsQuotaManager quota = manager(100, 100, 2);
+
+        assertTrue(quota.tryAcquire(null, OxylabsQuotaManager.SOURCE_SEARCH));
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(5));
+        assertTrue(quota.tryAcquire(null, OxylabsQuotaManager.SOURCE_SEARCH));
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(5));
+        assertFalse(quota.tryAcquire(null, OxylabsQuotaManager.SOURCE_SEARCH));
+
+        clock.addAndGet(TimeUnit.DAYS.toMillis(1));
+        assertTrue(quota.tryAcquire(null, OxylabsQuotaManager.SOURCE_SEARCH));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.model.ProductDocument;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Payload Cache Tests")
+public class PayloadCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static ProductDocument product(String id) {
+        ProductDocument product = new ProductDocument();
+        product.setId(id);
+        product.setName("Samsung Galaxy S24 Ultra " + id);
+        product.setDescription("Galaxy AI is here. ".repeat(100));
+        product.setAbout(new ArrayList<>(Collections.nCopies(20, "200MP camera with 100x Space Zoom")));
+        return product;
+    }
+
+    @Test
+    @DisplayName("Compressed bodies decode to exactly what Jackson would have written")
+    void testCompressedBodyMatchesSerialization() throws IOException {
+        PayloadCache cache = new PayloadCache(objectMapper, 1_000_000, 1024);
+        ProductDocument product = product("B001");
+
+        PayloadCache.Payload payload = cache.put(PayloadCache.productKey("B001"), "\"v1\"", product);
+        byte[] expected = objectMapper.writeValueAsBytes(product);
+        assertArrayEquals(expected, payload.getBody(null));
+
+        PayloadCache.ContentCoding gzip = payload.negotiate("gzip, deflate, br");
+        assertEquals(PayloadCache.ContentCoding.GZIP, gzip);
+        byte[] compressed = payload.getBody(gzip);
+        assertTrue(compressed.length * 5 < expected.length, "Repetitive product text compresses well");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(expected, in.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Accept-Encoding negotiation honours q-values and wildcards")
+    void testNegotiation() {
+        PayloadCache cache = new PayloadCache(objectMapper, 1_000_000, 1024);
+        PayloadCache.Payload payload = cache.put(PayloadCache.productKey("B001"), "\"v1\"", product("B001"));
+
+        assertEquals(PayloadCache.ContentCoding.GZIP, payload.negotiate("GZIP;q=0.5"));
+        assertEquals(PayloadCache.ContentCoding.GZIP, payload.negotiate("br, *;q=0.1"));
+        assertNull(payload.negotiate("gzip;q=0, *"));
+        assertNull(payload.negotiate("identity"));
+        assertNull(payload.negotiate(null));
+
+        PayloadCache.Payload small = cache.put(PayloadCache.listKey("tiny"), "\"v1\"", List.of("a"));
+        assertNull(small.negotiate("gzip"), "Bodies below the threshold are not compressed");
+    }
+
+    @Test
+    @DisplayName("Payloads are only served for the ETag they were built for and dropped on save")
+    void testEtagKeyingAndInvalidation() {
+        PayloadCache cache = new PayloadCache(objectMapper, 1_000_000, 1024);
+        String productKey = PayloadCache.productKey("B001");
+        String otherKey = PayloadCache.productKey("B002");
+        String listKey = PayloadCache.listKey("trending");
+        cache.put(productKey, "\"v1\"", product("B001"));
+        cache.put(otherKey, "\"v2\"", product("B002"));
+        cache.put(listKey, "\"c2\"", List.of(product("B001"), product("B002")));
+
+        assertNotNull(cache.get(productKey, "\"v1\""));
+        assertNull(cache.get(productKey, "\"v3\""), "A newer catalog version never sees the old payload");
+        assertNull(cache.get(productKey, null));
+
+        cache.invalidate("B001");
+        assertNull(cache.get(productKey, "\"v1\""));
+        assertNull(cache.get(listKey, "\"c2\""));
+        assertNotNull(cache.get(otherKey, "\"v2\""));
+
+        cache.put(PayloadCache.productKey("B003"), null, product("B003"));
+        assertNull(cache.get(PayloadCache.productKey("B003"), null));
+        assertEquals(cache.get(otherKey, "\"v2\"").getBody(null).length
+                + cache.get(otherKey, "\"v2\"").getBody(PayloadCache.ContentCoding.GZIP).length, cache.sizeBytes());
+    }
+
+    @Test
+    @DisplayName("The least recently used payloads are evicted to stay within budget")
+    void testEviction() {
+        PayloadCache probe = new PayloadCache(objectMapper, Long.MAX_VALUE, 1024);
+        probe.put("p", "\"e\"", product("B000"));
+        long perPayload = probe.sizeBytes();
+
+        PayloadCache cache = new PayloadCache(objectMapper, perPayload * 2 + perPayload / 2, 1024);
+        cache.put(PayloadCache.productKey("B001"), "\"v\"", product("B001"));
+        cache.put(PayloadCache.productKey("B002"), "\"v\"", product("B002"));
+        cache.get(PayloadCache.productKey("B001"), "\"v\"");
+        cache.put(PayloadCache.productKey("B003"), "\"v\"", product("B003"));
+
+        assertNotNull(cache.get(PayloadCache.productKey("B001"), "\"v\""));
+        assertNull(cache.get(PayloadCache.productKey("B002"), "\"v\""));
+        assertNotNull(cache.get(PayloadCache.productKey("B003"), "\"v\""));
+        assertTrue(cache.sizeBytes() <= perPayload * 2 + perPayload / 2);
+    }
+}
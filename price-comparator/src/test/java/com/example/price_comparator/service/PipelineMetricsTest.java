@@ -0,0 +1,45 @@
+package com.example.price_comparator.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pipeline Metrics Tests")
+public class PipelineMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PipelineMetrics metrics = new PipelineMetrics(registry);
+
+    private long recorded(String outcome) {
+        Timer timer = registry.find("comparison.stage")
+                .tag("stage", PipelineMetrics.STAGE_PERSISTENCE).tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Test
+    @DisplayName("An asynchronous stage is recorded when its future completes, with the real outcome")
+    void testTimeStageAsync() {
+        CompletableFuture<Void> write = new CompletableFuture<>();
+        CompletableFuture<Void> timed = metrics.timeStageAsync(PipelineMetrics.STAGE_PERSISTENCE, () -> write);
+        assertEquals(0, recorded(PipelineMetrics.OUTCOME_SUCCESS), "Nothing is recorded while the write is pending");
+
+        write.complete(null);
+        assertTrue(timed.isDone());
+        assertEquals(1, recorded(PipelineMetrics.OUTCOME_SUCCESS));
+
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        metrics.timeStageAsync(PipelineMetrics.STAGE_PERSISTENCE, () -> failed);
+        failed.completeExceptionally(new IllegalStateException("write rejected"));
+        assertEquals(1, recorded(PipelineMetrics.OUTCOME_ERROR));
+
+        assertThrows(IllegalArgumentException.class, () -> metrics.timeStageAsync(PipelineMetrics.STAGE_PERSISTENCE,
+                () -> { throw new IllegalArgumentException("no product id"); }));
+        assertEquals(2, recorded(PipelineMetrics.OUTCOME_ERROR));
+        assertEquals(1, recorded(PipelineMetrics.OUTCOME_SUCCESS));
+    }
+}
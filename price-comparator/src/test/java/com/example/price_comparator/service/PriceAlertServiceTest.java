@@ -0,0 +1,136 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.PriceAlert;
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.model.RetailerInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Price Alert Service Tests")
+public class PriceAlertServiceTest {
+
+    private final List<String> destinations = new ArrayList<>();
+    private final List<PriceAlert> alerts = new ArrayList<>();
+    private SimpMessagingTemplate template;
+    private BookmarkIndex bookmarkIndex;
+    private PriceHistoryStore history;
+    private PriceAlertService alertService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        template = new SimpMessagingTemplate((message, timeout) -> true) {
+            @Override
+            public void convertAndSend(String destination, Object payload) {
+                destinations.add(destination);
+                alerts.add((PriceAlert) payload);
+            }
+        };
+        bookmarkIndex = new BookmarkIndex(null);
+        history = new PriceHistoryStore(tempDir.toString(), 10, 4096, 0);
+        alertService = new PriceAlertService(bookmarkIndex, template, history);
+    }
+
+    private static ProductDocument product(String id, double... prices) {
+        ProductDocument product = new ProductDocument();
+        product.setId(id);
+        product.setName("Product " + id);
+        List<RetailerInfo> retailers = new ArrayList<>();
+        for (int i = 0; i < prices.length; i++) {
+            RetailerInfo retailer = new RetailerInfo();
+            retailer.setRetailerId("r" + i);
+            retailer.setName("Retailer " + i);
+            retailer.setCurrentPrice(prices[i]);
+            retailer.setInStock(true);
+            retailers.add(retailer);
+        }
+        product.setRetailers(retailers);
+        return product;
+    }
+
+    @Test
+    @DisplayName("A drop alerts only the product's subscribers")
+    void testDropAlertsSubscribers() {
+        bookmarkIndex.add("alice", "P1");
+        bookmarkIndex.add("bob", "P2");
+
+        alertService.evaluate(product("P1", 100.0, 120.0));
+        alertService.evaluate(product("P1", 90.0, 120.0));
+
+        assertEquals(List.of("/topic/users/alice/alerts"), destinations);
+        PriceAlert alert = alerts.get(0);
+        assertEquals(100.0, alert.getPreviousPrice());
+        assertEquals(90.0, alert.getCurrentPrice());
+        assertEquals(10.0, alert.getDropPercent(), 1e-9);
+        assertEquals("Retailer 0", alert.getRetailer());
+    }
+
+    @Test
+    @DisplayName("Rises, unchanged prices and the first observation do not alert")
+    void testNoAlertWithoutDrop() {
+        bookmarkIndex.add("alice", "P1");
+
+        alertService.evaluate(product("P1", 100.0));
+        alertService.evaluate(product("P1", 100.0));
+        alertService.evaluate(product("P1", 110.0));
+
+        assertTrue(destinations.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Target prices fire once when crossed")
+    void testTargetPrice() {
+        bookmarkIndex.load(Map.of("alice", Map.of("P1", 80.0), "bob", Map.of("P1", 0.0)));
+
+        alertService.evaluate(product("P1", 100.0));
+        alertService.evaluate(product("P1", 90.0));
+        assertEquals(List.of("/topic/users/bob/alerts"), destinations);
+
+        destinations.clear();
+        alertService.evaluate(product("P1", 79.0));
+        assertTrue(destinations.contains("/topic/users/alice/alerts"));
+
+        destinations.clear();
+        alertService.evaluate(product("P1", 75.0));
+        assertFalse(destinations.contains("/topic/users/alice/alerts"));
+    }
+
+    @Test
+    @DisplayName("The first drop after a restart is compared with the recorded history")
+    void testFirstDropAfterRestart() {
+        bookmarkIndex.add("alice", "P1");
+        ProductDocument before = product("P1", 100.0, 120.0);
+        alertService.evaluate(before);
+        history.recordOffers(before);
+        history.close();
+
+        PriceHistoryStore reopened = new PriceHistoryStore(tempDir.toString(), 10, 4096, 0);
+        PriceAlertService restarted = new PriceAlertService(bookmarkIndex, template, reopened);
+        restarted.evaluate(product("P1", 90.0, 120.0));
+
+        assertEquals(List.of("/topic/users/alice/alerts"), destinations);
+        assertEquals(100.0, alerts.get(0).getPreviousPrice());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Removing the last bookmark drops the product from the index")
+    void testRemove() {
+        bookmarkIndex.add("alice", "P1");
+        bookmarkIndex.remove("alice", "P1");
+
+        assertTrue(bookmarkIndex.getSubscribers("P1").isEmpty());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.PriceRollup;
+import com.example.price_comparator.model.PriceSample;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Price History Store Tests")
+public class PriceHistoryStoreTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long START = 1_700_000_000_000L;
+
+    @TempDir
+    Path tempDir;
+
+    private PriceHistoryStore store;
+
+    private PriceHistoryStore open() {
+        store = new PriceHistoryStore(tempDir.toString(), 10, 4096, HOUR);
+        return store;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Unchanged samples inside the minimum interval are skipped")
+    void testDeduplication() {
+        PriceHistoryStore history = open();
+
+        assertTrue(history.record("B001", "amazon", START, 10.00, true));
+        assertFalse(history.record("B001", "amazon", START + HOUR / 2, 10.00, true));
+        assertTrue(history.record("B001", "amazon", START + HOUR / 2, 9.50, true));
+        assertTrue(history.record("B001", "amazon", START + 2 * HOUR, 9.50, true));
+
+        assertEquals(3, history.query("B001", "amazon", 0, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    @DisplayName("Range queries and rollups span sealed and open chunks")
+    void testQueryAndRollup() {
+        PriceHistoryStore history = open();
+        for (int i = 0; i < 25; i++) {
+            history.record("B001", "amazon", START + i * HOUR, 100 + i, i % 4 != 0);
+        }
+        history.record("B001", "noon", START, 120.00, true);
+
+        List<PriceSample> range = history.query("B001", "amazon", START + 5 * HOUR, START + 14 * HOUR);
+        assertEquals(10, range.size());
+        assertEquals(105.0, range.get(0).getPrice());
+        assertEquals(114.0, range.get(9).getPrice());
+
+        PriceRollup rollup = history.rollup("B001", "amazon", START + 3 * HOUR, START + 22 * HOUR);
+        assertEquals(20, rollup.getCount());
+        assertEquals(103.0, rollup.getMin());
+        assertEquals(122.0, rollup.getMax());
+        assertEquals(112.5, rollup.getAvg(), 1e-9);
+        assertEquals(103.0, rollup.getFirst());
+        assertEquals(122.0, rollup.getLast());
+
+        assertEquals(List.of("amazon", "noon"), List.copyOf(history.getRetailers("B001")));
+        assertEquals(2, history.rollupAll("B001", 0, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    @DisplayName("History survives a restart, including the open chunk")
+    void testReopen() {
+        PriceHistoryStore history = open();
+        for (int i = 0; i < 25; i++) {
+            history.record("B001", "amazon", START + i * HOUR, 50 + i * 0.25, true);
+        }
+        history.close();
+        store = null;
+
+        PriceHistoryStore reopened = open();
+        List<PriceSample> samples = reopened.query("B001", "amazon", 0, Long.MAX_VALUE);
+        assertEquals(25, samples.size());
+        assertEquals(56.0, samples.get(24).getPrice());
+
+        assertTrue(reopened.record("B001", "amazon", START + 25 * HOUR, 60.0, false));
+        assertEquals(26, reopened.rollup("B001", "amazon", 0, Long.MAX_VALUE).getCount());
+    }
+
+    @Test
+    @DisplayName("A stock change at the same price is recorded right after a restart")
+    void testStockChangeAfterReopen() {
+        PriceHistoryStore history = open();
+        for (int i = 0; i < 10; i++) {
+            history.record("B001", "amazon", START + i * HOUR, 75.0 + i, true);
+        }
+        history.close();
+        store = null;
+
+        PriceHistoryStore reopened = open();
+        assertFalse(reopened.record("B001", "amazon", START + 9 * HOUR + 60_000, 84.0, true),
+                "An unchanged in-stock sample is still a duplicate");
+        assertTrue(reopened.record("B001", "amazon", START + 9 * HOUR + 60_000, 84.0, false),
+                "Going out of stock at the same price is not a duplicate");
+        assertFalse(reopened.query("B001", "amazon", 0, Long.MAX_VALUE).get(10).isInStock());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.utils.TokenBucketRateLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Price Refresh Scheduler Tests")
+public class PriceRefreshSchedulerTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private final long now = System.currentTimeMillis();
+    private final ProductCatalog catalog = new ProductCatalog();
+    private final BookmarkIndex bookmarkIndex = new BookmarkIndex(null);
+    private final ProductDemandTracker demandTracker = new ProductDemandTracker(bookmarkIndex);
+    private final List<String> fetched = Collections.synchronizedList(new ArrayList<>());
+
+    /** Records the refreshed ids and returns no data, so nothing is saved. */
+    private final AmazonApiService amazon = new AmazonApiService(new TokenBucketRateLimiter("test", 100, 100), "http://localhost", "") {
+        @Override
+        public CompletableFuture<ProductDocument> fetchProductDetails(String asin) {
+            fetched.add(asin);
+            return CompletableFuture.completedFuture(null);
+        }
+    };
+
+    private PriceRefreshScheduler scheduler(int budgetPerMinute) {
+        return scheduler(budgetPerMinute, 60_000);
+    }
+
+    private PriceRefreshScheduler scheduler(int budgetPerMinute, long tickMs) {
+        return new PriceRefreshScheduler(catalog, demandTracker, amazon, null, null, true, budgetPerMinute, tickMs, 30, 24);
+    }
+
+    private void product(String id, long checkedAgoMillis) {
+        ProductDocument product = new ProductDocument();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setLastChecked(new Date(now - checkedAgoMillis));
+        catalog.put(product);
+    }
+
+    private static List<String> ids(List<PriceRefreshScheduler.RefreshCandidate> candidates) {
+        return candidates.stream().map(c -> c.product.getId()).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Staleness relative to the target age is scaled by views, bookmarks and volatility")
+    void testPriorityScore() {
+        PriceRefreshScheduler scheduler = scheduler(6);
+        assertEquals(1.0, scheduler.priorityScore("quiet", 24 * HOUR, now), 1e-9);
+        assertEquals(0.5, scheduler.priorityScore("quiet", 12 * HOUR, now), 1e-9);
+
+        bookmarkIndex.add("u1", "saved");
+        bookmarkIndex.add("u2", "saved");
+        assertEquals(3.0, scheduler.priorityScore("saved", 24 * HOUR, now), 1e-9);
+
+        demandTracker.recordPriceObservation("moving", 100.0, 110.0);
+        assertEquals(1.0 + 20 * 0.3 * 0.1, scheduler.priorityScore("moving", 24 * HOUR, now), 1e-9);
+
+        demandTracker.recordView("viewed");
+        assertEquals(1.5, scheduler.priorityScore("viewed", 24 * HOUR, System.currentTimeMillis()), 1e-3);
+    }
+
+    @Test
+    @DisplayName("The highest scoring due products are picked up to the budget, best first")
+    void testSelectsTopCandidates() {
+        product("old", 48 * HOUR);
+        product("bookmarked", 12 * HOUR);
+        product("day", 24 * HOUR);
+        product("fresh", TimeUnit.MINUTES.toMillis(10));
+        product("attempted", 36 * HOUR);
+        for (int i = 0; i < 4; i++) {
+            bookmarkIndex.add("user" + i, "bookmarked");
+        }
+        bookmarkIndex.add("user0", "fresh");
+        demandTracker.recordRefreshAttempt("attempted", now - TimeUnit.MINUTES.toMillis(5));
+
+        assertEquals(List.of("bookmarked", "old"), ids(scheduler(2).selectCandidates(now, 2)));
+        assertEquals(List.of("bookmarked", "old", "day"), ids(scheduler(10).selectCandidates(now, 10)),
+                "Products checked or attempted within the minimum interval are never picked");
+    }
+
+    @Test
+    @DisplayName("A tick refreshes the selected products and does not retry them on the next tick")
+    void testTickRecordsAttempts() {
+        product("old", 48 * HOUR);
+        product("older", 72 * HOUR);
+        product("day", 24 * HOUR);
+        catalog.load(List.of());
+        PriceRefreshScheduler scheduler = scheduler(2);
+
+        scheduler.refreshStalestProducts();
+        assertEquals(List.of("older", "old"), fetched);
+        scheduler.refreshStalestProducts();
+        assertEquals(List.of("older", "old", "day"), fetched);
+        scheduler.refreshStalestProducts();
+        assertEquals(3, fetched.size());
+    }
+
+    @Test
+    @DisplayName("The per-minute budget is spread over the ticks, carrying the fractional remainder")
+    void testTickBudget() {
+        PriceRefreshScheduler quarterMinute = scheduler(6, 15_000);
+        List<Integer> budgets = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            budgets.add(quarterMinute.takeTickBudget());
+        }
+        assertEquals(List.of(1, 2, 1, 2, 1, 2, 1, 2), budgets, "Two minutes of ticks spend two minutes of budget");
+
+        PriceRefreshScheduler slowTicks = scheduler(1, 20_000);
+        assertEquals(List.of(0, 0, 1), List.of(slowTicks.takeTickBudget(), slowTicks.takeTickBudget(),
+                slowTicks.takeTickBudget()));
+        assertEquals(12, scheduler(6, 120_000).takeTickBudget());
+    }
+
+    @Test
+    @DisplayName("Bookmark demand is seeded from the bookmark index after a restart")
+    void testBookmarkDemandAfterRestart() {
+        bookmarkIndex.load(Map.of(
+                "u1", Map.of("B001", 0.0, "B002", 950.0),
+                "u2", Map.of("B001", 1200.0)));
+
+        assertEquals(2, demandTracker.getBookmarkCount("B001"));
+        assertEquals(1, demandTracker.getBookmarkCount("B002"));
+        assertEquals(0, demandTracker.getBookmarkCount("B003"));
+
+        bookmarkIndex.remove("u1", "B001");
+        bookmarkIndex.add("u2", "B001");
+        assertEquals(1, demandTracker.getBookmarkCount("B001"), "Repeated bookmarks by one user count once");
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.BatchGetResponse;
+import com.example.price_comparator.model.ProductDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Product Batch Service Tests")
+public class ProductBatchServiceTest {
+
+    private final ProductCatalog catalog = new ProductCatalog();
+    private final Map<String, ProductDocument> firebase = new ConcurrentHashMap<>();
+    private final Map<String, ProductDocument> amazon = new ConcurrentHashMap<>();
+    private final List<String> firebaseReads = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> saved = Collections.synchronizedList(new ArrayList<>());
+    private final List<CompletableFuture<ProductDocument>> pendingAmazon = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger amazonInFlight = new AtomicInteger();
+    private final AtomicInteger maxAmazonInFlight = new AtomicInteger();
+    private boolean holdAmazon;
+
+    private static ProductDocument product(String id) {
+        ProductDocument product = new ProductDocument();
+        product.setId(id);
+        product.setName("Product " + id);
+        return product;
+    }
+
+    private ProductBatchService service(int maxIds, int amazonConcurrency) {
+        return service(maxIds, amazonConcurrency, maxIds);
+    }
+
+    private ProductBatchService service(int maxIds, int amazonConcurrency, int maxAmazonFetches) {
+        FirebaseService firebaseService = new FirebaseService(null, catalog, 4) {
+            @Override
+            public CompletableFuture<ProductDocument> getProduct(String id) {
+                firebaseReads.add(id);
+                return CompletableFuture.completedFuture(firebase.get(id));
+            }
+        };
+        RetailerApiService amazonApiService = new RetailerApiService() {
+            @Override
+            public String getRetailerId() {
+                return "amazon";
+            }
+
+            @Override
+            public CompletableFuture<List<ProductDocument>> searchProducts(String query) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<ProductDocument> getProductDetails(String asin) {
+                maxAmazonInFlight.accumulateAndGet(amazonInFlight.incrementAndGet(), Math::max);
+                CompletableFuture<ProductDocument> result = new CompletableFuture<>();
+                if (holdAmazon) {
+                    pendingAmazon.add(result);
+                    return result;
+                }
+                amazonInFlight.decrementAndGet();
+                if (asin.startsWith("ERR")) {
+                    result.completeExceptionally(new IllegalStateException("429"));
+                } else {
+                    result.complete(amazon.get(asin));
+                }
+                return result;
+            }
+        };
+        return new ProductBatchService(firebaseService, amazonApiService, product -> saved.add(product.getId()), maxIds,
+                amazonConcurrency, maxAmazonFetches);
+    }
+
+    private static List<String> ids(BatchGetResponse response) {
+        return response.getProducts().stream().map(ProductDocument::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Ids resolve from the catalog and Firebase in request order; the rest are reported missing")
+    void testResolvesFromCatalogAndFirebase() {
+        catalog.put(product("B001"));
+        firebase.put("B002", product("B002"));
+        amazon.put("B003", product("B003"));
+
+        BatchGetResponse response = service(10, 2).getProducts(List.of("B002", "B003", " B001", "B002"), false).join();
+
+        assertEquals(List.of("B002", "B001"), ids(response));
+        assertEquals(List.of("B003"), response.getMissing());
+        assertEquals(List.of("B002", "B003"), firebaseReads, "Catalog hits are not read from Firebase");
+        assertTrue(saved.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Misses fall back to Amazon when asked, and are saved")
+    void testAmazonFallback() {
+        firebase.put("B001", product("B001"));
+        amazon.put("B002", product("B002"));
+
+        BatchGetResponse response = service(10, 2).getProducts(List.of("B002", "ERR1", "B001", "B404"), true).join();
+
+        assertEquals(List.of("B002", "B001"), ids(response));
+        assertEquals(List.of("ERR1", "B404"), response.getMissing());
+        assertEquals(List.of("B002"), saved);
+    }
+
+    @Test
+    @DisplayName("One request fetches at most the capped number of misses from Amazon")
+    void testAmazonFetchCap() {
+        List<String> requested = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            requested.add("B00" + i);
+            amazon.put("B00" + i, product("B00" + i));
+        }
+
+        BatchGetResponse response = service(10, 2, 2).getProducts(requested, true).join();
+
+        assertEquals(List.of("B000", "B001"), ids(response));
+        assertEquals(List.of("B002", "B003", "B004", "B005"), response.getMissing());
+        assertEquals(List.of("B000", "B001"), saved);
+    }
+
+    @Test
+    @DisplayName("Amazon lookups stay within the concurrency cap")
+    void testAmazonConcurrencyCap() {
+        holdAmazon = true;
+        List<String> requested = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            requested.add("B00" + i);
+            amazon.put("B00" + i, product("B00" + i));
+        }
+
+        CompletableFuture<BatchGetResponse> result = service(10, 2).getProducts(requested, true);
+        int completed = 0;
+        while (completed < pendingAmazon.size()) {
+            assertTrue(amazonInFlight.get() <= 2);
+            CompletableFuture<ProductDocument> next = pendingAmazon.get(completed);
+            amazonInFlight.decrementAndGet();
+            next.complete(amazon.get(requested.get(completed++)));
+        }
+
+        assertEquals(requested, ids(result.join()));
+        assertEquals(2, maxAmazonInFlight.get());
+    }
+
+    @Test
+    @DisplayName("Empty, oversized and malformed requests are rejected")
+    void testValidation() {
+        ProductBatchService service = service(3, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> service.getProducts(null, false));
+        assertThrows(IllegalArgumentException.class, () -> service.getProducts(List.of(), false));
+        assertThrows(IllegalArgumentException.class, () -> service.getProducts(List.of("a", "b", "c", "d"), false));
+        assertThrows(IllegalArgumentException.class, () -> service.getProducts(List.of("B001", "../users"), false));
+        assertThrows(IllegalArgumentException.class, () -> service.getProducts(Arrays.asList("B001", null), false));
+        assertEquals(List.of("a", "b", "c"), service.getProducts(List.of("a", "b", "c", "a"), false).join().getMissing());
+        assertTrue(firebaseReads.containsAll(List.of("a", "b", "c")));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.model.ProductDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Product Catalog Tests")
+public class ProductCatalogTest {
+
+    private static ProductDocument product(String id, long lastChecked) {
+        ProductDocument product = new ProductDocument();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setLastChecked(new Date(lastChecked));
+        return product;
+    }
+
+    @Test
+    @DisplayName("Saving a product changes its ETag and the catalog ETag, not other products'")
+    void testEtagsChangeOnSave() {
+        ProductCatalog catalog = new ProductCatalog();
+        assertNull(catalog.getEtag("B001"));
+        assertNull(catalog.getCatalogEtag(), "No catalog ETag before the catalog is loaded");
+
+        catalog.load(List.of(product("B001", 1_000), product("B002", 5_000)));
+        String first = catalog.getEtag("B001");
+        String other = catalog.getEtag("B002");
+        String all = catalog.getCatalogEtag();
+        assertTrue(first.startsWith("\"") && first.endsWith("\""), first);
+        assertEquals(first, catalog.getEtag("B001"), "Reads do not change the ETag");
+
+        catalog.put(product("B001", 9_000));
+        assertNotEquals(first, catalog.getEtag("B001"));
+        assertEquals(other, catalog.getEtag("B002"));
+        assertNotEquals(all, catalog.getCatalogEtag());
+        assertEquals(9_000, catalog.getLastModified("B001"));
+        assertEquals(9_000, catalog.getCatalogLastModified());
+        assertEquals(0, catalog.getLastModified("missing"));
+
+        String beforeReload = catalog.getEtag("B001");
+        catalog.load(List.of(product("B001", 1_000)));
+        assertEquals(beforeReload, catalog.getEtag("B001"), "Entries saved before a reload win");
+    }
+
+    @Test
+    @DisplayName("ETags from another process never match")
+    void testEtagsCarryProcessEpoch() throws InterruptedException {
+        ProductCatalog first = new ProductCatalog();
+        first.put(product("B001", 1_000));
+        Thread.sleep(5);
+        ProductCatalog second = new ProductCatalog();
+        second.put(product("B001", 1_000));
+
+        assertNotEquals(first.getEtag("B001"), second.getEtag("B001"));
+    }
+
+    @Test
+    @DisplayName("The first products follow Firebase key order")
+    void testFirstProductsInFirebaseKeyOrder() {
+        ProductCatalog catalog = new ProductCatalog();
+        for (String id : List.of("B0CS5XW6TN", "10", "9", "-3", "0123", "B00001", "2147483648", "A1")) {
+            catalog.put(product(id, 1_000));
+        }
+
+        List<String> ids = catalog.getFirst(20).stream().map(ProductDocument::getId).collect(Collectors.toList());
+        assertEquals(List.of("-3", "9", "10", "0123", "2147483648", "A1", "B00001", "B0CS5XW6TN"), ids);
+        assertEquals(List.of("-3", "9"),
+                catalog.getFirst(2).stream().map(ProductDocument::getId).collect(Collectors.toList()));
+
+        catalog.put(product("9", 2_000));
+        catalog.load(List.of(product("5", 1_000), product("10", 3_000)));
+        assertEquals(List.of("-3", "5", "9", "10"),
+                catalog.getFirst(4).stream().map(ProductDocument::getId).collect(Collectors.toList()),
+                "Saved and loaded products keep their place in the order without duplicates");
+    }
+
+    @Test
+    @DisplayName("Name search matches case-insensitively and orders by name, then key")
+    void testFindByName() {
+        ProductCatalog catalog = new ProductCatalog();
+        catalog.put(named("B003", "Galaxy Watch 6"));
+        catalog.put(named("B001", "Samsung Galaxy S24"));
+        catalog.put(named("B002", "Apple iPhone 15"));
+        catalog.put(named("B000", "Galaxy Watch 6"));
+        catalog.put(named("B004", null));
+
+        List<String> ids = catalog.findByName("GALAXY").stream().map(ProductDocument::getId).collect(Collectors.toList());
+        assertEquals(List.of("B000", "B003", "B001"), ids);
+        assertTrue(catalog.findByName("pixel").isEmpty());
+    }
+
+    private static ProductDocument named(String id, String name) {
+        ProductDocument product = product(id, 1_000);
+        product.setName(name);
+        return product;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.ShoppingProduct;
+import com.example.price_comparator.utils.AimdConcurrencyLimiter;
+import com.example.price_comparator.utils.CircuitBreaker;
+import com.example.price_comparator.utils.HedgingPolicy;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Product Fetch Outcome Tests")
+public class ProductFetchOutcomeTest {
+
+    private static final String PRODUCT_URL = "https://www.google.com/shopping/product/123?gl=ae";
+
+    /** Answers product fetches with a fixed body or failure instead of calling Oxylabs. */
+    private static class StubClient extends OxylabsClient {
+        String body;
+        IOException failure;
+
+        StubClient() {
+            super(DEFAULT_ENDPOINT, new CircuitBreaker("oxylabs", 20, 10, 0.5, 60_000, 30_000, 2),
+                    new AimdConcurrencyLimiter("oxylabs", 8, 1, 16, 30_000, 0.7),
+                    new HedgingPolicy(false, 0.95, 100, 20, 20, 0.1), new PipelineMetrics(),
+                    new SimpleMeterRegistry(), 30_000, 1);
+        }
+
+        @Override
+        public String executeForBodyHedged(String payload, String username, String password, Timeouts timeouts,
+                                           Priority priority, String stage, BooleanSupplier hedgePermit) throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            return body;
+        }
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StubClient client = new StubClient();
+    private final OxylabsShoppingScraper scraper =
+            new OxylabsShoppingScraper(new PipelineMetrics(registry), OxylabsQuotaManager.unlimited(), client);
+
+    @AfterEach
+    void shutdown() {
+        client.shutdown();
+    }
+
+    private ShoppingProduct enhance() throws Exception {
+        ShoppingProduct product = new ShoppingProduct();
+        product.setTitle("Samsung Galaxy S24");
+        product.setProductLink(PRODUCT_URL);
+        OxylabsQuotaManager quota = OxylabsQuotaManager.unlimited();
+        return scraper.enhanceProductWithDetailedSpecs(product, "user", "pass", quota.startComparison("test"));
+    }
+
+    private long recorded(String outcome) {
+        Timer timer = registry.find("comparison.stage")
+                .tag("stage", PipelineMetrics.STAGE_PRODUCT_FETCH).tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Test
+    @DisplayName("A fetched product page is recorded as a success")
+    void testSuccess() throws Exception {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("replay/google_shopping_product/default.json")) {
+            client.body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        ShoppingProduct product = enhance();
+
+        assertFalse(product.getSpecifications().isEmpty());
+        assertEquals(1, recorded(PipelineMetrics.OUTCOME_SUCCESS));
+    }
+
+    @Test
+    @DisplayName("Failed, empty and refused fetches keep the original product and are not recorded as successes")
+    void testFallbacks() throws Exception {
+        client.failure = new IOException("HTTP 502");
+        assertNull(enhance().getSpecifications());
+        assertEquals(1, recorded(PipelineMetrics.OUTCOME_ERROR));
+
+        client.failure = null;
+        client.body = "{\"results\": []}";
+        assertNull(enhance().getSpecifications());
+        assertEquals(1, recorded("no_results"));
+
+        client.failure = new OxylabsClient.OxylabsUnavailableException("Circuit open");
+        assertNull(enhance().getSpecifications());
+        assertEquals(1, recorded("skipped"));
+
+        assertEquals(0, recorded(PipelineMetrics.OUTCOME_SUCCESS));
+    }
+}
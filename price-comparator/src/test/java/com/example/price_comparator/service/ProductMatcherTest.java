@@ -0,0 +1,44 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.dto.ShoppingProduct;
+import com.example.price_comparator.model.ProductDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Product Matcher Tests")
+public class ProductMatcherTest {
+
+    @Test
+    @DisplayName("Offer URLs lose www, tracking parameters and retailer-specific path noise")
+    void testNormalizeUrl() {
+        assertEquals("https://noon.com/uae-en/galaxy-s24/N70035124V/p?o=abc",
+                ProductMatcher.normalizeUrl("https://www.noon.com/uae-en/galaxy-s24/N70035124V/p/?utm_source=google&o=abc"));
+        assertEquals("https://amazon.ae/dp/B0CS5XW6TN?keywords=s24",
+                ProductMatcher.normalizeUrl("https://www.amazon.ae/Samsung-Galaxy/dp/B0CS5XW6TN/ref=sr_1_1?keywords=s24&tag=x"));
+        assertEquals("https://sharafdg.com/product/s24", ProductMatcher.normalizeUrl("HTTPS://WWW.SharafDG.com/product/s24/"));
+        assertEquals("not a url", ProductMatcher.normalizeUrl("not a url"));
+        assertNull(ProductMatcher.normalizeUrl(null));
+    }
+
+    @Test
+    @DisplayName("Retailer names from different sources normalize to one key")
+    void testNormalizeRetailerName() {
+        assertEquals("amazon", ProductMatcher.normalizeRetailerName("Amazon.ae"));
+        assertEquals("noon", ProductMatcher.normalizeRetailerName("noon.com"));
+        assertEquals(ProductMatcher.normalizeRetailerName("SharafDG"), ProductMatcher.normalizeRetailerName("Sharaf DG"));
+    }
+
+    @Test
+    @DisplayName("Offers without a title never match")
+    void testIsMatchNeedsTitle() {
+        ProductDocument product = new ProductDocument();
+        product.setName("Samsung Galaxy S24 5G 256GB 8GB RAM Onyx Black");
+        ShoppingProduct untitled = new ShoppingProduct();
+
+        assertFalse(ProductMatcher.isMatch(product, untitled));
+        assertFalse(ProductMatcher.isMatch(null, untitled));
+        assertFalse(ProductMatcher.isMatch(product, null));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.model.ProductDocument;
+import com.example.price_comparator.model.RetailerInfo;
+import com.example.price_comparator.model.SpecificationInfo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Product Projector Tests")
+public class ProductProjectorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ProductProjector projector = new ProductProjector(objectMapper);
+
+    private static ProductDocument product(String id) {
+        ProductDocument product = new ProductDocument();
+        product.setId(id);
+        product.setName("Samsung Galaxy S24 Ultra");
+        product.setBrand("Samsung");
+        product.setImageUrl("https://m.media-amazon.com/s24.jpg");
+        product.setRating(4.6);
+        product.setReviews(1234);
+        product.setPrice("AED 4,299.00");
+        product.setCurrency("AED");
+        product.setDescription("Galaxy AI is here. ".repeat(60));
+        product.setAbout(new ArrayList<>(Collections.nCopies(12, "200MP camera with 100x Space Zoom")));
+        product.setPhotos(List.of("a.jpg", "b.jpg", "c.jpg"));
+        product.setProductInformation(Map.of("Brand", "Samsung", "Item Weight", "233 g"));
+        product.setSpecifications(List.of(new SpecificationInfo("Brand", "Samsung"), new SpecificationInfo("RAM", "12 GB")));
+        product.setRetailers(new ArrayList<>(List.of(
+                new RetailerInfo("amazon", "Amazon.ae", "logo.svg", 4299.0, true, true, 0, "https://amazon.ae/x"),
+                new RetailerInfo("noon", "Noon", null, 4199.5, false, false, 15.0, "https://noon.com/x"))));
+        product.setLastChecked(new Date(1_700_000_000_000L));
+        return product;
+    }
+
+    @Test
+    @DisplayName("The detail view is the full document, exactly as Jackson writes it")
+    void testDetailViewIsFullDocument() throws IOException {
+        List<ProductDocument> products = List.of(product("B001"), product("B002"));
+        byte[] expected = objectMapper.writeValueAsBytes(products);
+
+        assertArrayEquals(expected, projector.resolve(null, null).write(products));
+        assertArrayEquals(expected, projector.resolve("detail", null).write(products));
+        assertArrayEquals(expected, projector.resolve(" DETAIL ", "").write(products));
+    }
+
+    @Test
+    @DisplayName("The card view keeps card fields and only the cheapest retailer")
+    void testCardView() throws IOException {
+        List<ProductDocument> products = List.of(product("B001"));
+        byte[] full = projector.resolve(null, null).write(products);
+        byte[] card = projector.resolve("card", null).write(products);
+
+        JsonNode node = objectMapper.readTree(card).get(0);
+        Set<String> names = new HashSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        assertEquals(ProductProjector.CARD_FIELDS, names);
+        assertEquals(1, node.get("retailers").size());
+        assertEquals("noon", node.get("retailers").get(0).get("retailerId").asText());
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(product("B001").getRetailers().get(1))),
+                node.get("retailers").get(0));
+        assertTrue(card.length * 5 < full.length, "Card payload " + card.length + " vs full " + full.length);
+        assertEquals(2, products.get(0).getRetailers().size(), "The document itself is not modified");
+
+        ProductDocument noRetailers = product("B002");
+        noRetailers.setRetailers(null);
+        assertEquals(0, objectMapper.readTree(projector.resolve("card", null).write(List.of(noRetailers)))
+                .get(0).get("retailers").size());
+    }
+
+    @Test
+    @DisplayName("An explicit field list always includes the id and rejects unknown names")
+    void testFieldList() throws IOException {
+        JsonNode node = objectMapper.readTree(projector.resolve("card", "name, photos,").write(List.of(product("B001")))).get(0);
+        Set<String> names = new HashSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        assertEquals(Set.of("id", "name", "photos"), names);
+        assertEquals(3, node.get("photos").size());
+
+        assertTrue(projector.getPropertyNames().containsAll(Set.of("description", "specifications", "lastChecked")));
+        assertThrows(IllegalArgumentException.class, () -> projector.resolve(null, "name,secret"));
+        assertThrows(IllegalArgumentException.class, () -> projector.resolve("thumbnail", null));
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.price_comparator.service;
+
+import com.example.price_comparator.model.SpecificationInfo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Specification Extractor Tests")
+public class SpecificationExtractorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static SpecificationInfo spec(String name, String value) {
+        return new SpecificationInfo(name, value);
+    }
+
+    private JsonNode recorded(String path) throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(path)) {
+            assertNotNull(in, "Missing fixture " + path);
+            return objectMapper.readTree(in);
+        }
+    }
+
+    @Test
+    @DisplayName("Recorded Amazon and Google Shopping texts yield the expected specs")
+    void testRecordedResponses() throws IOException {
+        JsonNode amazon = recorded("replay/amazon_product_details/default.json").path("data");
+        List<String> about = new ArrayList<>();
+        amazon.path("about_product").forEach(line -> about.add(line.asText()));
+        assertEquals(List.of(spec("Display Size", "6.2 inches"), spec("Camera", "50MP")),
+                SpecificationExtractor.parseText(String.join("\n", about)));
+        assertEquals(List.of(spec("RAM", "256GB"), spec("RAM", "8GB")),
+                SpecificationExtractor.technicalSpecifications(amazon.path("product_title").asText()));
+
+        JsonNode google = recorded("replay/google_shopping_product/default.json")
+                .path("results").path(0).path("content").path("results");
+        assertEquals(List.of(spec("Display Size", "6.2 inches"), spec("Camera", "50MP")),
+                SpecificationExtractor.technicalSpecifications(google.path("description").asText()));
+    }
+
+    @Test
+    @DisplayName("Key-value lines, bullets and inline technical terms are parsed")
+    void testParseText() {
+        assertEquals(List.of(spec("Display", "6.8-inch Dynamic AMOLED 2X"), spec("Processor", "Snapdragon 8 Gen 3"),
+                        spec("Storage", "256GB")),
+                SpecificationExtractor.parseText("Display: 6.8-inch Dynamic AMOLED 2X\nProcessor: Snapdragon 8 Gen 3\nStorage: 256GB"));
+        assertEquals(List.of(spec("Camera", "200MP Main"), spec("Battery", "5000mAh"), spec("Connectivity", "Bluetooth 5.3"),
+                        spec("Wi-Fi", "Wi-Fi 7")),
+                SpecificationExtractor.parseText("\u2022 200MP main camera with 5x telephoto\r\n\u2022 5000mAh battery\r\n"
+                        + "\u2022 Wi-Fi 7 and Bluetooth 5.3"));
+        assertEquals(List.of(spec("Battery Life", "18 hours"), spec("Display Size", "13.6 inches"), spec("Storage", "8GB")),
+                SpecificationExtractor.parseText("Up to 18 hours battery life; 13.6 inch Liquid Retina display; 8GB unified memory"));
+        assertEquals(List.of(spec("Screen Size", "6.1 inches"), spec("Display Size", "6.1 inches")),
+                SpecificationExtractor.parseText("screen_size - 6.1 inches"));
+        assertEquals(List.of(spec("Feature", "Lightweight aluminium design"), spec("Storage", "1TB")),
+                SpecificationExtractor.parseText("- Lightweight aluminium design\n* 1TB SSD storage\n-Fast"));
+        assertEquals(List.of(spec("Storage", "512GB")), SpecificationExtractor.parseText("12 GB RAM\n512 GB storage"));
+        assertEquals(List.of(spec("Battery Life", "20 hours")), SpecificationExtractor.parseText("Battery\n20 hours of battery"));
+        assertEquals(List.of(spec("This Is Camel Case And Snake", "mixed KEY")),
+                SpecificationExtractor.parseText("thisIsCamelCase_and_snake: mixed KEY"));
+    }
+
+    @Test
+    @DisplayName("Text without a usable key, value or technical term yields nothing")
+    void testParseTextWithoutSpecs() {
+        for (String text : List.of("A line that mentions 256GB but nothing else about it",
+                "Camera 50MP ultra wide\u0085second line 2TB memory", "   ", "Key:", ":value only")) {
+            assertEquals(List.of(), SpecificationExtractor.parseText(text), text);
+        }
+    }
+
+    @Test
+    @DisplayName("Technical terms are recognised inline, including run-together forms")
+    void testTechnicalSpecifications() {
+        assertEquals(List.of(spec("RAM", "16GB"), spec("RAM", "16GB"), spec("Wi-Fi", "Wi-Fi 6e")),
+                SpecificationExtractor.technicalSpecifications("wifi6e ready, 16gbram"));
+        assertEquals(List.of(spec("Connectivity", "Bluetooth 5")),
+                SpecificationExtractor.technicalSpecifications("Bluetooth version unknown; wi-fi direct; bluetooth5"));
+        assertEquals(List.of(spec("Display Size", "13.6 inches"), spec("Storage", "8GB"), spec("Battery Life", "18 hours")),
+                SpecificationExtractor.technicalSpecifications(
+                        "Up to 18 hours battery life; 13.6 inch Liquid Retina display; 8GB unified memory"));
+        assertEquals(List.of(), SpecificationExtractor.technicalSpecifications("- Lightweight aluminium design\n* 1TB SSD storage"));
+    }
+
+    @Test
+    @DisplayName("Keys are split on separators and camel case, then title-cased")
+    void testNormalizeKey() {
+        assertEquals("Screen Size - 6.1 Inches", SpecificationExtractor.normalizeKey("screen_size - 6.1 inches"));
+        assertEquals("This Is Camel Case And Snake: Mixed Key",
+                SpecificationExtractor.normalizeKey("thisIsCamelCase_and_snake: mixed KEY"));
+        assertEquals("Wifi6e Ready, 16gbram", SpecificationExtractor.normalizeKey("wifi6e ready, 16gbram"));
+        assertEquals("", SpecificationExtractor.normalizeKey("   "));
+    }
+
+    @Test
+    @DisplayName("Keywords are grouped into materials, features, design and technical details")
+    void testGroupKeywords() {
+        assertEquals(List.of(spec("Materials", "Leather upper"),
+                        spec("Features", "Lace-up closure, Two\nlines 3, Water resistant"),
+                        spec("Design", "Matte finish"),
+                        spec("Technical Details", "Fast processor, Size 42")),
+                SpecificationExtractor.groupKeywords(List.of("Leather upper", "Lace-up closure", "Matte finish",
+                        "Fast processor", "Size 42", "Two\nlines 3", "Water resistant")));
+        assertEquals(List.of(spec("Features", "Aluminium frame"), spec("Design", "Slim design"),
+                        spec("Technical Details", "6.2 inch FHD+ display, 50MP triple camera")),
+                SpecificationExtractor.groupKeywords(List.of("6.2 inch FHD+ display", "50MP triple camera",
+                        "Aluminium frame", "Slim design")));
+    }
+
+    @Test
+    @DisplayName("Duplicates are matched on the canonical key; merging prefers detailed specs")
+    void testDeduplicationAndMerge() {
+        List<SpecificationInfo> specs = List.of(spec("Screen-Size", "6.8 inches"), spec("screen size", "6.8"),
+                spec(null, "no name"), spec(null, "no name"), spec("RAM", "8 GB"),
+                spec("Storage Capacity", "256 GB"), spec("storage_capacity", "256GB"));
+        assertEquals(List.of(spec("Screen-Size", "6.8 inches"), spec(null, "no name"), spec(null, "no name"),
+                        spec("RAM", "8 GB"), spec("Storage Capacity", "256 GB")),
+                SpecificationExtractor.deduplicate(specs));
+
+        List<SpecificationInfo> detailed = List.of(spec("ram", "8 GB"), spec("Color", "Onyx Black"));
+        assertEquals(List.of(spec("ram", "8 GB"), spec("Color", "Onyx Black"), spec("Brand", "Samsung")),
+                SpecificationExtractor.merge(List.of(spec("Brand", "Samsung"), spec("RAM", "8GB")), detailed));
+        assertEquals(detailed, SpecificationExtractor.merge(null, detailed));
+    }
+
+    @Test
+    @DisplayName("A longer duplicate replaces the earlier spec and moves to the end")
+    void testDeduplicationKeepsLongerValue() {
+        List<SpecificationInfo> unique = SpecificationExtractor.deduplicate(List.of(
+                new SpecificationInfo("Screen Size", "6.8"),
+                new SpecificationInfo("Brand", "Samsung"),
+                new SpecificationInfo("screen_size", "6.8 inches"),
+                new SpecificationInfo("Brand", "LG")));
+
+        assertEquals(List.of(new SpecificationInfo("Brand", "Samsung"), new SpecificationInfo("screen_size", "6.8 inches")),
+                unique);
+    }
+}
@@ -0,0 +1,365 @@
+package com.example.price_comparator.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Oxylabs realtime API and the RapidAPI Amazon endpoints.
+ *
+ * Responses are replayed from {@code <fixtureDir>/<source>/<key>.json}, where source is
+ * {@code google_shopping_search}, {@code google_shopping_product}, {@code amazon_search}
+ * or {@code amazon_product_details} and key is a slug of the query, URL or ASIN; a
+ * source's {@code default.json} answers any other key. Each source can be given a
+ * log-normal latency profile and an error rate. In record mode, misses are forwarded to
+ * the real upstream and successful responses are saved as new fixtures.
+ *
+ * Point the application at it with the {@code replay} profile, or run it standalone:
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.price_comparator.stub.ReplayStubServer \
+ *     -Dexec.args="--port=8089 --median-ms=2000 --p99-ms=15000 --error-rate=0.02"
+ * </pre>
+ */
+public class ReplayStubServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayStubServer.class);
+
+    public static final String OXYLABS_PATH = "/v1/queries";
+    public static final String SOURCE_SHOPPING_SEARCH = "google_shopping_search";
+    public static final String SOURCE_SHOPPING_PRODUCT = "google_shopping_product";
+    public static final String SOURCE_AMAZON_SEARCH = "amazon_search";
+    public static final String SOURCE_AMAZON_DETAILS = "amazon_product_details";
+    public static final Path DEFAULT_FIXTURE_DIR = Paths.get("src", "test", "resources", "replay");
+
+    private static final String DEFAULT_KEY = "default";
+    private static final int MAX_KEY_LENGTH = 80;
+
+    /** Latency and failure behaviour of one source. */
+    public static final class Profile {
+        public static final Profile NONE = new Profile(0, 0, 0.0, 503);
+
+        private static final double Z_99 = 2.3263;
+
+        private final long medianMillis;
+        private final double sigma;
+        private final double errorRate;
+        private final int errorStatus;
+
+        /**
+         * Latency is log-normal with the given median and p99; {@code errorRate} of
+         * requests are answered with {@code errorStatus} after the same delay.
+         */
+        public Profile(long medianMillis, long p99Millis, double errorRate, int errorStatus) {
+            if (p99Millis < medianMillis) {
+                throw new IllegalArgumentException("p99 must not be below the median");
+            }
+            this.medianMillis = medianMillis;
+            this.sigma = medianMillis > 0 ? Math.log((double) p99Millis / medianMillis) / Z_99 : 0.0;
+            this.errorRate = errorRate;
+            this.errorStatus = errorStatus;
+        }
+
+        long sampleDelayMillis() {
+            if (medianMillis <= 0) {
+                return 0;
+            }
+            return Math.round(medianMillis * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+
+        boolean shouldFail() {
+            return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient upstreamClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+    private final Path fixtureDir;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Profile> profiles = new ConcurrentHashMap<>();
+    private volatile Profile defaultProfile = Profile.NONE;
+    private volatile String oxylabsUpstream;
+    private volatile String rapidApiUpstream;
+
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param port port to listen on, or 0 for any free port
+     */
+    public ReplayStubServer(int port, Path fixtureDir) throws IOException {
+        this.fixtureDir = fixtureDir;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext(OXYLABS_PATH, this::handleOxylabs);
+        server.createContext("/search", exchange -> handleRapidApi(exchange, SOURCE_AMAZON_SEARCH, "query"));
+        server.createContext("/product-details", exchange -> handleRapidApi(exchange, SOURCE_AMAZON_DETAILS, "asin"));
+        server.setExecutor(executor);
+    }
+
+    public ReplayStubServer withProfile(String source, Profile profile) {
+        profiles.put(source, profile);
+        return this;
+    }
+
+    public ReplayStubServer withDefaultProfile(Profile profile) {
+        this.defaultProfile = profile;
+        return this;
+    }
+
+    /**
+     * Enables record mode: fixture misses are forwarded to these upstreams (either may be null).
+     */
+    public ReplayStubServer recordingFrom(String oxylabsEndpoint, String rapidApiBaseUrl) {
+        this.oxylabsUpstream = oxylabsEndpoint;
+        this.rapidApiUpstream = rapidApiBaseUrl;
+        return this;
+    }
+
+    public ReplayStubServer start() {
+        server.start();
+        logger.info("REPLAY STUB SERVER listening on {} (fixtures: {}, recording: {})", getBaseUrl(),
+                fixtureDir.toAbsolutePath(), oxylabsUpstream != null || rapidApiUpstream != null);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        logger.info("REPLAY STUB SERVER stopped - replayed: {}, recorded: {}, injected errors: {}, misses: {}",
+                replayed.get(), recorded.get(), injectedErrors.get(), misses.get());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + getPort();
+    }
+
+    /** Value for {@code oxylabs.endpoint}. */
+    public String getOxylabsEndpoint() {
+        return getBaseUrl() + OXYLABS_PATH;
+    }
+
+    /** Value for {@code rapidapi.base-url}. */
+    public String getRapidApiBaseUrl() {
+        return getBaseUrl();
+    }
+
+    public long getReplayed() {
+        return replayed.get();
+    }
+
+    public long getRecorded() {
+        return recorded.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private void handleOxylabs(HttpExchange exchange) throws IOException {
+        byte[] payload = readAll(exchange.getRequestBody());
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            respond(exchange, 405, "{\"message\":\"POST only\"}");
+            return;
+        }
+        JsonNode request = objectMapper.readTree(payload);
+        String source = request.path("source").asText("");
+        String key = SOURCE_SHOPPING_PRODUCT.equals(source)
+                ? request.path("url").asText("")
+                : request.path("query").asText("");
+
+        serve(exchange, source, key, () -> HttpRequest.newBuilder(URI.create(oxylabsUpstream))
+                .header("Content-Type", "application/json")
+                .header("Authorization", headerOrEmpty(exchange, "Authorization"))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload))
+                .build(), oxylabsUpstream != null);
+    }
+
+    private void handleRapidApi(HttpExchange exchange, String source, String keyParam) throws IOException {
+        readAll(exchange.getRequestBody());
+        URI uri = exchange.getRequestURI();
+        String key = queryParams(uri.getRawQuery()).getOrDefault(keyParam, "");
+
+        serve(exchange, source, key, () -> HttpRequest.newBuilder(URI.create(rapidApiUpstream + uri.getPath()
+                        + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "")))
+                .header("x-rapidapi-key", headerOrEmpty(exchange, "x-rapidapi-key"))
+                .header("x-rapidapi-host", headerOrEmpty(exchange, "x-rapidapi-host"))
+                .GET()
+                .build(), rapidApiUpstream != null);
+    }
+
+    private interface UpstreamRequest {
+        HttpRequest build();
+    }
+
+    private void serve(HttpExchange exchange, String source, String key, UpstreamRequest upstream,
+                       boolean recording) throws IOException {
+        Profile profile = profiles.getOrDefault(source, defaultProfile);
+        sleep(profile.sampleDelayMillis());
+        if (profile.shouldFail()) {
+            injectedErrors.incrementAndGet();
+            respond(exchange, profile.errorStatus, "{\"message\":\"Injected failure\"}");
+            return;
+        }
+
+        Path exact = fixtureDir.resolve(source).resolve(slug(key) + ".json");
+        if (Files.isRegularFile(exact)) {
+            replayed.incrementAndGet();
+            respond(exchange, 200, Files.readString(exact));
+            return;
+        }
+        if (recording) {
+            record(exchange, upstream.build(), exact);
+            return;
+        }
+        Path fallback = fixtureDir.resolve(source).resolve(DEFAULT_KEY + ".json");
+        if (Files.isRegularFile(fallback)) {
+            replayed.incrementAndGet();
+            respond(exchange, 200, Files.readString(fallback));
+            return;
+        }
+        misses.incrementAndGet();
+        logger.warn("REPLAY MISS - no fixture for {} '{}'", source, key);
+        respond(exchange, 404, "{\"message\":\"No fixture for " + source + "\"}");
+    }
+
+    private void record(HttpExchange exchange, HttpRequest request, Path target) throws IOException {
+        try {
+            HttpResponse<String> response = upstreamClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                Files.createDirectories(target.getParent());
+                Files.writeString(target, response.body());
+                recorded.incrementAndGet();
+                logger.info("REPLAY RECORDED - {}", fixtureDir.relativize(target));
+            }
+            respond(exchange, response.statusCode(), response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "{\"message\":\"Interrupted\"}");
+        }
+    }
+
+    /**
+     * File-name-safe form of a lookup key; long keys keep a prefix plus a hash.
+     */
+    static String slug(String key) {
+        String slug = key.toLowerCase().replaceAll("[^a-z0-9]+", "-").replaceAll("^-+|-+$", "");
+        if (slug.isEmpty()) {
+            return DEFAULT_KEY;
+        }
+        if (slug.length() > MAX_KEY_LENGTH) {
+            slug = slug.substring(0, MAX_KEY_LENGTH) + "-" + Integer.toHexString(key.hashCode());
+        }
+        return slug;
+    }
+
+    private static Map<String, String> queryParams(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static String headerOrEmpty(HttpExchange exchange, String name) {
+        String value = exchange.getRequestHeaders().getFirst(name);
+        return value != null ? value : "";
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Options: --port, --dir, --median-ms, --p99-ms, --error-rate, --error-status,
+     * --record-oxylabs=&lt;endpoint&gt;, --record-rapidapi=&lt;base url&gt;.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        long median = Long.parseLong(options.getOrDefault("median-ms", "0"));
+        Profile profile = new Profile(median,
+                Long.parseLong(options.getOrDefault("p99-ms", String.valueOf(median))),
+                Double.parseDouble(options.getOrDefault("error-rate", "0")),
+                Integer.parseInt(options.getOrDefault("error-status", "503")));
+
+        ReplayStubServer stub = new ReplayStubServer(Integer.parseInt(options.getOrDefault("port", "8089")),
+                Paths.get(options.getOrDefault("dir", DEFAULT_FIXTURE_DIR.toString())))
+                .withDefaultProfile(profile)
+                .recordingFrom(options.get("record-oxylabs"), options.get("record-rapidapi"))
+                .start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        Thread.currentThread().join();
+    }
+}
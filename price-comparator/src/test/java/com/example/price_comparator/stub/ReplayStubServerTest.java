@@ -0,0 +1,118 @@
+package com.example.price_comparator.stub;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Replay Stub Server Tests")
+public class ReplayStubServerTest {
+
+    @TempDir
+    Path fixtures;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<ReplayStubServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(ReplayStubServer::close);
+    }
+
+    private ReplayStubServer start(ReplayStubServer server) {
+        servers.add(server);
+        return server.start();
+    }
+
+    private void fixture(String source, String key, String body) throws IOException {
+        Files.createDirectories(fixtures.resolve(source));
+        Files.writeString(fixtures.resolve(source).resolve(key + ".json"), body);
+    }
+
+    private HttpResponse<String> search(ReplayStubServer stub, String query) throws Exception {
+        String payload = "{\"source\":\"google_shopping_search\",\"query\":\"" + query + "\",\"parse\":true}";
+        return client.send(HttpRequest.newBuilder(URI.create(stub.getOxylabsEndpoint()))
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("Exact fixtures win over the source default")
+    void testReplaysExactThenDefault() throws Exception {
+        fixture(ReplayStubServer.SOURCE_SHOPPING_SEARCH, "iphone-15-pro", "{\"exact\":true}");
+        fixture(ReplayStubServer.SOURCE_SHOPPING_SEARCH, "default", "{\"exact\":false}");
+        fixture(ReplayStubServer.SOURCE_AMAZON_DETAILS, "b0cs5xw6tn", "{\"asin\":\"B0CS5XW6TN\"}");
+        ReplayStubServer stub = start(new ReplayStubServer(0, fixtures));
+
+        assertEquals("{\"exact\":true}", search(stub, "iPhone 15 Pro").body());
+        assertEquals("{\"exact\":false}", search(stub, "anything else").body());
+
+        HttpResponse<String> details = client.send(HttpRequest.newBuilder(
+                URI.create(stub.getRapidApiBaseUrl() + "/product-details?asin=B0CS5XW6TN&country=AE")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, details.statusCode());
+        assertEquals("{\"asin\":\"B0CS5XW6TN\"}", details.body());
+        assertEquals(3L, stub.getReplayed());
+    }
+
+    @Test
+    @DisplayName("Missing fixtures return 404 when not recording")
+    void testMiss() throws Exception {
+        ReplayStubServer stub = start(new ReplayStubServer(0, fixtures));
+
+        assertEquals(404, search(stub, "unknown").statusCode());
+        assertEquals(1L, stub.getMisses());
+    }
+
+    @Test
+    @DisplayName("Latency and error injection follow the source profile")
+    void testProfile() throws Exception {
+        fixture(ReplayStubServer.SOURCE_SHOPPING_SEARCH, "default", "{}");
+        ReplayStubServer stub = start(new ReplayStubServer(0, fixtures)
+                .withProfile(ReplayStubServer.SOURCE_SHOPPING_SEARCH, new ReplayStubServer.Profile(100, 100, 1.0, 429)));
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = search(stub, "slow");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(429, response.statusCode());
+        assertTrue(elapsedMillis >= 90, "Expected injected latency, took " + elapsedMillis + "ms");
+        assertEquals(1L, stub.getInjectedErrors());
+    }
+
+    @Test
+    @DisplayName("Record mode saves upstream responses as fixtures")
+    void testRecordMode() throws Exception {
+        Path upstreamFixtures = Files.createDirectories(fixtures.resolve("upstream"));
+        Path recorded = Files.createDirectories(fixtures.resolve("recorded"));
+        Files.createDirectories(upstreamFixtures.resolve(ReplayStubServer.SOURCE_SHOPPING_SEARCH));
+        Files.writeString(upstreamFixtures.resolve(ReplayStubServer.SOURCE_SHOPPING_SEARCH).resolve("default.json"),
+                "{\"from\":\"upstream\"}");
+
+        ReplayStubServer upstream = start(new ReplayStubServer(0, upstreamFixtures));
+        ReplayStubServer recorder = start(new ReplayStubServer(0, recorded)
+                .recordingFrom(upstream.getOxylabsEndpoint(), null));
+
+        assertEquals("{\"from\":\"upstream\"}", search(recorder, "Galaxy S24").body());
+        assertEquals(1L, recorder.getRecorded());
+        assertEquals("{\"from\":\"upstream\"}", Files.readString(
+                recorded.resolve(ReplayStubServer.SOURCE_SHOPPING_SEARCH).resolve("galaxy-s24.json")));
+
+        // Second call replays the saved fixture without contacting upstream
+        search(recorder, "Galaxy S24");
+        assertEquals(1L, upstream.getReplayed());
+        assertEquals(1L, recorder.getReplayed());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.price_comparator.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Aho-Corasick Tests")
+public class AhoCorasickTest {
+
+    @Test
+    @DisplayName("Reports overlapping and nested keywords")
+    void testOverlappingKeywords() {
+        AhoCorasick automaton = new AhoCorasick("he", "she", "his", "hers", "ram", "gb");
+
+        assertEquals(0b1011L, automaton.matchMask("ushers"), "she, he and hers all end inside 'ushers'");
+        assertEquals(0b0100L, automaton.matchMask("this"));
+        assertEquals(0b110000L, automaton.matchMask("8gb ram"));
+        assertEquals(0L, automaton.matchMask("NOTHING IN CAPS: HE"));
+        assertEquals(0L, automaton.matchMask(""));
+    }
+
+    @Test
+    @DisplayName("Agrees with String.contains on random text")
+    void testAgreesWithContains() {
+        String[] keywords = {"ab", "abc", "bca", "c", "aab", "cab", "bb", " "};
+        AhoCorasick automaton = new AhoCorasick(keywords);
+        Random random = new Random(7);
+        String alphabet = "abcx ";
+
+        for (int round = 0; round < 2_000; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            long expected = 0;
+            for (int k = 0; k < keywords.length; k++) {
+                if (text.indexOf(keywords[k]) >= 0) {
+                    expected |= 1L << k;
+                }
+            }
+            assertEquals(expected, automaton.matchMask(text), "Text: " + text);
+        }
+    }
+
+    @Test
+    @DisplayName("Rejects empty keywords and more than 64 keywords")
+    void testRejectsInvalidKeywords() {
+        assertThrows(IllegalArgumentException.class, () -> new AhoCorasick("ok", ""));
+        assertThrows(IllegalArgumentException.class, () -> new AhoCorasick(new String[65]));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.price_comparator.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AIMD Concurrency Limiter Tests")
+public class AimdConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    private AimdConcurrencyLimiter limiter(int initialLimit) {
+        return new AimdConcurrencyLimiter("test", initialLimit, 1, 8, 1_000, 0.5);
+    }
+
+    @Test
+    @DisplayName("Calls beyond the limit are refused")
+    void testLimitIsEnforced() {
+        AimdConcurrencyLimiter limiter = limiter(2);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1L, limiter.getRejected());
+
+        limiter.onIgnore();
+        assertEquals(1, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Slow calls and failures shrink the limit, never below the minimum")
+    void testMultiplicativeDecrease() {
+        AimdConcurrencyLimiter limiter = limiter(8);
+        limiter.tryAcquire();
+        limiter.onSuccess(SLOW);
+        assertEquals(4, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.onFailure();
+        assertEquals(2, limiter.getLimit());
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.onFailure();
+        }
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Fast calls at full utilisation grow the limit by about one per round")
+    void testAdditiveIncrease() {
+        AimdConcurrencyLimiter limiter = limiter(2);
+        for (int round = 0; round < 2; round++) {
+            int limit = limiter.getLimit();
+            for (int i = 0; i < limit; i++) {
+                assertTrue(limiter.tryAcquire());
+            }
+            for (int i = 0; i < limit; i++) {
+                limiter.onSuccess(FAST);
+            }
+        }
+        assertTrue(limiter.getLimit() > 2, "Limit should have grown, was " + limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
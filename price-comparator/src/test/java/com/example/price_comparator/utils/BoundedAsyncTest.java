@@ -0,0 +1,73 @@
+package com.example.price_comparator.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bounded Async Tests")
+public class BoundedAsyncTest {
+
+    @Test
+    @DisplayName("Never exceeds the concurrency limit and runs every task")
+    void testConcurrencyLimit() {
+        List<Integer> items = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<Integer> seen = new CopyOnWriteArrayList<>();
+
+        BoundedAsync.forEach(items, 4, item -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            return CompletableFuture.runAsync(() -> {
+                seen.add(item);
+                inFlight.decrementAndGet();
+            }, CompletableFuture.delayedExecutor(2, TimeUnit.MILLISECONDS));
+        }).join();
+
+        assertEquals(50, seen.size());
+        assertTrue(maxInFlight.get() <= 4, "max in flight was " + maxInFlight.get());
+    }
+
+    @Test
+    @DisplayName("Synchronous completions do not recurse")
+    void testSynchronousTasks() {
+        List<Integer> items = IntStream.range(0, 100_000).boxed().collect(Collectors.toList());
+        AtomicInteger count = new AtomicInteger();
+
+        BoundedAsync.forEach(items, 8, item -> {
+            count.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }).join();
+
+        assertEquals(100_000, count.get());
+    }
+
+    @Test
+    @DisplayName("A failing task fails the batch after the rest have run")
+    void testFailure() {
+        List<Integer> items = new ArrayList<>(List.of(1, 2, 3, 4, 5));
+        AtomicInteger count = new AtomicInteger();
+
+        CompletableFuture<Void> result = BoundedAsync.forEach(items, 2, item -> {
+            count.incrementAndGet();
+            if (item == 2) {
+                return CompletableFuture.failedFuture(new IllegalStateException("boom"));
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+
+        assertThrows(CompletionException.class, result::join);
+        assertEquals(5, count.get());
+    }
+}
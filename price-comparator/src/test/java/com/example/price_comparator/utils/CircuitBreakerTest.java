@@ -0,0 +1,83 @@
+package com.example.price_comparator.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Circuit Breaker Tests")
+public class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong(0);
+
+    private CircuitBreaker breaker() {
+        // window 4, at least 4 calls, opens at 50% failures, 1s slow calls, 10s open, 2 probes
+        return new CircuitBreaker("test", 4, 4, 0.5, 1_000, 10_000, 2, clock::get);
+    }
+
+    @Test
+    @DisplayName("Breaker stays closed until the minimum number of calls is seen")
+    void testMinimumCalls() {
+        CircuitBreaker breaker = breaker();
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(1L, breaker.getTimesOpened());
+    }
+
+    @Test
+    @DisplayName("Slow successful calls count as failures")
+    void testSlowCallsOpenBreaker() {
+        CircuitBreaker breaker = breaker();
+        long slow = TimeUnit.SECONDS.toNanos(2);
+        breaker.onSuccess(1_000);
+        breaker.onSuccess(1_000);
+        breaker.onSuccess(slow);
+        breaker.onSuccess(slow);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Successful half-open probes close the breaker")
+    void testHalfOpenRecovery() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission(), "Only the configured number of probes may run");
+
+        breaker.onSuccess(1_000);
+        breaker.onSuccess(1_000);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("A failed half-open probe reopens the breaker")
+    void testHalfOpenFailureReopens() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertTrue(breaker.tryAcquirePermission());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2L, breaker.getTimesOpened());
+    }
+}
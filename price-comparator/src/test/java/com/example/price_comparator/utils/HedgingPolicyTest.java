@@ -0,0 +1,71 @@
+package com.example.price_comparator.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Hedging Policy Tests")
+public class HedgingPolicyTest {
+
+    private static long millis(long ms) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+
+    @Test
+    @DisplayName("Delay is the maximum until enough latencies have been observed")
+    void testConservativeDelayWhileWarmingUp() {
+        HedgingPolicy policy = new HedgingPolicy(true, 0.95, 100, 500, 15_000, 0.1);
+        for (int i = 0; i < 10; i++) {
+            policy.recordLatency(millis(2_000));
+        }
+        assertEquals(millis(15_000), policy.getHedgeDelayNanos());
+    }
+
+    @Test
+    @DisplayName("Delay tracks the configured percentile within its bounds")
+    void testPercentileDelay() {
+        HedgingPolicy policy = new HedgingPolicy(true, 0.9, 100, 500, 15_000, 0.1);
+        for (int i = 1; i <= 100; i++) {
+            policy.recordLatency(millis(i * 100L));
+        }
+        assertEquals(millis(9_000), policy.getHedgeDelayNanos());
+
+        for (int i = 0; i < 100; i++) {
+            policy.recordLatency(millis(50));
+        }
+        assertEquals(millis(500), policy.getHedgeDelayNanos(), "Delay is clamped to the minimum");
+    }
+
+    @Test
+    @DisplayName("Hedges are limited to the budget ratio of primary requests")
+    void testHedgeBudget() {
+        HedgingPolicy policy = new HedgingPolicy(true, 0.95, 100, 500, 15_000, 0.25);
+        int granted = 0;
+        for (int i = 0; i < 20; i++) {
+            policy.onRequest();
+            if (policy.tryAcquireHedge()) {
+                granted++;
+            }
+        }
+        assertEquals(5, granted);
+        assertEquals(5L, policy.getHedgesIssued());
+        assertEquals(15L, policy.getHedgesDenied());
+    }
+
+    @Test
+    @DisplayName("A hedge that was not sent goes back to the budget")
+    void testReleasedHedge() {
+        HedgingPolicy policy = new HedgingPolicy(true, 0.95, 100, 500, 15_000, 1.0);
+        policy.onRequest();
+        assertTrue(policy.tryAcquireHedge());
+        assertFalse(policy.tryAcquireHedge());
+        policy.releaseHedge();
+
+        assertTrue(policy.tryAcquireHedge(), "The released hedge can be used without another request");
+        assertEquals(1L, policy.getHedgesIssued());
+        assertEquals(2L, policy.getHedgesDenied());
+    }
+}
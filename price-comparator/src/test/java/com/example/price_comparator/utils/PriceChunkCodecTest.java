@@ -0,0 +1,80 @@
+package com.example.price_comparator.utils;
+
+import com.example.price_comparator.model.PriceSample;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Price Chunk Codec Tests")
+public class PriceChunkCodecTest {
+
+    private static List<PriceSample> roundTrip(List<PriceSample> samples) {
+        PriceChunkEncoder encoder = new PriceChunkEncoder();
+        for (PriceSample sample : samples) {
+            encoder.append(sample.getTimestamp(), sample.getPrice(), sample.isInStock());
+        }
+        assertEquals(samples.size(), encoder.getCount());
+        return PriceChunkDecoder.decode(encoder.toByteArray(), encoder.getCount());
+    }
+
+    @Test
+    @DisplayName("Irregular timestamps, cent and non-cent prices and stock changes survive a round trip")
+    void testRoundTrip() {
+        Random random = new Random(42);
+        List<PriceSample> samples = new ArrayList<>();
+        long timestamp = 1_700_000_000_000L;
+        double price = 199.99;
+        boolean inStock = true;
+        for (int i = 0; i < 500; i++) {
+            timestamp += 1000L * (i % 7 == 0 ? random.nextInt(1_000_000) : 3600);
+            switch (i % 5) {
+                case 0 -> price = Math.round(price * 100 + random.nextInt(2001) - 1000) / 100.0;
+                case 1 -> price = price * (1 + random.nextGaussian() / 100);
+                case 2 -> price = Math.round(price * 100) / 100.0;
+                default -> { }
+            }
+            if (random.nextInt(10) == 0) {
+                inStock = !inStock;
+            }
+            samples.add(new PriceSample(timestamp, price, inStock));
+        }
+
+        List<PriceSample> decoded = roundTrip(samples);
+
+        assertEquals(samples.size(), decoded.size());
+        for (int i = 0; i < samples.size(); i++) {
+            assertEquals(samples.get(i).getTimestamp(), decoded.get(i).getTimestamp(), "timestamp " + i);
+            assertEquals(Double.doubleToLongBits(samples.get(i).getPrice()),
+                    Double.doubleToLongBits(decoded.get(i).getPrice()), "price " + i);
+            assertEquals(samples.get(i).isInStock(), decoded.get(i).isInStock(), "stock " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Hourly samples with a stable price cost a few bits each")
+    void testStableSeriesIsTiny() {
+        PriceChunkEncoder encoder = new PriceChunkEncoder();
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < 120; i++) {
+            encoder.append(timestamp + i * 3_600_000L, 49.99 + i / 30, true);
+        }
+
+        // 129 header bits, then at most a handful of bits per sample
+        assertTrue(encoder.toByteArray().length < 80, "encoded size was " + encoder.toByteArray().length);
+    }
+
+    @Test
+    @DisplayName("Whole-cent detection handles binary rounding")
+    void testWholeCents() {
+        assertTrue(PriceChunkEncoder.isWholeCents(19.99));
+        assertTrue(PriceChunkEncoder.isWholeCents(0.3));
+        assertFalse(PriceChunkEncoder.isWholeCents(0.1 + 0.2));
+        assertFalse(PriceChunkEncoder.isWholeCents(19.995));
+        assertFalse(PriceChunkEncoder.isWholeCents(Double.NaN));
+    }
+}
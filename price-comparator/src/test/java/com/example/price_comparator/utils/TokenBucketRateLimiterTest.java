@@ -0,0 +1,87 @@
+package com.example.price_comparator.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Token Bucket Rate Limiter Tests")
+public class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(0);
+
+    private TokenBucketRateLimiter limiter(double permitsPerSecond, int burst) {
+        return new TokenBucketRateLimiter("test", permitsPerSecond, burst, clock::get);
+    }
+
+    @Test
+    @DisplayName("Burst capacity is available immediately")
+    void testBurstIsFree() {
+        TokenBucketRateLimiter limiter = limiter(1.0, 3);
+
+        assertEquals(0L, limiter.reserve());
+        assertEquals(0L, limiter.reserve());
+        assertEquals(0L, limiter.reserve());
+        assertEquals(0L, limiter.getThrottledPermits());
+    }
+
+    @Test
+    @DisplayName("Callers beyond the burst queue up one interval apart")
+    void testReservationsQueueBehindEachOther() {
+        TokenBucketRateLimiter limiter = limiter(2.0, 1);
+
+        assertEquals(0L, limiter.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), limiter.reserve());
+        assertEquals(2L, limiter.getThrottledPermits());
+        assertEquals(1500L, limiter.getTotalWaitMillis());
+    }
+
+    @Test
+    @DisplayName("Tokens refill with elapsed time up to the burst size")
+    void testRefillIsCappedAtBurst() {
+        TokenBucketRateLimiter limiter = limiter(1.0, 2);
+        limiter.reserve();
+        limiter.reserve();
+        assertFalse(limiter.tryAcquire());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertEquals(2.0, limiter.getAvailablePermits(), 0.0001);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Outstanding debt is paid before new permits accumulate")
+    void testDebtDelaysRefill() {
+        TokenBucketRateLimiter limiter = limiter(1.0, 1);
+        limiter.reserve();
+        limiter.reserve(); // borrowed, usable at t=1s
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1500));
+
+        // The borrowed permit consumed the first second; only half a permit has accrued since.
+        assertEquals(0.5, limiter.getAvailablePermits(), 0.0001);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.reserve());
+    }
+
+    @Test
+    @DisplayName("Async acquire completes immediately when a permit is available")
+    void testAcquireAsyncWithoutWait() {
+        TokenBucketRateLimiter limiter = limiter(1.0, 1);
+        assertTrue(limiter.acquireAsync().isDone());
+        assertFalse(limiter.acquireAsync().isDone());
+    }
+
+    @Test
+    @DisplayName("Invalid configuration is rejected")
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> limiter(0.0, 1));
+        assertThrows(IllegalArgumentException.class, () -> limiter(1.0, 0));
+    }
+}
@@ -0,0 +1,143 @@
+package com.serpapi;
+
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SerpApi Client Tests")
+public class SerpApiClientTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile int status = 200;
+    private volatile String body = "{\"shopping_results\": [{\"title\": \"Galaxy S24\", \"extracted_price\": 2899.0}]}";
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/search.json", exchange -> {
+            queries.add(exchange.getRequestURI().getRawQuery());
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.createContext("/slow/search.json", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        release.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private SerpApiClient client(String path, String apiKey) {
+        return new SerpApiClient("http://127.0.0.1:" + server.getAddress().getPort() + path, apiKey, 1_000, 300, 4);
+    }
+
+    private static Throwable failure(SerpApiClient client) {
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> client.search(Map.of("engine", "google_shopping", "q", "galaxy s24")).join());
+        return e.getCause();
+    }
+
+    @Test
+    @DisplayName("Search parameters and the API key are sent and the JSON body is mapped")
+    void testSearch() {
+        try (SerpApiClient client = client("/", "test-key")) {
+            assertTrue(client.hasApiKey());
+            JsonObject result = client.search(Map.of("engine", "google_shopping", "q", "galaxy s24")).join();
+
+            JsonObject first = result.getAsJsonArray("shopping_results").get(0).getAsJsonObject();
+            assertEquals("Galaxy S24", first.get("title").getAsString());
+            assertEquals(2899.0, first.get("extracted_price").getAsDouble());
+            String query = queries.get(0);
+            assertTrue(query.contains("engine=google_shopping"), query);
+            assertTrue(query.contains("q=galaxy+s24") || query.contains("q=galaxy%20s24"), query);
+            assertTrue(query.contains("api_key=test-key"), query);
+
+            client.search(Map.of("q", "x", "api_key", "own-key")).join();
+            assertTrue(queries.get(1).contains("api_key=own-key") && !queries.get(1).contains("test-key"),
+                    "A caller's api_key is not overridden");
+        }
+        try (SerpApiClient keyless = client("", " ")) {
+            assertFalse(keyless.hasApiKey());
+            keyless.search(Map.of("q", "x")).join();
+            assertFalse(queries.get(2).contains("api_key"));
+        }
+    }
+
+    @Test
+    @DisplayName("Error statuses and malformed bodies fail with SerpApiSearchException")
+    void testErrors() {
+        try (SerpApiClient client = client("", "test-key")) {
+            status = 429;
+            body = "{\"error\": \"Rate limited\"}";
+            Throwable limited = failure(client);
+            assertInstanceOf(SerpApiSearchException.class, limited);
+            assertTrue(limited.getMessage().contains("429"), limited.getMessage());
+
+            status = 200;
+            body = "{\"shopping_results\": [";
+            assertInstanceOf(SerpApiSearchException.class, failure(client));
+        }
+    }
+
+    @Test
+    @DisplayName("A response slower than the response timeout fails without waiting for it")
+    void testResponseTimeout() {
+        try (SerpApiClient client = client("/slow", "test-key")) {
+            long start = System.nanoTime();
+            Throwable timedOut = failure(client);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertInstanceOf(SerpApiSearchException.class, timedOut);
+            assertTrue(elapsedMillis < 3_000, "Timed out after " + elapsedMillis + " ms");
+        }
+    }
+
+    @Test
+    @DisplayName("An unreachable server fails with SerpApiSearchException")
+    void testConnectionRefused() {
+        int port = server.getAddress().getPort();
+        server.stop(0);
+        try (SerpApiClient client = new SerpApiClient("http://127.0.0.1:" + port, "test-key", 1_000, 300, 4)) {
+            assertInstanceOf(SerpApiSearchException.class, failure(client));
+        }
+    }
+}
@@ -1,52 +1,22 @@
 import { ShoppingCart, ExternalLink } from 'lucide-react';
-import { Retailer } from '../types';
-import { useState, useEffect } from 'react';
-import { useParams } from 'react-router-dom';
-import { Client } from '@stomp/stompjs';
-import SockJS from 'sockjs-client';
+import { ComparisonProgress, Retailer } from '../types';
 
 interface PriceComparisonTableProps {
   retailers: Retailer[];
   currency?: string;
+  /** Progress of the running comparison, or null when none is running */
+  comparison?: ComparisonProgress | null;
 }
 
-const PriceComparisonTable = ({ retailers, currency }: PriceComparisonTableProps) => {
-  const { id } = useParams<{ id: string }>();
-  const [isComparisonLoading, setIsComparisonLoading] = useState(true);
-
-  useEffect(() => {
-    if (retailers && retailers.length > 1) {
-      setIsComparisonLoading(false);
-      return;
-    }
-
-    const client = new Client({
-      webSocketFactory: () => new SockJS('/ws'),      onConnect: () => {
-        client.subscribe(`/topic/products/${id}/progress`, message => {
-          const progress = Number(message.body);
-          if (progress === 100) {
-            setTimeout(() => setIsComparisonLoading(false), 1000);
-          }
-        });
-
-        client.subscribe(`/topic/products/${id}`, () => {
-          setIsComparisonLoading(false);
-        });
-      },
-    });
-
-    client.activate();
-
-    return () => {
-      client.deactivate();
-    };
-  }, [id, retailers]);
-
-  if (isComparisonLoading) {
+const PriceComparisonTable = ({ retailers, currency, comparison }: PriceComparisonTableProps) => {
+  if (comparison) {
     return (
       <div className="bg-white dark:bg-gray-800 rounded-xl shadow-sm p-5 text-center flex flex-col items-center justify-center">
         <h3 className="text-xl font-semibold text-secondary dark:text-white mb-4">Finding Best Prices...</h3>
         <div className="w-12 h-12 border-4 border-primary border-t-transparent rounded-full animate-spin"></div>
+        <p className="mt-4 text-sm text-gray-500 dark:text-gray-400">
+          {comparison.message} ({comparison.percent}%)
+        </p>
       </div>
     );
   }
@@ -26,7 +26,7 @@ const ProductCard = ({ product }: ProductCardProps) => {
       <div className="relative overflow-hidden">
         <Link to={`/product/${product.id}`}>
           <img
-            src={product.imageUrl}
+            src={product.imageUrl ? `/api/v1/images?url=${encodeURIComponent(product.imageUrl)}&size=320` : product.imageUrl}
             alt={product.name}
             className="w-full h-48 object-contain p-4 transition-transform group-hover:scale-105"
           />
@@ -5,11 +5,9 @@ import {
   ShoppingCart, X, ExternalLink
 } from 'lucide-react';
 import PriceComparisonTable from '../components/PriceComparisonTable';
-import { Product } from '../types';
+import { ComparisonProgress, Product } from '../types';
 import BookmarkButton from '../components/BookmarkButton';
 import { useAuth } from '../context/AuthContext';
-import { Client } from '@stomp/stompjs';
-import SockJS from 'sockjs-client';
 
 const ProductPage = () => {
   const { id } = useParams<{ id: string }>();
@@ -23,6 +21,7 @@ const ProductPage = () => {
   const [selectedImageIndex, setSelectedImageIndex] = useState(0);
   const [showImageModal, setShowImageModal] = useState(false);
   const [isImageClicked, setIsImageClicked] = useState(false);
+  const [comparison, setComparison] = useState<ComparisonProgress | null>(null);
 
   // Get all available images for the product
   const getAllImages = () => {
@@ -48,7 +47,7 @@ const ProductPage = () => {
     setSelectedImageIndex(0);
   }, [product?.id]);
 
-  // Main effect for fetching product and WebSocket
+  // Main effect for fetching the product and following its comparison
   useEffect(() => {
     if (!id) {
       setLoading(false);
@@ -57,40 +56,8 @@ const ProductPage = () => {
     }
 
     let isMounted = true;
-    const client = new Client({
-      webSocketFactory: () => new SockJS('/ws'),
-      onConnect: () => {
-        client.subscribe(`/topic/products/${id}`, message => {
-          const updatedProduct = JSON.parse(message.body);
-          if (isMounted) {
-            setProduct(prevProduct => {
-              if (!prevProduct) return updatedProduct;
-
-              const newProductData = { ...prevProduct };
-
-              // Deep merge retailers to avoid duplicates
-              if (updatedProduct.retailers) {
-                const newRetailers = updatedProduct.retailers || [];
-                const existingRetailers = prevProduct.retailers || [];
-                const allRetailers = [...existingRetailers, ...newRetailers];
-                const uniqueRetailers = allRetailers.filter((r, i, a) => a.findIndex(t => t.retailerId === r.retailerId) === i);
-                newProductData.retailers = uniqueRetailers;
-              }
-
-              // Merge other properties, avoiding null overwrites
-              Object.keys(updatedProduct).forEach(key => {
-                const typedKey = key as keyof Product;
-                if (updatedProduct[typedKey] !== null && updatedProduct[typedKey] !== undefined) {
-                  (newProductData as Record<string, unknown>)[key] = updatedProduct[typedKey];
-                }
-              });
-              
-              return newProductData;
-            });
-          }
-        });
-      },
-    });
+    let comparisonEvents: EventSource | null = null;
+    setComparison(null);
 
     const fetchProduct = async () => {
       try {
@@ -109,9 +76,13 @@ const ProductPage = () => {
             
             // Start comparison if product lacks detailed info
             if (!productData.description || !productData.retailers || productData.retailers.length <= 1) {
+              setComparison({ percent: 0, message: 'Starting comparison...' });
               const compareResponse = await fetch(`/api/v1/products/${id}/compare`, { method: 'POST' });
-              const taskId = await compareResponse.text();
-              pollForComparison(taskId);
+              if (!compareResponse.ok) {
+                setComparison(null);
+              } else {
+                watchComparison(await compareResponse.text());
+              }
             }
           }
         }
@@ -126,6 +97,41 @@ const ProductPage = () => {
       }
     };
 
+    const fetchComparisonResult = async (taskId: string) => {
+      const response = await fetch(`/api/v1/products/comparison/${taskId}`);
+      if (!isMounted) return;
+      if (response.status === 200) {
+        setProduct(await response.json());
+      }
+      setComparison(null);
+    };
+
+    // Server-Sent Events for the comparison task; falls back to polling if the stream cannot be opened
+    const watchComparison = (taskId: string) => {
+      if (!isMounted) return;
+      const events = new EventSource(`/api/v1/products/comparison/${taskId}/events`);
+      comparisonEvents = events;
+      let finished = false;
+      events.addEventListener('progress', event => {
+        if (isMounted) {
+          setComparison(JSON.parse((event as MessageEvent).data) as ComparisonProgress);
+        }
+      });
+      events.addEventListener('done', () => {
+        finished = true;
+        events.close();
+        fetchComparisonResult(taskId).catch(err => {
+          console.error("Comparison result error:", err);
+          if (isMounted) setComparison(null);
+        });
+      });
+      events.onerror = () => {
+        if (!finished && events.readyState === EventSource.CLOSED) {
+          pollForComparison(taskId);
+        }
+      };
+    };
+
     const pollForComparison = (taskId: string) => {
       const interval = setInterval(async () => {
         try {
@@ -134,22 +140,23 @@ const ProductPage = () => {
             const updatedProduct: Product = await response.json();
             if (isMounted) {
               setProduct(updatedProduct);
-              clearInterval(interval);
+              setComparison(null);
             }
+            clearInterval(interval);
           }
         } catch (err) {
           console.error("Polling error:", err);
           clearInterval(interval);
+          if (isMounted) setComparison(null);
         }
       }, 2000);
     };
 
     fetchProduct();
-    client.activate();
 
     return () => {
       isMounted = false;
-      client.deactivate();
+      comparisonEvents?.close();
     };
   }, [id]);
 
@@ -431,7 +438,7 @@ const ProductPage = () => {
           {hasRetailers && (
             <div className="mt-10">
               <h2 className="text-2xl font-bold mb-6">Price Comparison</h2>
-              <PriceComparisonTable retailers={product.retailers} />
+              <PriceComparisonTable retailers={product.retailers} comparison={comparison} />
             </div>
           )}
         </div>
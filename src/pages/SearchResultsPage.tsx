@@ -85,7 +85,7 @@ const SearchResultsPage = () => {
       setProductsLoading(true);
       setProductsError(null);
       try {
-        const url = query ? `/api/v1/products/search?q=${encodeURIComponent(query)}` : '/api/v1/products';
+        const url = query ? `/api/v1/products/search?q=${encodeURIComponent(query)}&view=card` : '/api/v1/products?view=card';
         const response = await fetch(url);
         if (!response.ok) {
           throw new Error('Failed to fetch products');
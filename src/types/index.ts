@@ -35,6 +35,12 @@ export interface Product {
   bookmarked?: boolean;
 }
 
+/** Payload of a comparison "progress" Server-Sent Event. */
+export interface ComparisonProgress {
+  percent: number;
+  message: string;
+}
+
 export interface Alert {
   productId: string;
   productName: string;